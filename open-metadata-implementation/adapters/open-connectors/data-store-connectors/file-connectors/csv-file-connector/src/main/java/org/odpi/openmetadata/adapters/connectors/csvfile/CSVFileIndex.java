@@ -0,0 +1,408 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.csvfile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * CSVFileIndex holds the byte offset of the start of each line in a CSV file so that any line can be read
+ * without scanning the lines before it.  The file is read through memory-mapped segments of a FileChannel,
+ * so files larger than the heap can be used.
+ * <p>
+ *     The index is built the first time the file is read and saved in a sidecar file next to the CSV file.
+ *     The sidecar file records the length and last modified time of the CSV file it describes, and it is only
+ *     reused while they match, it was written after the CSV file was last modified and every line it records
+ *     ends with a newline in the file.  Otherwise, or if the sidecar file can not be written, the index is
+ *     built again from the file.
+ * </p>
+ * <p>
+ *     Lines end with a newline character, optionally preceded by a carriage return that is not returned
+ *     as part of the line.  Blank lines at the end of the file are not counted.  The file's
+ *     character set must encode the newline character as a single byte, as UTF-8 and the ISO-8859 character
+ *     sets do.
+ * </p>
+ */
+class CSVFileIndex
+{
+    static final String indexFileSuffix = ".index";
+
+    private static final long indexFileMagic   = 0x4353564944583031L;
+    private static final int  indexFileVersion = 1;
+    private static final int  segmentShift     = 30;
+    private static final long segmentMask      = (1L << segmentShift) - 1;
+
+    private static final Logger log = LoggerFactory.getLogger(CSVFileIndex.class);
+
+    private final File                    file;
+    private final File                    indexFile;
+    private final Charset                 charset;
+
+    /*
+     * These values describe the file as it was when the index was built.  lineOffsets[i] is the offset of the
+     * first byte of line i, and lineOffsets[lineCount] is one past the newline of the last line.
+     */
+    private FileChannel                   fileChannel  = null;
+    private List<MappedByteBuffer>        segments     = new ArrayList<>();
+    private long                          fileLength   = -1;
+    private long                          lastModified = -1;
+    private long[]                        lineOffsets  = new long[] { 0 };
+    private int                           lineCount    = 0;
+
+
+    /**
+     * Constructor
+     *
+     * @param file CSV file to index
+     * @param charset character set of the file
+     */
+    CSVFileIndex(File     file,
+                 Charset  charset)
+    {
+        this.file = file;
+        this.indexFile = new File(file.getPath() + indexFileSuffix);
+        this.charset = charset;
+    }
+
+
+    /**
+     * Make sure the index describes the current content of the file.  This is cheap if the file has not changed
+     * since the last call.
+     *
+     * @throws IOException unable to read the file
+     */
+    synchronized void refresh() throws IOException
+    {
+        long currentLength       = file.length();
+        long currentLastModified = file.lastModified();
+
+        if ((fileChannel != null) && (currentLength == fileLength) && (currentLastModified == lastModified))
+        {
+            return;
+        }
+
+        this.close();
+
+        try
+        {
+            fileChannel = new RandomAccessFile(file, "r").getChannel();
+            fileLength = fileChannel.size();
+            lastModified = currentLastModified;
+
+            for (long segmentStart = 0; segmentStart < fileLength; segmentStart = segmentStart + (1L << segmentShift))
+            {
+                long segmentLength = Math.min(1L << segmentShift, fileLength - segmentStart);
+
+                segments.add(fileChannel.map(FileChannel.MapMode.READ_ONLY, segmentStart, segmentLength));
+            }
+        }
+        catch (IOException error)
+        {
+            this.close();
+            throw error;
+        }
+
+        if (! this.loadIndexFile())
+        {
+            this.buildIndex();
+            this.saveIndexFile();
+        }
+    }
+
+
+    /**
+     * Return the number of lines in the file.
+     *
+     * @return count
+     */
+    synchronized int getLineCount()
+    {
+        return lineCount;
+    }
+
+
+    /**
+     * Return the requested line without its line ending.
+     *
+     * @param lineNumber line number - the first line is line 0
+     * @return line or null if the file does not have this line
+     */
+    synchronized String readLine(int   lineNumber)
+    {
+        if ((lineNumber < 0) || (lineNumber >= lineCount))
+        {
+            return null;
+        }
+
+        long   lineStart = lineOffsets[lineNumber];
+        int    length    = (int)(lineOffsets[lineNumber + 1] - 1 - lineStart);
+
+        if ((length > 0) && (this.getByte(lineStart + length - 1) == '\r'))
+        {
+            length--;
+        }
+
+        byte[] line = new byte[length];
+
+        for (int i = 0; i < length; i++)
+        {
+            line[i] = this.getByte(lineStart + i);
+        }
+
+        return new String(line, charset);
+    }
+
+
+    /**
+     * Release the file.  The index is rebuilt or reloaded on the next refresh.
+     */
+    synchronized void close()
+    {
+        segments = new ArrayList<>();
+        lineOffsets = new long[] { 0 };
+        lineCount = 0;
+        fileLength = -1;
+
+        if (fileChannel != null)
+        {
+            try
+            {
+                fileChannel.close();
+            }
+            catch (IOException error)
+            {
+                log.debug("Ignoring error closing " + file.getPath() + ": " + error.getMessage());
+            }
+
+            fileChannel = null;
+        }
+    }
+
+
+    /**
+     * Return the byte at the requested offset in the file.
+     *
+     * @param offset offset from the start of the file
+     * @return byte
+     */
+    private byte getByte(long   offset)
+    {
+        return segments.get((int)(offset >>> segmentShift)).get((int)(offset & segmentMask));
+    }
+
+
+    /**
+     * Scan the file for the start of each line.
+     */
+    private void buildIndex()
+    {
+        long[] offsets     = new long[1024];
+        int    offsetCount = 1;
+
+        for (long offset = 0; offset < fileLength; offset++)
+        {
+            if (this.getByte(offset) == '\n')
+            {
+                if (offsetCount == offsets.length)
+                {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+
+                offsets[offsetCount] = offset + 1;
+                offsetCount++;
+            }
+        }
+
+        /*
+         * The last line may not end with a newline.  The end offset is set as if it did.
+         */
+        if ((fileLength > 0) && (offsets[offsetCount - 1] != fileLength))
+        {
+            if (offsetCount == offsets.length)
+            {
+                offsets = Arrays.copyOf(offsets, offsets.length + 1);
+            }
+
+            offsets[offsetCount] = fileLength + 1;
+            offsetCount++;
+        }
+
+        lineOffsets = offsets;
+        lineCount = offsetCount - 1;
+
+        while ((lineCount > 0) && (this.isBlankLine(lineCount - 1)))
+        {
+            lineCount--;
+        }
+    }
+
+
+    /**
+     * Return whether a line only contains white space.
+     *
+     * @param lineNumber line number
+     * @return boolean
+     */
+    private boolean isBlankLine(int   lineNumber)
+    {
+        for (long offset = lineOffsets[lineNumber]; offset < lineOffsets[lineNumber + 1] - 1; offset++)
+        {
+            if (! Character.isWhitespace((char)this.getByte(offset)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Load the index from the sidecar file if it describes the current content of the file.
+     *
+     * @return true if the index was loaded
+     */
+    private boolean loadIndexFile()
+    {
+        if ((! indexFile.isFile()) || (indexFile.lastModified() < lastModified))
+        {
+            return false;
+        }
+
+        try (DataInputStream indexStream = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile))))
+        {
+            if ((indexStream.readLong() != indexFileMagic) ||
+                (indexStream.readInt() != indexFileVersion) ||
+                (indexStream.readLong() != fileLength) ||
+                (indexStream.readLong() != lastModified))
+            {
+                return false;
+            }
+
+            int    savedLineCount = indexStream.readInt();
+            int    offsetCount    = indexStream.readInt();
+
+            /*
+             * Every line has at least its newline so there can not be more offsets than bytes in the file
+             * (plus the start of the first line and the end of an unterminated last line).
+             */
+            if ((offsetCount < 1) || (offsetCount > fileLength + 2) ||
+                (savedLineCount < 0) || (savedLineCount >= offsetCount))
+            {
+                return false;
+            }
+
+            long[] offsets = new long[offsetCount];
+
+            for (int i = 0; i < offsetCount; i++)
+            {
+                offsets[i] = indexStream.readLong();
+            }
+
+            if (! this.isValidIndex(offsets))
+            {
+                log.debug("Ignoring index file " + indexFile.getPath() + " that does not match " + file.getPath());
+
+                return false;
+            }
+
+            lineOffsets = offsets;
+            lineCount = savedLineCount;
+
+            return true;
+        }
+        catch (IOException error)
+        {
+            log.debug("Ignoring unusable index file " + indexFile.getPath() + ": " + error.getMessage());
+
+            return false;
+        }
+    }
+
+
+    /**
+     * Return whether the line offsets loaded from the sidecar file match the file.  The first line must start
+     * at the beginning of the file and each following line must start after a newline.  Only the final offset
+     * may be past the end of the file, and then only if the file does not end with a newline.
+     *
+     * @param offsets line offsets from the sidecar file
+     * @return boolean
+     */
+    private boolean isValidIndex(long[]   offsets)
+    {
+        if (offsets[0] != 0)
+        {
+            return false;
+        }
+
+        for (int i = 1; i < offsets.length; i++)
+        {
+            long offset = offsets[i];
+
+            if ((offset <= offsets[i - 1]) || (offset > fileLength + 1))
+            {
+                return false;
+            }
+
+            if (offset == fileLength + 1)
+            {
+                if ((i != offsets.length - 1) || (fileLength == 0) || (this.getByte(fileLength - 1) == '\n'))
+                {
+                    return false;
+                }
+            }
+            else if (this.getByte(offset - 1) != '\n')
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Save the index in the sidecar file.  The index is still used if it can not be saved.
+     */
+    private void saveIndexFile()
+    {
+        try (DataOutputStream indexStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile))))
+        {
+            int offsetCount = lineCount + 1;
+
+            indexStream.writeLong(indexFileMagic);
+            indexStream.writeInt(indexFileVersion);
+            indexStream.writeLong(fileLength);
+            indexStream.writeLong(lastModified);
+            indexStream.writeInt(lineCount);
+            indexStream.writeInt(offsetCount);
+
+            for (int i = 0; i < offsetCount; i++)
+            {
+                indexStream.writeLong(lineOffsets[i]);
+            }
+        }
+        catch (IOException error)
+        {
+            log.debug("Unable to save index file " + indexFile.getPath() + ": " + error.getMessage());
+        }
+    }
+}
@@ -8,6 +8,7 @@ import org.odpi.openmetadata.adapters.connectors.basicfile.ffdc.exception.FileEx
 import org.odpi.openmetadata.adapters.connectors.csvfile.ffdc.exception.FileReadException;
 
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -42,8 +43,8 @@ public interface CSVFileStore extends BasicFileStore
 
 
     /**
-     * Return the number of records in the file.  This is achieved by scanning the file and counting the records -
-     * not recommended for very large files.
+     * Return the number of records in the file.  The file is scanned the first time it is read, and after
+     * it changes, to build an index of its records.
      *
      * @return count
      * @throws FileException there is a problem accessing the file
@@ -74,4 +75,30 @@ public interface CSVFileStore extends BasicFileStore
      * @throws FileReadException unable to find, open or read the file, or the file does not include the requested record.
      */
     List<String>      readRecord(int  rowNumber) throws FileException, FileReadException;
+
+
+    /**
+     * Return a range of data records.  The first record is record 0.  Fewer records are returned if the
+     * file ends before the end of the range.
+     *
+     * @param startRecord number of the first record to return
+     * @param recordCount maximum number of records to return
+     * @return list of records, each of which is a list of column values
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException unable to find, open or read the file.
+     */
+    List<List<String>> readRecords(int  startRecord,
+                                   int  recordCount) throws FileException, FileReadException;
+
+
+    /**
+     * Return an iterator that steps through the data records in the file, starting with record 0.
+     * The records are read in batches as the iterator moves through the file.  An error reading the file
+     * part way through is reported as an OCFRuntimeException from the iterator.
+     *
+     * @return iterator over the records, each of which is a list of column values
+     * @throws FileException there is a problem accessing the file
+     * @throws FileReadException unable to find, open or read the file.
+     */
+    Iterator<List<String>> getRecordIterator() throws FileException, FileReadException;
 }
@@ -7,6 +7,7 @@ import org.odpi.openmetadata.adapters.connectors.basicfile.BasicFileStoreConnect
 import org.odpi.openmetadata.adapters.connectors.basicfile.ffdc.exception.FileException;
 import org.odpi.openmetadata.adapters.connectors.csvfile.ffdc.CSVFileConnectorErrorCode;
 import org.odpi.openmetadata.adapters.connectors.csvfile.ffdc.exception.FileReadException;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.OCFRuntimeException;
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.slf4j.Logger;
@@ -14,11 +15,17 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.util.*;
 
 
 /**
  * CSVFileStoreConnector works with structured files to retrieve simple tables of data.
+ * <p>
+ *     The records are located through a CSVFileIndex of the offset of each line in the file, so reading a
+ *     record does not depend on how far into the file it is.  The index is built the first time the file is
+ *     read and rebuilt if the file changes.
+ * </p>
  */
 public class CSVFileStoreConnector extends BasicFileStoreConnector implements CSVFileStore
 {
@@ -28,6 +35,12 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
     private List<String>   columnNames       = null;
     private char           delimiterChar     = ',';
     private char           quoteChar         = '"';
+    private CSVFileIndex   fileIndex         = null;
+
+    /*
+     * Number of records read at a time by the record iterator.
+     */
+    private static final int iteratorBatchSize = 1000;
 
     /*
      * Variables used for logging and debug.
@@ -127,8 +140,8 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
 
 
     /**
-     * Return the number of records in the file.  This is achieved by scanning the file and counting the records -
-     * not recommended for very large files.
+     * Return the number of records in the file.  The file is scanned the first time it is read, and after
+     * it changes, to build an index of its records.
      *
      * @return count
      * @throws FileException problem accessing the file
@@ -138,40 +151,11 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
     {
         final String  methodName = "getRecordCount";
 
-        long    rowCount = 0;
-
-        File fileStore = getFile(methodName);
-
-        try
-        {
-            Scanner scanner  = new Scanner(fileStore);
-            while (scanner.hasNext())
-            {
-                scanner.nextLine();
-                rowCount ++;
-            }
-            scanner.close();
+        long rowCount = getFileIndex(methodName).getLineCount();
 
-            if ((rowCount > 0) && (columnNames == null))
-            {
-                rowCount = rowCount - 1;
-            }
-        }
-        catch (IOException  error)
+        if ((rowCount > 0) && (columnNames == null))
         {
-            CSVFileConnectorErrorCode errorCode = CSVFileConnectorErrorCode.UNEXPECTED_IO_EXCEPTION;
-            String                    errorMessage = errorCode.getErrorMessageId()
-                                                   + errorCode.getFormattedErrorMessage(fileStoreName,
-                                                                                        error.getMessage());
-
-            throw new FileReadException(errorCode.getHTTPErrorCode(),
-                                        this.getClass().getName(),
-                                        methodName,
-                                        errorMessage,
-                                        errorCode.getSystemAction(),
-                                        errorCode.getUserAction(),
-                                        error,
-                                        fileStoreName);
+            rowCount = rowCount - 1;
         }
 
         return rowCount;
@@ -229,6 +213,54 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
     }
 
 
+    /**
+     * Return a range of data records.  The first record is record 0.  Fewer records are returned if the
+     * file ends before the end of the range.
+     *
+     * @param startRecord number of the first record to return
+     * @param recordCount maximum number of records to return
+     * @return list of records, each of which is a list of column values
+     * @throws FileException problem accessing the file
+     * @throws FileReadException unable to find, open or read the file.
+     */
+    public List<List<String>> readRecords(int  startRecord,
+                                          int  recordCount) throws FileException, FileReadException
+    {
+        final String  methodName = "readRecords";
+
+        CSVFileIndex       index     = getFileIndex(methodName);
+        int                firstRow  = (columnNames == null) ? startRecord + 1 : startRecord;
+        int                lastRow   = (int)Math.min((long)firstRow + Math.max(recordCount, 0), index.getLineCount());
+        List<List<String>> records   = new ArrayList<>();
+
+        for (int row = Math.max(firstRow, 0); row < lastRow; row++)
+        {
+            records.add(parseRecord(index.readLine(row)));
+        }
+
+        return records;
+    }
+
+
+    /**
+     * Return an iterator that steps through the data records in the file, starting with record 0.
+     * The records are read in batches as the iterator moves through the file.  An error reading the file
+     * part way through is reported as an OCFRuntimeException from the iterator.
+     *
+     * @return iterator over the records, each of which is a list of column values
+     * @throws FileException problem accessing the file
+     * @throws FileReadException unable to find, open or read the file.
+     */
+    public Iterator<List<String>> getRecordIterator() throws FileException, FileReadException
+    {
+        final String  methodName = "getRecordIterator";
+
+        getFileIndex(methodName);
+
+        return new RecordIterator();
+    }
+
+
     /**
      * Return the requested row in the file.  The first record is record 0.
      *
@@ -241,28 +273,10 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
     private List<String>      readRow(int     recordLocation,
                                       String  methodName) throws FileException, FileReadException
     {
+        String line = getFileIndex(methodName).readLine(recordLocation);
 
-        File fileStore = super.getFile(methodName);
-
-        try
+        if (line == null)
         {
-            Scanner scanner        = new Scanner(fileStore);
-
-            int rowCounter = 0;
-            while (scanner.hasNext())
-            {
-                if (rowCounter == recordLocation)
-                {
-                    return parseRecord(scanner.nextLine());
-                }
-                else
-                {
-                    scanner.nextLine();
-                }
-                rowCounter ++;
-            }
-            scanner.close();
-
             CSVFileConnectorErrorCode errorCode = CSVFileConnectorErrorCode.FILE_TOO_SHORT;
             String                    errorMessage = errorCode.getErrorMessageId()
                                                    + errorCode.getFormattedErrorMessage(fileStoreName,
@@ -275,7 +289,32 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
                                         errorCode.getSystemAction(),
                                         errorCode.getUserAction(),
                                         fileStoreName);
+        }
+
+        return parseRecord(line);
+    }
 
+
+    /**
+     * Return the index of the file, building it if this is the first read or the file has changed.
+     *
+     * @param methodName name of calling method
+     * @return index of the lines in the file
+     * @throws FileException problem accessing the file
+     * @throws FileReadException unable to read the file
+     */
+    private synchronized CSVFileIndex getFileIndex(String  methodName) throws FileException, FileReadException
+    {
+        File fileStore = super.getFile(methodName);
+
+        if (fileIndex == null)
+        {
+            fileIndex = new CSVFileIndex(fileStore, Charset.defaultCharset());
+        }
+
+        try
+        {
+            fileIndex.refresh();
         }
         catch (IOException  error)
         {
@@ -293,6 +332,8 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
                                         error,
                                         fileStoreName);
         }
+
+        return fileIndex;
     }
 
 
@@ -394,6 +435,15 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
      */
     public void disconnect()
     {
+        synchronized (this)
+        {
+            if (fileIndex != null)
+            {
+                fileIndex.close();
+                fileIndex = null;
+            }
+        }
+
         try
         {
             super.disconnect();
@@ -405,4 +455,68 @@ public class CSVFileStoreConnector extends BasicFileStoreConnector implements CS
 
         log.debug("Closing Structured File Store");
     }
+
+
+    /**
+     * RecordIterator steps through the data records, reading them from the file in batches.
+     */
+    private class RecordIterator implements Iterator<List<String>>
+    {
+        private List<List<String>> batch          = new ArrayList<>();
+        private int                batchPosition  = 0;
+        private int                nextRecord     = 0;
+        private boolean            endOfFile      = false;
+
+
+        /**
+         * Return whether there is another record.  The next batch is read if the current batch is used up.
+         *
+         * @return boolean
+         */
+        @Override
+        public boolean hasNext()
+        {
+            final String  methodName = "hasNext";
+
+            if ((batchPosition == batch.size()) && (! endOfFile))
+            {
+                try
+                {
+                    batch = readRecords(nextRecord, iteratorBatchSize);
+                    batchPosition = 0;
+                    nextRecord = nextRecord + batch.size();
+                    endOfFile = (batch.size() < iteratorBatchSize);
+                }
+                catch (FileException | FileReadException error)
+                {
+                    throw new OCFRuntimeException(error.getReportedHTTPCode(),
+                                                  CSVFileStoreConnector.class.getName(),
+                                                  methodName,
+                                                  error.getErrorMessage(),
+                                                  error.getReportedSystemAction(),
+                                                  error.getReportedUserAction(),
+                                                  error);
+                }
+            }
+
+            return batchPosition < batch.size();
+        }
+
+
+        /**
+         * Return the next record.
+         *
+         * @return list of column values
+         */
+        @Override
+        public List<String> next()
+        {
+            if (! this.hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+
+            return batch.get(batchPosition++);
+        }
+    }
 }
@@ -10,8 +10,15 @@ import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorTyp
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -22,6 +29,7 @@ public class CSVFileStoreConnectorTest
 {
     private static  String  resourcesDirectory = "target/test-classes/";
     private static  String  complexColumnsWithColumnNamesFile  = "ComplexColumnsWithColumnNames.csv";
+    private static  String  crlfLineEndingsFile                = "CRLFLineEndings.csv";
     private static  String  emptyFile                          = "EmptyFile.csv";
     private static  String  justColumnNamesFile                = "JustColumnNames.csv";
     private static  String  noColumnNamesFile                  = "NoColumnNames.csv";
@@ -338,6 +346,213 @@ public class CSVFileStoreConnectorTest
         }
     }
 
+    @Test public void testBatchesAndIterator() throws Exception
+    {
+        final int recordCount = 2500;
+
+        File                  file      = writeGeneratedFile("GeneratedFile.csv", 0, recordCount);
+        CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(file.getPath()));
+        connector.start();
+
+        assertEquals(connector.getRecordCount(), recordCount);
+        assertEquals(connector.readRecord(1234), Arrays.asList("1234", "name-1234", "value-1234"));
+
+        List<List<String>> batch = connector.readRecords(2490, 20);
+        assertEquals(batch.size(), 10);
+        assertEquals(batch.get(0).get(0), "2490");
+        assertTrue(connector.readRecords(recordCount, 10).isEmpty());
+
+        Iterator<List<String>> iterator = connector.getRecordIterator();
+        int                    expected = 0;
+
+        while (iterator.hasNext())
+        {
+            assertEquals(iterator.next().get(0), Integer.toString(expected));
+            expected++;
+        }
+
+        assertEquals(expected, recordCount);
+        assertTrue(new File(file.getPath() + CSVFileIndex.indexFileSuffix).isFile());
+
+        connector.disconnect();
+    }
+
+
+    @Test public void testIndexRefresh() throws Exception
+    {
+        File                  file      = writeGeneratedFile("RefreshedFile.csv", 0, 10);
+        CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(file.getPath()));
+        connector.start();
+        assertEquals(connector.getRecordCount(), 10);
+        connector.disconnect();
+
+        /*
+         * A new connector reuses the saved index while the file is unchanged.
+         */
+        connector = new CSVFileStoreConnector();
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(file.getPath()));
+        connector.start();
+        assertEquals(connector.getRecordCount(), 10);
+
+        /*
+         * A change to the file is picked up without reconnecting.
+         */
+        writeGeneratedFile("RefreshedFile.csv", 0, 25);
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+
+        assertEquals(connector.getRecordCount(), 25);
+        assertEquals(connector.readRecord(24).get(1), "name-24");
+
+        connector.disconnect();
+    }
+
+
+    @Test public void testCRLFLineEndings() throws Exception
+    {
+        CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(resourcesDirectory + crlfLineEndingsFile));
+        connector.start();
+
+        assertEquals(connector.getColumnNames(), Arrays.asList("RecId", "Name", "Value"));
+        assertEquals(connector.getRecordCount(), 3);
+        assertEquals(connector.readRecord(0), Arrays.asList("1", "alpha", "first"));
+        assertEquals(connector.readRecord(2), Arrays.asList("3", "gamma", "third"));
+
+        connector.disconnect();
+
+        /*
+         * The carriage return is not part of the line.
+         */
+        CSVFileIndex index = new CSVFileIndex(new File(resourcesDirectory + crlfLineEndingsFile), StandardCharsets.UTF_8);
+
+        index.refresh();
+        assertEquals(index.getLineCount(), 4);
+        assertEquals(index.readLine(0), "RecId,Name,Value");
+        assertEquals(index.readLine(3), "3,gamma,third");
+        index.close();
+    }
+
+
+    @Test public void testCorruptIndexFile() throws Exception
+    {
+        final long offsetCountPosition = 32;
+
+        File file      = writeGeneratedFile("CorruptIndexFile.csv", 0, 10);
+        File indexFile = new File(file.getPath() + CSVFileIndex.indexFileSuffix);
+
+        CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(file.getPath()));
+        connector.start();
+        assertEquals(connector.getRecordCount(), 10);
+        connector.disconnect();
+
+        /*
+         * An offset that points outside the file is not used.
+         */
+        try (RandomAccessFile index = new RandomAccessFile(indexFile, "rw"))
+        {
+            index.seek(offsetCountPosition + 4 + (3 * 8));
+            index.writeLong(Long.MAX_VALUE);
+        }
+
+        connector = new CSVFileStoreConnector();
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(file.getPath()));
+        connector.start();
+        assertEquals(connector.getRecordCount(), 10);
+        assertEquals(connector.readRecord(2), Arrays.asList("2", "name-2", "value-2"));
+        connector.disconnect();
+
+        /*
+         * An offset count that is too large for the file is not used.
+         */
+        try (RandomAccessFile index = new RandomAccessFile(indexFile, "rw"))
+        {
+            index.seek(offsetCountPosition);
+            index.writeInt(Integer.MAX_VALUE);
+        }
+
+        connector = new CSVFileStoreConnector();
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(file.getPath()));
+        connector.start();
+        assertEquals(connector.getRecordCount(), 10);
+        assertEquals(connector.readRecord(9), Arrays.asList("9", "name-9", "value-9"));
+        connector.disconnect();
+    }
+
+
+    @Test public void testStaleIndexFile() throws Exception
+    {
+        File file = writeGeneratedFile("StaleIndexFile.csv", 0, 10);
+
+        CSVFileStoreConnector connector = new CSVFileStoreConnector();
+
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(file.getPath()));
+        connector.start();
+        assertEquals(connector.readRecord(5), Arrays.asList("5", "name-5", "value-5"));
+        connector.disconnect();
+
+        /*
+         * Replace the file with one of the same length and modification time but different line breaks.
+         * The last line is not terminated so the length is unchanged.
+         */
+        long lastModified = file.lastModified();
+
+        try (Writer writer = new FileWriter(file))
+        {
+            writer.write("RecId,Name,Value\n");
+
+            for (int i = 0; i < 10; i++)
+            {
+                writer.write(i + ",name-" + i + "\n,value-" + i);
+            }
+        }
+
+        assertTrue(file.setLastModified(lastModified));
+
+        connector = new CSVFileStoreConnector();
+        connector.initialize(UUID.randomUUID().toString(), getConnectionProperties(file.getPath()));
+        connector.start();
+        assertEquals(connector.getRecordCount(), 11);
+        assertEquals(connector.readRecord(10), Arrays.asList("", "value-9"));
+        connector.disconnect();
+    }
+
+
+    /**
+     * Write a CSV file with a header line and the requested number of data records.
+     *
+     * @param fileName name of the file in the test resources directory
+     * @param firstRecord value of the first record's key
+     * @param recordCount number of data records
+     * @return file
+     * @throws IOException unable to write the file
+     */
+    private File writeGeneratedFile(String   fileName,
+                                    int      firstRecord,
+                                    int      recordCount) throws IOException
+    {
+        File file = new File(resourcesDirectory + fileName);
+
+        try (Writer writer = new FileWriter(file))
+        {
+            writer.write("RecId,Name,Value\n");
+
+            for (int i = firstRecord; i < firstRecord + recordCount; i++)
+            {
+                writer.write(i + ",name-" + i + ",value-" + i + "\n");
+            }
+        }
+
+        return file;
+    }
+
+
     @Test public void testLifecycle()
     {
         CSVFileStoreConnector connector = new CSVFileStoreConnector();
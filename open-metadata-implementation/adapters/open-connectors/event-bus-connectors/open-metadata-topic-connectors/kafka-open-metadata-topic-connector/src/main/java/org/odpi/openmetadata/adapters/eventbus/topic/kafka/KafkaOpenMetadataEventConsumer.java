@@ -4,6 +4,7 @@ package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
 
 import java.time.Duration;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -12,6 +13,7 @@ import java.util.Properties;
 import java.util.Queue;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.kafka.clients.consumer.Consumer;
 import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.clients.consumer.ConsumerRecords;
@@ -40,7 +42,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
     private final long maxQueueSize;
 
     private				 KafkaOpenMetadataEventConsumerConfiguration config;
-    private              KafkaConsumer<String, String>   consumer;
+    private              Consumer<String, String>        consumer;
     private              String                          topicToSubscribe;
     private              String                          localServerId;
 
@@ -67,6 +69,10 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
     
     private final boolean isAutoCommitEnabled;
 
+    private final boolean isPartitionProcessingEnabled;
+    private final int maxPartitionQueueSize;
+    private Map<TopicPartition, KafkaPartitionWorker> partitionWorkers = new HashMap<>();
+
     /**
      * Constructor for the event consumer.
      *
@@ -83,9 +89,38 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                                    Properties                                  kafkaConsumerProperties,
                                    KafkaOpenMetadataTopicConnector             connector,
                                    OMRSAuditLog                                auditLog)
+    {
+        this(topicName,
+             localServerId,
+             config,
+             kafkaConsumerProperties,
+             new KafkaConsumer<>(kafkaConsumerProperties),
+             connector,
+             auditLog);
+    }
+
+
+    /**
+     * Constructor for the event consumer that uses the supplied Kafka consumer.
+     *
+     * @param topicName name of the topic to listen on.
+     * @param localServerId identifier to enable receiver to identify that an event came from this server.
+     * @param config additional properties
+     * @param kafkaConsumerProperties properties for the consumer.
+     * @param kafkaConsumer Kafka consumer to receive the events from.
+     * @param connector connector holding the inbound listeners.
+     * @param auditLog  audit log for this component.
+     */
+    KafkaOpenMetadataEventConsumer(String                                      topicName,
+                                   String                                      localServerId,
+                                   KafkaOpenMetadataEventConsumerConfiguration config,
+                                   Properties                                  kafkaConsumerProperties,
+                                   Consumer<String, String>                    kafkaConsumer,
+                                   KafkaOpenMetadataTopicConnector             connector,
+                                   OMRSAuditLog                                auditLog)
     {
         this.auditLog = auditLog;
-        this.consumer = new KafkaConsumer<>(kafkaConsumerProperties);
+        this.consumer = kafkaConsumer;
         this.topicToSubscribe = topicName;
         this.consumer.subscribe(Collections.singletonList(topicToSubscribe), new HandleRebalance());
         this.connector = connector;
@@ -112,6 +147,20 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
         this.messageProcessingStatusCheckIntervalMs = config.getLongProperty(KafkaOpenMetadataEventConsumerProperty.COMMIT_CHECK_INTERVAL_MS);
         long messageTimeoutMins = config.getLongProperty(KafkaOpenMetadataEventConsumerProperty.CONSUMER_EVENT_PROCESSING_TIMEOUT_MINS);
         this.messageProcessingTimeoutMs = messageTimeoutMins < 0 ? messageTimeoutMins : TimeUnit.MILLISECONDS.convert(messageTimeoutMins, TimeUnit.MINUTES);
+        this.isPartitionProcessingEnabled = isPartitionProcessingEnabled(config);
+        this.maxPartitionQueueSize = config.getIntProperty(KafkaOpenMetadataEventConsumerProperty.MAX_PARTITION_QUEUE_SIZE);
+    }
+
+
+    /**
+     * Return whether the events from each partition are processed on their own thread.
+     *
+     * @param config additional properties
+     * @return boolean
+     */
+    static boolean isPartitionProcessingEnabled(KafkaOpenMetadataEventConsumerConfiguration config)
+    {
+        return Boolean.parseBoolean(config.getProperty(KafkaOpenMetadataEventConsumerProperty.PARTITION_PROCESSING));
     }
 
     private static boolean getBooleanProperty(Properties p, String name, boolean defaultValue) {
@@ -151,7 +200,12 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
         {
             try
             {
-                
+                if (isPartitionProcessingEnabled)
+                {
+                    pollForPartitionWorkers();
+                    continue;
+                }
+
                 //This needs to be done in the same thread since the Kafka consumer does
                 //not allow access by multiple threads
                 checkForFullyProcessedMessagesIfNeeded();
@@ -176,6 +230,10 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
 
             	updateNextMaxPollTimestamp();
 
+                /*
+                 * There is no sleep between polls.  The poll blocks for up to pollTimeout when there are no new
+                 * events so each event is passed to the connector as soon as it arrives.
+                 */
                 Duration pollDuration = Duration.ofMillis(pollTimeout);
                 ConsumerRecords<String, String> records = consumer.poll(pollDuration);
                 
@@ -185,7 +243,7 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                     String json = record.value();
                     log.debug("Received message: " + json);
                     KafkaIncomingEvent event = new KafkaIncomingEvent(json, record.offset());
-                    if (! localServerId.equals(record.key()))
+                    if (! KafkaOpenMetadataEventProducer.isKeyFromServer(localServerId, record.key()))
                     {
                         try
                         {
@@ -252,16 +310,20 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                 }
                 recoverAfterError();
             }
-            finally
-            {
-                awaitNextPollingTime();
-            }
         }
 
         if (consumer != null)
         {
             try
             {
+                if (isPartitionProcessingEnabled)
+                {
+                    //Stop the partition workers and pick up the offsets of the events
+                    //they have finished.  These are committed below.
+                    advancePartitionWatermarks();
+                    shutdownPartitionWorkers(new ArrayList<>(partitionWorkers.keySet()));
+                }
+
                 //Check for fully processed messages one last time before
                 //shutting down the consumer
                 boolean changesCommitted = checkForFullyProcessedMessages();
@@ -293,6 +355,167 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
         }
     }
 
+    /**
+     * One iteration of the consumer thread when partition processing is enabled.  The offsets of fully processed
+     * events are committed, partitions whose workers have too many waiting events are paused (and resumed once
+     * they catch up) and the new events are passed to the worker for their partition.  Polling continues while
+     * partitions are paused so Kafka does not treat the consumer as dead.
+     */
+    private void pollForPartitionWorkers()
+    {
+        if (System.currentTimeMillis() >= nextMessageProcessingStatusCheckTime)
+        {
+            commitPartitionWatermarks();
+            nextMessageProcessingStatusCheckTime = System.currentTimeMillis() + messageProcessingStatusCheckIntervalMs;
+        }
+
+        pauseOrResumePartitions();
+
+        ConsumerRecords<String, String> records = consumer.poll(Duration.ofMillis(pollTimeout));
+
+        log.debug("Found records: " + records.count());
+        for (TopicPartition partition : records.partitions())
+        {
+            KafkaPartitionWorker worker = getPartitionWorker(partition);
+
+            for (ConsumerRecord<String, String> record : records.records(partition))
+            {
+                log.debug("Received message: " + record.value());
+                KafkaIncomingEvent event = new KafkaIncomingEvent(record.value(), record.offset());
+                if (! KafkaOpenMetadataEventProducer.isKeyFromServer(localServerId, record.key()))
+                {
+                    worker.processEvent(event);
+                }
+                else
+                {
+                    log.debug("Ignoring message with key: " + record.key() + " and value " + record.value());
+                    worker.skipEvent(event);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the worker for a partition, creating it if this is the first event from the partition.
+     *
+     * @param partition topic partition
+     * @return worker
+     */
+    private KafkaPartitionWorker getPartitionWorker(TopicPartition partition)
+    {
+        KafkaPartitionWorker worker = partitionWorkers.get(partition);
+
+        if (worker == null)
+        {
+            worker = new KafkaPartitionWorker(Thread.currentThread().getName(),
+                                              partition,
+                                              messageProcessingTimeoutMs,
+                                              connector::distributeToListenersOnCurrentThread);
+            partitionWorkers.put(partition, worker);
+        }
+
+        return worker;
+    }
+
+
+    /**
+     * Pause fetching from the partitions whose workers have reached the maximum number of waiting events, and
+     * resume the paused partitions whose workers are down to half of that number.
+     */
+    private void pauseOrResumePartitions()
+    {
+        for (KafkaPartitionWorker worker : partitionWorkers.values())
+        {
+            int queuedEvents = worker.getQueuedEventCount();
+
+            if ((! worker.isPaused()) && (queuedEvents >= maxPartitionQueueSize))
+            {
+                log.debug("Pausing " + worker.getPartition() + " with " + queuedEvents + " events waiting");
+                consumer.pause(Collections.singleton(worker.getPartition()));
+                worker.setPaused(true);
+            }
+            else if ((worker.isPaused()) && (queuedEvents <= maxPartitionQueueSize / 2))
+            {
+                log.debug("Resuming " + worker.getPartition() + " with " + queuedEvents + " events waiting");
+                consumer.resume(Collections.singleton(worker.getPartition()));
+                worker.setPaused(false);
+            }
+        }
+    }
+
+
+    /**
+     * Move the watermark of each partition past its fully processed events.  The new offsets are added to
+     * currentOffsets.
+     *
+     * @return the offsets that have changed
+     */
+    private Map<TopicPartition, OffsetAndMetadata> advancePartitionWatermarks()
+    {
+        Map<TopicPartition, OffsetAndMetadata> commitData = new HashMap<>();
+
+        for (KafkaPartitionWorker worker : partitionWorkers.values())
+        {
+            OffsetAndMetadata offset = worker.advanceWatermark();
+
+            if (offset != null)
+            {
+                commitData.put(worker.getPartition(), offset);
+            }
+        }
+
+        if ((! isAutoCommitEnabled) && (! commitData.isEmpty()))
+        {
+            currentOffsets.putAll(commitData);
+        }
+
+        return commitData;
+    }
+
+
+    /**
+     * Commit the watermark of each partition that has moved.  The commit is asynchronous so the consumer thread
+     * can carry on polling.  A failed commit is picked up by the next commit for the partition.
+     */
+    private void commitPartitionWatermarks()
+    {
+        Map<TopicPartition, OffsetAndMetadata> commitData = advancePartitionWatermarks();
+
+        if ((! isAutoCommitEnabled) && (! commitData.isEmpty()))
+        {
+            log.debug("Committing: " + commitData);
+            consumer.commitAsync(commitData, (offsets, exception) ->
+            {
+                if (exception != null)
+                {
+                    log.warn("Unable to commit offsets " + offsets + ": " + exception.getMessage());
+                }
+            });
+        }
+    }
+
+
+    /**
+     * Stop the workers for the supplied partitions.  Any events they have not processed are not committed
+     * and so are delivered again to the next owner of the partition.
+     *
+     * @param partitions partitions to stop
+     */
+    private void shutdownPartitionWorkers(Collection<TopicPartition> partitions)
+    {
+        for (TopicPartition partition : partitions)
+        {
+            KafkaPartitionWorker worker = partitionWorkers.remove(partition);
+
+            if (worker != null)
+            {
+                worker.shutdown();
+            }
+        }
+    }
+
+
     private void addUnprocessedEvent(int partition, String topic, KafkaIncomingEvent event) {
         if (isAutoCommitEnabled) {
             return;
@@ -447,6 +670,9 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
                 result++;
             }
         }
+        for(KafkaPartitionWorker worker : partitionWorkers.values()) {
+            result += worker.getUncommittedEventCount();
+        }
         return result;
     }
 
@@ -523,8 +749,19 @@ public class KafkaOpenMetadataEventConsumer implements Runnable
 
         public void onPartitionsRevoked(Collection<TopicPartition> partitions)
         {
+            if (isPartitionProcessingEnabled)
+            {
+                advancePartitionWatermarks();
+                shutdownPartitionWorkers(partitions);
+            }
+
             log.info("Lost partitions in rebalance. Committing current offsets:" + currentOffsets);
             consumer.commitSync(currentOffsets);
+
+            if (isPartitionProcessingEnabled)
+            {
+                currentOffsets.keySet().removeAll(partitions);
+            }
         }
     }
 }
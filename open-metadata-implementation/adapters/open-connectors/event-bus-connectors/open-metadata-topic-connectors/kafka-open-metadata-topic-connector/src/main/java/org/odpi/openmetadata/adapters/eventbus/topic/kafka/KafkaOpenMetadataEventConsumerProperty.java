@@ -54,7 +54,21 @@ public enum KafkaOpenMetadataEventConsumerProperty
      * used if auto commit is disabled in the Kafka consumer. 
      * 
      */
-    COMMIT_CHECK_INTERVAL_MS("commit_check_interval_ms", "5000");
+    COMMIT_CHECK_INTERVAL_MS("commit_check_interval_ms", "5000"),
+
+    /**
+     * Set to true to process the events from each Kafka partition on its own thread.  The offset of
+     * each partition is committed asynchronously once all of the events before it have been
+     * fully processed.  Auto commit is disabled by default in this mode.
+     */
+    PARTITION_PROCESSING("partition_processing", "false"),
+
+    /**
+     * Controls the maximum number of events waiting to be processed for a partition when partition
+     * processing is enabled.  When this size is reached, fetching from the partition is paused until
+     * half of the waiting events have been processed.
+     */
+    MAX_PARTITION_QUEUE_SIZE("max_partition_queue_size", "100");
 
 	private String propertyName;
 	private String defaultValue;
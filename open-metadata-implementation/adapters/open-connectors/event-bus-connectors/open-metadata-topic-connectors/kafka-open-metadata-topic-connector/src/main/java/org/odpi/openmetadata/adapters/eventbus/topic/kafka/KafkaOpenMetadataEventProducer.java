@@ -8,11 +8,17 @@ import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.errors.WakeupException;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OMRSEventOrderingKey;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.*;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * KafkaOpenMetadataEventProducer manages the sending of events on Apache Kafka.  This is done through called to
@@ -21,10 +27,16 @@ import java.util.concurrent.ExecutionException;
  * Kafka is not always running.  When this occurs, the call to publish events hangs and this is disruptive to the
  * rest of the server.  So the role of this class is to manage the sending of events in a separate thread
  * and manage the logging of errors to alert the operations team that Kafka needs restarting.
+ *
+ * By default, each event is acknowledged by Kafka before the next one is sent.  When pipelined publishing is
+ * enabled, events are sent asynchronously and Kafka batches them together.  The number of unacknowledged
+ * events is bounded and so is the send buffer.  When both are full, the callers sending events wait.
+ * Pipelined events are keyed on the server identifier and the GUID of the instance (or type) they refer to,
+ * so the events for an instance are kept in order on a single partition.
  */
 public class KafkaOpenMetadataEventProducer implements Runnable
 {
-    private volatile List<String> sendBuffer = new ArrayList<>();
+    static final String RECORD_KEY_SEPARATOR = ":";
 
     private static final Logger log = LoggerFactory.getLogger(KafkaOpenMetadataEventProducer.class);
 
@@ -43,7 +55,18 @@ public class KafkaOpenMetadataEventProducer implements Runnable
     private Producer<String, String>        producer;
     private KafkaOpenMetadataTopicConnector connector;
 
-    private long    messageSendCount = 0;
+    private boolean                         pipelined;
+    private BlockingQueue<String>           sendBuffer;
+    private long                            sendBufferWaitTime;
+    private Semaphore                       inFlightEvents       = null;
+    private int                             maxInFlightEvents    = 0;
+    private String                          unsentEvent          = null;
+
+    private AtomicLong messageSendCount     = new AtomicLong(0);
+    private AtomicLong messageFailureCount  = new AtomicLong(0);
+    private AtomicLong consecutiveFailures  = new AtomicLong(0);
+    private AtomicLong totalSendLatency     = new AtomicLong(0);
+    private AtomicLong maxSendLatency       = new AtomicLong(0);
 
 
     /**
@@ -53,12 +76,14 @@ public class KafkaOpenMetadataEventProducer implements Runnable
      * @param topicName name of the topic to listen on.
      * @param localServerId identifier to enable receiver to identify that an event came from this server.
      * @param producerProperties properties for the consumer.
+     * @param producerEgeriaProperties properties controlling how events are passed to the producer.
      * @param connector connector holding the inbound listeners.
      * @param auditLog  audit log for this component.
      */
     KafkaOpenMetadataEventProducer(String                          topicName,
                                    String                          localServerId,
                                    Properties                      producerProperties,
+                                   Properties                      producerEgeriaProperties,
                                    KafkaOpenMetadataTopicConnector connector,
                                    OMRSAuditLog                    auditLog)
     {
@@ -69,6 +94,22 @@ public class KafkaOpenMetadataEventProducer implements Runnable
         this.producerProperties = producerProperties;
         this.listenerThreadName = defaultThreadName + topicName;
 
+        this.pipelined = isPipelined(producerEgeriaProperties);
+        this.sendBufferWaitTime = Long.parseLong(getProperty(producerEgeriaProperties,
+                                                             KafkaOpenMetadataEventProducerProperty.SEND_BUFFER_WAIT_MS));
+
+        if (pipelined)
+        {
+            this.sendBuffer = new LinkedBlockingQueue<>(Integer.parseInt(getProperty(producerEgeriaProperties,
+                                                                                     KafkaOpenMetadataEventProducerProperty.MAX_SEND_BUFFER_SIZE)));
+            this.maxInFlightEvents = Integer.parseInt(getProperty(producerEgeriaProperties,
+                                                                  KafkaOpenMetadataEventProducerProperty.MAX_IN_FLIGHT_EVENTS));
+            this.inFlightEvents = new Semaphore(maxInFlightEvents);
+        }
+        else
+        {
+            this.sendBuffer = new LinkedBlockingQueue<>();
+        }
 
         final String           actionDescription = "new producer";
         KafkaOpenMetadataTopicConnectorAuditCode auditCode;
@@ -84,6 +125,110 @@ public class KafkaOpenMetadataEventProducer implements Runnable
     }
 
 
+    /**
+     * Constructor used when the Kafka producer is supplied by the caller rather than created from
+     * the producer properties when the thread starts.
+     *
+     * @param topicName name of the topic to listen on.
+     * @param localServerId identifier to enable receiver to identify that an event came from this server.
+     * @param producer Kafka producer to send the events through.
+     * @param producerEgeriaProperties properties controlling how events are passed to the producer.
+     * @param auditLog  audit log for this component.
+     */
+    KafkaOpenMetadataEventProducer(String                   topicName,
+                                   String                   localServerId,
+                                   Producer<String, String> producer,
+                                   Properties               producerEgeriaProperties,
+                                   OMRSAuditLog             auditLog)
+    {
+        this(topicName, localServerId, new Properties(), producerEgeriaProperties, null, auditLog);
+
+        this.producer = producer;
+    }
+
+
+    /**
+     * Return whether pipelined publishing is enabled in the supplied properties.
+     *
+     * @param producerEgeriaProperties properties controlling how events are passed to the producer.
+     * @return boolean
+     */
+    static boolean isPipelined(Properties   producerEgeriaProperties)
+    {
+        return Boolean.parseBoolean(getProperty(producerEgeriaProperties,
+                                                KafkaOpenMetadataEventProducerProperty.PIPELINED_PUBLISHING));
+    }
+
+
+    /**
+     * Return the value of one of the properties controlling the producer, or its default value if it is not set.
+     *
+     * @param producerEgeriaProperties properties controlling how events are passed to the producer.
+     * @param property property to retrieve
+     * @return property value
+     */
+    private static String getProperty(Properties                             producerEgeriaProperties,
+                                      KafkaOpenMetadataEventProducerProperty property)
+    {
+        String value = null;
+
+        if (producerEgeriaProperties != null)
+        {
+            value = producerEgeriaProperties.getProperty(property.getPropertyName());
+        }
+
+        if ((value == null) || (value.trim().length() == 0))
+        {
+            return property.getDefaultValue();
+        }
+
+        return value.trim();
+    }
+
+
+    /**
+     * Return the key for the Kafka record that carries an event.  Synchronous events are keyed on the server
+     * identifier alone.  Pipelined events also carry the GUID of the instance or type they refer to so
+     * Kafka spreads them over the partitions while keeping the events for each instance in order.
+     *
+     * @param event event payload
+     * @return record key
+     */
+    private String getRecordKey(String   event)
+    {
+        if (pipelined)
+        {
+            String orderingKey = OMRSEventOrderingKey.getOrderingKey(event);
+
+            if (orderingKey != null)
+            {
+                return localServerId + RECORD_KEY_SEPARATOR + orderingKey;
+            }
+        }
+
+        return localServerId;
+    }
+
+
+    /**
+     * Return whether a record key was set by the server with the supplied identifier.
+     *
+     * @param serverId identifier of the server
+     * @param recordKey key from a Kafka record
+     * @return boolean
+     */
+    static boolean isKeyFromServer(String   serverId,
+                                   String   recordKey)
+    {
+        if ((serverId == null) || (recordKey == null))
+        {
+            return false;
+        }
+
+        return recordKey.equals(serverId) ||
+               (recordKey.startsWith(serverId) && recordKey.startsWith(RECORD_KEY_SEPARATOR, serverId.length()));
+    }
+
 
     /**
      * Sends the supplied event to the topic.  It retries if Kafka is not responding.
@@ -103,10 +248,11 @@ public class KafkaOpenMetadataEventProducer implements Runnable
             try
             {
                 log.debug("Sending message {0}" + event);
-                ProducerRecord<String, String> record = new ProducerRecord<>(topicName, localServerId, event);
+                ProducerRecord<String, String> record = new ProducerRecord<>(topicName, getRecordKey(event), event);
+                long sendStartTime = System.nanoTime();
                 producer.send(record).get();
                 eventSent = true;
-                messageSendCount++;
+                recordSendSuccess(sendStartTime);
             }
             catch (ExecutionException error)
             {
@@ -114,6 +260,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable
                  * This may be a simple timeout or something else more
                  */
                 log.debug("Kafka had trouble sending event: " + event + "exception message is " + error.getMessage());
+                messageFailureCount.incrementAndGet();
                 if (eventRetryCount == 10)
                 {
                     eventRetryCount = 0;
@@ -129,7 +276,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable
                                            auditCode.getLogMessageId(),
                                            auditCode.getSeverity(),
                                            auditCode.getFormattedLogMessage(topicName,
-                                                                            Long.toString(messageSendCount),
+                                                                            Long.toString(messageSendCount.get()),
                                                                             Long.toString(this.getSendBufferSize()),
                                                                             error.getMessage()),
                                            null,
@@ -147,18 +294,8 @@ public class KafkaOpenMetadataEventProducer implements Runnable
             catch (Throwable error)
             {
                 log.error("Exception in sendEvent " + error.toString());
-                KafkaOpenMetadataTopicConnectorErrorCode errorCode = KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT;
-                String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(error.getClass().getName(),
-                                                                                                         topicName,
-                                                                                                         error.getMessage());
-
-                throw new ConnectorCheckedException(errorCode.getHTTPErrorCode(),
-                                                    this.getClass().getName(),
-                                                    methodName,
-                                                    errorMessage,
-                                                    errorCode.getSystemAction(),
-                                                    errorCode.getUserAction(),
-                                                    error);
+                messageFailureCount.incrementAndGet();
+                throw getSendException(methodName, error);
             }
             finally
             {
@@ -172,6 +309,128 @@ public class KafkaOpenMetadataEventProducer implements Runnable
     }
 
 
+    /**
+     * Passes the supplied event to Kafka without waiting for it to be acknowledged.  The call waits if the
+     * maximum number of events are already waiting for acknowledgement.  Kafka retries a failed send itself
+     * so a failure reported to the callback means the event has been lost.
+     *
+     * @param event object containing the event properties.
+     * @throws InterruptedException the thread was interrupted while waiting for an acknowledgement
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    private void publishEventAsync(String event) throws InterruptedException, ConnectorCheckedException
+    {
+        final String methodName = "publishEventAsync";
+
+        inFlightEvents.acquire();
+
+        try
+        {
+            log.debug("Sending message {0}" + event);
+            ProducerRecord<String, String> record = new ProducerRecord<>(topicName, getRecordKey(event), event);
+            long sendStartTime = System.nanoTime();
+            producer.send(record, (metadata, exception) -> sendCompleted(event, sendStartTime, exception));
+        }
+        catch (Throwable error)
+        {
+            inFlightEvents.release();
+
+            log.error("Exception in sendEvent " + error.toString());
+            messageFailureCount.incrementAndGet();
+            throw getSendException(methodName, error);
+        }
+    }
+
+
+    /**
+     * Callback from Kafka when a pipelined event has been acknowledged or has failed.
+     *
+     * @param event event that was sent
+     * @param sendStartTime time that the event was passed to Kafka (from System.nanoTime())
+     * @param exception exception describing the failure or null if the event was sent
+     */
+    private void sendCompleted(String    event,
+                               long      sendStartTime,
+                               Exception exception)
+    {
+        final String methodName = "sendCompleted";
+
+        inFlightEvents.release();
+
+        if (exception == null)
+        {
+            recordSendSuccess(sendStartTime);
+        }
+        else
+        {
+            log.debug("Kafka was unable to send event: " + event + "exception message is " + exception.getMessage());
+            messageFailureCount.incrementAndGet();
+
+            /*
+             * Only the first failure in a run of failures is logged to avoid flooding the audit log
+             * while Kafka is unavailable.
+             */
+            if (consecutiveFailures.getAndIncrement() == 0)
+            {
+                KafkaOpenMetadataTopicConnectorAuditCode auditCode;
+
+                auditCode = KafkaOpenMetadataTopicConnectorAuditCode.EVENT_SEND_FAILED;
+                auditLog.logRecord(methodName,
+                                   auditCode.getLogMessageId(),
+                                   auditCode.getSeverity(),
+                                   auditCode.getFormattedLogMessage(topicName,
+                                                                    Long.toString(messageSendCount.get()),
+                                                                    Long.toString(messageFailureCount.get()),
+                                                                    exception.getMessage()),
+                                   null,
+                                   auditCode.getSystemAction(),
+                                   auditCode.getUserAction());
+            }
+        }
+    }
+
+
+    /**
+     * Update the counters for an event that has been acknowledged by Kafka.
+     *
+     * @param sendStartTime time that the event was passed to Kafka (from System.nanoTime())
+     */
+    private void recordSendSuccess(long   sendStartTime)
+    {
+        long latency = System.nanoTime() - sendStartTime;
+
+        messageSendCount.incrementAndGet();
+        consecutiveFailures.set(0);
+        totalSendLatency.addAndGet(latency);
+        maxSendLatency.accumulateAndGet(latency, Math::max);
+    }
+
+
+    /**
+     * Build the exception for an unexpected error from Kafka.
+     *
+     * @param methodName calling method
+     * @param error error from Kafka
+     * @return exception to throw
+     */
+    private ConnectorCheckedException getSendException(String    methodName,
+                                                       Throwable error)
+    {
+        KafkaOpenMetadataTopicConnectorErrorCode errorCode = KafkaOpenMetadataTopicConnectorErrorCode.ERROR_SENDING_EVENT;
+        String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(error.getClass().getName(),
+                                                                                                 topicName,
+                                                                                                 error.getMessage());
+
+        return new ConnectorCheckedException(errorCode.getHTTPErrorCode(),
+                                             this.getClass().getName(),
+                                             methodName,
+                                             errorMessage,
+                                             errorCode.getSystemAction(),
+                                             errorCode.getUserAction(),
+                                             error);
+    }
+
+
     /**
      * This is the method that provides the behaviour of the thread.
      */
@@ -190,31 +449,38 @@ public class KafkaOpenMetadataEventProducer implements Runnable
                            auditCode.getUserAction());
 
 
-        this.producer = new KafkaProducer<>(producerProperties);
+        if (this.producer == null)
+        {
+            this.producer = new KafkaProducer<>(producerProperties);
+        }
 
         while (isRunning())
         {
             try
             {
-                String bufferedEvent = this.getEvent();
-
                 /*
-                 * If there are no events waiting then sleep
+                 * Wait for the next event.  All waiting events are then sent before checking whether
+                 * the producer is still running.  An event taken from the buffer is held in unsentEvent
+                 * until Kafka has accepted it so it is sent again if the thread is interrupted or the
+                 * send fails.
                  */
-                if (bufferedEvent == null)
+                if (unsentEvent == null)
                 {
-                    Thread.sleep(sleepTime);
+                    unsentEvent = sendBuffer.poll(sleepTime, TimeUnit.MILLISECONDS);
                 }
-                else
+
+                while (unsentEvent != null)
                 {
-                    /*
-                     * Send all waiting events
-                     */
-                    while (bufferedEvent != null)
+                    if (pipelined)
+                    {
+                        publishEventAsync(unsentEvent);
+                    }
+                    else
                     {
-                        publishEvent(bufferedEvent);
-                        bufferedEvent = this.getEvent();
+                        publishEvent(unsentEvent);
                     }
+
+                    unsentEvent = sendBuffer.poll();
                 }
             }
             catch (InterruptedException   error)
@@ -228,6 +494,9 @@ public class KafkaOpenMetadataEventProducer implements Runnable
             }
         }
 
+        /*
+         * Closing the producer waits for the pipelined events that are still in flight.
+         */
         this.producer.close();
         this.producer = null;
 
@@ -235,7 +504,7 @@ public class KafkaOpenMetadataEventProducer implements Runnable
         auditLog.logRecord(listenerThreadName,
                            auditCode.getLogMessageId(),
                            auditCode.getSeverity(),
-                           auditCode.getFormattedLogMessage(topicName, Integer.toString(getSendBufferSize()), Long.toString(messageSendCount)),
+                           auditCode.getFormattedLogMessage(topicName, Integer.toString(getSendBufferSize()), Long.toString(messageSendCount.get())),
                            this.producerProperties.toString(),
                            auditCode.getSystemAction(),
                            auditCode.getUserAction());
@@ -243,51 +512,121 @@ public class KafkaOpenMetadataEventProducer implements Runnable
 
 
     /**
-     * Supports putting events to the in memory OMRS Topic
+     * Returns the number of events waiting to be passed to Kafka.
      *
-     * @param newEvent  event to publish
+     * @return int
      */
-    private synchronized void putEvent(String  newEvent)
+    public int getSendBufferSize()
     {
-        sendBuffer.add(newEvent);
+        return sendBuffer.size();
     }
 
 
     /**
-     * Returns the size of the send buffer
+     * Returns the number of pipelined events that have been passed to Kafka but not yet acknowledged.
      *
      * @return int
      */
-    private synchronized int getSendBufferSize()
+    public int getInFlightEventCount()
     {
-        return sendBuffer.size();
+        if (inFlightEvents == null)
+        {
+            return 0;
+        }
+
+        return maxInFlightEvents - inFlightEvents.availablePermits();
+    }
+
+
+    /**
+     * Returns the number of events that Kafka has acknowledged.
+     *
+     * @return long
+     */
+    public long getSentEventCount()
+    {
+        return messageSendCount.get();
     }
 
 
     /**
-     * Returns all of the events found on the in memory OMRS Topic.
+     * Returns the number of failed attempts to send an event.  A synchronous send that fails is retried so
+     * each retry is counted.
      *
-     * @return list of received events.
+     * @return long
      */
-    private synchronized String getEvent()
+    public long getFailedEventCount()
     {
-        if (sendBuffer.isEmpty())
+        return messageFailureCount.get();
+    }
+
+
+    /**
+     * Returns the mean time between passing an event to Kafka and receiving its acknowledgement.
+     *
+     * @return time in milliseconds
+     */
+    public double getMeanSendLatency()
+    {
+        long sentEvents = messageSendCount.get();
+
+        if (sentEvents == 0)
         {
-            return null;
+            return 0;
         }
 
-        return sendBuffer.remove(0);
+        return totalSendLatency.get() / (sentEvents * 1000000.0);
+    }
+
+
+    /**
+     * Returns the longest time between passing an event to Kafka and receiving its acknowledgement.
+     *
+     * @return time in milliseconds
+     */
+    public double getMaxSendLatency()
+    {
+        return maxSendLatency.get() / 1000000.0;
     }
 
 
     /**
-     * Sends the supplied event to the topic.
+     * Sends the supplied event to the topic.  If pipelined publishing is enabled and the send buffer is full,
+     * this call waits for space.
      *
      * @param event  OMRSEvent object containing the event properties.
+     * @throws ConnectorCheckedException there was no space in the send buffer within the configured wait time.
      */
-    public void sendEvent(String event)
+    public void sendEvent(String event) throws ConnectorCheckedException
     {
-        this.putEvent(event);
+        final String methodName = "sendEvent";
+
+        boolean bufferedEvent;
+
+        try
+        {
+            bufferedEvent = sendBuffer.offer(event, sendBufferWaitTime, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+            bufferedEvent = false;
+        }
+
+        if (! bufferedEvent)
+        {
+            KafkaOpenMetadataTopicConnectorErrorCode errorCode = KafkaOpenMetadataTopicConnectorErrorCode.SEND_BUFFER_FULL;
+            String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(topicName,
+                                                                                                     Integer.toString(getSendBufferSize()),
+                                                                                                     Integer.toString(getInFlightEventCount()));
+
+            throw new ConnectorCheckedException(errorCode.getHTTPErrorCode(),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                errorMessage,
+                                                errorCode.getSystemAction(),
+                                                errorCode.getUserAction());
+        }
     }
 
 
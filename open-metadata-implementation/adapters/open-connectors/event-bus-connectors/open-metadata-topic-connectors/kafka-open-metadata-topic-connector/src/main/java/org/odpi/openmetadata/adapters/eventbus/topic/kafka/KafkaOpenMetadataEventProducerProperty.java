@@ -0,0 +1,55 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+/**
+ * Configurable properties for the KafkaOpenMetadataEventProducer
+ *
+ */
+public enum KafkaOpenMetadataEventProducerProperty
+{
+	/*
+	 * Set to true to send events asynchronously.  Events are passed to Kafka as soon as they are
+	 * taken from the send buffer and the result of each send is handled in a callback.  When false, each
+	 * event is sent and acknowledged by Kafka before the next one is sent.
+	 */
+	PIPELINED_PUBLISHING("pipelined_publishing", "false"),
+
+	/*
+	 * Controls the maximum number of events waiting to be passed to Kafka when pipelined publishing is
+	 * enabled.  When the buffer is full, the caller sending an event waits for space.
+	 */
+	MAX_SEND_BUFFER_SIZE("max_send_buffer_size", "10000"),
+
+	/*
+	 * Controls the maximum number of events that have been passed to Kafka but not yet acknowledged
+	 * when pipelined publishing is enabled.  When this limit is reached, no more events are taken from
+	 * the send buffer until an acknowledgement is received.
+	 */
+	MAX_IN_FLIGHT_EVENTS("max_in_flight_events", "1000"),
+
+	/*
+	 * The maximum time (in ms) that a caller waits for space in a full send buffer before the event
+	 * is rejected.
+	 */
+	SEND_BUFFER_WAIT_MS("send_buffer_wait_ms", "30000");
+
+	private String propertyName;
+	private String defaultValue;
+
+	KafkaOpenMetadataEventProducerProperty(String name, String defaultValue)
+	{
+		this.propertyName = name;
+		this.defaultValue = defaultValue;
+	}
+
+	public String getPropertyName() {
+		return propertyName;
+	}
+
+	public String getDefaultValue() {
+		return defaultValue;
+	}
+
+
+}
@@ -2,9 +2,6 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
@@ -28,6 +25,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 
     
     private Properties producerProperties = new Properties();
+    private Properties producerEgeriaProperties = new Properties();
     
     private Properties consumerEgeriaProperties = new Properties();
     private Properties consumerProperties = new Properties();
@@ -37,7 +35,6 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 
     private String       topicName          = null;
     private String       serverId           = null;
-    private List<IncomingEvent> incomingEventsList = Collections.synchronizedList(new ArrayList<>());
     /**
      * Constructor sets up the default properties for the producer and consumer.  Any properties passed through
      * the connection's additional properties will override these values.  For most environments,
@@ -157,14 +154,31 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         {
             Object              propertiesObject;
 
+            propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.egeriaProducerPropertyName);
+            copyProperties(propertiesObject, producerEgeriaProperties);
+
+            if (KafkaOpenMetadataEventProducer.isPipelined(producerEgeriaProperties))
+            {
+                this.setPipelinedProducerProperties();
+            }
+
             propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.producerPropertyName);
             copyProperties(propertiesObject, producerProperties);
 
-            propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.consumerPropertyName);
-            copyProperties(propertiesObject, consumerProperties);
-            
             propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.egeriaConsumerPropertyName);
             copyProperties(propertiesObject, consumerEgeriaProperties);
+
+            /*
+             * Partition processing commits the offsets of the events that have been fully processed.
+             * Auto commit would commit offsets as soon as the events are received.
+             */
+            if (KafkaOpenMetadataEventConsumer.isPartitionProcessingEnabled(new KafkaOpenMetadataEventConsumerConfiguration(consumerEgeriaProperties, auditLog)))
+            {
+                consumerProperties.put(ENABLE_AUTO_COMMIT_PROPERTY, "false");
+            }
+
+            propertiesObject = configurationProperties.get(KafkaOpenMetadataTopicProvider.consumerPropertyName);
+            copyProperties(propertiesObject, consumerProperties);
         }
         catch (Throwable   error)
         {
@@ -180,6 +194,22 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     }
 
 
+    /**
+     * Pipelined publishing lets Kafka batch the events together.  These defaults give each batch a short time
+     * to fill and compress it.  Idempotence stops Kafka's retries from reordering the events on a partition.
+     * They are set before the configured producer properties are copied so they can still be overridden.
+     */
+    private void setPipelinedProducerProperties()
+    {
+        producerProperties.put("linger.ms", 5);
+        producerProperties.put("batch.size", 65536);
+        producerProperties.put("compression.type", "lz4");
+        producerProperties.put("enable.idempotence", "true");
+        producerProperties.put("retries", Integer.MAX_VALUE);
+        producerProperties.put("max.in.flight.requests.per.connection", 5);
+    }
+
+
 	private void copyProperties(Object propertiesObject, Properties target)
     {
 		Map<String, Object> propertiesMap;
@@ -213,7 +243,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         consumerThread = new Thread(consumer, threadHeader + "Consumer-" + topicName);
         consumerThread.start();
 
-        producer = new KafkaOpenMetadataEventProducer(topicName, serverId, producerProperties, this, auditLog);
+        producer = new KafkaOpenMetadataEventProducer(topicName, serverId, producerProperties, producerEgeriaProperties, this, auditLog);
         producerThread = new Thread(producer, threadHeader + "Producer-" + topicName);
         producerThread.start();
 
@@ -239,39 +269,28 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 
 
     /**
-     * Look to see if there is one of more new events to process.
+     * Distribute events to other listeners.  The event is passed to the listener thread of the
+     * superclass, which is woken immediately.
      *
-     * @return a list of received events or null
+     * @param event object containing the event properties.
      */
-    @Override
-    protected List<IncomingEvent> checkForIncomingEvents()
+    void distributeToListeners(IncomingEvent event)
     {
-        List<IncomingEvent> newEvents = null;
-
-        // This method is called periodically from a independent thread managed by OpenMetadataTopic
-        // (superclass) so it should not block.
-
-        if ((incomingEventsList != null) && (!incomingEventsList.isEmpty()))
-        {
-            log.debug("Checking for events.  Number of found events: {0}", incomingEventsList.size());
-            newEvents = new ArrayList<>(incomingEventsList);
-
-            // empty incomingEventsList otherwise same events will be sent again
-            incomingEventsList.removeAll(newEvents);
-        }
-
-        return newEvents;
+        log.debug("distribute event to listeners" + event);
+        super.addIncomingEvent(event);
     }
 
+
     /**
-     * Distribute events to other listeners.
+     * Pass an event to the listeners on the calling thread.  This is used by the consumer when each partition
+     * is processed on its own thread.
      *
      * @param event object containing the event properties.
      */
-    void distributeToListeners(IncomingEvent event)
+    void distributeToListenersOnCurrentThread(IncomingEvent event)
     {
-        log.debug("distribute event to listeners" + event);
-        incomingEventsList.add(event);
+        log.debug("distribute event to listeners on current thread" + event);
+        super.distributeEvent(event);
     }
 
 
@@ -306,6 +325,6 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
      * @return int
      */
     int getNumberOfUnprocessedEvents() {
-    	return incomingEventsList.size();
+    	return super.getPendingEventCount();
     }
 }
@@ -103,7 +103,16 @@ public enum KafkaOpenMetadataTopicConnectorAuditCode
              OMRSAuditLogRecordSeverity.ERROR,
              "Property {0} is missing from the Kafka Event Bus configuration",
              "The system is unable to connect to the event bus.",
-             "Add the missing property to the event bus properties in the server configuration.")
+             "Add the missing property to the event bus properties in the server configuration."),
+
+    EVENT_SEND_FAILED("OCF-KAFKA-TOPIC-CONNECTOR-0014",
+             OMRSAuditLogRecordSeverity.ERROR,
+             "Unable to send event on topic {0}.  {1} events successfully sent; {2} events failed. Latest error message is {3}",
+             "Apache Kafka has rejected an event after retrying it.  The event has not been sent.  Further failures " +
+                                     "are not logged until an event is sent successfully.",
+             "Review the operational status of Apache Kafka to ensure it is running and the topic is defined.  " +
+                                     "Review the producer properties (in particular delivery.timeout.ms) to ensure " +
+                                     "Kafka is allowed enough time to send each event.")
 
     ;
 
@@ -32,7 +32,13 @@ public enum KafkaOpenMetadataTopicConnectorErrorCode
     ERROR_SENDING_EVENT(400, "OCF-KAFKA-TOPIC-CONNECTOR-400-001 ",
             "An unexpected {0} exception was caught while sending an event to topic {1}.  The message in the exception was: {2}",
             "The system is unable to send the event.",
-            "Review the exception that was returned from the send.")
+            "Review the exception that was returned from the send."),
+    SEND_BUFFER_FULL(503, "OCF-KAFKA-TOPIC-CONNECTOR-503-001 ",
+            "Unable to buffer an event for topic {0} because the send buffer is full.  {1} events are buffered and {2} events are waiting for acknowledgement from Apache Kafka",
+            "The system is unable to send the event.",
+            "Review the operational status of Apache Kafka to ensure it is running and keeping up with the events.  " +
+                    "If the event rate is higher than expected, increase the max_send_buffer_size, max_in_flight_events " +
+                    "or send_buffer_wait_ms properties.")
     ;
 
 
@@ -0,0 +1,231 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.IncomingEventState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * KafkaPartitionWorker processes the events from one Kafka partition on its own thread.  The events are passed
+ * to the topic listeners in offset order.  The worker also tracks the watermark for the partition: the offset
+ * after the last event that has been fully processed with all of the events before it also fully processed.
+ * This is the offset that can be committed to Kafka.
+ */
+class KafkaPartitionWorker
+{
+    private static final Logger log = LoggerFactory.getLogger(KafkaPartitionWorker.class);
+
+    private TopicPartition                 partition;
+    private long                           messageProcessingTimeoutMs;
+    private Consumer<KafkaIncomingEvent>   distributor;
+    private ExecutorService                executor;
+    private Queue<KafkaIncomingEvent>      uncommittedEvents = new ConcurrentLinkedQueue<>();
+    private AtomicInteger                  queuedEventCount  = new AtomicInteger(0);
+    private boolean                        paused            = false;
+
+
+    /**
+     * Constructor
+     *
+     * @param threadName name of the consumer thread - used to name the worker thread
+     * @param partition partition that this worker processes
+     * @param messageProcessingTimeoutMs time after which an event is treated as processed - negative means
+     *                                   no timeout
+     * @param distributor function that passes an event to the topic listeners
+     */
+    KafkaPartitionWorker(String                       threadName,
+                         TopicPartition               partition,
+                         long                         messageProcessingTimeoutMs,
+                         Consumer<KafkaIncomingEvent> distributor)
+    {
+        final String workerName = threadName + " " + partition;
+
+        this.partition = partition;
+        this.messageProcessingTimeoutMs = messageProcessingTimeoutMs;
+        this.distributor = distributor;
+        this.executor = Executors.newSingleThreadExecutor((runnable) ->
+                                                          {
+                                                              Thread thread = new Thread(runnable, workerName);
+                                                              thread.setDaemon(true);
+                                                              return thread;
+                                                          });
+    }
+
+
+    /**
+     * Return the partition that this worker processes.
+     *
+     * @return topic partition
+     */
+    TopicPartition getPartition()
+    {
+        return partition;
+    }
+
+
+    /**
+     * Queue an event for distribution to the topic listeners.
+     *
+     * @param event event received from the partition
+     */
+    void processEvent(KafkaIncomingEvent   event)
+    {
+        queuedEventCount.incrementAndGet();
+
+        try
+        {
+            executor.execute(() ->
+                             {
+                                 try
+                                 {
+                                     distributor.accept(event);
+                                 }
+                                 finally
+                                 {
+                                     queuedEventCount.decrementAndGet();
+                                 }
+                             });
+
+            /*
+             * Only an event accepted by the executor is tracked for the watermark - a rejected event
+             * would never be processed and would hold back the commits for the partition.  The
+             * watermark is only moved on this (the consumer) thread so the event is added in time.
+             */
+            uncommittedEvents.add(event);
+        }
+        catch (RejectedExecutionException error)
+        {
+            queuedEventCount.decrementAndGet();
+
+            log.debug("Event received after shutdown of " + partition + ": " + event.getJson());
+        }
+    }
+
+
+    /**
+     * Record an event that is not passed to the listeners (such as an event sent by this server) so that
+     * the watermark can move past it.
+     *
+     * @param event event received from the partition
+     */
+    void skipEvent(KafkaIncomingEvent   event)
+    {
+        event.setState(IncomingEventState.DISTRIBUTED_TO_ALL_TOPIC_LISTENERS);
+        uncommittedEvents.add(event);
+    }
+
+
+    /**
+     * Return the number of events waiting for, or undergoing, distribution to the listeners.
+     *
+     * @return count
+     */
+    int getQueuedEventCount()
+    {
+        return queuedEventCount.get();
+    }
+
+
+    /**
+     * Return the number of events that have been received but not yet committed.
+     *
+     * @return count
+     */
+    int getUncommittedEventCount()
+    {
+        return uncommittedEvents.size();
+    }
+
+
+    /**
+     * Return whether the consumer has paused fetching from this partition.
+     *
+     * @return boolean
+     */
+    boolean isPaused()
+    {
+        return paused;
+    }
+
+
+    /**
+     * Record whether the consumer has paused fetching from this partition.
+     *
+     * @param paused boolean
+     */
+    void setPaused(boolean   paused)
+    {
+        this.paused = paused;
+    }
+
+
+    /**
+     * Move the watermark past the events at the start of the partition's queue that have been fully processed.
+     * This is only called from the consumer thread.
+     *
+     * @return offset to commit or null if the watermark has not moved
+     */
+    OffsetAndMetadata advanceWatermark()
+    {
+        KafkaIncomingEvent lastProcessedEvent = null;
+        KafkaIncomingEvent firstEvent         = uncommittedEvents.peek();
+
+        while ((firstEvent != null) && (isFullyProcessed(firstEvent)))
+        {
+            lastProcessedEvent = uncommittedEvents.poll();
+            firstEvent = uncommittedEvents.peek();
+        }
+
+        if (lastProcessedEvent == null)
+        {
+            return null;
+        }
+
+        log.debug("Partition " + partition + " processed to offset " + lastProcessedEvent.getOffset());
+
+        return new OffsetAndMetadata(lastProcessedEvent.getOffset() + 1);
+    }
+
+
+    /**
+     * Stop accepting new events.  The events already queued are still distributed.
+     */
+    void shutdown()
+    {
+        executor.shutdown();
+    }
+
+
+    /**
+     * Return whether all processing of an event has completed, or the processing timeout has passed.
+     *
+     * @param event event to test
+     * @return boolean
+     */
+    private boolean isFullyProcessed(KafkaIncomingEvent   event)
+    {
+        if (event.isFullyProcessed())
+        {
+            return true;
+        }
+
+        if ((messageProcessingTimeoutMs >= 0) && (event.hasTimeElapsedSinceCreation(messageProcessingTimeoutMs)))
+        {
+            log.warn("Processing of message at offset " + event.getOffset() + " on " + partition + " timed out.");
+            return true;
+        }
+
+        return false;
+    }
+}
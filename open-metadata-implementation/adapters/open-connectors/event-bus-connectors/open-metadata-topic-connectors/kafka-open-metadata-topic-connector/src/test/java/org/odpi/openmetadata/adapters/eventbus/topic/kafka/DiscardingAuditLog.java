@@ -0,0 +1,43 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLogRecordSeverity;
+
+/**
+ * Audit log used by the tests that discards its records.
+ */
+class DiscardingAuditLog extends OMRSAuditLog
+{
+    /**
+     * Constructor
+     */
+    DiscardingAuditLog()
+    {
+        super(null, 0, "Test", "Test", null);
+    }
+
+
+    /**
+     * Discard the log record.
+     *
+     * @param actionDescription description of the activity creating the audit log record
+     * @param logMessageId identifier for the type of record being created
+     * @param severity category of record
+     * @param logMessage description of the audit log record including specific resources involved
+     * @param additionalInformation additional data to help resolve issues of verify behavior
+     * @param systemAction the related action taken by the OMRS
+     * @param userAction details of any action that an administrator needs to take
+     */
+    @Override
+    public void logRecord(String                      actionDescription,
+                          String                      logMessageId,
+                          OMRSAuditLogRecordSeverity  severity,
+                          String                      logMessage,
+                          String                      additionalInformation,
+                          String                      systemAction,
+                          String                      userAction)
+    {
+    }
+}
@@ -0,0 +1,281 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify the partition processing of the KafkaOpenMetadataEventConsumer using Kafka's MockConsumer in place
+ * of a broker.
+ */
+public class KafkaOpenMetadataEventConsumerTest
+{
+    private static final String topicName = "test.topic";
+    private static final String serverId  = "server-id";
+
+    private TopicPartition partition0 = new TopicPartition(topicName, 0);
+    private TopicPartition partition1 = new TopicPartition(topicName, 1);
+
+
+    /**
+     * Validate that each partition is processed in order on its own thread and that the offsets are committed
+     * once the events are processed.
+     *
+     * @throws Exception problem processing the events
+     */
+    @Test public void testPartitionProcessing() throws Exception
+    {
+        final int eventCount = 20;
+
+        MockConsumer<String, String>    mockConsumer   = getMockConsumer();
+        Map<String, List<String>>       receivedEvents = new HashMap<>();
+        Set<String>                     threadNames    = new HashSet<>();
+        KafkaOpenMetadataTopicConnector connector      = new KafkaOpenMetadataTopicConnector();
+
+        connector.registerListener((event) ->
+        {
+            synchronized (receivedEvents)
+            {
+                receivedEvents.computeIfAbsent(event.substring(0, 1), (partition) -> new ArrayList<>()).add(event);
+                threadNames.add(Thread.currentThread().getName());
+            }
+        });
+
+        KafkaOpenMetadataEventConsumer consumer = getConsumer(mockConsumer, connector, 100);
+
+        for (int offset = 0; offset < eventCount; offset++)
+        {
+            String key = (offset == 5) ? serverId : "other-server:guid";
+
+            mockConsumer.addRecord(new ConsumerRecord<>(topicName, 0, offset, key, "0-" + offset));
+            mockConsumer.addRecord(new ConsumerRecord<>(topicName, 1, offset, key, "1-" + offset));
+        }
+
+        Thread consumerThread = new Thread(consumer, "consumer");
+        consumerThread.start();
+
+        waitFor(() -> isCommitted(mockConsumer, partition0, eventCount) && isCommitted(mockConsumer, partition1, eventCount));
+
+        synchronized (receivedEvents)
+        {
+            assertEquals(threadNames.size(), 2);
+            for (String partition : Arrays.asList("0", "1"))
+            {
+                List<String> partitionEvents = receivedEvents.get(partition);
+
+                assertEquals(partitionEvents.size(), eventCount - 1);
+                for (int i = 0; i < partitionEvents.size(); i++)
+                {
+                    assertEquals(partitionEvents.get(i), partition + "-" + (i < 5 ? i : i + 1));
+                }
+            }
+        }
+
+        stopConsumer(consumer, consumerThread);
+    }
+
+
+    /**
+     * Validate that a partition is paused while its worker is behind, while the other partitions continue, and
+     * that its offset is not committed past an event that is still being processed.
+     *
+     * @throws Exception problem processing the events
+     */
+    @Test public void testPauseAndResume() throws Exception
+    {
+        final int eventCount = 10;
+
+        MockConsumer<String, String>    mockConsumer = getMockConsumer();
+        CountDownLatch                  releaseEvents = new CountDownLatch(1);
+        KafkaOpenMetadataTopicConnector connector     = new KafkaOpenMetadataTopicConnector();
+
+        connector.registerListener((event) ->
+        {
+            if (event.startsWith("0"))
+            {
+                try
+                {
+                    releaseEvents.await(30, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        KafkaOpenMetadataEventConsumer consumer = getConsumer(mockConsumer, connector, 4);
+
+        for (int offset = 0; offset < eventCount; offset++)
+        {
+            mockConsumer.addRecord(new ConsumerRecord<>(topicName, 0, offset, "other-server", "0-" + offset));
+            mockConsumer.addRecord(new ConsumerRecord<>(topicName, 1, offset, "other-server", "1-" + offset));
+        }
+
+        Thread consumerThread = new Thread(consumer, "consumer");
+        consumerThread.start();
+
+        waitFor(() -> mockConsumer.paused().contains(partition0) && isCommitted(mockConsumer, partition1, eventCount));
+        assertFalse(mockConsumer.paused().contains(partition1));
+        assertFalse(isCommitted(mockConsumer, partition0, 1));
+
+        releaseEvents.countDown();
+
+        waitFor(() -> (! mockConsumer.paused().contains(partition0)) && isCommitted(mockConsumer, partition0, eventCount));
+
+        stopConsumer(consumer, consumerThread);
+    }
+
+
+    /**
+     * Validate that an event received after a partition worker has shut down is not counted as waiting
+     * to be committed.
+     */
+    @Test public void testEventAfterWorkerShutdown()
+    {
+        KafkaPartitionWorker worker = new KafkaPartitionWorker("consumer", partition0, -1, (event) -> { });
+
+        worker.shutdown();
+        worker.processEvent(new KafkaIncomingEvent("0-0", 0));
+
+        assertEquals(worker.getQueuedEventCount(), 0);
+        assertEquals(worker.getUncommittedEventCount(), 0);
+        assertNull(worker.advanceWatermark());
+    }
+
+
+    /**
+     * Create a mock consumer with two partitions assigned.
+     *
+     * @return mock consumer
+     */
+    private MockConsumer<String, String> getMockConsumer()
+    {
+        MockConsumer<String, String>   mockConsumer     = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        Map<TopicPartition, Long>      beginningOffsets = new HashMap<>();
+
+        beginningOffsets.put(partition0, 0L);
+        beginningOffsets.put(partition1, 0L);
+
+        mockConsumer.subscribe(Arrays.asList(topicName));
+        mockConsumer.rebalance(Arrays.asList(partition0, partition1));
+        mockConsumer.updateBeginningOffsets(beginningOffsets);
+
+        return mockConsumer;
+    }
+
+
+    /**
+     * Create a consumer with partition processing enabled.
+     *
+     * @param mockConsumer Kafka consumer
+     * @param connector connector holding the listeners
+     * @param maxPartitionQueueSize number of waiting events that pauses a partition
+     * @return consumer
+     */
+    private KafkaOpenMetadataEventConsumer getConsumer(MockConsumer<String, String>    mockConsumer,
+                                                       KafkaOpenMetadataTopicConnector connector,
+                                                       int                             maxPartitionQueueSize)
+    {
+        Properties kafkaProperties  = new Properties();
+        Properties egeriaProperties = new Properties();
+
+        kafkaProperties.put(KafkaOpenMetadataTopicConnector.ENABLE_AUTO_COMMIT_PROPERTY, "false");
+        kafkaProperties.put("key.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+        kafkaProperties.put("value.deserializer", "org.apache.kafka.common.serialization.StringDeserializer");
+
+        egeriaProperties.put(KafkaOpenMetadataEventConsumerProperty.PARTITION_PROCESSING.getPropertyName(), "true");
+        egeriaProperties.put(KafkaOpenMetadataEventConsumerProperty.MAX_PARTITION_QUEUE_SIZE.getPropertyName(),
+                             Integer.toString(maxPartitionQueueSize));
+        egeriaProperties.put(KafkaOpenMetadataEventConsumerProperty.COMMIT_CHECK_INTERVAL_MS.getPropertyName(), "10");
+        egeriaProperties.put(KafkaOpenMetadataEventConsumerProperty.POLL_TIMEOUT.getPropertyName(), "10");
+
+        DiscardingAuditLog auditLog = new DiscardingAuditLog();
+
+        return new KafkaOpenMetadataEventConsumer(topicName,
+                                                  serverId,
+                                                  new KafkaOpenMetadataEventConsumerConfiguration(egeriaProperties, auditLog),
+                                                  kafkaProperties,
+                                                  mockConsumer,
+                                                  connector,
+                                                  auditLog);
+    }
+
+
+    /**
+     * Return whether the committed offset of a partition has reached the expected value.
+     *
+     * @param mockConsumer Kafka consumer
+     * @param partition partition to test
+     * @param offset expected offset
+     * @return boolean
+     */
+    private boolean isCommitted(MockConsumer<String, String> mockConsumer,
+                                TopicPartition               partition,
+                                long                         offset)
+    {
+        OffsetAndMetadata committed = mockConsumer.committed(partition);
+
+        return (committed != null) && (committed.offset() >= offset);
+    }
+
+
+    /**
+     * Wait for the consumer to reach the expected state.
+     *
+     * @param condition test for the expected state
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitFor(BooleanSupplier   condition) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + 10000;
+
+        while (! condition.getAsBoolean())
+        {
+            if (System.currentTimeMillis() > endTime)
+            {
+                fail("Timed out waiting for the consumer");
+            }
+
+            Thread.sleep(10);
+        }
+    }
+
+
+    /**
+     * Shut down the consumer thread.
+     *
+     * @param consumer consumer to stop
+     * @param consumerThread thread running the consumer
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void stopConsumer(KafkaOpenMetadataEventConsumer consumer,
+                              Thread                         consumerThread) throws InterruptedException
+    {
+        consumer.safeCloseConsumer();
+        consumerThread.join(10000);
+        assertFalse(consumerThread.isAlive());
+    }
+}
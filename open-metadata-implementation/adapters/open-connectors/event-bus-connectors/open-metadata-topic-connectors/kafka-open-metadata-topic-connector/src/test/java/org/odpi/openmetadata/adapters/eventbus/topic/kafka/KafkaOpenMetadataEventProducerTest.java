@@ -0,0 +1,331 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.eventbus.topic.kafka;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify the pipelined publishing of the KafkaOpenMetadataEventProducer using Kafka's MockProducer in place
+ * of a broker.
+ */
+public class KafkaOpenMetadataEventProducerTest
+{
+    private static final String topicName = "test.topic";
+    private static final String serverId  = "server-id";
+
+
+    /**
+     * Validate that pipelined events are keyed on the instance GUID and sent in order for each instance.
+     *
+     * @throws Exception problem sending the events
+     */
+    @Test public void testPipelinedOrdering() throws Exception
+    {
+        final int instanceCount = 5;
+        final int versionCount  = 20;
+
+        MockProducer<String, String>   mockProducer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+        KafkaOpenMetadataEventProducer producer     = new KafkaOpenMetadataEventProducer(topicName,
+                                                                                         serverId,
+                                                                                         mockProducer,
+                                                                                         getProperties(100, 10),
+                                                                                         new DiscardingAuditLog());
+        Thread producerThread = new Thread(producer);
+        producerThread.start();
+
+        for (int version = 1; version <= versionCount; version++)
+        {
+            for (int instance = 0; instance < instanceCount; instance++)
+            {
+                producer.sendEvent(getEntityEvent("guid-" + instance, version));
+            }
+        }
+        producer.sendEvent("{\"registryEventSection\":{}}");
+
+        waitFor(() -> mockProducer.history().size() == (instanceCount * versionCount) + 1);
+
+        Map<String, List<String>> sentEvents = new HashMap<>();
+        for (ProducerRecord<String, String> record : mockProducer.history())
+        {
+            assertEquals(record.topic(), topicName);
+            assertTrue(KafkaOpenMetadataEventProducer.isKeyFromServer(serverId, record.key()));
+            sentEvents.computeIfAbsent(record.key(), (key) -> new ArrayList<>()).add(record.value());
+        }
+
+        assertEquals(sentEvents.size(), instanceCount + 1);
+        assertEquals(sentEvents.get(serverId).size(), 1);
+        for (int instance = 0; instance < instanceCount; instance++)
+        {
+            List<String> instanceEvents = sentEvents.get(serverId + KafkaOpenMetadataEventProducer.RECORD_KEY_SEPARATOR + "guid-" + instance);
+
+            assertEquals(instanceEvents.size(), versionCount);
+            for (int version = 1; version <= versionCount; version++)
+            {
+                assertEquals(instanceEvents.get(version - 1), getEntityEvent("guid-" + instance, version));
+            }
+        }
+
+        assertEquals(producer.getSentEventCount(), (instanceCount * versionCount) + 1);
+        assertEquals(producer.getFailedEventCount(), 0);
+        assertEquals(producer.getInFlightEventCount(), 0);
+
+        stopProducer(producer, producerThread);
+    }
+
+
+    /**
+     * Validate that callers are held back when the in-flight window and send buffer are full, and that
+     * failures are counted.
+     *
+     * @throws Exception problem sending the events
+     */
+    @Test public void testBackPressure() throws Exception
+    {
+        MockProducer<String, String>   mockProducer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        KafkaOpenMetadataEventProducer producer     = new KafkaOpenMetadataEventProducer(topicName,
+                                                                                         serverId,
+                                                                                         mockProducer,
+                                                                                         getProperties(2, 2),
+                                                                                         new DiscardingAuditLog());
+        Thread producerThread = new Thread(producer);
+        producerThread.start();
+
+        producer.sendEvent(getEntityEvent("guid-1", 1));
+        producer.sendEvent(getEntityEvent("guid-1", 2));
+        waitFor(() -> producer.getInFlightEventCount() == 2);
+
+        /*
+         * The producer thread takes one more event from the buffer and waits for space in the window.
+         */
+        producer.sendEvent(getEntityEvent("guid-1", 3));
+        waitFor(() -> producer.getSendBufferSize() == 0);
+        producer.sendEvent(getEntityEvent("guid-1", 4));
+        producer.sendEvent(getEntityEvent("guid-1", 5));
+
+        try
+        {
+            producer.sendEvent(getEntityEvent("guid-1", 6));
+            fail("Event accepted into a full send buffer");
+        }
+        catch (ConnectorCheckedException error)
+        {
+            assertEquals(error.getReportedHTTPCode(), 503);
+        }
+
+        assertEquals(mockProducer.history().size(), 2);
+        assertEquals(producer.getSendBufferSize(), 2);
+
+        assertTrue(mockProducer.completeNext());
+        assertTrue(mockProducer.errorNext(new RuntimeException("Test failure")));
+        assertEquals(producer.getSentEventCount(), 1);
+        assertEquals(producer.getFailedEventCount(), 1);
+
+        waitFor(() -> mockProducer.history().size() == 4);
+        assertTrue(mockProducer.completeNext());
+        waitFor(() -> mockProducer.history().size() == 5);
+        while (mockProducer.completeNext())
+        {
+        }
+        waitFor(() -> producer.getSentEventCount() == 4);
+        assertEquals(producer.getInFlightEventCount(), 0);
+        assertTrue(producer.getMaxSendLatency() >= producer.getMeanSendLatency());
+
+        stopProducer(producer, producerThread);
+    }
+
+
+    /**
+     * Validate that an event taken from the send buffer is not lost when the producer thread is interrupted
+     * while waiting for space in the in-flight window.
+     *
+     * @throws Exception problem sending the events
+     */
+    @Test public void testInterruptedWhileWaiting() throws Exception
+    {
+        MockProducer<String, String>   mockProducer = new MockProducer<>(false, new StringSerializer(), new StringSerializer());
+        KafkaOpenMetadataEventProducer producer     = new KafkaOpenMetadataEventProducer(topicName,
+                                                                                         serverId,
+                                                                                         mockProducer,
+                                                                                         getProperties(1, 2),
+                                                                                         new DiscardingAuditLog());
+        Thread producerThread = new Thread(producer);
+        producerThread.start();
+
+        producer.sendEvent(getEntityEvent("guid-1", 1));
+        waitFor(() -> producer.getInFlightEventCount() == 1);
+        producer.sendEvent(getEntityEvent("guid-1", 2));
+        waitFor(() -> producer.getSendBufferSize() == 0);
+
+        producerThread.interrupt();
+        assertTrue(mockProducer.completeNext());
+
+        waitFor(() -> mockProducer.history().size() == 2);
+        assertEquals(mockProducer.history().get(1).value(), getEntityEvent("guid-1", 2));
+        assertTrue(mockProducer.completeNext());
+        waitFor(() -> producer.getSentEventCount() == 2);
+
+        stopProducer(producer, producerThread);
+    }
+
+
+    /**
+     * Validate that an event is sent again when Kafka rejects it.
+     *
+     * @throws Exception problem sending the events
+     */
+    @Test public void testSendRejected() throws Exception
+    {
+        MockProducer<String, String> mockProducer = new MockProducer<String, String>(true, new StringSerializer(), new StringSerializer())
+        {
+            private boolean rejected = false;
+
+            @Override
+            public synchronized Future<RecordMetadata> send(ProducerRecord<String, String> record,
+                                                            Callback                       callback)
+            {
+                if (! rejected)
+                {
+                    rejected = true;
+                    throw new KafkaException("Test rejection");
+                }
+
+                return super.send(record, callback);
+            }
+        };
+
+        KafkaOpenMetadataEventProducer producer = new KafkaOpenMetadataEventProducer(topicName,
+                                                                                     serverId,
+                                                                                     mockProducer,
+                                                                                     getProperties(2, 2),
+                                                                                     new DiscardingAuditLog())
+        {
+            @Override
+            protected void recoverAfterError()
+            {
+            }
+        };
+        Thread producerThread = new Thread(producer);
+        producerThread.start();
+
+        producer.sendEvent(getEntityEvent("guid-1", 1));
+        producer.sendEvent(getEntityEvent("guid-1", 2));
+
+        waitFor(() -> producer.getSentEventCount() == 2);
+        assertEquals(mockProducer.history().get(0).value(), getEntityEvent("guid-1", 1));
+        assertEquals(mockProducer.history().get(1).value(), getEntityEvent("guid-1", 2));
+        assertEquals(producer.getFailedEventCount(), 1);
+        assertEquals(producer.getInFlightEventCount(), 0);
+
+        stopProducer(producer, producerThread);
+    }
+
+
+    /**
+     * Validate the recognition of the events sent by a server.
+     */
+    @Test public void testKeyFromServer()
+    {
+        assertTrue(KafkaOpenMetadataEventProducer.isKeyFromServer(serverId, serverId));
+        assertTrue(KafkaOpenMetadataEventProducer.isKeyFromServer(serverId, serverId + ":guid"));
+        assertFalse(KafkaOpenMetadataEventProducer.isKeyFromServer(serverId, serverId + "-2"));
+        assertFalse(KafkaOpenMetadataEventProducer.isKeyFromServer(serverId, serverId + "-2:guid"));
+        assertFalse(KafkaOpenMetadataEventProducer.isKeyFromServer(serverId, "other:" + serverId));
+        assertFalse(KafkaOpenMetadataEventProducer.isKeyFromServer(serverId, null));
+    }
+
+
+    /**
+     * Build the properties for pipelined publishing.
+     *
+     * @param maxInFlightEvents size of the in-flight window
+     * @param maxSendBufferSize size of the send buffer
+     * @return properties
+     */
+    private Properties getProperties(int   maxInFlightEvents,
+                                     int   maxSendBufferSize)
+    {
+        Properties properties = new Properties();
+
+        properties.setProperty(KafkaOpenMetadataEventProducerProperty.PIPELINED_PUBLISHING.getPropertyName(), "true");
+        properties.setProperty(KafkaOpenMetadataEventProducerProperty.MAX_IN_FLIGHT_EVENTS.getPropertyName(),
+                               Integer.toString(maxInFlightEvents));
+        properties.setProperty(KafkaOpenMetadataEventProducerProperty.MAX_SEND_BUFFER_SIZE.getPropertyName(),
+                               Integer.toString(maxSendBufferSize));
+        properties.setProperty(KafkaOpenMetadataEventProducerProperty.SEND_BUFFER_WAIT_MS.getPropertyName(), "100");
+
+        return properties;
+    }
+
+
+    /**
+     * Build the JSON for an entity event.
+     *
+     * @param guid unique identifier of the entity
+     * @param version version of the entity
+     * @return JSON string
+     */
+    private String getEntityEvent(String  guid,
+                                  int     version)
+    {
+        return "{\"instanceEventSection\":{\"eventType\":\"UPDATED_ENTITY_EVENT\",\"entity\":{\"guid\":\"" + guid +
+                       "\",\"version\":" + version + "}}}";
+    }
+
+
+    /**
+     * Wait for the producer thread to reach the expected state.
+     *
+     * @param condition test for the expected state
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitFor(BooleanSupplier   condition) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + 10000;
+
+        while (! condition.getAsBoolean())
+        {
+            if (System.currentTimeMillis() > endTime)
+            {
+                fail("Timed out waiting for the producer");
+            }
+
+            Thread.sleep(10);
+        }
+    }
+
+
+    /**
+     * Shut down the producer thread.
+     *
+     * @param producer producer to stop
+     * @param producerThread thread running the producer
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void stopProducer(KafkaOpenMetadataEventProducer producer,
+                              Thread                         producerThread) throws InterruptedException
+    {
+        producer.safeCloseProducer();
+        producerThread.join(10000);
+        assertFalse(producerThread.isAlive());
+    }
+}
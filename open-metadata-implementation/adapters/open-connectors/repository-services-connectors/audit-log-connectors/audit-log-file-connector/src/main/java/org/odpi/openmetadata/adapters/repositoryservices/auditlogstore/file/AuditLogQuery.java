@@ -0,0 +1,122 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogReportingComponent;
+
+import java.util.Date;
+import java.util.Set;
+
+/**
+ * AuditLogQuery holds the search criteria of a request to the file based audit log store.  It is tested first
+ * against the sparse index of each segment and block so that parts of the audit log that can not contain a
+ * matching log record are not read.  The log records from the remaining blocks are then tested one by one.
+ */
+class AuditLogQuery
+{
+    private long   startTime;
+    private long   endTime;
+    private String severity;
+    private String component;
+
+
+    /**
+     * Constructor
+     *
+     * @param startDate start of time period - null means from the first log record
+     * @param endDate end of time period - null means up to the last log record
+     * @param severity severity of the log records to return - null means any severity
+     * @param component name of the component that wrote the log records - null means any component
+     */
+    AuditLogQuery(Date     startDate,
+                  Date     endDate,
+                  String   severity,
+                  String   component)
+    {
+        this.startTime = (startDate == null) ? Long.MIN_VALUE : startDate.getTime();
+        this.endTime = (endDate == null) ? Long.MAX_VALUE : endDate.getTime();
+        this.severity = severity;
+        this.component = component;
+    }
+
+
+    /**
+     * Return whether a segment or block summarized by its index entry may contain a matching log record.
+     *
+     * @param minTime earliest time stamp of its log records
+     * @param maxTime latest time stamp of its log records
+     * @param severities severities of its log records
+     * @param components names of the components that wrote its log records
+     * @return boolean
+     */
+    boolean mayMatch(long          minTime,
+                     long          maxTime,
+                     Set<String>   severities,
+                     Set<String>   components)
+    {
+        if ((maxTime < startTime) || (minTime > endTime))
+        {
+            return false;
+        }
+
+        if ((severity != null) && (! severities.contains(severity)))
+        {
+            return false;
+        }
+
+        return (component == null) || (components.contains(component));
+    }
+
+
+    /**
+     * Return whether a log record matches the search criteria.
+     *
+     * @param logRecord log record read from the audit log
+     * @return boolean
+     */
+    boolean matches(OMRSAuditLogRecord   logRecord)
+    {
+        long time = getTime(logRecord);
+
+        if ((time < startTime) || (time > endTime))
+        {
+            return false;
+        }
+
+        if ((severity != null) && (! severity.equals(logRecord.getSeverity())))
+        {
+            return false;
+        }
+
+        return (component == null) || (component.equals(getComponentName(logRecord)));
+    }
+
+
+    /**
+     * Return the time stamp of a log record as the value used in the index.
+     *
+     * @param logRecord log record
+     * @return milliseconds since the epoch
+     */
+    static long getTime(OMRSAuditLogRecord   logRecord)
+    {
+        Date timeStamp = logRecord.getTimeStamp();
+
+        return (timeStamp == null) ? 0L : timeStamp.getTime();
+    }
+
+
+    /**
+     * Return the name of the component that wrote a log record.
+     *
+     * @param logRecord log record
+     * @return component name or null
+     */
+    static String getComponentName(OMRSAuditLogRecord   logRecord)
+    {
+        OMRSAuditLogReportingComponent reportingComponent = logRecord.getReportingComponent();
+
+        return (reportingComponent == null) ? null : reportingComponent.getComponentName();
+    }
+}
@@ -0,0 +1,485 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * AuditLogSegment is one file of the file based audit log.  Each log record is stored as a single line of
+ * JSON and new log records are only ever appended to the end of the file.
+ * <p>
+ *     The segment keeps a sparse index of its content in memory.  The log records are grouped into blocks of
+ *     consecutive lines and, for the segment and each block, the index holds the range of time stamps along with
+ *     the severities and component names of its log records.  Queries use the index to skip the segments and
+ *     blocks that can not hold a matching log record.  The index of a segment written by an earlier run of the
+ *     server is built the first time the segment is queried.
+ * </p>
+ */
+class AuditLogSegment
+{
+    private static final Logger log = LoggerFactory.getLogger(AuditLogSegment.class);
+
+    /*
+     * The reader is thread-safe and is shared by all segments.
+     */
+    private static final ObjectReader recordReader = new ObjectMapper().readerFor(OMRSAuditLogRecord.class);
+
+    private static final String segmentFilePrefix = "segment-";
+    private static final String segmentFileSuffix = ".jsonl";
+    private static final int    recordsPerBlock   = 128;
+
+    private File                 segmentFile;
+    private long                 segmentNumber;
+    private boolean              indexed;
+    private long                 length      = 0;
+    private int                  recordCount = 0;
+    private IndexEntry           summary     = new IndexEntry(0);
+    private List<IndexEntry>     blocks      = new ArrayList<>();
+
+
+    /**
+     * Constructor
+     *
+     * @param directory directory holding the audit log
+     * @param segmentNumber sequence number of the segment
+     * @param isNew true if the segment is being created, false if it was written by an earlier run
+     */
+    AuditLogSegment(File      directory,
+                    long      segmentNumber,
+                    boolean   isNew)
+    {
+        this.segmentFile = new File(directory, String.format("%s%012d%s", segmentFilePrefix, segmentNumber, segmentFileSuffix));
+        this.segmentNumber = segmentNumber;
+        this.indexed = isNew;
+    }
+
+
+    /**
+     * Return the sequence number of the segment held in a file name, or -1 if the file is not a segment.
+     *
+     * @param fileName name of a file in the audit log directory
+     * @return segment number
+     */
+    static long getSegmentNumber(String   fileName)
+    {
+        if ((fileName != null) && (fileName.startsWith(segmentFilePrefix)) && (fileName.endsWith(segmentFileSuffix)))
+        {
+            try
+            {
+                return Long.parseLong(fileName.substring(segmentFilePrefix.length(),
+                                                         fileName.length() - segmentFileSuffix.length()));
+            }
+            catch (NumberFormatException error)
+            {
+                log.debug("Ignoring file " + fileName + " in audit log directory");
+            }
+        }
+
+        return -1;
+    }
+
+
+    /**
+     * Return the file holding this segment.
+     *
+     * @return file
+     */
+    File getSegmentFile()
+    {
+        return segmentFile;
+    }
+
+
+    /**
+     * Return the sequence number of this segment.
+     *
+     * @return segment number
+     */
+    long getSegmentNumber()
+    {
+        return segmentNumber;
+    }
+
+
+    /**
+     * Return the number of bytes of the segment that have been written and indexed.
+     *
+     * @return byte count
+     */
+    synchronized long getLength()
+    {
+        return length;
+    }
+
+
+    /**
+     * Return the number of log records in the segment.
+     *
+     * @return record count
+     */
+    synchronized int getRecordCount()
+    {
+        return recordCount;
+    }
+
+
+    /**
+     * Add a log record that has just been appended to the segment to the index.  This is called by the
+     * writer once the log record is in the file so queries never see log records that are still being written.
+     * A null log record is a line that could not be parsed: it is kept within its block but adds nothing to
+     * the index.
+     *
+     * @param logRecord log record
+     * @param lineLength number of bytes used by the log record, including its line separator
+     */
+    synchronized void indexLogRecord(OMRSAuditLogRecord   logRecord,
+                                     int                  lineLength)
+    {
+        IndexEntry block;
+
+        if ((recordCount % recordsPerBlock) == 0)
+        {
+            block = new IndexEntry(length);
+            blocks.add(block);
+        }
+        else
+        {
+            block = blocks.get(blocks.size() - 1);
+        }
+
+        block.add(logRecord, lineLength);
+        summary.add(logRecord, lineLength);
+
+        length = length + lineLength;
+        recordCount++;
+    }
+
+
+    /**
+     * Pass the log records that match the query to the consumer, in the order they were written, until
+     * the consumer asks to stop.
+     *
+     * @param query search criteria
+     * @param consumer function receiving the matching log records - it returns false once it wants no more
+     * @return false if the consumer asked to stop, otherwise true
+     */
+    boolean readLogRecords(AuditLogQuery                  query,
+                           Predicate<OMRSAuditLogRecord>  consumer)
+    {
+        List<IndexEntry> matchingBlocks = getMatchingBlocks(query);
+
+        if (matchingBlocks.isEmpty())
+        {
+            return true;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile, "r"))
+        {
+            for (IndexEntry block : matchingBlocks)
+            {
+                for (OMRSAuditLogRecord logRecord : readBlock(file, block))
+                {
+                    if ((query.matches(logRecord)) && (! consumer.test(logRecord)))
+                    {
+                        return false;
+                    }
+                }
+            }
+        }
+        catch (IOException error)
+        {
+            log.error("Unable to read audit log segment " + segmentFile.getAbsolutePath() + ": " + error.getMessage());
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Return the log record with the requested unique identifier if it is stored in this segment.
+     * There is no index of unique identifiers, so the lines of the segment are checked for the identifier
+     * before they are parsed.
+     *
+     * @param logRecordId unique identifier of the log record
+     * @return log record or null
+     */
+    OMRSAuditLogRecord findLogRecord(String   logRecordId)
+    {
+        List<IndexEntry> allBlocks = getMatchingBlocks(null);
+
+        try (RandomAccessFile file = new RandomAccessFile(segmentFile, "r"))
+        {
+            for (IndexEntry block : allBlocks)
+            {
+                byte[] content = new byte[(int)block.length];
+
+                file.seek(block.offset);
+                file.readFully(content);
+
+                int lineStart = 0;
+                for (int i = 0; i < content.length; i++)
+                {
+                    if (content[i] == '\n')
+                    {
+                        String line = new String(content, lineStart, i - lineStart, StandardCharsets.UTF_8);
+
+                        if (line.contains(logRecordId))
+                        {
+                            OMRSAuditLogRecord logRecord = parseLogRecord(content, lineStart, i - lineStart);
+
+                            if ((logRecord != null) && (logRecordId.equals(logRecord.getGUID())))
+                            {
+                                return logRecord;
+                            }
+                        }
+
+                        lineStart = i + 1;
+                    }
+                }
+            }
+        }
+        catch (IOException error)
+        {
+            log.error("Unable to read audit log segment " + segmentFile.getAbsolutePath() + ": " + error.getMessage());
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Remove the segment's file.
+     */
+    void delete()
+    {
+        if ((segmentFile.exists()) && (! segmentFile.delete()))
+        {
+            log.error("Unable to delete audit log segment " + segmentFile.getAbsolutePath());
+        }
+    }
+
+
+    /**
+     * Return a copy of the index entries of the blocks that may hold a log record matching the query.
+     *
+     * @param query search criteria - null means all blocks
+     * @return list of blocks in file order
+     */
+    private synchronized List<IndexEntry> getMatchingBlocks(AuditLogQuery   query)
+    {
+        List<IndexEntry> matchingBlocks = new ArrayList<>();
+
+        buildIndex();
+
+        if ((recordCount == 0) ||
+            ((query != null) && (! query.mayMatch(summary.minTime, summary.maxTime, summary.severities, summary.components))))
+        {
+            return matchingBlocks;
+        }
+
+        for (IndexEntry block : blocks)
+        {
+            if ((query == null) || (query.mayMatch(block.minTime, block.maxTime, block.severities, block.components)))
+            {
+                IndexEntry blockCopy = new IndexEntry(block.offset);
+
+                blockCopy.length = block.length;
+                matchingBlocks.add(blockCopy);
+            }
+        }
+
+        return matchingBlocks;
+    }
+
+
+    /**
+     * Build the index of a segment written by an earlier run of the server by reading the whole segment.
+     * A partly written last line (from a server that stopped while writing) is ignored.
+     */
+    private void buildIndex()
+    {
+        if (indexed)
+        {
+            return;
+        }
+
+        indexed = true;
+
+        try (InputStream input = new BufferedInputStream(new FileInputStream(segmentFile)))
+        {
+            byte[] line       = new byte[1024];
+            int    lineLength = 0;
+            int    nextByte;
+
+            while ((nextByte = input.read()) != -1)
+            {
+                if (nextByte == '\n')
+                {
+                    indexLogRecord(parseLogRecord(line, 0, lineLength), lineLength + 1);
+                    lineLength = 0;
+                }
+                else
+                {
+                    if (lineLength == line.length)
+                    {
+                        byte[] largerLine = new byte[line.length * 2];
+
+                        System.arraycopy(line, 0, largerLine, 0, lineLength);
+                        line = largerLine;
+                    }
+
+                    line[lineLength++] = (byte)nextByte;
+                }
+            }
+        }
+        catch (IOException error)
+        {
+            log.error("Unable to index audit log segment " + segmentFile.getAbsolutePath() + ": " + error.getMessage());
+        }
+
+        log.debug("Indexed " + recordCount + " log records in audit log segment " + segmentFile.getName());
+    }
+
+
+    /**
+     * Read and parse the log records in a block.
+     *
+     * @param file open segment file
+     * @param block index entry of the block
+     * @return list of log records
+     * @throws IOException problem reading the file
+     */
+    private List<OMRSAuditLogRecord> readBlock(RandomAccessFile   file,
+                                               IndexEntry         block) throws IOException
+    {
+        List<OMRSAuditLogRecord> logRecords = new ArrayList<>();
+        byte[]                   content    = new byte[(int)block.length];
+
+        file.seek(block.offset);
+        file.readFully(content);
+
+        int lineStart = 0;
+        for (int i = 0; i < content.length; i++)
+        {
+            if (content[i] == '\n')
+            {
+                OMRSAuditLogRecord logRecord = parseLogRecord(content, lineStart, i - lineStart);
+
+                if (logRecord != null)
+                {
+                    logRecords.add(logRecord);
+                }
+
+                lineStart = i + 1;
+            }
+        }
+
+        return logRecords;
+    }
+
+
+    /**
+     * Parse one line of the segment.
+     *
+     * @param content bytes holding the line
+     * @param offset start of the line
+     * @param lineLength length of the line without its separator
+     * @return log record or null if the line is not a valid log record
+     */
+    private OMRSAuditLogRecord parseLogRecord(byte[]   content,
+                                              int      offset,
+                                              int      lineLength)
+    {
+        if (lineLength == 0)
+        {
+            return null;
+        }
+
+        try
+        {
+            return recordReader.readValue(content, offset, lineLength);
+        }
+        catch (IOException error)
+        {
+            log.debug("Skipping invalid line in audit log segment " + segmentFile.getName() + ": " + error.getMessage());
+            return null;
+        }
+    }
+
+
+    /**
+     * IndexEntry summarizes the log records of a block, or of the whole segment.
+     */
+    private static class IndexEntry
+    {
+        long          offset;
+        long          length     = 0;
+        long          minTime    = Long.MAX_VALUE;
+        long          maxTime    = Long.MIN_VALUE;
+        Set<String>   severities = new HashSet<>();
+        Set<String>   components = new HashSet<>();
+
+
+        /**
+         * Constructor
+         *
+         * @param offset position in the file of the first log record
+         */
+        IndexEntry(long   offset)
+        {
+            this.offset = offset;
+        }
+
+
+        /**
+         * Add a log record to the summary.
+         *
+         * @param logRecord log record - null for a line that could not be parsed
+         * @param lineLength number of bytes used by the log record
+         */
+        void add(OMRSAuditLogRecord   logRecord,
+                 int                  lineLength)
+        {
+            length = length + lineLength;
+
+            if (logRecord == null)
+            {
+                return;
+            }
+
+            long   time      = AuditLogQuery.getTime(logRecord);
+            String severity  = logRecord.getSeverity();
+            String component = AuditLogQuery.getComponentName(logRecord);
+
+            minTime = Math.min(minTime, time);
+            maxTime = Math.max(maxTime, time);
+
+            if (severity != null)
+            {
+                severities.add(severity);
+            }
+
+            if (component != null)
+            {
+                components.add(component);
+            }
+        }
+    }
+}
@@ -0,0 +1,475 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AuditLogSegmentWriter appends log records to the segments of the file based audit log on a background thread.
+ * <p>
+ *     Callers add log records to a bounded queue and return immediately.  The writer thread takes all of the
+ *     log records waiting in the queue and appends them to the active segment with a single write (group commit),
+ *     so the cost of each write to the file is shared by all of the log records that arrived while the previous
+ *     write was in progress.  If the queue is full, the log record is dropped and counted rather than holding up
+ *     the caller.
+ * </p>
+ * <p>
+ *     When the active segment reaches its maximum size, a new segment is started.  Once there are more than the
+ *     maximum number of segments, the oldest segments are deleted.  A new segment is also started each time the
+ *     writer starts so segments from an earlier run of the server are never appended to.
+ * </p>
+ */
+class AuditLogSegmentWriter implements Runnable
+{
+    private static final Logger log = LoggerFactory.getLogger(AuditLogSegmentWriter.class);
+
+    /*
+     * The writer is thread-safe and is shared by all instances of the writer.
+     */
+    private static final ObjectWriter recordWriter = new ObjectMapper().writerFor(OMRSAuditLogRecord.class);
+
+    private static final int  maxBatchSize = 1000;
+    private static final long pollTimeMs   = 100;
+
+    private File                                 directory;
+    private long                                 maxSegmentSize;
+    private int                                  maxSegmentCount;
+    private boolean                              forceWrites;
+    private BlockingQueue<OMRSAuditLogRecord>    queuedLogRecords;
+    private List<AuditLogSegment>                segments        = new CopyOnWriteArrayList<>();
+    private AuditLogSegment                      activeSegment   = null;
+    private FileChannel                          activeChannel   = null;
+    private Thread                               writerThread    = null;
+    private volatile boolean                     running         = false;
+    private AtomicLong                           writtenCount    = new AtomicLong(0);
+    private AtomicLong                           droppedCount    = new AtomicLong(0);
+
+
+    /**
+     * Constructor
+     *
+     * @param directory directory holding the audit log segments
+     * @param maxSegmentSize number of bytes that causes a new segment to be started
+     * @param maxSegmentCount number of segments that are kept
+     * @param maxQueuedLogRecords number of log records that can wait to be written
+     * @param forceWrites true if each group of log records is forced to the storage device before it is indexed
+     */
+    AuditLogSegmentWriter(File      directory,
+                          long      maxSegmentSize,
+                          int       maxSegmentCount,
+                          int       maxQueuedLogRecords,
+                          boolean   forceWrites)
+    {
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxSegmentCount = Math.max(maxSegmentCount, 1);
+        this.forceWrites = forceWrites;
+        this.queuedLogRecords = new ArrayBlockingQueue<>(Math.max(maxQueuedLogRecords, 1));
+    }
+
+
+    /**
+     * Load the existing segments from the audit log directory, start a new segment and start the writer thread.
+     *
+     * @param threadName name of the writer thread
+     * @throws IOException unable to create the audit log directory or new segment
+     */
+    synchronized void start(String   threadName) throws IOException
+    {
+        if (running)
+        {
+            return;
+        }
+
+        if ((! directory.isDirectory()) && (! directory.mkdirs()))
+        {
+            throw new IOException("Unable to create audit log directory " + directory.getAbsolutePath());
+        }
+
+        List<Long> segmentNumbers = new ArrayList<>();
+        String[]   fileNames      = directory.list();
+
+        if (fileNames != null)
+        {
+            for (String fileName : fileNames)
+            {
+                long segmentNumber = AuditLogSegment.getSegmentNumber(fileName);
+
+                if (segmentNumber >= 0)
+                {
+                    segmentNumbers.add(segmentNumber);
+                }
+            }
+        }
+
+        segmentNumbers.sort(null);
+
+        for (Long segmentNumber : segmentNumbers)
+        {
+            segments.add(new AuditLogSegment(directory, segmentNumber, false));
+        }
+
+        this.startNewSegment();
+        this.removeExpiredSegments();
+
+        running = true;
+        writerThread = new Thread(this, threadName);
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+
+    /**
+     * Queue a log record for writing.  This never waits.
+     *
+     * @param logRecord log record
+     * @return true if the log record was queued, false if the queue is full or the writer has stopped
+     */
+    boolean queueLogRecord(OMRSAuditLogRecord   logRecord)
+    {
+        if ((running) && (queuedLogRecords.offer(logRecord)))
+        {
+            return true;
+        }
+
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+
+    /**
+     * Return the segments of the audit log, oldest first.  The list is a snapshot so it is not affected by
+     * segments that are started or deleted after it is returned.
+     *
+     * @return list of segments
+     */
+    List<AuditLogSegment> getSegments()
+    {
+        return new ArrayList<>(segments);
+    }
+
+
+    /**
+     * Return the number of log records waiting to be written.
+     *
+     * @return count
+     */
+    int getQueuedLogRecordCount()
+    {
+        return queuedLogRecords.size();
+    }
+
+
+    /**
+     * Return the number of log records written to the audit log by this writer.
+     *
+     * @return count
+     */
+    long getWrittenLogRecordCount()
+    {
+        return writtenCount.get();
+    }
+
+
+    /**
+     * Return the number of log records that could not be queued or written.
+     *
+     * @return count
+     */
+    long getDroppedLogRecordCount()
+    {
+        return droppedCount.get();
+    }
+
+
+    /**
+     * Stop accepting log records, write the log records that are already queued and stop the writer thread.
+     *
+     * @param waitTimeMs maximum time to wait for the queued log records to be written
+     */
+    void shutdown(long   waitTimeMs)
+    {
+        Thread thread;
+
+        synchronized (this)
+        {
+            running = false;
+            thread = writerThread;
+            writerThread = null;
+        }
+
+        if (thread != null)
+        {
+            try
+            {
+                thread.join(waitTimeMs);
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Write the queued log records in groups until the writer is shut down and the queue is empty.
+     */
+    @Override
+    public void run()
+    {
+        List<OMRSAuditLogRecord> batch = new ArrayList<>();
+
+        while ((running) || (! queuedLogRecords.isEmpty()))
+        {
+            try
+            {
+                OMRSAuditLogRecord logRecord = queuedLogRecords.poll(pollTimeMs, TimeUnit.MILLISECONDS);
+
+                if (logRecord != null)
+                {
+                    batch.add(logRecord);
+                    queuedLogRecords.drainTo(batch, maxBatchSize - 1);
+
+                    this.writeBatch(batch);
+                    batch.clear();
+                }
+            }
+            catch (InterruptedException error)
+            {
+                log.debug("Audit log writer interrupted");
+            }
+            catch (Throwable error)
+            {
+                log.error("Unexpected error in audit log writer: " + error.toString());
+                droppedCount.addAndGet(batch.size());
+                batch.clear();
+            }
+        }
+
+        this.closeActiveSegment();
+    }
+
+
+    /**
+     * Append a group of log records to the active segment, starting new segments as they fill.  If a new
+     * segment can not be started, the log records that have not been written are dropped.
+     *
+     * @param batch log records taken from the queue
+     */
+    private void writeBatch(List<OMRSAuditLogRecord>   batch)
+    {
+        ByteArrayOutputStream    buffer         = new ByteArrayOutputStream();
+        List<OMRSAuditLogRecord> bufferedRecords = new ArrayList<>();
+        List<Integer>            lineLengths     = new ArrayList<>();
+
+        if (activeChannel == null)
+        {
+            this.rollSegment();
+        }
+
+        for (int i = 0; i < batch.size(); i++)
+        {
+            OMRSAuditLogRecord logRecord = batch.get(i);
+            byte[]             line;
+
+            /*
+             * The buffer is always empty when there is no active segment since the segment is only
+             * closed after the buffer is committed.
+             */
+            if (activeChannel == null)
+            {
+                droppedCount.addAndGet(batch.size() - i);
+                return;
+            }
+
+            try
+            {
+                line = recordWriter.writeValueAsBytes(logRecord);
+            }
+            catch (JsonProcessingException error)
+            {
+                log.error("Unable to format audit log record " + logRecord.getGUID() + ": " + error.getMessage());
+                droppedCount.incrementAndGet();
+                continue;
+            }
+
+            if ((activeSegment.getLength() + buffer.size() + line.length + 1 > maxSegmentSize) &&
+                ((activeSegment.getRecordCount() > 0) || (! bufferedRecords.isEmpty())))
+            {
+                this.commit(buffer, bufferedRecords, lineLengths);
+                this.rollSegment();
+
+                if (activeChannel == null)
+                {
+                    droppedCount.addAndGet(batch.size() - i);
+                    return;
+                }
+            }
+
+            buffer.write(line, 0, line.length);
+            buffer.write('\n');
+            bufferedRecords.add(logRecord);
+            lineLengths.add(line.length + 1);
+        }
+
+        this.commit(buffer, bufferedRecords, lineLengths);
+    }
+
+
+    /**
+     * Write the buffered log records to the active segment and add them to its index.  If the write fails,
+     * the log records are dropped and a new segment is started since the end of the active segment is unknown.
+     *
+     * @param buffer formatted log records
+     * @param bufferedRecords log records in the buffer
+     * @param lineLengths length of each log record in the buffer
+     */
+    private void commit(ByteArrayOutputStream      buffer,
+                        List<OMRSAuditLogRecord>   bufferedRecords,
+                        List<Integer>              lineLengths)
+    {
+        if (bufferedRecords.isEmpty())
+        {
+            return;
+        }
+
+        try
+        {
+            ByteBuffer content = ByteBuffer.wrap(buffer.toByteArray());
+
+            while (content.hasRemaining())
+            {
+                activeChannel.write(content);
+            }
+
+            if (forceWrites)
+            {
+                activeChannel.force(false);
+            }
+
+            for (int i = 0; i < bufferedRecords.size(); i++)
+            {
+                activeSegment.indexLogRecord(bufferedRecords.get(i), lineLengths.get(i));
+            }
+
+            writtenCount.addAndGet(bufferedRecords.size());
+        }
+        catch (IOException error)
+        {
+            log.error("Unable to write " + bufferedRecords.size() + " log records to audit log segment " +
+                              activeSegment.getSegmentFile().getAbsolutePath() + ": " + error.getMessage());
+
+            droppedCount.addAndGet(bufferedRecords.size());
+            this.rollSegment();
+        }
+        finally
+        {
+            buffer.reset();
+            bufferedRecords.clear();
+            lineLengths.clear();
+        }
+    }
+
+
+    /**
+     * Close the active segment, start a new one and delete the oldest segments beyond the retention limit.
+     * If the new segment can not be created, there is no active segment until the next attempt.
+     */
+    private void rollSegment()
+    {
+        this.closeActiveSegment();
+
+        try
+        {
+            this.startNewSegment();
+        }
+        catch (IOException error)
+        {
+            log.error("Unable to start new audit log segment: " + error.getMessage());
+        }
+
+        this.removeExpiredSegments();
+    }
+
+
+    /**
+     * Delete the oldest segments beyond the retention limit.
+     */
+    private void removeExpiredSegments()
+    {
+        while (segments.size() > maxSegmentCount)
+        {
+            AuditLogSegment oldestSegment = segments.remove(0);
+
+            log.debug("Deleting audit log segment " + oldestSegment.getSegmentFile().getName());
+            oldestSegment.delete();
+        }
+    }
+
+
+    /**
+     * Create the file for a new active segment and add it to the list of segments.
+     *
+     * @throws IOException unable to create the file
+     */
+    private void startNewSegment() throws IOException
+    {
+        long nextSegmentNumber = 1;
+
+        if (! segments.isEmpty())
+        {
+            nextSegmentNumber = segments.get(segments.size() - 1).getSegmentNumber() + 1;
+        }
+
+        AuditLogSegment newSegment = new AuditLogSegment(directory, nextSegmentNumber, true);
+
+        activeChannel = FileChannel.open(newSegment.getSegmentFile().toPath(),
+                                         StandardOpenOption.CREATE_NEW,
+                                         StandardOpenOption.WRITE,
+                                         StandardOpenOption.APPEND);
+        activeSegment = newSegment;
+        segments.add(newSegment);
+    }
+
+
+    /**
+     * Close the file of the active segment.
+     */
+    private void closeActiveSegment()
+    {
+        if (activeChannel != null)
+        {
+            try
+            {
+                activeChannel.close();
+            }
+            catch (IOException error)
+            {
+                log.error("Unable to close audit log segment " + activeSegment.getSegmentFile().getAbsolutePath() +
+                                  ": " + error.getMessage());
+            }
+
+            activeChannel = null;
+        }
+    }
+}
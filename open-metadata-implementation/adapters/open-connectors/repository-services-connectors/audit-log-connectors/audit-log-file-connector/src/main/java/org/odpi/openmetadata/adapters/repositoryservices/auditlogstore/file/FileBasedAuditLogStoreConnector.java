@@ -5,24 +5,68 @@ package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStoreConnectorBase;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * FileBasedAuditLogStoreConnector provides a connector implementation for a file based audit log.
- * The audit log is stored in a directory and each audit log record is stored as a file with a filename build
- * from the record's unique identifier (guid).
+ * The audit log is stored in a directory named in the endpoint of the connection.  The log records are appended,
+ * one JSON document per line, to a series of segment files by a background writer so that storing a log record
+ * never waits for the file system.  When a segment reaches its maximum size a new segment is started and the
+ * oldest segments are deleted once the maximum number of segments is reached.
+ * <p>
+ *     The queries use a sparse index of each segment, held in memory, to skip the segments and blocks of log
+ *     records that can not hold a matching log record.  Log records are returned in the order they were written.
+ *     A log record is returned by the queries once the writer has added it to a segment, which is typically
+ *     within a few milliseconds of it being stored.
+ * </p>
+ * <p>
+ *     The following configuration properties are supported:
+ * </p>
+ * <ul>
+ *     <li>maxSegmentSize - the size in bytes that causes a new segment to be started (default 16MB).</li>
+ *     <li>maxSegmentCount - the number of segments that are kept (default 32).</li>
+ *     <li>maxQueuedLogRecords - the number of log records that can wait to be written.  Log records that arrive
+ *     while the queue is full are dropped and counted (default 100000).</li>
+ *     <li>forceWrites - set to true to force each group of log records to the storage device before it is
+ *     indexed (default false).</li>
+ * </ul>
  */
 public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorBase
 {
     private static final Logger log = LoggerFactory.getLogger(FileBasedAuditLogStoreConnector.class);
 
+    /*
+     * This is the name of the audit log directory that is used if there is no address in the connection.
+     */
+    private static final String defaultDirectoryName = "omrs.auditlog";
+    private static final String writerThreadName     = "FileBasedAuditLogWriter";
+    private static final long   shutdownWaitTimeMs   = 10000;
+    private static final long   dropReportIntervalMs = 60000;
+
+    private String                 auditLogStoreName   = defaultDirectoryName;
+    private long                   maxSegmentSize      = 16 * 1024 * 1024;
+    private int                    maxSegmentCount     = 32;
+    private int                    maxQueuedLogRecords = 100000;
+    private boolean                forceWrites         = false;
+    private volatile AuditLogSegmentWriter segmentWriter      = null;
+    private boolean                        disconnected       = false;
+    private AtomicLong                     lastDropReportTime = new AtomicLong(Long.MIN_VALUE);
+
 
     /**
      * Default constructor used by the connector provider.
@@ -32,6 +76,59 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     }
 
 
+    /**
+     * Initialize the connector.
+     *
+     * @param connectorInstanceId - unique id for the connector instance - useful for messages etc
+     * @param connectionProperties - POJO for the configuration used to create the connector.
+     */
+    @Override
+    public void initialize(String connectorInstanceId, ConnectionProperties connectionProperties)
+    {
+        super.initialize(connectorInstanceId, connectionProperties);
+
+        EndpointProperties endpoint = connectionProperties.getEndpoint();
+
+        if ((endpoint != null) && (endpoint.getAddress() != null))
+        {
+            auditLogStoreName = endpoint.getAddress();
+        }
+
+        Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+
+        if (configurationProperties != null)
+        {
+            Object   maxSegmentSize = configurationProperties.get("maxSegmentSize");
+
+            if (maxSegmentSize instanceof Number)
+            {
+                this.maxSegmentSize = ((Number)maxSegmentSize).longValue();
+            }
+
+            Object   maxSegmentCount = configurationProperties.get("maxSegmentCount");
+
+            if (maxSegmentCount instanceof Integer)
+            {
+                this.maxSegmentCount = (Integer)maxSegmentCount;
+            }
+
+            Object   maxQueuedLogRecords = configurationProperties.get("maxQueuedLogRecords");
+
+            if (maxQueuedLogRecords instanceof Integer)
+            {
+                this.maxQueuedLogRecords = (Integer)maxQueuedLogRecords;
+            }
+
+            Object   forceWrites = configurationProperties.get("forceWrites");
+
+            if (forceWrites instanceof Boolean)
+            {
+                this.forceWrites = (Boolean)forceWrites;
+            }
+        }
+    }
+
+
     /**
      * Store the audit log record in the audit log store.
      *
@@ -56,9 +153,33 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                 errorCode.getUserAction());
         }
 
-        log.debug("AuditLogRecord: " + logRecord.toString());
+        if (logRecord.getOriginator() == null)
+        {
+            OMRSErrorCode errorCode    = OMRSErrorCode.NULL_LOG_RECORD_ORIGINATOR;
+            String        errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage();
 
-        return null;
+            throw new InvalidParameterException(errorCode.getHTTPErrorCode(),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                errorMessage,
+                                                errorCode.getSystemAction(),
+                                                errorCode.getUserAction());
+        }
+
+        if (logRecord.getGUID() == null)
+        {
+            logRecord.setGUID(UUID.randomUUID().toString());
+        }
+
+        AuditLogSegmentWriter writer = this.getSegmentWriter();
+
+        if ((writer == null) || (! writer.queueLogRecord(logRecord)))
+        {
+            this.reportDroppedLogRecord(logRecord);
+            return null;
+        }
+
+        return logRecord.getGUID();
     }
 
 
@@ -71,6 +192,29 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
      */
     public OMRSAuditLogRecord  getAuditLogRecord(String     logRecordId) throws InvalidParameterException
     {
+        final String   methodName = "getAuditLogRecord";
+
+        this.validateSearchValue(logRecordId, "logRecordId", methodName);
+
+        AuditLogSegmentWriter writer = this.getSegmentWriter();
+
+        if (writer != null)
+        {
+            List<AuditLogSegment> segments = writer.getSegments();
+
+            /*
+             * The most recent log records are the most likely to be requested.
+             */
+            for (int i = segments.size() - 1; i >= 0; i--)
+            {
+                OMRSAuditLogRecord logRecord = segments.get(i).findLogRecord(logRecordId);
+
+                if (logRecord != null)
+                {
+                    return logRecord;
+                }
+            }
+        }
 
         return null;
     }
@@ -94,7 +238,11 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                   int     maximumRecords) throws InvalidParameterException,
                                                                                                  PagingErrorException
     {
-        return null;
+        final String   methodName = "getAuditLogRecordsByTimeStamp";
+
+        this.validateQuery(startDate, endDate, offset, maximumRecords, methodName);
+
+        return this.findLogRecords(new AuditLogQuery(startDate, endDate, null, null), offset, maximumRecords);
     }
 
     /**
@@ -117,7 +265,12 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                  int      maximumRecords) throws InvalidParameterException,
                                                                                                  PagingErrorException
     {
-        return null;
+        final String   methodName = "getAuditLogRecordsBySeverity";
+
+        this.validateSearchValue(severity, "severity", methodName);
+        this.validateQuery(startDate, endDate, offset, maximumRecords, methodName);
+
+        return this.findLogRecords(new AuditLogQuery(startDate, endDate, severity, null), offset, maximumRecords);
     }
 
 
@@ -141,7 +294,259 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
                                                                   int    maximumRecords) throws InvalidParameterException,
                                                                                                 PagingErrorException
     {
-        return null;
+        final String   methodName = "getAuditLogRecordsByComponent";
+
+        this.validateSearchValue(component, "component", methodName);
+        this.validateQuery(startDate, endDate, offset, maximumRecords, methodName);
+
+        return this.findLogRecords(new AuditLogQuery(startDate, endDate, null, component), offset, maximumRecords);
+    }
+
+
+    /**
+     * Return the number of log records waiting to be written to the audit log.
+     *
+     * @return count
+     */
+    public int getQueuedLogRecordCount()
+    {
+        AuditLogSegmentWriter writer = segmentWriter;
+
+        return (writer == null) ? 0 : writer.getQueuedLogRecordCount();
+    }
+
+
+    /**
+     * Return the number of log records that have been written to the audit log since the connector started.
+     *
+     * @return count
+     */
+    public long getWrittenLogRecordCount()
+    {
+        AuditLogSegmentWriter writer = segmentWriter;
+
+        return (writer == null) ? 0 : writer.getWrittenLogRecordCount();
+    }
+
+
+    /**
+     * Return the number of log records that could not be written to the audit log because the queue was full
+     * or the file system returned an error.
+     *
+     * @return count
+     */
+    public long getDroppedLogRecordCount()
+    {
+        AuditLogSegmentWriter writer = segmentWriter;
+
+        return (writer == null) ? 0 : writer.getDroppedLogRecordCount();
+    }
+
+
+    /**
+     * Read the log records matching the query from the segments, oldest first, skipping the first offset
+     * matches and stopping once the page is full.
+     *
+     * @param query search criteria
+     * @param offset number of matching log records to skip
+     * @param maximumRecords maximum number of log records to return - zero means no limit
+     * @return list of log records or null if there are none
+     */
+    private List<OMRSAuditLogRecord> findLogRecords(AuditLogQuery   query,
+                                                    int             offset,
+                                                    int             maximumRecords)
+    {
+        AuditLogSegmentWriter writer = this.getSegmentWriter();
+
+        if (writer == null)
+        {
+            return null;
+        }
+
+        List<OMRSAuditLogRecord> results   = new ArrayList<>();
+        int[]                    skipCount = { offset };
+
+        for (AuditLogSegment segment : writer.getSegments())
+        {
+            boolean moreWanted = segment.readLogRecords(query, (logRecord) ->
+            {
+                if (skipCount[0] > 0)
+                {
+                    skipCount[0]--;
+                    return true;
+                }
+
+                results.add(logRecord);
+
+                return (maximumRecords == 0) || (results.size() < maximumRecords);
+            });
+
+            if (! moreWanted)
+            {
+                break;
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Log that a log record has been dropped.  When the audit log can not keep up, every log record is dropped
+     * so the error is only logged once in each reporting interval; the rest are only counted.
+     *
+     * @param logRecord log record that was dropped
+     */
+    private void reportDroppedLogRecord(OMRSAuditLogRecord   logRecord)
+    {
+        long now            = System.currentTimeMillis();
+        long lastReportTime = lastDropReportTime.get();
+
+        if (((lastReportTime == Long.MIN_VALUE) || (now - lastReportTime >= dropReportIntervalMs)) &&
+            (lastDropReportTime.compareAndSet(lastReportTime, now)))
+        {
+            log.error("Audit log record dropped by " + auditLogStoreName + " (" + this.getDroppedLogRecordCount() +
+                              " dropped since the audit log started): " + logRecord.toString());
+        }
+    }
+
+
+    /**
+     * Throw an exception if a search value is null.
+     *
+     * @param searchValue value supplied by the caller
+     * @param parameterName name of the parameter
+     * @param methodName calling method
+     * @throws InvalidParameterException the search value is null
+     */
+    private void validateSearchValue(String   searchValue,
+                                     String   parameterName,
+                                     String   methodName) throws InvalidParameterException
+    {
+        if (searchValue == null)
+        {
+            OMRSErrorCode errorCode    = OMRSErrorCode.NULL_AUDIT_LOG_SEARCH_VALUE;
+            String        errorMessage = errorCode.getErrorMessageId()
+                                       + errorCode.getFormattedErrorMessage(parameterName, methodName, auditLogStoreName);
+
+            throw new InvalidParameterException(errorCode.getHTTPErrorCode(),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                errorMessage,
+                                                errorCode.getSystemAction(),
+                                                errorCode.getUserAction());
+        }
+    }
+
+
+    /**
+     * Throw an exception if the time period or paging parameters of a query are invalid.
+     *
+     * @param startDate start of time period
+     * @param endDate end of time period
+     * @param offset offset of full collection to begin the return results
+     * @param maximumRecords maximum number of log records to return
+     * @param methodName calling method
+     * @throws InvalidParameterException the start date is after the end date
+     * @throws PagingErrorException the offset or maximumRecords is negative
+     */
+    private void validateQuery(Date     startDate,
+                               Date     endDate,
+                               int      offset,
+                               int      maximumRecords,
+                               String   methodName) throws InvalidParameterException,
+                                                           PagingErrorException
+    {
+        if ((startDate != null) && (endDate != null) && (startDate.after(endDate)))
+        {
+            OMRSErrorCode errorCode    = OMRSErrorCode.INVALID_AUDIT_LOG_TIME_PERIOD;
+            String        errorMessage = errorCode.getErrorMessageId()
+                                       + errorCode.getFormattedErrorMessage(startDate.toString(),
+                                                                            endDate.toString(),
+                                                                            methodName,
+                                                                            auditLogStoreName);
+
+            throw new InvalidParameterException(errorCode.getHTTPErrorCode(),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                errorMessage,
+                                                errorCode.getSystemAction(),
+                                                errorCode.getUserAction());
+        }
+
+        this.validatePagingValue(offset, "offset", methodName);
+        this.validatePagingValue(maximumRecords, "maximumRecords", methodName);
+    }
+
+
+    /**
+     * Throw an exception if a paging parameter is negative.
+     *
+     * @param pagingValue value supplied by the caller
+     * @param parameterName name of the parameter
+     * @param methodName calling method
+     * @throws PagingErrorException the paging value is negative
+     */
+    private void validatePagingValue(int      pagingValue,
+                                     String   parameterName,
+                                     String   methodName) throws PagingErrorException
+    {
+        if (pagingValue < 0)
+        {
+            OMRSErrorCode errorCode    = OMRSErrorCode.NEGATIVE_AUDIT_LOG_PAGING_VALUE;
+            String        errorMessage = errorCode.getErrorMessageId()
+                                       + errorCode.getFormattedErrorMessage(parameterName,
+                                                                            Integer.toString(pagingValue),
+                                                                            methodName,
+                                                                            auditLogStoreName);
+
+            throw new PagingErrorException(errorCode.getHTTPErrorCode(),
+                                           this.getClass().getName(),
+                                           methodName,
+                                           errorMessage,
+                                           errorCode.getSystemAction(),
+                                           errorCode.getUserAction());
+        }
+    }
+
+
+    /**
+     * Return the writer for the audit log, starting it if this is the first use of the audit log.  The
+     * audit log store may be used without start() being called so the writer is started on first use.
+     *
+     * @return writer or null if the audit log directory is not usable or the connector is disconnected
+     */
+    private synchronized AuditLogSegmentWriter getSegmentWriter()
+    {
+        if (disconnected)
+        {
+            return null;
+        }
+
+        if (segmentWriter == null)
+        {
+            AuditLogSegmentWriter writer = new AuditLogSegmentWriter(new File(auditLogStoreName),
+                                                                     maxSegmentSize,
+                                                                     maxSegmentCount,
+                                                                     maxQueuedLogRecords,
+                                                                     forceWrites);
+            try
+            {
+                writer.start(writerThreadName);
+                segmentWriter = writer;
+            }
+            catch (IOException error)
+            {
+                log.error("Unable to open audit log " + auditLogStoreName + ": " + error.getMessage());
+            }
+        }
+
+        return segmentWriter;
     }
 
 
@@ -153,6 +558,8 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
     public void start() throws ConnectorCheckedException
     {
         super.start();
+
+        this.getSegmentWriter();
     }
 
 
@@ -163,6 +570,19 @@ public class FileBasedAuditLogStoreConnector extends OMRSAuditLogStoreConnectorB
      */
     public  void disconnect() throws ConnectorCheckedException
     {
+        AuditLogSegmentWriter writer;
+
+        synchronized (this)
+        {
+            writer = segmentWriter;
+            disconnected = true;
+        }
+
+        if (writer != null)
+        {
+            writer.shutdown(shutdownWaitTimeMs);
+        }
+
         super.disconnect();
     }
 }
@@ -0,0 +1,380 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.auditlogstore.file;
+
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecordOriginator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogReportingComponent;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.InvalidParameterException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify the writing, rolling, retention and querying of the file based audit log store.
+ */
+public class FileBasedAuditLogStoreConnectorTest
+{
+    private static final long baseTime = 1500000000000L;
+
+    private File directory = null;
+
+
+    /**
+     * Create an empty directory for the audit log.
+     *
+     * @throws IOException unable to create the directory
+     */
+    @BeforeMethod public void createDirectory() throws IOException
+    {
+        directory = Files.createTempDirectory("auditlog").toFile();
+    }
+
+
+    /**
+     * Remove the audit log directory.
+     */
+    @AfterMethod public void removeDirectory()
+    {
+        File[] files = directory.listFiles();
+
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                assertTrue(file.delete());
+            }
+        }
+
+        assertTrue(directory.delete());
+    }
+
+
+    /**
+     * Validate the paged queries by time, severity and component across several segments.
+     *
+     * @throws Exception problem with the audit log
+     */
+    @Test public void testQueries() throws Exception
+    {
+        final int recordCount = 1000;
+
+        FileBasedAuditLogStoreConnector connector = getConnector(20000, 100);
+
+        for (int i = 0; i < recordCount; i++)
+        {
+            String guid = connector.storeLogRecord(getLogRecord(i));
+
+            assertEquals(guid, "guid-" + i);
+        }
+
+        waitForWrites(connector, recordCount);
+        assertTrue(countSegmentFiles() > 1);
+
+        List<OMRSAuditLogRecord> page = connector.getAuditLogRecordsByTimeStamp(new Date(baseTime + 100),
+                                                                               new Date(baseTime + 899),
+                                                                               10,
+                                                                               50);
+        assertEquals(page.size(), 50);
+        assertEquals(page.get(0).getGUID(), "guid-110");
+        assertEquals(page.get(49).getGUID(), "guid-159");
+
+        List<OMRSAuditLogRecord> lastPage = connector.getAuditLogRecordsByTimeStamp(new Date(baseTime + 100),
+                                                                                   new Date(baseTime + 899),
+                                                                                   790,
+                                                                                   50);
+        assertEquals(lastPage.size(), 10);
+        assertEquals(lastPage.get(9).getGUID(), "guid-899");
+
+        List<OMRSAuditLogRecord> errors = connector.getAuditLogRecordsBySeverity("Error", null, null, 0, 0);
+        assertEquals(errors.size(), recordCount / 100);
+        for (OMRSAuditLogRecord logRecord : errors)
+        {
+            assertEquals(logRecord.getSeverity(), "Error");
+        }
+
+        List<OMRSAuditLogRecord> componentRecords = connector.getAuditLogRecordsByComponent("Component-3",
+                                                                                           new Date(baseTime),
+                                                                                           new Date(baseTime + 499),
+                                                                                           0,
+                                                                                           0);
+        assertEquals(componentRecords.size(), 50);
+        assertEquals(componentRecords.get(0).getGUID(), "guid-3");
+
+        assertNull(connector.getAuditLogRecordsBySeverity("Unknown", null, null, 0, 0));
+        assertNull(connector.getAuditLogRecordsByTimeStamp(new Date(baseTime + recordCount), null, 0, 0));
+
+        OMRSAuditLogRecord logRecord = connector.getAuditLogRecord("guid-555");
+        assertNotNull(logRecord);
+        assertEquals(logRecord.getMessageText(), "Message 555");
+        assertNull(connector.getAuditLogRecord("guid-unknown"));
+
+        connector.disconnect();
+    }
+
+
+    /**
+     * Validate that the oldest segments are deleted and that the log records of the remaining segments are
+     * available after a restart.
+     *
+     * @throws Exception problem with the audit log
+     */
+    @Test public void testRetentionAndRestart() throws Exception
+    {
+        final int recordCount = 500;
+
+        FileBasedAuditLogStoreConnector connector = getConnector(5000, 3);
+
+        for (int i = 0; i < recordCount; i++)
+        {
+            connector.storeLogRecord(getLogRecord(i));
+        }
+
+        waitForWrites(connector, recordCount);
+        connector.disconnect();
+
+        assertEquals(connector.getDroppedLogRecordCount(), 0);
+        assertEquals(countSegmentFiles(), 3);
+
+        FileBasedAuditLogStoreConnector restartedConnector = getConnector(5000, 3);
+
+        List<OMRSAuditLogRecord> logRecords = restartedConnector.getAuditLogRecordsByTimeStamp(null, null, 0, 0);
+
+        assertNotNull(logRecords);
+        assertTrue(logRecords.size() < recordCount);
+        assertEquals(logRecords.get(logRecords.size() - 1).getGUID(), "guid-" + (recordCount - 1));
+        assertNull(restartedConnector.getAuditLogRecord("guid-0"));
+        assertEquals(countSegmentFiles(), 3);
+
+        restartedConnector.disconnect();
+    }
+
+
+    /**
+     * Validate that log records are dropped and counted once when a new segment can not be started, and that
+     * writing resumes once the problem is cleared.
+     *
+     * @throws Exception problem with the audit log
+     */
+    @Test public void testSegmentRollFailure() throws Exception
+    {
+        final int recordCount = 200;
+
+        FileBasedAuditLogStoreConnector connector = getConnector(5000, 10);
+
+        connector.start();
+
+        /*
+         * A directory with the name of the next segment stops it being created.
+         */
+        File blockedSegment = new File(directory, "segment-000000000002.jsonl");
+
+        assertTrue(blockedSegment.mkdir());
+
+        for (int i = 0; i < recordCount; i++)
+        {
+            connector.storeLogRecord(getLogRecord(i));
+        }
+
+        waitForWrites(connector, recordCount, true);
+
+        assertTrue(connector.getWrittenLogRecordCount() > 0);
+        assertTrue(connector.getDroppedLogRecordCount() > 0);
+        assertEquals(connector.getWrittenLogRecordCount() + connector.getDroppedLogRecordCount(), recordCount);
+
+        assertTrue(blockedSegment.delete());
+
+        long droppedCount = connector.getDroppedLogRecordCount();
+
+        connector.storeLogRecord(getLogRecord(recordCount));
+        waitForWrites(connector, recordCount + 1, true);
+
+        assertEquals(connector.getDroppedLogRecordCount(), droppedCount);
+        assertNotNull(connector.getAuditLogRecord("guid-" + recordCount));
+
+        connector.disconnect();
+    }
+
+
+    /**
+     * Validate the checking of the parameters.
+     *
+     * @throws Exception problem with the audit log
+     */
+    @Test public void testInvalidParameters() throws Exception
+    {
+        FileBasedAuditLogStoreConnector connector = getConnector(5000, 3);
+
+        try
+        {
+            connector.storeLogRecord(null);
+            fail("Null log record accepted");
+        }
+        catch (InvalidParameterException error)
+        {
+            assertEquals(error.getReportedHTTPCode(), 400);
+        }
+
+        try
+        {
+            connector.getAuditLogRecordsByTimeStamp(new Date(baseTime + 1), new Date(baseTime), 0, 0);
+            fail("Invalid time period accepted");
+        }
+        catch (InvalidParameterException error)
+        {
+            assertEquals(error.getReportedHTTPCode(), 400);
+        }
+
+        try
+        {
+            connector.getAuditLogRecordsBySeverity("Error", null, null, 0, -1);
+            fail("Negative page size accepted");
+        }
+        catch (PagingErrorException error)
+        {
+            assertEquals(error.getReportedHTTPCode(), 400);
+        }
+
+        try
+        {
+            connector.getAuditLogRecordsByComponent(null, null, null, 0, 0);
+            fail("Null component accepted");
+        }
+        catch (InvalidParameterException error)
+        {
+            assertEquals(error.getReportedHTTPCode(), 400);
+        }
+
+        connector.disconnect();
+    }
+
+
+    /**
+     * Create a connector for the test directory.
+     *
+     * @param maxSegmentSize size that starts a new segment
+     * @param maxSegmentCount number of segments kept
+     * @return initialized connector
+     */
+    private FileBasedAuditLogStoreConnector getConnector(int   maxSegmentSize,
+                                                         int   maxSegmentCount)
+    {
+        Connection          connection              = new Connection();
+        Endpoint            endpoint                = new Endpoint();
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        endpoint.setAddress(directory.getAbsolutePath());
+        configurationProperties.put("maxSegmentSize", maxSegmentSize);
+        configurationProperties.put("maxSegmentCount", maxSegmentCount);
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        FileBasedAuditLogStoreConnector connector = new FileBasedAuditLogStoreConnector();
+
+        connector.initialize("test", new ConnectionProperties(connection));
+
+        return connector;
+    }
+
+
+    /**
+     * Build a log record.  Every hundredth log record is an error and the log records are written by ten
+     * components in turn.
+     *
+     * @param index sequence number of the log record
+     * @return log record
+     */
+    private OMRSAuditLogRecord getLogRecord(int   index)
+    {
+        OMRSAuditLogRecordOriginator   originator = new OMRSAuditLogRecordOriginator();
+        OMRSAuditLogReportingComponent component  = new OMRSAuditLogReportingComponent(index % 10,
+                                                                                       "Component-" + (index % 10),
+                                                                                       "Test component",
+                                                                                       null);
+        originator.setServerName("TestServer");
+
+        OMRSAuditLogRecord logRecord = new OMRSAuditLogRecord(originator,
+                                                              component,
+                                                              (index % 100 == 0) ? "Error" : "Information",
+                                                              "TEST-" + index,
+                                                              "Message " + index,
+                                                              null,
+                                                              null,
+                                                              null);
+        logRecord.setGUID("guid-" + index);
+        logRecord.setTimeStamp(new Date(baseTime + index));
+
+        return logRecord;
+    }
+
+
+    /**
+     * Wait for the writer to write the log records.
+     *
+     * @param connector connector under test
+     * @param recordCount number of log records stored
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitForWrites(FileBasedAuditLogStoreConnector connector,
+                               int                             recordCount) throws InterruptedException
+    {
+        waitForWrites(connector, recordCount, false);
+    }
+
+
+    /**
+     * Wait for the writer to write, or optionally drop, the log records.
+     *
+     * @param connector connector under test
+     * @param recordCount number of log records stored
+     * @param includeDropped true if dropped log records are counted as processed
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitForWrites(FileBasedAuditLogStoreConnector connector,
+                               int                             recordCount,
+                               boolean                         includeDropped) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + 10000;
+
+        while (connector.getWrittenLogRecordCount() + (includeDropped ? connector.getDroppedLogRecordCount() : 0) < recordCount)
+        {
+            if (System.currentTimeMillis() > endTime)
+            {
+                fail("Timed out waiting for the audit log writer");
+            }
+
+            Thread.sleep(10);
+        }
+    }
+
+
+    /**
+     * Return the number of segment files in the audit log directory.
+     *
+     * @return count
+     */
+    private int countSegmentFiles()
+    {
+        String[] fileNames = directory.list();
+
+        return (fileNames == null) ? 0 : fileNames.length;
+    }
+}
@@ -3,6 +3,8 @@
 package org.odpi.openmetadata.adapters.repositoryservices.cohortregistrystore.file;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
 import org.slf4j.Logger;
@@ -35,6 +37,12 @@ public class FileBasedRegistryStoreConnector extends OMRSCohortRegistryStoreConn
      */
     private static final String defaultFilename = "cohort.registry";
 
+    /*
+     * The reader and writer are thread-safe and are shared by all instances of the connector.
+     */
+    private static final ObjectReader registryReader = new ObjectMapper().readerFor(CohortMembership.class);
+    private static final ObjectWriter registryWriter = new ObjectMapper().writerFor(CohortMembership.class);
+
     /*
      * Variables used in writing to the file.
      */
@@ -431,10 +439,7 @@ public class FileBasedRegistryStoreConnector extends OMRSCohortRegistryStoreConn
         {
             log.debug("Retrieving cohort registry store properties");
 
-            String registryStoreFileContents = FileUtils.readFileToString(registryStoreFile, "UTF-8");
-
-            ObjectMapper objectMapper = new ObjectMapper();
-            newRegistryStoreProperties = objectMapper.readValue(registryStoreFileContents, CohortMembership.class);
+            newRegistryStoreProperties = registryReader.readValue(registryStoreFile);
         }
         catch (IOException   ioException)
         {
@@ -688,11 +693,9 @@ public class FileBasedRegistryStoreConnector extends OMRSCohortRegistryStoreConn
             }
             else
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                String registryStoreFileContents = objectMapper.writeValueAsString(newRegistryStoreProperties);
+                byte[] registryStoreFileContents = registryWriter.writeValueAsBytes(newRegistryStoreProperties);
 
-                FileUtils.writeStringToFile(registryStoreFile, registryStoreFileContents, false);
+                FileUtils.writeByteArrayToFile(registryStoreFile, registryStoreFileContents, false);
             }
         }
         catch (IOException   ioException)
@@ -2,13 +2,23 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.file;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
 import org.odpi.openmetadata.frameworks.connectors.properties.EndpointProperties;
 import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveContentProcessor;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -22,6 +32,29 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
      */
     private static final String defaultFilename = "open.metadata.archive";
 
+    /*
+     * The readers and writer are thread-safe and are shared by all instances of the connector.  The element readers
+     * are used when the archive is streamed to a content processor.
+     */
+    private static final ObjectMapper objectMapper         = new ObjectMapper();
+    private static final ObjectReader archiveReader        = objectMapper.readerFor(OpenMetadataArchive.class);
+    private static final ObjectWriter archiveWriter        = objectMapper.writerFor(OpenMetadataArchive.class);
+    private static final ObjectReader propertiesReader     = objectMapper.readerFor(OpenMetadataArchiveProperties.class);
+    private static final ObjectReader typeStoreReader      = objectMapper.readerFor(OpenMetadataArchiveTypeStore.class);
+    private static final ObjectReader entityReader         = objectMapper.readerFor(EntityDetail.class);
+    private static final ObjectReader relationshipReader   = objectMapper.readerFor(Relationship.class);
+    private static final ObjectReader classificationReader = objectMapper.readerFor(ClassificationEntityExtension.class);
+
+    /*
+     * Names of the fields in the archive file.
+     */
+    private static final String archivePropertiesField    = "archiveProperties";
+    private static final String archiveTypeStoreField     = "archiveTypeStore";
+    private static final String archiveInstanceStoreField = "archiveInstanceStore";
+    private static final String entitiesField             = "entities";
+    private static final String relationshipsField        = "relationships";
+    private static final String classificationsField      = "classifications";
+
     /*
      * Variables used in writing to the file.
      */
@@ -74,11 +107,7 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
         {
             log.debug("Retrieving server configuration properties");
 
-            String configStoreFileContents = FileUtils.readFileToString(archiveStoreFile, "UTF-8");
-
-            ObjectMapper objectMapper = new ObjectMapper();
-
-            newOpenMetadataArchive = objectMapper.readValue(configStoreFileContents, OpenMetadataArchive.class);
+            newOpenMetadataArchive = archiveReader.readValue(archiveStoreFile);
         }
         catch (IOException ioException)
         {
@@ -95,6 +124,215 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
     }
 
 
+    /**
+     * Pass the contents of the archive to the processor one element at a time.  The archive file is read with
+     * a streaming parser so only one instance is held in memory at a time.  The archive properties and the
+     * type store are small and are read whole.
+     * <p>
+     *     The content processor needs the archive properties before any other element.  The archive files written
+     *     by this connector have the properties first.  If the instance store comes before the properties,
+     *     it is skipped on the first pass through the file and read in a second pass.
+     * </p>
+     *
+     * @param contentProcessor processor for the archive content
+     * @return false if the archive can not be read
+     */
+    @Override
+    public boolean processArchiveContents(OpenMetadataArchiveContentProcessor   contentProcessor)
+    {
+        if (contentProcessor == null)
+        {
+            return false;
+        }
+
+        File                          archiveStoreFile        = new File(archiveStoreName);
+        OpenMetadataArchiveProperties archiveProperties       = null;
+        OpenMetadataArchiveTypeStore  archiveTypeStore        = null;
+        boolean                       propertiesProcessed     = false;
+        boolean                       instanceStoreDeferred   = false;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(archiveStoreFile))
+        {
+            log.debug("Streaming open metadata archive " + archiveStoreName);
+
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+            {
+                return false;
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                String fieldName = parser.getCurrentName();
+
+                parser.nextToken();
+
+                if (archivePropertiesField.equals(fieldName))
+                {
+                    archiveProperties = propertiesReader.readValue(parser);
+
+                    contentProcessor.processArchiveProperties(archiveProperties);
+                    propertiesProcessed = true;
+
+                    if (archiveTypeStore != null)
+                    {
+                        processArchiveTypeStore(archiveTypeStore, contentProcessor);
+                    }
+                }
+                else if (archiveTypeStoreField.equals(fieldName))
+                {
+                    archiveTypeStore = typeStoreReader.readValue(parser);
+
+                    if ((propertiesProcessed) && (archiveTypeStore != null))
+                    {
+                        processArchiveTypeStore(archiveTypeStore, contentProcessor);
+                    }
+                }
+                else if ((archiveInstanceStoreField.equals(fieldName)) && (propertiesProcessed))
+                {
+                    streamArchiveInstanceStore(parser, contentProcessor);
+                }
+                else if (archiveInstanceStoreField.equals(fieldName))
+                {
+                    instanceStoreDeferred = true;
+                    parser.skipChildren();
+                }
+                else
+                {
+                    parser.skipChildren();
+                }
+            }
+        }
+        catch (IOException ioException)
+        {
+            log.debug("Unusable open metadata archive " + archiveStoreName, ioException);
+
+            return propertiesProcessed;
+        }
+
+        if (! propertiesProcessed)
+        {
+            contentProcessor.processArchiveProperties(null);
+
+            if (archiveTypeStore != null)
+            {
+                processArchiveTypeStore(archiveTypeStore, contentProcessor);
+            }
+        }
+
+        if (instanceStoreDeferred)
+        {
+            this.processDeferredInstanceStore(archiveStoreFile, contentProcessor);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Read the archive file a second time to stream its instance store to the content processor.
+     *
+     * @param archiveStoreFile archive file
+     * @param contentProcessor processor for the archive content
+     */
+    private void processDeferredInstanceStore(File                                  archiveStoreFile,
+                                              OpenMetadataArchiveContentProcessor   contentProcessor)
+    {
+        try (JsonParser parser = objectMapper.getFactory().createParser(archiveStoreFile))
+        {
+            if (parser.nextToken() == JsonToken.START_OBJECT)
+            {
+                while (parser.nextToken() == JsonToken.FIELD_NAME)
+                {
+                    String fieldName = parser.getCurrentName();
+
+                    parser.nextToken();
+
+                    if (archiveInstanceStoreField.equals(fieldName))
+                    {
+                        streamArchiveInstanceStore(parser, contentProcessor);
+                        return;
+                    }
+
+                    parser.skipChildren();
+                }
+            }
+        }
+        catch (IOException ioException)
+        {
+            log.debug("Unusable instance store in open metadata archive " + archiveStoreName, ioException);
+        }
+    }
+
+
+    /**
+     * Stream the instances in the instance store to the content processor.  The parser is positioned on the
+     * start of the instance store object and is left on its end.
+     *
+     * @param parser parser for the archive file
+     * @param contentProcessor processor for the archive content
+     * @throws IOException the instance store is not valid
+     */
+    private static void streamArchiveInstanceStore(JsonParser                            parser,
+                                                   OpenMetadataArchiveContentProcessor   contentProcessor) throws IOException
+    {
+        if (parser.getCurrentToken() != JsonToken.START_OBJECT)
+        {
+            parser.skipChildren();
+            return;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String fieldName = parser.getCurrentName();
+
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+            {
+                parser.skipChildren();
+            }
+            else if (entitiesField.equals(fieldName))
+            {
+                while (parser.nextToken() != JsonToken.END_ARRAY)
+                {
+                    EntityDetail entity = entityReader.readValue(parser);
+
+                    if (entity != null)
+                    {
+                        contentProcessor.processEntity(entity);
+                    }
+                }
+            }
+            else if (relationshipsField.equals(fieldName))
+            {
+                while (parser.nextToken() != JsonToken.END_ARRAY)
+                {
+                    Relationship relationship = relationshipReader.readValue(parser);
+
+                    if (relationship != null)
+                    {
+                        contentProcessor.processRelationship(relationship);
+                    }
+                }
+            }
+            else if (classificationsField.equals(fieldName))
+            {
+                while (parser.nextToken() != JsonToken.END_ARRAY)
+                {
+                    ClassificationEntityExtension classification = classificationReader.readValue(parser);
+
+                    if (classification != null)
+                    {
+                        contentProcessor.processClassification(classification);
+                    }
+                }
+            }
+            else
+            {
+                parser.skipChildren();
+            }
+        }
+    }
+
+
     /**
      * Set new contents into the archive.  This overrides any content previously stored.
      *
@@ -114,11 +352,9 @@ public class FileBasedOpenMetadataArchiveStoreConnector extends OpenMetadataArch
             }
             else
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                String archiveStoreFileContents = objectMapper.writeValueAsString(archiveContents);
+                byte[] archiveStoreFileContents = archiveWriter.writeValueAsBytes(archiveContents);
 
-                FileUtils.writeStringToFile(archiveStoreFile, archiveStoreFileContents, false);
+                FileUtils.writeByteArrayToFile(archiveStoreFile, archiveStoreFileContents, false);
             }
         }
         catch (IOException   ioException)
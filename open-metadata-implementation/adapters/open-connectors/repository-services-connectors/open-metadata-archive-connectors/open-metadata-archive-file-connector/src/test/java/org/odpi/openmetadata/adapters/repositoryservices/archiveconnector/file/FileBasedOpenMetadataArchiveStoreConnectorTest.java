@@ -0,0 +1,319 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.archiveconnector.file;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveContentProcessor;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the file based open metadata archive store streams the archive contents in the expected order.
+ */
+public class FileBasedOpenMetadataArchiveStoreConnectorTest
+{
+    private static final int entityCount       = 100;
+    private static final int relationshipCount = 50;
+
+    private static final List<String> expectedContents = getExpectedContents();
+
+    private File archiveFile = null;
+
+
+    /**
+     * Choose a name for the archive file.
+     *
+     * @throws IOException unable to create the file
+     */
+    @BeforeMethod public void createArchiveFile() throws IOException
+    {
+        archiveFile = File.createTempFile("archive", ".json");
+    }
+
+
+    /**
+     * Remove the archive file.
+     */
+    @AfterMethod public void removeArchiveFile()
+    {
+        assertTrue((! archiveFile.exists()) || (archiveFile.delete()));
+    }
+
+
+    /**
+     * Validate that an archive written by the connector is streamed back in the same order as the in-memory
+     * archive is processed.
+     */
+    @Test public void testStreamArchive()
+    {
+        FileBasedOpenMetadataArchiveStoreConnector connector = getConnector();
+
+        connector.setArchiveContents(getArchive());
+
+        ContentRecorder recorder = new ContentRecorder();
+
+        assertTrue(connector.processArchiveContents(recorder));
+        assertEquals(recorder.contents, expectedContents);
+    }
+
+
+    /**
+     * Validate that the properties are passed first when they come last in the archive file.
+     *
+     * @throws Exception problem with the archive file
+     */
+    @Test public void testPropertiesLast() throws Exception
+    {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ObjectNode   archiveNode  = objectMapper.valueToTree(getArchive());
+        ObjectNode   reordered    = objectMapper.createObjectNode();
+
+        reordered.set("archiveInstanceStore", archiveNode.get("archiveInstanceStore"));
+        reordered.set("archiveTypeStore", archiveNode.get("archiveTypeStore"));
+        reordered.set("archiveProperties", archiveNode.get("archiveProperties"));
+        reordered.set("class", archiveNode.get("class"));
+        objectMapper.writeValue(archiveFile, reordered);
+
+        ContentRecorder recorder = new ContentRecorder();
+
+        assertTrue(getConnector().processArchiveContents(recorder));
+        assertEquals(recorder.contents, expectedContents);
+    }
+
+
+    /**
+     * Validate that a missing archive file is reported as having no content.
+     */
+    @Test public void testMissingArchive()
+    {
+        assertTrue(archiveFile.delete());
+
+        ContentRecorder recorder = new ContentRecorder();
+
+        assertFalse(getConnector().processArchiveContents(recorder));
+        assertTrue(recorder.contents.isEmpty());
+    }
+
+
+    /**
+     * Create a connector for the test archive file.
+     *
+     * @return initialized connector
+     */
+    private FileBasedOpenMetadataArchiveStoreConnector getConnector()
+    {
+        Connection connection = new Connection();
+        Endpoint   endpoint   = new Endpoint();
+
+        endpoint.setAddress(archiveFile.getAbsolutePath());
+        connection.setEndpoint(endpoint);
+
+        FileBasedOpenMetadataArchiveStoreConnector connector = new FileBasedOpenMetadataArchiveStoreConnector();
+
+        connector.initialize("test", new ConnectionProperties(connection));
+
+        return connector;
+    }
+
+
+    /**
+     * Build an archive with a primitive type, some entities and relationships between them.
+     *
+     * @return archive
+     */
+    private static OpenMetadataArchive getArchive()
+    {
+        OpenMetadataArchiveProperties archiveProperties = new OpenMetadataArchiveProperties();
+
+        archiveProperties.setArchiveGUID("test-archive-guid");
+        archiveProperties.setArchiveName("TestArchive");
+        archiveProperties.setArchiveType(OpenMetadataArchiveType.CONTENT_PACK);
+
+        PrimitiveDef primitiveDef = new PrimitiveDef(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+
+        primitiveDef.setGUID("test-primitive-guid");
+
+        OpenMetadataArchiveTypeStore typeStore = new OpenMetadataArchiveTypeStore();
+
+        typeStore.setAttributeTypeDefs(Collections.singletonList(primitiveDef));
+
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (int i = 0; i < entityCount; i++)
+        {
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID("entity-" + i);
+            entities.add(entity);
+        }
+
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (int i = 0; i < relationshipCount; i++)
+        {
+            Relationship relationship = new Relationship();
+
+            relationship.setGUID("relationship-" + i);
+            relationships.add(relationship);
+        }
+
+        OpenMetadataArchiveInstanceStore instanceStore = new OpenMetadataArchiveInstanceStore();
+
+        instanceStore.setEntities(entities);
+        instanceStore.setRelationships(relationships);
+
+        OpenMetadataArchive archive = new OpenMetadataArchive();
+
+        archive.setArchiveProperties(archiveProperties);
+        archive.setArchiveTypeStore(typeStore);
+        archive.setArchiveInstanceStore(instanceStore);
+
+        return archive;
+    }
+
+
+    /**
+     * Return the order that the content of the test archive is passed to the processor.
+     *
+     * @return list of element descriptions
+     */
+    private static List<String> getExpectedContents()
+    {
+        List<String> contents = new ArrayList<>(Arrays.asList("properties:test-archive-guid",
+                                                              "attributeTypeDef:test-primitive-guid"));
+
+        for (int i = 0; i < entityCount; i++)
+        {
+            contents.add("entity:entity-" + i);
+        }
+
+        for (int i = 0; i < relationshipCount; i++)
+        {
+            contents.add("relationship:relationship-" + i);
+        }
+
+        return contents;
+    }
+
+
+    /**
+     * ContentRecorder records a description of each element it is passed.
+     */
+    private static class ContentRecorder implements OpenMetadataArchiveContentProcessor
+    {
+        private final List<String> contents = new ArrayList<>();
+
+
+        /**
+         * Record the archive properties.
+         *
+         * @param archiveProperties properties of the archive
+         */
+        @Override
+        public void processArchiveProperties(OpenMetadataArchiveProperties archiveProperties)
+        {
+            contents.add("properties:" + ((archiveProperties == null) ? null : archiveProperties.getArchiveGUID()));
+        }
+
+
+        /**
+         * Record a patch.
+         *
+         * @param typeDefPatch patch from the archive's type store
+         */
+        @Override
+        public void processTypeDefPatch(TypeDefPatch typeDefPatch)
+        {
+            contents.add("typeDefPatch:" + typeDefPatch.getTypeName());
+        }
+
+
+        /**
+         * Record an AttributeTypeDef.
+         *
+         * @param attributeTypeDef AttributeTypeDef from the archive's type store
+         */
+        @Override
+        public void processAttributeTypeDef(AttributeTypeDef attributeTypeDef)
+        {
+            contents.add("attributeTypeDef:" + attributeTypeDef.getGUID());
+        }
+
+
+        /**
+         * Record a TypeDef.
+         *
+         * @param typeDef TypeDef from the archive's type store
+         */
+        @Override
+        public void processTypeDef(TypeDef typeDef)
+        {
+            contents.add("typeDef:" + typeDef.getGUID());
+        }
+
+
+        /**
+         * Record an entity.
+         *
+         * @param entity entity from the archive's instance store
+         */
+        @Override
+        public void processEntity(EntityDetail entity)
+        {
+            contents.add("entity:" + entity.getGUID());
+        }
+
+
+        /**
+         * Record a relationship.
+         *
+         * @param relationship relationship from the archive's instance store
+         */
+        @Override
+        public void processRelationship(Relationship relationship)
+        {
+            contents.add("relationship:" + relationship.getGUID());
+        }
+
+
+        /**
+         * Record a classification.
+         *
+         * @param classification classification from the archive's instance store
+         */
+        @Override
+        public void processClassification(ClassificationEntityExtension classification)
+        {
+            contents.add("classification");
+        }
+    }
+}
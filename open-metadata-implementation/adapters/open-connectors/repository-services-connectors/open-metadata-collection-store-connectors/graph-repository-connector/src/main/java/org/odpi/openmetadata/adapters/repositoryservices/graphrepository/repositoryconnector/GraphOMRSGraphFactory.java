@@ -80,9 +80,14 @@ public class GraphOMRSGraphFactory {
         final String indexBackend = "lucene";
         final String indexPath = "./egeria-graph-repository/searchindex";
 
+        // Reads use the read committed isolation level so that they release their locks as soon as each record
+        // has been read.  Otherwise a transaction that has read a vertex blocks other transactions from updating
+        // it until the reader commits.
+
         JanusGraphFactory.Builder config = JanusGraphFactory.build().
                 set("storage.backend", storageBackend).
                 set("storage.directory", storagePath).
+                set("storage.berkeleyje.isolation-level", "READ_COMMITTED").
                 set("index.search.backend", indexBackend).
                 set("index.search.directory", indexPath);
 
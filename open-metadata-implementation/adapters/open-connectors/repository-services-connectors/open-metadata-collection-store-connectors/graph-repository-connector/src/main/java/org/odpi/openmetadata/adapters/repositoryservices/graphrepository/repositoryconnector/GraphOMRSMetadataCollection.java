@@ -2907,6 +2907,31 @@ public class GraphOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollecti
     }
 
 
+    /*
+     * Save a batch of reference copies in a single graph transaction.  All of the instances are validated
+     * before any are saved.
+     */
+    public void saveInstanceReferenceCopies(String          userId,
+                                            InstanceGraph   instances)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException,
+            UserNotAuthorizedException
+    {
+        final String  methodName = "saveInstanceReferenceCopies";
+
+        /*
+         * Validate parameters
+         */
+        InstanceGraph referenceInstances = super.saveReferenceInstancesParameterValidation(userId, instances, methodName);
+
+        /*
+         * Save instances
+         */
+        graphStore.saveInstanceReferenceCopiesToStore(referenceInstances.getEntities(), referenceInstances.getRelationships());
+    }
+
+
     // getEntityNeighborhood
     public InstanceGraph getEntityNeighborhood(String               userId,
                                                String               entityGUID,
@@ -3,6 +3,7 @@
 
 package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
 
+import com.sleepycat.je.LockConflictException;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
@@ -12,7 +13,10 @@ import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSo
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphException;
 import org.janusgraph.core.attribute.Text;
+import org.janusgraph.diskstorage.TemporaryBackendException;
+import org.janusgraph.diskstorage.locking.PermanentLockingException;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
@@ -57,11 +61,17 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * GraphOMRSMetadataStore provides the graph store for the GraphRepositoryConnector
  * The Graph Store is implemented using JanusGraph and is used to store instances.
  * There is no type graph because the RCM is used to get any information about TypeDefs and AttributeTypeDefs.
+ *
+ * The store may be called from many threads at once.  Each thread works in its own JanusGraph transaction
+ * (the graph's transactions are bound to the calling thread) so reads do not wait for one another and writes
+ * only conflict when they lock the same vertices or edges.  A write whose commit fails because of such a
+ * conflict is rolled back and retried.
  */
 class GraphOMRSMetadataStore {
 
@@ -79,6 +89,14 @@ class GraphOMRSMetadataStore {
     private GraphOMRSEntityMapper entityMapper;
     private GraphOMRSClassificationMapper classificationMapper;
 
+    // Set while saveInstanceReferenceCopiesToStore runs so the reference copy methods it calls leave the
+    // transaction open.  The batch is bound to the calling thread's transaction so the flag is per thread.
+    private final ThreadLocal<Boolean> batchInProgress = ThreadLocal.withInitial(() -> false);
+
+    // Writes that fail to commit because another thread holds a lock on the same elements are retried.
+    private static final int  maxCommitAttempts      = 5;
+    private static final long commitRetryDelayMillis = 10;
+
 
     /**
      * Default constructor
@@ -115,13 +133,39 @@ class GraphOMRSMetadataStore {
     }
 
 
+    /*
+     * Close the graph.  The store can not be used once it has been shut down.
+     */
+    void shutdown()
+    {
+        instanceGraph.close();
+    }
+
+
     // A note on existence checking:
     // The MDC will NOT have already checked that there is not already an entity or entity proxy wth the same GUID.
     // Although we KNOW that this is an attempt to create a new entity and that the GUID has just been generated,
     // so we COULD re-spin it, we should NOT do that here - it should be in the MDC layer and RepoHelper layer.
     // Therefore if we get a GUID clash here we throw an exception.
     //
-    synchronized EntityDetail createEntityInStore(EntityDetail entity)
+    EntityDetail createEntityInStore(EntityDetail entity)
+            throws
+            RepositoryErrorException,
+            InvalidParameterException
+    {
+        final String methodName = "createEntityInStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptCreateEntityInStore(entity);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private EntityDetail attemptCreateEntityInStore(EntityDetail entity)
             throws
             RepositoryErrorException,
             InvalidParameterException
@@ -208,6 +252,7 @@ class GraphOMRSMetadataStore {
             }
 
         } catch (Exception e) {
+            rethrowLockConflict(e);
             log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
             g.tx().rollback();
 
@@ -237,7 +282,25 @@ class GraphOMRSMetadataStore {
     // If the MDC found that an entity (of any description, entity, proxy or reference copy) is present - then it will not have asked you to create the proxy
     // So - if we do find that there is a GUID clash then throw exception.
     //
-    synchronized void createEntityProxyInStore(EntityProxy entityProxy)
+    void createEntityProxyInStore(EntityProxy entityProxy)
+            throws
+            RepositoryErrorException,
+            InvalidParameterException
+    {
+        final String methodName = "createEntityProxyInStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptCreateEntityProxyInStore(entityProxy);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptCreateEntityProxyInStore(EntityProxy entityProxy)
             throws
             RepositoryErrorException,
             InvalidParameterException
@@ -281,6 +344,7 @@ class GraphOMRSMetadataStore {
             }
 
         } catch (Exception e) {
+            rethrowLockConflict(e);
             log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
             g.tx().rollback();
             GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_NOT_CREATED;
@@ -297,7 +361,7 @@ class GraphOMRSMetadataStore {
                     errorCode.getUserAction());
         }
 
-        g.tx().commit();
+        this.commitTransaction(g);
 
     }
 
@@ -340,7 +404,26 @@ class GraphOMRSMetadataStore {
      *         else
      *             error
      */
-    synchronized void saveEntityReferenceCopyToStore(EntityDetail entity)
+    void saveEntityReferenceCopyToStore(EntityDetail entity)
+        throws
+            InvalidParameterException,
+            RepositoryErrorException
+
+    {
+        final String methodName = "saveEntityReferenceCopyToStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptSaveEntityReferenceCopyToStore(entity);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptSaveEntityReferenceCopyToStore(EntityDetail entity)
         throws
             InvalidParameterException,
             RepositoryErrorException
@@ -420,6 +503,7 @@ class GraphOMRSMetadataStore {
             }
 
         } catch (Exception e) {
+            rethrowLockConflict(e);
             log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
             g.tx().rollback();
 
@@ -438,14 +522,32 @@ class GraphOMRSMetadataStore {
         }
 
 
-        g.tx().commit();
+        this.commitTransaction(g);
 
         return;
     }
 
 
 
-    synchronized EntityDetail getEntityDetailFromStore(String guid)
+    EntityDetail getEntityDetailFromStore(String guid)
+            throws
+            EntityNotKnownException,
+            EntityProxyOnlyException,
+            RepositoryErrorException
+    {
+        final String methodName = "getEntityDetailFromStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptGetEntityDetailFromStore(guid);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private EntityDetail attemptGetEntityDetailFromStore(String guid)
             throws
             EntityNotKnownException,
             EntityProxyOnlyException,
@@ -546,7 +648,24 @@ class GraphOMRSMetadataStore {
         return entity;
     }
 
-    synchronized EntitySummary getEntitySummaryFromStore(String guid)
+    EntitySummary getEntitySummaryFromStore(String guid)
+            throws
+            EntityNotKnownException,
+            RepositoryErrorException
+    {
+        final String methodName = "getEntitySummaryFromStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptGetEntitySummaryFromStore(guid);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private EntitySummary attemptGetEntitySummaryFromStore(String guid)
             throws
             EntityNotKnownException,
             RepositoryErrorException
@@ -618,7 +737,23 @@ class GraphOMRSMetadataStore {
     }
 
 
-    synchronized EntityProxy getEntityProxyFromStore(String guid)
+    EntityProxy getEntityProxyFromStore(String guid)
+            throws
+            RepositoryErrorException
+    {
+        final String methodName = "getEntityProxyFromStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptGetEntityProxyFromStore(guid);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private EntityProxy attemptGetEntityProxyFromStore(String guid)
             throws
             RepositoryErrorException
     {
@@ -647,6 +782,7 @@ class GraphOMRSMetadataStore {
 
                 }
             } catch (Exception e) {
+                rethrowLockConflict(e);
                 log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
                 g.tx().rollback();
                 GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_NOT_FOUND;
@@ -676,7 +812,26 @@ class GraphOMRSMetadataStore {
     // This method needs to locate the vertices so that the edge can be created in the graph.
     // If either of these fails then throw exception
     //
-    synchronized void createRelationshipInStore(Relationship relationship)
+    void createRelationshipInStore(Relationship relationship)
+            throws
+            RepositoryErrorException,
+            InvalidParameterException
+
+    {
+        final String methodName = "createRelationshipInStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptCreateRelationshipInStore(relationship);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptCreateRelationshipInStore(Relationship relationship)
             throws
             RepositoryErrorException,
             InvalidParameterException
@@ -751,6 +906,7 @@ class GraphOMRSMetadataStore {
             relationshipMapper.mapRelationshipToEdge(relationship, edge);
 
         } catch (Exception e) {
+            rethrowLockConflict(e);
             log.error("{} Caught exception from relationship mapper {}", methodName, e.getMessage());
             g.tx().rollback();
             GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.RELATIONSHIP_NOT_CREATED;
@@ -812,7 +968,26 @@ class GraphOMRSMetadataStore {
      *       - else metadataCollectionId is not local and values match
      *             update existing edge by mapping relationship
      */
-    synchronized void saveRelationshipReferenceCopyToStore(Relationship relationship)
+    void saveRelationshipReferenceCopyToStore(Relationship relationship)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException
+
+    {
+        final String methodName = "saveRelationshipReferenceCopyToStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptSaveRelationshipReferenceCopyToStore(relationship);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptSaveRelationshipReferenceCopyToStore(Relationship relationship)
             throws
             InvalidParameterException,
             RepositoryErrorException
@@ -1012,6 +1187,7 @@ class GraphOMRSMetadataStore {
 
         }
         catch (Exception e) {
+            rethrowLockConflict(e);
             log.error("{} Caught exception from relationship mapper {}", methodName, e.getMessage());
             g.tx().rollback();
             GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.RELATIONSHIP_NOT_CREATED;
@@ -1029,15 +1205,165 @@ class GraphOMRSMetadataStore {
         }
 
         log.debug("{} Commit tx containing creation of edge", methodName);
-        g.tx().commit();
+        this.commitTransaction(g);
 
         return;
     }
 
 
+    /*
+     * Save a batch of reference copies in a single transaction.  The entities are saved before the relationships
+     * so that relationships to entities in the same batch find their vertices.  If any instance can not be saved
+     * the reference copy method rolls back the transaction and none of the batch is saved.
+     */
+    void saveInstanceReferenceCopiesToStore(List<EntityDetail> entities,
+                                            List<Relationship> relationships)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException
+    {
+        final String methodName = "saveInstanceReferenceCopiesToStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptSaveInstanceReferenceCopiesToStore(entities, relationships);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptSaveInstanceReferenceCopiesToStore(List<EntityDetail> entities,
+                                                           List<Relationship> relationships)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException
+    {
+        final String methodName = "saveInstanceReferenceCopiesToStore";
+
+        GraphTraversalSource g = instanceGraph.traversal();
+
+        batchInProgress.set(true);
+
+        try {
+            if (entities != null) {
+                for (EntityDetail entity : entities) {
+                    saveEntityReferenceCopyToStore(entity);
+                }
+            }
+
+            if (relationships != null) {
+                for (Relationship relationship : relationships) {
+                    saveRelationshipReferenceCopyToStore(relationship);
+                }
+            }
+        }
+        catch (RuntimeException e) {
+            log.error("{} Caught exception saving batch {}", methodName, e.getMessage());
+            g.tx().rollback();
+            throw e;
+        }
+        finally {
+            batchInProgress.set(false);
+        }
+
+        log.debug("{} Commit tx containing batch of reference copies", methodName);
+        g.tx().commit();
+    }
+
+
+    /*
+     * Commit the current transaction unless a batch of reference copies is being saved, in which case the
+     * batch commits once all of its instances are saved.
+     */
+    private void commitTransaction(GraphTraversalSource g)
+    {
+        if (!batchInProgress.get()) {
+            g.tx().commit();
+        }
+    }
+
+
+    /*
+     * Decide whether a read or write that failed with a graph exception should be retried.  The thread's
+     * transaction is rolled back.  If the failure was a lock conflict or lock timeout caused by another
+     * transaction and there are attempts left, this method waits for a short, randomized interval and returns
+     * so the caller can retry.  Otherwise the exception is rethrown.  Writes that are part of a batch are never
+     * retried on their own because the rollback has discarded the whole batch - the batch is retried instead.
+     */
+    private void handleCommitFailure(String              methodName,
+                                     int                 attempt,
+                                     JanusGraphException e)
+    {
+        if (instanceGraph.tx().isOpen()) {
+            instanceGraph.tx().rollback();
+        }
+
+        if (batchInProgress.get() || attempt >= maxCommitAttempts || !isLockConflict(e)) {
+            throw e;
+        }
+
+        log.debug("{} lock conflict on attempt {}, retrying: {}", methodName, attempt, e.getMessage());
+
+        try {
+            Thread.sleep(commitRetryDelayMillis * attempt + ThreadLocalRandom.current().nextLong(commitRetryDelayMillis));
+        }
+        catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+
+
+    /*
+     * Let a lock conflict escape the error handling of a read or write so that the call is retried rather than failed.
+     */
+    private void rethrowLockConflict(Exception e)
+    {
+        if (e instanceof JanusGraphException && isLockConflict(e)) {
+            throw (JanusGraphException) e;
+        }
+    }
+
+
+    /*
+     * A lock conflict is reported by JanusGraph as a locking exception or a temporary backend failure.  BerkeleyDB
+     * detects conflicts itself and JanusGraph reports them as permanent failures, so the BerkeleyDB exception is
+     * looked for in the causes too.
+     */
+    private boolean isLockConflict(Throwable e)
+    {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PermanentLockingException
+                    || cause instanceof TemporaryBackendException
+                    || cause instanceof LockConflictException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+
+
+    protected Relationship getRelationshipFromStore(String guid)
+            throws RepositoryErrorException
+    {
+        final String methodName = "getRelationshipFromStore";
 
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptGetRelationshipFromStore(guid);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
 
-    protected synchronized Relationship getRelationshipFromStore(String guid)
+    private Relationship attemptGetRelationshipFromStore(String guid)
             throws RepositoryErrorException
     {
         String methodName = "getRelationshipFromStore";
@@ -1084,6 +1410,7 @@ class GraphOMRSMetadataStore {
                 }
 
             } catch (Exception e) {
+                rethrowLockConflict(e);
                 log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
                 g.tx().rollback();
                 GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.RELATIONSHIP_NOT_FOUND;
@@ -1108,7 +1435,24 @@ class GraphOMRSMetadataStore {
     }
 
 
-    synchronized void updateEntityInStore(EntityDetail entity)
+    void updateEntityInStore(EntityDetail entity)
+            throws
+            RepositoryErrorException
+    {
+        final String methodName = "updateEntityInStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptUpdateEntityInStore(entity);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptUpdateEntityInStore(EntityDetail entity)
             throws
             RepositoryErrorException
     {
@@ -1141,6 +1485,7 @@ class GraphOMRSMetadataStore {
                 }
 
             } catch (Exception e) {
+                rethrowLockConflict(e);
                 log.error("{} caught exception {}", methodName, e.getMessage());
                 g.tx().rollback();
                 GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_NOT_UPDATED;
@@ -1163,7 +1508,25 @@ class GraphOMRSMetadataStore {
 
     }
 
-    synchronized void updateEntityProxyInStore(EntityProxy entityProxy)
+
+    void updateEntityProxyInStore(EntityProxy entityProxy)
+            throws
+            RepositoryErrorException
+    {
+        final String methodName = "updateEntityProxyInStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptUpdateEntityProxyInStore(entityProxy);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptUpdateEntityProxyInStore(EntityProxy entityProxy)
             throws
             RepositoryErrorException
     {
@@ -1199,6 +1562,7 @@ class GraphOMRSMetadataStore {
                 }
 
             } catch (Exception e) {
+                rethrowLockConflict(e);
                 log.error("{} caught exception {}", methodName, e.getMessage());
                 g.tx().rollback();
                 GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.ENTITY_NOT_UPDATED;
@@ -1300,7 +1664,24 @@ class GraphOMRSMetadataStore {
 
 
     // updateRelationshipInStore
-    synchronized void updateRelationshipInStore(Relationship relationship)
+    void updateRelationshipInStore(Relationship relationship)
+            throws
+            RepositoryErrorException
+    {
+        final String methodName = "updateRelationshipInStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptUpdateRelationshipInStore(relationship);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptUpdateRelationshipInStore(Relationship relationship)
             throws
             RepositoryErrorException
     {
@@ -1321,6 +1702,7 @@ class GraphOMRSMetadataStore {
                 relationshipMapper.mapRelationshipToEdge(relationship, edge);
 
             } catch (Exception e) {
+                rethrowLockConflict(e);
 
                 log.error("{} Caught exception from relationship mapper {}", methodName, e.getMessage());
                 g.tx().rollback();
@@ -1347,7 +1729,23 @@ class GraphOMRSMetadataStore {
     //
     // This method will remove the entity vertex and any classifier edges and classification vertices linked off it
 
-    synchronized void removeEntityFromStore(String entityGUID)
+
+    void removeEntityFromStore(String entityGUID)
+    {
+        final String methodName = "removeEntityFromStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptRemoveEntityFromStore(entityGUID);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptRemoveEntityFromStore(String entityGUID)
     {
         final String methodName = "removeEntityFromStore";
 
@@ -1397,7 +1795,23 @@ class GraphOMRSMetadataStore {
     }
 
     // removeEntityProxyFromStore
-    synchronized void removeEntityProxyFromStore(String entityGUID)
+
+    void removeEntityProxyFromStore(String entityGUID)
+    {
+        final String methodName = "removeEntityProxyFromStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptRemoveEntityProxyFromStore(entityGUID);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptRemoveEntityProxyFromStore(String entityGUID)
     {
         final String methodName = "removeEntityProxyFromStore";
         // TODO - could capture existing entity and move it to 'history'
@@ -1449,7 +1863,23 @@ class GraphOMRSMetadataStore {
     }
 
     // removeRelationshipFromStore
-    synchronized void removeRelationshipFromStore(String relationshipGUID)
+
+    void removeRelationshipFromStore(String relationshipGUID)
+    {
+        final String methodName = "removeRelationshipFromStore";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                attemptRemoveRelationshipFromStore(relationshipGUID);
+                return;
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private void attemptRemoveRelationshipFromStore(String relationshipGUID)
     {
         final String methodName = "removeRelationshipFromStore";
         // TODO - could capture existing entity and move it to 'history'
@@ -1469,8 +1899,24 @@ class GraphOMRSMetadataStore {
     }
 
     // getRelationshipsForEntity
-    synchronized List<Relationship> getRelationshipsForEntity(String entityGUID)
+    List<Relationship> getRelationshipsForEntity(String entityGUID)
+            throws
+            TypeErrorException,
+            RepositoryErrorException
+    {
+        final String methodName = "getRelationshipsForEntity";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptGetRelationshipsForEntity(entityGUID);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
 
+    private List<Relationship> attemptGetRelationshipsForEntity(String entityGUID)
             throws
             TypeErrorException,
             RepositoryErrorException
@@ -1522,6 +1968,7 @@ class GraphOMRSMetadataStore {
                     }
 
                 } catch (Exception e) {
+                    rethrowLockConflict(e);
                     log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
                     g.tx().rollback();
                     GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.RELATIONSHIP_NOT_FOUND;
@@ -1556,7 +2003,26 @@ class GraphOMRSMetadataStore {
             throws
             RepositoryErrorException,
             InvalidParameterException
+    {
+        final String methodName = "findEntitiesByProperty";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptFindEntitiesByProperty(typeDefName, matchProperties, matchCriteria, fullMatch);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
 
+    private List<EntityDetail> attemptFindEntitiesByProperty(String             typeDefName,
+                                                             InstanceProperties matchProperties,
+                                                             MatchCriteria      matchCriteria,
+                                                             Boolean            fullMatch)
+            throws
+            RepositoryErrorException,
+            InvalidParameterException
     {
 
         final String methodName = "findEntitiesByProperty";
@@ -1712,6 +2178,7 @@ class GraphOMRSMetadataStore {
                     entities.add(entityDetail);
                 }
             } catch (Exception e) {
+                rethrowLockConflict(e);
                 log.error("{} caught exception from entity mapper, entity being ignored, {}", methodName, e.getMessage());
                 continue;
             }
@@ -1833,7 +2300,26 @@ class GraphOMRSMetadataStore {
             throws
             RepositoryErrorException,
             InvalidParameterException
+    {
+        final String methodName = "findRelationshipsByProperty";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptFindRelationshipsByProperty(typeDefName, matchProperties, matchCriteria, fullMatch);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
 
+    private List<Relationship> attemptFindRelationshipsByProperty(String             typeDefName,
+                                                                  InstanceProperties matchProperties,
+                                                                  MatchCriteria      matchCriteria,
+                                                                  Boolean            fullMatch)
+            throws
+            RepositoryErrorException,
+            InvalidParameterException
     {
 
         final String methodName = "findRelationshipsByProperty";
@@ -1971,6 +2457,7 @@ class GraphOMRSMetadataStore {
                 }
 
             } catch (Exception e) {
+                rethrowLockConflict(e);
                 log.error("{} Caught exception from entity mapper {}", methodName, e.getMessage());
                 g.tx().rollback();
                 GraphOMRSErrorCode errorCode = GraphOMRSErrorCode.RELATIONSHIP_PROPERTIES_ERROR;
@@ -2265,6 +2752,26 @@ class GraphOMRSMetadataStore {
             InvalidParameterException,
             RepositoryErrorException
     {
+        final String methodName = "findEntitiesByClassification";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptFindEntitiesByClassification(classificationName, classificationProperties, matchCriteria, entityTypeName);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private List<EntityDetail> attemptFindEntitiesByClassification(String             classificationName,
+                                                                   InstanceProperties classificationProperties,
+                                                                   MatchCriteria      matchCriteria,
+                                                                   String             entityTypeName)
+            throws
+            InvalidParameterException,
+            RepositoryErrorException
+    {
 
         final String methodName = "findEntitiesByClassification";
 
@@ -2390,6 +2897,7 @@ class GraphOMRSMetadataStore {
                     entities.add(entityDetail);
                 }
             } catch (Exception e) {
+                rethrowLockConflict(e);
                 log.error("{} caught exception from entity mapper - entity will be ignored, {}", methodName, e.getMessage());
                 continue; // process the next vertex
             }
@@ -2412,6 +2920,28 @@ class GraphOMRSMetadataStore {
             TypeErrorException,
             EntityNotKnownException
     {
+        final String methodName = "getSubGraph";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptGetSubGraph(entityGUID, entityTypeGUIDs, relationshipTypeGUIDs, limitResultsByStatus, limitResultsByClassification, level);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
+
+    private InstanceGraph attemptGetSubGraph(String entityGUID,
+                                             List<String> entityTypeGUIDs,
+                                             List<String> relationshipTypeGUIDs,
+                                             List<InstanceStatus> limitResultsByStatus,
+                                             List<String> limitResultsByClassification,
+                                             int level)
+            throws
+            TypeErrorException,
+            EntityNotKnownException
+    {
 
         final String methodName = "getSubGraph";
         final String entTypeGUIDsParameterName = "entityTypeGUIDs";
@@ -2764,6 +3294,7 @@ class GraphOMRSMetadataStore {
             throw e;
         }
         catch (Exception e) {
+            rethrowLockConflict(e);
             log.error("{} caught exception from subgraph traversal {}", methodName, e.getMessage());
             g.tx().rollback();
             return null;
@@ -2777,7 +3308,27 @@ class GraphOMRSMetadataStore {
                                   List<InstanceStatus> limitResultsByStatus,
                                   int maxPaths,
                                   int maxDepth)
+            throws
+            TypeErrorException,
+            EntityNotKnownException
+    {
+        final String methodName = "getPaths";
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attemptGetPaths(startEntityGUID, endEntityGUID, limitResultsByStatus, maxPaths, maxDepth);
+            }
+            catch (JanusGraphException e) {
+                handleCommitFailure(methodName, attempt, e);
+            }
+        }
+    }
 
+    private InstanceGraph attemptGetPaths(String startEntityGUID,
+                                          String endEntityGUID,
+                                          List<InstanceStatus> limitResultsByStatus,
+                                          int maxPaths,
+                                          int maxDepth)
             throws
             TypeErrorException,
             EntityNotKnownException
@@ -3080,6 +3631,7 @@ class GraphOMRSMetadataStore {
             return subGraph;
 
         } catch (Exception e) {
+            rethrowLockConflict(e);
             log.error("{} caught exception from subgraph traversal {}", methodName, e.getMessage());
             g.tx().rollback();
             return null;
@@ -0,0 +1,250 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.graphrepository.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProvenanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the graph store can be used by many threads at once: writers that create entities and update
+ * the same entities as one another, alongside readers that retrieve the entities being updated.
+ */
+public class GraphOMRSMetadataStoreTest
+{
+    private static final String userId               = "testUser";
+    private static final String repositoryName       = "TestGraphRepository";
+    private static final String metadataCollectionId = "test-graph-metadata-collection-id";
+    private static final String entityTypeGUID       = "test-entity-type-guid";
+    private static final String entityTypeName       = "TestEntity";
+    private static final String graphDirectory       = "egeria-graph-repository";
+
+    private static final int writerCount          = 4;
+    private static final int readerCount          = 4;
+    private static final int sharedEntityCount    = 10;
+    private static final int entitiesPerWriter    = 25;
+
+    private InstanceType           entityType;
+    private GraphOMRSMetadataStore graphStore;
+
+
+    @BeforeClass
+    public void setup() throws Exception
+    {
+        deleteDirectory(new File(graphDirectory).toPath());
+
+        EntityDef entityDef = new EntityDef(TypeDefCategory.ENTITY_DEF, entityTypeGUID, entityTypeName, 1L, "1.0");
+        entityDef.setCreatedBy(userId);
+        entityDef.setCreateTime(new Date());
+        entityDef.setValidInstanceStatusList(Collections.singletonList(InstanceStatus.ACTIVE));
+        entityDef.setInitialStatus(InstanceStatus.ACTIVE);
+
+        entityType = new InstanceType(TypeDefCategory.ENTITY_DEF,
+                                      entityTypeGUID,
+                                      entityTypeName,
+                                      1L,
+                                      null,
+                                      null,
+                                      null,
+                                      entityDef.getValidInstanceStatusList(),
+                                      null);
+
+        /*
+         * The store only asks the repository helper about the test type, which has no properties.
+         */
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+        when(repositoryHelper.getTypeDefByName(anyString(), eq(entityTypeName))).thenReturn(entityDef);
+        when(repositoryHelper.getAllPropertiesForTypeDef(anyString(), eq(entityDef), anyString())).thenReturn(Collections.emptyList());
+        when(repositoryHelper.getNewInstanceType(anyString(), any(TypeDefSummary.class))).thenReturn(entityType);
+
+        graphStore = new GraphOMRSMetadataStore(metadataCollectionId, repositoryName, repositoryHelper, mock(OMRSAuditLog.class));
+    }
+
+
+    @AfterClass
+    public void tearDown() throws Exception
+    {
+        if (graphStore != null)
+        {
+            graphStore.shutdown();
+        }
+
+        deleteDirectory(new File(graphDirectory).toPath());
+    }
+
+
+    @Test
+    public void testParallelWritersAndReaders() throws Exception
+    {
+        List<EntityDetail> sharedEntities = new ArrayList<>();
+
+        for (int i = 0; i < sharedEntityCount; i++)
+        {
+            sharedEntities.add(graphStore.createEntityInStore(getNewEntity()));
+        }
+
+        ExecutorService            executor = Executors.newFixedThreadPool(writerCount + readerCount);
+        AtomicBoolean              writing  = new AtomicBoolean(true);
+        List<Future<List<String>>> writers  = new ArrayList<>();
+        List<Future<Integer>>      readers  = new ArrayList<>();
+
+        for (int w = 0; w < writerCount; w++)
+        {
+            final int writerNumber = w;
+
+            writers.add(executor.submit(() ->
+            {
+                List<String> createdGUIDs = new ArrayList<>();
+
+                for (int i = 0; i < entitiesPerWriter; i++)
+                {
+                    createdGUIDs.add(graphStore.createEntityInStore(getNewEntity()).getGUID());
+
+                    /*
+                     * Every writer updates the same few entities so their transactions conflict.
+                     */
+                    EntityDetail sharedEntity = graphStore.getEntityDetailFromStore(sharedEntities.get((writerNumber + i) % sharedEntityCount).getGUID());
+
+                    sharedEntity.setVersion(sharedEntity.getVersion() + 1);
+                    sharedEntity.setUpdatedBy(userId + writerNumber);
+                    sharedEntity.setUpdateTime(new Date());
+                    graphStore.updateEntityInStore(sharedEntity);
+                }
+
+                return createdGUIDs;
+            }));
+        }
+
+        for (int r = 0; r < readerCount; r++)
+        {
+            readers.add(executor.submit(() ->
+            {
+                int reads = 0;
+
+                while (writing.get())
+                {
+                    for (EntityDetail sharedEntity : sharedEntities)
+                    {
+                        EntityDetail retrievedEntity = graphStore.getEntityDetailFromStore(sharedEntity.getGUID());
+
+                        assertEquals(retrievedEntity.getGUID(), sharedEntity.getGUID());
+                        reads++;
+                    }
+                }
+
+                return reads;
+            }));
+        }
+
+        List<String> createdGUIDs = new ArrayList<>();
+
+        for (Future<List<String>> writer : writers)
+        {
+            createdGUIDs.addAll(writer.get(5, TimeUnit.MINUTES));
+        }
+
+        writing.set(false);
+
+        for (Future<Integer> reader : readers)
+        {
+            assertTrue(reader.get(5, TimeUnit.MINUTES) > 0);
+        }
+
+        executor.shutdown();
+
+        /*
+         * Every write must have been committed.
+         */
+        assertEquals(createdGUIDs.size(), writerCount * entitiesPerWriter);
+
+        for (String guid : createdGUIDs)
+        {
+            assertNotNull(graphStore.getEntityDetailFromStore(guid));
+        }
+
+        for (EntityDetail sharedEntity : sharedEntities)
+        {
+            assertTrue(graphStore.getEntityDetailFromStore(sharedEntity.getGUID()).getVersion() > sharedEntity.getVersion());
+        }
+    }
+
+
+    /**
+     * Return a new entity owned by the test repository.
+     *
+     * @return entity
+     */
+    private EntityDetail getNewEntity()
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setCreateTime(new Date());
+        entity.setGUID(UUID.randomUUID().toString());
+        entity.setVersion(1L);
+        entity.setType(new InstanceType(entityType));
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setCreatedBy(userId);
+
+        return entity;
+    }
+
+
+    /**
+     * Remove the graph left by an earlier run.
+     *
+     * @param directory location of the graph
+     * @throws IOException problem removing the files
+     */
+    private static void deleteDirectory(Path   directory) throws IOException
+    {
+        if (Files.exists(directory))
+        {
+            List<Path> paths = new ArrayList<>();
+
+            Files.walk(directory).forEach(paths::add);
+            paths.sort(Comparator.reverseOrder());
+
+            for (Path path : paths)
+            {
+                Files.delete(path);
+            }
+        }
+    }
+}
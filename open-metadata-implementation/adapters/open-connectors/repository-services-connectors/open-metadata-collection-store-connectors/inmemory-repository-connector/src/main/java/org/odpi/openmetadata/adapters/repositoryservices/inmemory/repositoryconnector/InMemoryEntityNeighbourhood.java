@@ -19,8 +19,9 @@ class InMemoryEntityNeighbourhood
     private OMRSRepositoryValidator   repositoryValidator;
     private OMRSRepositoryHelper      repositoryHelper;
     private String                    repositoryName;
-    private Map<String, EntityDetail> entityStore;
-    private Map<String, Relationship> relationshipStore;
+    private InMemoryOMRSMetadataStore repositoryStore        = null;
+    private Map<String, EntityDetail> entityStore            = null;
+    private Map<String, Relationship> relationshipStore      = null;
     private String                    rootEntityGUID;
     private List<String>              entityTypeGUIDs;
     private List<String>              relationshipTypeGUIDs;
@@ -84,6 +85,107 @@ class InMemoryEntityNeighbourhood
         initializeMaps();
     }
 
+
+    /**
+     * Constructor for a query against the current contents of the repository store.  The relationships
+     * are located through the store's adjacency index so the maps of the whole store are not needed.
+     *
+     * @param repositoryHelper             helper methods when calling the repository connector
+     * @param repositoryName               name of this repository
+     * @param repositoryValidator          repository validator
+     * @param repositoryStore              repository store
+     * @param rootEntityGUID               the starting point of the query.
+     * @param entityTypeGUIDs              list of entity types to include in the query results.  Null means include
+     *                                     all entities found, irrespective of their type.
+     * @param relationshipTypeGUIDs        list of relationship types to include in the query results.  Null means include
+     *                                     all entities found, irrespective of their type.
+     * @param limitResultsByStatus         By default, relationships in all statuses are returned.  However, it is possible
+     *                                     to specify a list of statuses (eg ACTIVE) to restrict the results to.  Null means all
+     *                                     status values.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param level                        the number of the relationships out from the starting entity that the query will traverse to
+     */
+    InMemoryEntityNeighbourhood(OMRSRepositoryHelper      repositoryHelper,
+                                String                    repositoryName,
+                                OMRSRepositoryValidator   repositoryValidator,
+                                InMemoryOMRSMetadataStore repositoryStore,
+                                String                    rootEntityGUID,
+                                List<String>              entityTypeGUIDs,
+                                List<String>              relationshipTypeGUIDs,
+                                List<InstanceStatus>      limitResultsByStatus,
+                                List<String>              limitResultsByClassification,
+                                int                       level)
+    {
+        this.repositoryHelper = repositoryHelper;
+        this.repositoryName = repositoryName;
+        this.repositoryValidator = repositoryValidator;
+        this.repositoryStore = repositoryStore;
+        this.rootEntityGUID = rootEntityGUID;
+        this.entityTypeGUIDs = entityTypeGUIDs;
+        this.relationshipTypeGUIDs = relationshipTypeGUIDs;
+        this.limitResultsByStatus = limitResultsByStatus;
+        this.limitResultsByClassification = limitResultsByClassification;
+        /*
+         * limit the level to 100 in case the algorithm gets into a circularity - hopefully this is sufficiently high for in memory demo use cases.
+         */
+        if (level < 1 || level > 100)
+        {
+            level = 100;
+        }
+        this.level = level;
+    }
+
+
+    /**
+     * Return the entity with the requested guid.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return entity or null if not known
+     */
+    private EntityDetail getEntity(String entityGUID)
+    {
+        if (repositoryStore != null)
+        {
+            return repositoryStore.getEntity(entityGUID);
+        }
+
+        return entityStore.get(entityGUID);
+    }
+
+
+    /**
+     * Return the relationship with the requested guid.
+     *
+     * @param relationshipGUID unique identifier of the relationship
+     * @return relationship or null if not known
+     */
+    private Relationship getRelationship(String relationshipGUID)
+    {
+        if (repositoryStore != null)
+        {
+            return repositoryStore.getRelationship(relationshipGUID);
+        }
+
+        return relationshipStore.get(relationshipGUID);
+    }
+
+
+    /**
+     * Return the guids of the relationships attached to the requested entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return set of relationship guids or null if there are none
+     */
+    private Set<String> getRelationshipGUIDs(String entityGUID)
+    {
+        if (repositoryStore != null)
+        {
+            return repositoryStore.getRelationshipGUIDsForEntity(entityGUID);
+        }
+
+        return entityToRelationships.get(entityGUID);
+    }
+
     /**
      * Initialize maps that help us traverse between entities and relationships using their guids
      */
@@ -159,8 +261,8 @@ class InMemoryEntityNeighbourhood
         {
             String relationshipEnd1Guid = getEnd1EntityGUID(relationship);
             String relationshipEnd2Guid = getEnd2EntityGUID(relationship);
-            EntityDetail entity1 = entityStore.get(relationshipEnd1Guid);
-            EntityDetail entity2 = entityStore.get(relationshipEnd2Guid);
+            EntityDetail entity1 = getEntity(relationshipEnd1Guid);
+            EntityDetail entity2 = getEntity(relationshipEnd2Guid);
             if (relationshipTypeGUIDs != null)
             {
                 for (String relationshipTypeGUID : relationshipTypeGUIDs)
@@ -296,18 +398,18 @@ class InMemoryEntityNeighbourhood
          * add the root entity so the returned graph is consistent.
          */
         List<Relationship> relationshipList = new ArrayList<>();
-        EntityDetail rootEntity = (entityStore.get(rootEntityGUID));
+        EntityDetail rootEntity = getEntity(rootEntityGUID);
         entityList.add(rootEntity);
         for (String entityGuid : this.graphEntities)
         {
             if (!entityGuid.equals(rootEntityGUID))
             {
-                entityList.add(this.entityStore.get(entityGuid));
+                entityList.add(getEntity(entityGuid));
             }
         }
         for (String relationshipGuid : this.graphRelationships)
         {
-            relationshipList.add(this.relationshipStore.get(relationshipGuid));
+            relationshipList.add(getRelationship(relationshipGuid));
         }
         return new InstanceGraph(entityList, relationshipList);
     }
@@ -326,12 +428,12 @@ class InMemoryEntityNeighbourhood
         Set<String> nextEntitySet = new HashSet<>();
         for (String entityGuid : entities)
         {
-            Set<String> relationships = this.entityToRelationships.get(entityGuid);
+            Set<String> relationships = getRelationshipGUIDs(entityGuid);
             if (relationships != null)
             {
                 for (String relationshipGuid : relationships)
                 {
-                    Relationship relationship = this.relationshipStore.get(relationshipGuid);
+                    Relationship relationship = getRelationship(relationshipGuid);
                     /*
                      * Check to see if we have already visited this relationship
                      */
@@ -0,0 +1,155 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * InMemoryInstanceHistory holds the superseded versions of a single instance (entity or relationship)
+ * ordered by the time they came into effect.  This is the update time of the version, or its create time
+ * if it has never been updated.  It supports the lookup of the version in effect at a point in time and
+ * the removal of the most recently added version (undo) in O(log versions).
+ *
+ * @param <T> type of instance stored
+ */
+class InMemoryInstanceHistory<T extends InstanceAuditHeader>
+{
+    /*
+     * Versions keyed by their effective time.  Versions with the same effective time are kept
+     * in the order they were added.  Versions with no time are kept under Long.MIN_VALUE so they
+     * can still be restored but are never returned for a point in time.
+     */
+    private TreeMap<Long, List<T>>  versions = new TreeMap<>();
+
+    /*
+     * Effective times of the versions in the order they were added.  A back-dated version
+     * is not the last entry in the map but is the next one to undo.
+     */
+    private Deque<Long>             addedVersionKeys = new ArrayDeque<>();
+
+
+    /**
+     * Default constructor
+     */
+    InMemoryInstanceHistory()
+    {
+    }
+
+
+    /**
+     * Add a superseded version of the instance.
+     *
+     * @param instance version to add
+     */
+    synchronized void addVersion(T   instance)
+    {
+        long  effectiveTime = getEffectiveTime(instance);
+
+        versions.computeIfAbsent(effectiveTime, key -> new ArrayList<>()).add(instance);
+        addedVersionKeys.push(effectiveTime);
+    }
+
+
+    /**
+     * Return the version that was in effect at the requested time.
+     *
+     * @param asOfTime time of interest
+     * @return version or null if none of the versions in the history had come into effect by then
+     */
+    synchronized T getVersionAsOf(Date   asOfTime)
+    {
+        Map.Entry<Long, List<T>>  entry = versions.floorEntry(asOfTime.getTime());
+
+        if ((entry == null) || (entry.getKey() == Long.MIN_VALUE))
+        {
+            return null;
+        }
+
+        List<T>  sameTimeVersions = entry.getValue();
+
+        return sameTimeVersions.get(sameTimeVersions.size() - 1);
+    }
+
+
+    /**
+     * Remove and return the version most recently added to the history.  This may not be the
+     * version with the latest effective time if the instance has been back-dated.
+     *
+     * @return version or null if the history is empty
+     */
+    synchronized T removeLatestVersion()
+    {
+        Long  effectiveTime = addedVersionKeys.poll();
+
+        if (effectiveTime == null)
+        {
+            return null;
+        }
+
+        List<T>  sameTimeVersions = versions.get(effectiveTime);
+        T        latestVersion    = sameTimeVersions.remove(sameTimeVersions.size() - 1);
+
+        if (sameTimeVersions.isEmpty())
+        {
+            versions.remove(effectiveTime);
+        }
+
+        return latestVersion;
+    }
+
+
+    /**
+     * Return whether there are any versions in the history.
+     *
+     * @return boolean
+     */
+    synchronized boolean isEmpty()
+    {
+        return versions.isEmpty();
+    }
+
+
+    /**
+     * Return whether the instance had come into effect by the requested time.
+     *
+     * @param instance instance to test
+     * @param asOfTime time of interest
+     * @return boolean
+     */
+    static boolean isInEffectAsOf(InstanceAuditHeader   instance,
+                                  Date                  asOfTime)
+    {
+        long  effectiveTime = getEffectiveTime(instance);
+
+        return (effectiveTime != Long.MIN_VALUE) && (effectiveTime <= asOfTime.getTime());
+    }
+
+
+    /**
+     * Return the time that the version of the instance came into effect.
+     *
+     * @param instance instance to test
+     * @return time in milliseconds, or Long.MIN_VALUE if the instance has no times set
+     */
+    private static long getEffectiveTime(InstanceAuditHeader   instance)
+    {
+        if (instance.getUpdateTime() != null)
+        {
+            return instance.getUpdateTime().getTime();
+        }
+        else if (instance.getCreateTime() != null)
+        {
+            return instance.getCreateTime().getTime();
+        }
+
+        return Long.MIN_VALUE;
+    }
+}
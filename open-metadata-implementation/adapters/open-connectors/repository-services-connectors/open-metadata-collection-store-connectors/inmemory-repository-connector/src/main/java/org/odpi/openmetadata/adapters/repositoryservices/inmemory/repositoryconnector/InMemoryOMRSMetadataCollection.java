@@ -3,6 +3,7 @@
 package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSDynamicTypeMetadataCollectionBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSSearchPatternMatcher;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
@@ -20,6 +21,21 @@ import java.util.*;
  */
 public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectionBase
 {
+    /*
+     * Names of the match properties that are tested against the instance header rather than the instance
+     * properties.  These can not be located through the property index.
+     */
+    private static final Set<String> headerPropertyNames = new HashSet<>(Arrays.asList("metadataCollectionId",
+                                                                                       "metadataCollectionName",
+                                                                                       "typeName",
+                                                                                       "typeGUID",
+                                                                                       "createdBy",
+                                                                                       "updatedBy",
+                                                                                       "createTime",
+                                                                                       "updateTime",
+                                                                                       "effectiveFrom",
+                                                                                       "effectiveTo"));
+
     private InMemoryOMRSMetadataStore         repositoryStore = new InMemoryOMRSMetadataStore();
 
 
@@ -210,7 +226,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        EntityDetail  entity = repositoryStore.timeWarpEntityStore(asOfTime).get(guid);
+        EntityDetail  entity = repositoryStore.timeWarpEntity(guid, asOfTime);
         if (entity == null)
         {
             EntityProxy  entityProxy = repositoryStore.getEntityProxy(guid);
@@ -298,27 +314,46 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
 
         List<Relationship> entityRelationships = new ArrayList<>();
 
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
-
-        for (Relationship  storedRelationship : relationshipStore.values())
+        if (asOfTime == null)
         {
-            if (storedRelationship != null)
+            /*
+             * The adjacency index in the repository store returns the current relationships attached to
+             * the entity, already filtered by type.
+             */
+            for (Relationship  storedRelationship : repositoryStore.getRelationshipsForEntity(entityGUID, relationshipTypeGUID))
             {
                 if (storedRelationship.getStatus() != InstanceStatus.DELETED)
                 {
                     repositoryValidator.validRelationship(repositoryName, storedRelationship);
 
-                    if (repositoryHelper.relatedEntity(repositoryName,
-                                                       entityGUID,
-                                                       storedRelationship))
+                    entityRelationships.add(storedRelationship);
+                }
+            }
+        }
+        else
+        {
+            Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+
+            for (Relationship  storedRelationship : relationshipStore.values())
+            {
+                if (storedRelationship != null)
+                {
+                    if (storedRelationship.getStatus() != InstanceStatus.DELETED)
                     {
-                        if (relationshipTypeGUID == null)
-                        {
-                            entityRelationships.add(storedRelationship);
-                        }
-                        else if (relationshipTypeGUID.equals(storedRelationship.getType().getTypeDefGUID()))
+                        repositoryValidator.validRelationship(repositoryName, storedRelationship);
+
+                        if (repositoryHelper.relatedEntity(repositoryName,
+                                                           entityGUID,
+                                                           storedRelationship))
                         {
-                            entityRelationships.add(storedRelationship);
+                            if (relationshipTypeGUID == null)
+                            {
+                                entityRelationships.add(storedRelationship);
+                            }
+                            else if (relationshipTypeGUID.equals(storedRelationship.getType().getTypeDefGUID()))
+                            {
+                                entityRelationships.add(storedRelationship);
+                            }
                         }
                     }
                 }
@@ -338,6 +373,80 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the number of relationships of each type that are attached to a specific entity.  The current
+     * relationships are counted from the repository store's adjacency index.  Historical counts use the
+     * traversal in the superclass.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityGUID String unique identifier for the entity.
+     * @param relationshipTypeGUIDs list of GUIDs of the types of relationship to count (null for all).
+     * @param limitResultsByStatus By default, relationships in all statuses are counted.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the count to.  Null means all
+     *                             status values.
+     * @param asOfTime Requests a historical count of the relationships for the entity.  Null means count the
+     *                 present values.
+     * @return map of relationship type GUID to count.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException a type guid passed on the request is not known by the metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws EntityNotKnownException the requested entity instance is not known in the metadata collection.
+     * @throws PropertyErrorException the relationships can not be retrieved.
+     * @throws PagingErrorException the relationships can not be retrieved.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public Map<String, Integer> getRelationshipCountsForEntity(String                     userId,
+                                                               String                     entityGUID,
+                                                               List<String>               relationshipTypeGUIDs,
+                                                               List<InstanceStatus>       limitResultsByStatus,
+                                                               Date                       asOfTime) throws InvalidParameterException,
+                                                                                                           TypeErrorException,
+                                                                                                           RepositoryErrorException,
+                                                                                                           EntityNotKnownException,
+                                                                                                           PropertyErrorException,
+                                                                                                           PagingErrorException,
+                                                                                                           FunctionNotSupportedException,
+                                                                                                           UserNotAuthorizedException
+    {
+        final String  methodName = "getRelationshipCountsForEntity";
+
+        if (asOfTime != null)
+        {
+            return super.getRelationshipCountsForEntity(userId,
+                                                        entityGUID,
+                                                        relationshipTypeGUIDs,
+                                                        limitResultsByStatus,
+                                                        asOfTime);
+        }
+
+        /*
+         * Validate parameters
+         */
+        super.getRelationshipsForEntityParameterValidation(userId,
+                                                           entityGUID,
+                                                           null,
+                                                           0,
+                                                           limitResultsByStatus,
+                                                           null,
+                                                           null,
+                                                           null,
+                                                           0);
+
+        /*
+         * Perform operation
+         */
+        EntitySummary  entity = this.getEntitySummary(userId, entityGUID);
+
+        repositoryValidator.validateEntityFromStore(repositoryName, entityGUID, entity, methodName);
+        repositoryValidator.validateEntityIsNotDeleted(repositoryName, entity, methodName);
+
+        return repositoryStore.countRelationshipsForEntity(entityGUID, relationshipTypeGUIDs, limitResultsByStatus);
+    }
+
+
     /**
      * Return a list of entities that match the supplied properties according to the match criteria.  The results
      * can be returned over many pages.
@@ -408,13 +517,19 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * The secondary indexes narrow down the entities to test for current queries.  The remaining
+         * candidates are then filtered using the full matching rules.
          */
         List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
-
-        for (EntityDetail  entity : entityStore.values())
+        Collection<EntityDetail>   candidateEntities = this.getCandidateEntities(asOfTime,
+                                                                                 entityTypeGUID,
+                                                                                 limitResultsByStatus,
+                                                                                 limitResultsByClassification,
+                                                                                 matchProperties,
+                                                                                 matchCriteria,
+                                                                                 null);
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -511,16 +626,23 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * The secondary indexes narrow down the entities to test for current queries.  The remaining
+         * candidates are then filtered using the full matching rules.
          */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
         List<EntityDetail>          foundEntities = new ArrayList<>();
 
         List<String>                classificationList = new ArrayList<>();
         classificationList.add(classificationName);
 
-        for (EntityDetail  entity : entityStore.values())
+        Collection<EntityDetail>    candidateEntities = this.getCandidateEntities(asOfTime,
+                                                                                  entityTypeGUID,
+                                                                                  limitResultsByStatus,
+                                                                                  classificationList,
+                                                                                  null,
+                                                                                  null,
+                                                                                  null);
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -636,12 +758,19 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Process operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all of
-         * the stored entities.
+         * The secondary indexes narrow down the entities to test for current queries.  The remaining
+         * candidates are then filtered using the full matching rules.
          */
-        List<EntityDetail>   foundEntities = new ArrayList<>();
-
-        for (EntityDetail  entity : repositoryStore.timeWarpEntityStore(asOfTime).values())
+        List<EntityDetail>         foundEntities = new ArrayList<>();
+        Collection<EntityDetail>   candidateEntities = this.getCandidateEntities(asOfTime,
+                                                                                 entityTypeGUID,
+                                                                                 null,
+                                                                                 null,
+                                                                                 null,
+                                                                                 null,
+                                                                                 searchCriteria);
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -761,7 +890,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        Relationship  relationship = repositoryStore.timeWarpRelationshipStore(asOfTime).get(guid);
+        Relationship  relationship = repositoryStore.timeWarpRelationship(guid, asOfTime);
 
         repositoryValidator.validateRelationshipFromStore(repositoryName, guid, relationship, methodName);
         repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
@@ -1057,23 +1186,44 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
             }
         }
 
-        /*
-         * Time warp the stores
-         */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+        InMemoryEntityNeighbourhood inMemoryEntityNeighbourhood;
 
-        InMemoryEntityNeighbourhood inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
-                                                                                                  repositoryName,
-                                                                                                  repositoryValidator,
-                                                                                                  entityStore,
-                                                                                                  relationshipStore,
-                                                                                                  entityGUID,
-                                                                                                  entityTypeGUIDs,
-                                                                                                  relationshipTypeGUIDs,
-                                                                                                  limitResultsByStatus,
-                                                                                                  limitResultsByClassification,
-                                                                                                  level);
+        if (asOfTime == null)
+        {
+            /*
+             * Current queries traverse the adjacency index in the repository store.
+             */
+            inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
+                                                                          repositoryName,
+                                                                          repositoryValidator,
+                                                                          repositoryStore,
+                                                                          entityGUID,
+                                                                          entityTypeGUIDs,
+                                                                          relationshipTypeGUIDs,
+                                                                          limitResultsByStatus,
+                                                                          limitResultsByClassification,
+                                                                          level);
+        }
+        else
+        {
+            /*
+             * Time warp the stores
+             */
+            Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+            Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
+
+            inMemoryEntityNeighbourhood = new InMemoryEntityNeighbourhood(repositoryHelper,
+                                                                          repositoryName,
+                                                                          repositoryValidator,
+                                                                          entityStore,
+                                                                          relationshipStore,
+                                                                          entityGUID,
+                                                                          entityTypeGUIDs,
+                                                                          relationshipTypeGUIDs,
+                                                                          limitResultsByStatus,
+                                                                          limitResultsByClassification,
+                                                                          level);
+        }
 
 
         return inMemoryEntityNeighbourhood.createInstanceGraph();
@@ -3234,4 +3384,236 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
             super.reportRelationshipNotKnown(relationshipGUID, methodName);
         }
     }
+
+
+    /**
+     * Save the entities and relationships supplied in the instance graph as a reference copies.
+     * The id of the home metadata collection is already set up in the instances.
+     * Any instances from the home metadata collection are ignored.  All of the instances are validated
+     * before any are saved and each instance lock in the store is taken once for the batch.
+     *
+     * @param userId unique identifier for requesting server.
+     * @param instances instances to save.
+     * @throws InvalidParameterException one of the instances is invalid.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public void saveInstanceReferenceCopies(String          userId,
+                                            InstanceGraph   instances) throws InvalidParameterException,
+                                                                              RepositoryErrorException,
+                                                                              UserNotAuthorizedException
+    {
+        final String  methodName = "saveInstanceReferenceCopies";
+
+        /*
+         * Validate parameters
+         */
+        this.validateRepositoryConnector(methodName);
+        parentConnector.validateRepositoryIsActive(methodName);
+
+        InstanceGraph      referenceInstances = super.saveReferenceInstancesParameterValidation(userId, instances, methodName);
+        List<Relationship> relationships      = referenceInstances.getRelationships();
+
+        /*
+         * Save the entities and then the relationships
+         */
+        repositoryStore.saveReferenceEntitiesToStore(referenceInstances.getEntities());
+
+        if (relationships != null)
+        {
+            for (Relationship relationship : relationships)
+            {
+                repositoryStore.addEntityProxyToStore(relationship.getEntityOneProxy());
+                repositoryStore.addEntityProxyToStore(relationship.getEntityTwoProxy());
+            }
+        }
+
+        repositoryStore.saveReferenceRelationshipsToStore(relationships);
+    }
+
+
+    /**
+     * Return the entities that need to be tested by one of the find methods.  For queries about the current
+     * state of the repository, the secondary indexes in the repository store are intersected to produce
+     * the set of entities that could match.  Historical queries use the time-warped entity store.
+     * The caller must still apply the full matching rules to each returned entity.
+     *
+     * @param asOfTime time of the query (null means now)
+     * @param entityTypeGUID type of entity (null means any type)
+     * @param limitResultsByStatus entity must have one of these statuses (null means any status)
+     * @param limitResultsByClassification entity must have one of these classifications (null means no restriction)
+     * @param matchProperties properties to match (may be null)
+     * @param matchCriteria rule for matching the properties
+     * @param searchCriteria regular expression that must match one of the entity's property values (may be null)
+     * @return candidate entities
+     */
+    private Collection<EntityDetail>  getCandidateEntities(Date                  asOfTime,
+                                                           String                entityTypeGUID,
+                                                           List<InstanceStatus>  limitResultsByStatus,
+                                                           List<String>          limitResultsByClassification,
+                                                           InstanceProperties    matchProperties,
+                                                           MatchCriteria         matchCriteria,
+                                                           String                searchCriteria)
+    {
+        if (asOfTime != null)
+        {
+            return repositoryStore.timeWarpEntityStore(asOfTime).values();
+        }
+
+        Set<String>  candidateGUIDs = null;
+
+        if (entityTypeGUID != null)
+        {
+            candidateGUIDs = this.narrowCandidates(candidateGUIDs, repositoryStore.getEntityGUIDsForType(entityTypeGUID));
+        }
+
+        if (limitResultsByStatus != null)
+        {
+            candidateGUIDs = this.narrowCandidates(candidateGUIDs, repositoryStore.getEntityGUIDsForStatus(limitResultsByStatus));
+        }
+
+        if (limitResultsByClassification != null)
+        {
+            candidateGUIDs = this.narrowCandidates(candidateGUIDs,
+                                                   repositoryStore.getEntityGUIDsForClassification(limitResultsByClassification));
+        }
+
+        /*
+         * Each match property must match when the match criteria is ALL so any exact string values
+         * can be located through the property index.
+         */
+        if ((matchProperties != null) && (matchCriteria == MatchCriteria.ALL))
+        {
+            Iterator<String>  propertyNames = matchProperties.getPropertyNames();
+
+            while (propertyNames.hasNext())
+            {
+                String  propertyName = propertyNames.next();
+
+                if ((propertyName != null) && (! headerPropertyNames.contains(propertyName)))
+                {
+                    String  exactValue = this.getExactMatchValue(matchProperties.getPropertyValue(propertyName));
+
+                    if (exactValue != null)
+                    {
+                        candidateGUIDs = this.narrowCandidates(candidateGUIDs,
+                                                               repositoryStore.getEntityGUIDsForPropertyValue(propertyName,
+                                                                                                              exactValue));
+                    }
+                }
+            }
+        }
+
+        if (searchCriteria != null)
+        {
+            String  exactValue = this.getExactMatchLiteral(searchCriteria);
+
+            if (exactValue != null)
+            {
+                candidateGUIDs = this.narrowCandidates(candidateGUIDs, repositoryStore.getEntityGUIDsForAnyPropertyValue(exactValue));
+            }
+        }
+
+        if (candidateGUIDs == null)
+        {
+            return repositoryStore.getEntities();
+        }
+
+        List<EntityDetail>  candidateEntities = new ArrayList<>();
+
+        for (String guid : candidateGUIDs)
+        {
+            EntityDetail  entity = repositoryStore.getEntity(guid);
+
+            if (entity != null)
+            {
+                candidateEntities.add(entity);
+            }
+        }
+
+        return candidateEntities;
+    }
+
+
+    /**
+     * Intersect the current candidate GUIDs with the GUIDs from an index.
+     *
+     * @param candidateGUIDs current candidates (null means no restriction yet)
+     * @param indexedGUIDs GUIDs returned from an index
+     * @return narrowed candidates
+     */
+    private Set<String>  narrowCandidates(Set<String>   candidateGUIDs,
+                                          Set<String>   indexedGUIDs)
+    {
+        if (candidateGUIDs == null)
+        {
+            return indexedGUIDs;
+        }
+
+        if (indexedGUIDs.size() < candidateGUIDs.size())
+        {
+            indexedGUIDs.retainAll(candidateGUIDs);
+            return indexedGUIDs;
+        }
+
+        candidateGUIDs.retainAll(indexedGUIDs);
+        return candidateGUIDs;
+    }
+
+
+    /**
+     * Return the literal string that a string match property value must equal, or null if the value
+     * is not a string or is a regular expression that is not a simple exact match.
+     *
+     * @param matchPropertyValue value from the match properties
+     * @return literal value or null
+     */
+    private String  getExactMatchValue(InstancePropertyValue   matchPropertyValue)
+    {
+        if ((matchPropertyValue != null) && (matchPropertyValue.getInstancePropertyCategory() == InstancePropertyCategory.PRIMITIVE))
+        {
+            PrimitivePropertyValue  primitivePropertyValue = (PrimitivePropertyValue)matchPropertyValue;
+
+            if ((primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING) &&
+                (primitivePropertyValue.getPrimitiveValue() instanceof String))
+            {
+                return this.getExactMatchLiteral((String)primitivePropertyValue.getPrimitiveValue());
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the literal string that a regular expression matches if it only matches a single string.
+     * This is the case for regular expressions built with getExactMatchRegex and those with no special characters.
+     *
+     * @param regex regular expression
+     * @return literal value or null if the regular expression could match many strings
+     * @see OMRSRepositoryHelper#getExactMatchRegex(String)
+     */
+    private String  getExactMatchLiteral(String   regex)
+    {
+        if (regex == null)
+        {
+            return null;
+        }
+
+        if (repositoryHelper.isExactMatchRegex(regex))
+        {
+            return repositoryHelper.getUnqualifiedLiteralString(regex);
+        }
+
+        for (char character : regex.toCharArray())
+        {
+            if (OMRSSearchPatternMatcher.REGEX_SYNTAX.indexOf(character) != -1)
+            {
+                return null;
+            }
+        }
+
+        return regex;
+    }
 }
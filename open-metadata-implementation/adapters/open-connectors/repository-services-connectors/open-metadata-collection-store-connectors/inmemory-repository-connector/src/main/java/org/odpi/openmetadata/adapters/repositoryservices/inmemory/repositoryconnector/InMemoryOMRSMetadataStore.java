@@ -3,25 +3,57 @@
 package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
 
 
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
-import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * InMemoryOMRSMetadataStore provides the in memory stores for the InMemoryRepositoryConnector
+ * InMemoryOMRSMetadataStore provides the in memory stores for the InMemoryRepositoryConnector.
+ * The stores and indexes are concurrent collections so reads do not block.  Updates to a single instance
+ * are serialized by a lock selected from the instance's GUID so that the store, history and indexes
+ * change together.
  */
 class InMemoryOMRSMetadataStore
 {
-    private String                                 repositoryName           = null;
-    private volatile Map<String, EntityDetail>     entityStore              = new HashMap<>();
-    private volatile Map<String, EntityProxy>      entityProxyStore         = new HashMap<>();
-    private volatile List<EntityDetail>            entityHistoryStore       = new ArrayList<>();
-    private volatile Map<String, Relationship>     relationshipStore        = new HashMap<>();
-    private volatile List<Relationship>            relationshipHistoryStore = new ArrayList<>();
+    /*
+     * Number of locks used to serialize updates to the same instance.  Updates to instances whose GUIDs hash to
+     * different locks proceed in parallel and readers never take a lock.
+     */
+    private static final int  INSTANCE_LOCK_COUNT = 64;
+
+    private String                                                 repositoryName           = null;
+    private final Map<String, EntityDetail>                        entityStore              = new ConcurrentHashMap<>();
+    private final Map<String, EntityProxy>                         entityProxyStore         = new ConcurrentHashMap<>();
+    private final Map<String, Relationship>                        relationshipStore        = new ConcurrentHashMap<>();
+    private final Object[]                                         instanceLocks            = new Object[INSTANCE_LOCK_COUNT];
+
+    /*
+     * The history stores hold the superseded versions of each instance, keyed by GUID.
+     */
+    private final Map<String, InMemoryInstanceHistory<EntityDetail>> entityHistoryStore       = new ConcurrentHashMap<>();
+    private final Map<String, InMemoryInstanceHistory<Relationship>> relationshipHistoryStore = new ConcurrentHashMap<>();
+
+    /*
+     * Secondary indexes over the current (latest) versions of the entities in the entity store.
+     * They hold entity GUIDs only and are maintained whenever the entity store changes.
+     */
+    private final Map<String, Set<String>>              entityTypeIndex            = new ConcurrentHashMap<>();
+    private final Map<InstanceStatus, Set<String>>      entityStatusIndex          = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>>              entityClassificationIndex  = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Set<String>>> entityPropertyIndex        = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>>              entityComplexPropertyIndex = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>>              entityPropertyValueIndex   = new ConcurrentHashMap<>();
+
+    /*
+     * Adjacency index from the GUID of each entity at the end of a current relationship to the
+     * GUIDs of its relationships, partitioned by relationship type GUID.
+     */
+    private final Map<String, Map<String, Set<String>>> relationshipAdjacencyIndex = new ConcurrentHashMap<>();
 
 
     /**
@@ -29,6 +61,10 @@ class InMemoryOMRSMetadataStore
      */
     InMemoryOMRSMetadataStore()
     {
+        for (int i = 0; i < instanceLocks.length; i++)
+        {
+            instanceLocks[i] = new Object();
+        }
     }
 
 
@@ -48,7 +84,7 @@ class InMemoryOMRSMetadataStore
      *
      * @return list of EntityDetail objects
      */
-    synchronized List<EntityDetail>   getEntities()
+    List<EntityDetail>   getEntities()
     {
         return new ArrayList<>(entityStore.values());
     }
@@ -60,7 +96,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntityDetail  getEntity(String   guid)
+    EntityDetail  getEntity(String   guid)
     {
         return entityStore.get(guid);
     }
@@ -72,88 +108,163 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier
      * @return entity proxy object
      */
-    synchronized EntityProxy  getEntityProxy(String   guid)
+    EntityProxy  getEntityProxy(String   guid)
     {
         return entityProxyStore.get(guid);
     }
 
 
+    /**
+     * Return the GUIDs of the current entities that are of the requested type, or one of its subtypes.
+     *
+     * @param typeDefGUID unique identifier of the type
+     * @return set of entity GUIDs (empty if none match)
+     */
+    Set<String>  getEntityGUIDsForType(String   typeDefGUID)
+    {
+        return copyIndexEntry(entityTypeIndex.get(typeDefGUID));
+    }
+
+
+    /**
+     * Return the GUIDs of the current entities that are in any one of the requested statuses.
+     *
+     * @param statuses list of statuses
+     * @return set of entity GUIDs (empty if none match)
+     */
+    Set<String>  getEntityGUIDsForStatus(List<InstanceStatus>   statuses)
+    {
+        Set<String>  entityGUIDs = new HashSet<>();
+
+        for (InstanceStatus status : statuses)
+        {
+            Set<String>  indexEntry = entityStatusIndex.get(status);
+
+            if (indexEntry != null)
+            {
+                entityGUIDs.addAll(indexEntry);
+            }
+        }
+
+        return entityGUIDs;
+    }
+
+
+    /**
+     * Return the GUIDs of the current entities that have any one of the named classifications attached.
+     *
+     * @param classificationNames list of classification names
+     * @return set of entity GUIDs (empty if none match)
+     */
+    Set<String>  getEntityGUIDsForClassification(List<String>   classificationNames)
+    {
+        Set<String>  entityGUIDs = new HashSet<>();
+
+        for (String classificationName : classificationNames)
+        {
+            Set<String>  indexEntry = entityClassificationIndex.get(classificationName);
+
+            if (indexEntry != null)
+            {
+                entityGUIDs.addAll(indexEntry);
+            }
+        }
+
+        return entityGUIDs;
+    }
+
+
+    /**
+     * Return the GUIDs of the current entities that could match the exact value for the named property.
+     * This is the entities where the property is a string with exactly this value, plus those entities
+     * where the property is a struct, array or map since these are matched against their string form.
+     *
+     * @param propertyName name of the property
+     * @param propertyValue exact value of the property
+     * @return set of entity GUIDs (empty if none match)
+     */
+    Set<String>  getEntityGUIDsForPropertyValue(String   propertyName,
+                                                String   propertyValue)
+    {
+        Set<String>               entityGUIDs = new HashSet<>();
+        Map<String, Set<String>>  valueIndex  = entityPropertyIndex.get(propertyName);
+
+        if (valueIndex != null)
+        {
+            Set<String>  indexEntry = valueIndex.get(propertyValue);
+
+            if (indexEntry != null)
+            {
+                entityGUIDs.addAll(indexEntry);
+            }
+        }
+
+        Set<String>  complexEntry = entityComplexPropertyIndex.get(propertyName);
+
+        if (complexEntry != null)
+        {
+            entityGUIDs.addAll(complexEntry);
+        }
+
+        return entityGUIDs;
+    }
+
+
+    /**
+     * Return the GUIDs of the current entities that have a string or enum property value (at any level of
+     * nesting) that is exactly equal to the supplied value.
+     *
+     * @param propertyValue exact value of the property
+     * @return set of entity GUIDs (empty if none match)
+     */
+    Set<String>  getEntityGUIDsForAnyPropertyValue(String   propertyValue)
+    {
+        return copyIndexEntry(entityPropertyValueIndex.get(propertyValue));
+    }
+
+
     /**
      * Return an entity store that contains entities as they were at the time supplied in the asOfTime
-     * parameter
+     * parameter.  When asOfTime is null, a read-only view of the current store is returned rather than a copy.
      *
      * @param asOfTime - time for the store (or null means now)
      * @return entity store for the requested time
      */
-    synchronized Map<String, EntityDetail>  timeWarpEntityStore(Date         asOfTime)
+    Map<String, EntityDetail>  timeWarpEntityStore(Date         asOfTime)
     {
         if (asOfTime == null)
         {
-            return new HashMap<>(entityStore);
+            return Collections.unmodifiableMap(entityStore);
         }
 
         Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
 
         /*
-         * First step through the current relationship store and extract all of the relationships that were
-         * last updated before the asOfTime.
+         * First step through the current entity store, falling back to the history of any entity that
+         * has been updated since the asOfTime.
          */
-        for (EntityDetail  entity : entityStore.values())
+        for (String  entityGUID : entityStore.keySet())
         {
+            EntityDetail  entity = timeWarpEntity(entityGUID, asOfTime);
+
             if (entity != null)
             {
-                if (entity.getUpdateTime() != null)
-                {
-                    String entityGUID = entity.getGUID();
-
-                    if (entityGUID != null)
-                    {
-                        if (! entity.getUpdateTime().after(asOfTime))
-                        {
-                            timeWarpedEntityStore.put(entityGUID, entity);
-                        }
-                    }
-                }
-                else if (entity.getCreateTime() != null)
-                {
-                    if (! entity.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedEntityStore.put(entity.getGUID(), entity);
-                    }
-                }
+                timeWarpedEntityStore.put(entityGUID, entity);
             }
         }
 
         /*
-         * Now step through the history store picking up the versions of other entities that were active
-         * at the time of the asOfTime.
+         * Now pick up the entities that are no longer in the current store.
          */
-        for (EntityDetail oldEntity : entityHistoryStore)
+        for (String  entityGUID : entityHistoryStore.keySet())
         {
-            if (oldEntity != null)
+            if (! timeWarpedEntityStore.containsKey(entityGUID))
             {
-                String entityGUID = oldEntity.getGUID();
-
-                if (oldEntity.getUpdateTime() != null)
-                {
-                    if (! oldEntity.getUpdateTime().after(asOfTime))
-                    {
-                        EntityDetail newerEntity = timeWarpedEntityStore.put(entityGUID, oldEntity);
+                EntityDetail  entity = timeWarpEntity(entityGUID, asOfTime);
 
-                        if (newerEntity != null)
-                        {
-                            timeWarpedEntityStore.put(entityGUID, newerEntity);
-                        }
-                        break;
-                    }
-                }
-                else if (oldEntity.getCreateTime() != null)
+                if (entity != null)
                 {
-                    if (! oldEntity.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedEntityStore.put(entityGUID, oldEntity);
-                        break;
-                    }
+                    timeWarpedEntityStore.put(entityGUID, entity);
                 }
             }
         }
@@ -162,12 +273,45 @@ class InMemoryOMRSMetadataStore
     }
 
 
+    /**
+     * Return the version of the entity that was in effect at the time supplied in the asOfTime parameter.
+     *
+     * @param guid - unique identifier for the entity
+     * @param asOfTime - time of interest (or null means now)
+     * @return entity or null if it did not exist at that time
+     */
+    EntityDetail  timeWarpEntity(String   guid,
+                                 Date     asOfTime)
+    {
+        EntityDetail  currentEntity = entityStore.get(guid);
+
+        if (asOfTime == null)
+        {
+            return currentEntity;
+        }
+
+        if ((currentEntity != null) && (InMemoryInstanceHistory.isInEffectAsOf(currentEntity, asOfTime)))
+        {
+            return currentEntity;
+        }
+
+        InMemoryInstanceHistory<EntityDetail>  history = entityHistoryStore.get(guid);
+
+        if (history != null)
+        {
+            return history.getVersionAsOf(asOfTime);
+        }
+
+        return null;
+    }
+
+
     /**
      * Return the list of relationships at their current level.
      *
      * @return list of relationships
      */
-    synchronized List<Relationship>   getRelationships()
+    List<Relationship>   getRelationships()
     {
         return new ArrayList<>(relationshipStore.values());
     }
@@ -179,87 +323,190 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the relationship
      * @return relationship object
      */
-    protected synchronized Relationship  getRelationship(String   guid)
+    protected Relationship  getRelationship(String   guid)
     {
         return relationshipStore.get(guid);
     }
 
     /**
-     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the current relationships that are attached to the requested entity.  The cost of this
+     * lookup depends on the number of relationships attached to the entity rather than the size of the store.
      *
-     * @param asOfTime - time for the store (or null means now)
-     * @return relationship store for the requested time
+     * @param entityGUID unique identifier of the entity
+     * @param relationshipTypeGUID unique identifier of the relationship type (null means all types)
+     * @return list of relationships (empty if none are attached)
      */
-    synchronized Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    List<Relationship>  getRelationshipsForEntity(String   entityGUID,
+                                                  String   relationshipTypeGUID)
     {
-        if (asOfTime == null)
+        List<Relationship>        relationships  = new ArrayList<>();
+        Map<String, Set<String>>  typePartitions = relationshipAdjacencyIndex.get(entityGUID);
+
+        if (typePartitions != null)
         {
-            return new HashMap<>(relationshipStore);
+            if (relationshipTypeGUID == null)
+            {
+                for (Set<String> relationshipGUIDs : typePartitions.values())
+                {
+                    addRelationships(relationshipGUIDs, relationships);
+                }
+            }
+            else
+            {
+                addRelationships(typePartitions.get(relationshipTypeGUID), relationships);
+            }
         }
 
-        Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+        return relationships;
+    }
 
-        /*
-         * First step through the current relationship store and extract all of the relationships that were
-         * last updated before the asOfTime.
-         */
-        for (Relationship  relationship : relationshipStore.values())
+
+    /**
+     * Count the current relationships that are attached to the requested entity by type.  The relationships
+     * are counted from the adjacency index without building a list of them.  Deleted relationships are not counted.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @param relationshipTypeGUIDs unique identifiers of the relationship types to count (null means all types)
+     * @param limitResultsByStatus statuses to count (null means all statuses)
+     * @return map of relationship type GUID to count - requested types with no relationships have a count of zero
+     */
+    Map<String, Integer>  countRelationshipsForEntity(String                 entityGUID,
+                                                      List<String>           relationshipTypeGUIDs,
+                                                      List<InstanceStatus>   limitResultsByStatus)
+    {
+        Map<String, Integer>      relationshipCounts = new HashMap<>();
+        Map<String, Set<String>>  typePartitions     = relationshipAdjacencyIndex.get(entityGUID);
+
+        if (relationshipTypeGUIDs != null)
         {
-            if (relationship != null)
+            for (String relationshipTypeGUID : relationshipTypeGUIDs)
+            {
+                relationshipCounts.put(relationshipTypeGUID, 0);
+            }
+        }
+
+        if (typePartitions != null)
+        {
+            for (Map.Entry<String, Set<String>> partition : typePartitions.entrySet())
             {
-                if (relationship.getUpdateTime() != null)
+                if ((relationshipTypeGUIDs == null) || (relationshipCounts.containsKey(partition.getKey())))
                 {
-                    String relationshipGUID = relationship.getGUID();
+                    int count = 0;
 
-                    if (relationshipGUID != null)
+                    for (String relationshipGUID : partition.getValue())
                     {
-                        if (! relationship.getUpdateTime().after(asOfTime))
+                        Relationship  relationship = relationshipStore.get(relationshipGUID);
+
+                        if ((relationship != null) && (relationship.getStatus() != InstanceStatus.DELETED))
                         {
-                            timeWarpedRelationshipStore.put(relationshipGUID, relationship);
+                            if ((limitResultsByStatus == null) || (limitResultsByStatus.contains(relationship.getStatus())))
+                            {
+                                count++;
+                            }
                         }
                     }
-                }
-                else if (relationship.getCreateTime() != null)
-                {
-                    if (! relationship.getCreateTime().after(asOfTime))
+
+                    if ((count > 0) || (relationshipTypeGUIDs != null))
                     {
-                        timeWarpedRelationshipStore.put(relationship.getGUID(), relationship);
+                        relationshipCounts.put(partition.getKey(), count);
                     }
                 }
             }
         }
 
+        return relationshipCounts;
+    }
+
+
+    /**
+     * Return the GUIDs of the current relationships that are attached to the requested entity.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return set of relationship GUIDs (empty if none are attached)
+     */
+    Set<String>  getRelationshipGUIDsForEntity(String   entityGUID)
+    {
+        Set<String>               relationshipGUIDs = new HashSet<>();
+        Map<String, Set<String>>  typePartitions    = relationshipAdjacencyIndex.get(entityGUID);
+
+        if (typePartitions != null)
+        {
+            for (Set<String> partition : typePartitions.values())
+            {
+                relationshipGUIDs.addAll(partition);
+            }
+        }
+
+        return relationshipGUIDs;
+    }
+
+
+    /**
+     * Add the current relationships with the requested GUIDs to the supplied list.
+     *
+     * @param relationshipGUIDs GUIDs of the relationships to add (may be null)
+     * @param relationships list to add them to
+     */
+    private void addRelationships(Set<String>          relationshipGUIDs,
+                                  List<Relationship>   relationships)
+    {
+        if (relationshipGUIDs != null)
+        {
+            for (String relationshipGUID : relationshipGUIDs)
+            {
+                Relationship  relationship = relationshipStore.get(relationshipGUID);
+
+                if (relationship != null)
+                {
+                    relationships.add(relationship);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
+     * parameter.  When asOfTime is null, a read-only view of the current store is returned rather than a copy.
+     *
+     * @param asOfTime - time for the store (or null means now)
+     * @return relationship store for the requested time
+     */
+    Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            return Collections.unmodifiableMap(relationshipStore);
+        }
+
+        Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+
         /*
-         * Now step through the history store picking up the versions of other relationships that were active
-         * at the time of the asOfTime.
+         * First step through the current relationship store, falling back to the history of any relationship that
+         * has been updated since the asOfTime.
          */
-        for (Relationship oldRelationship : relationshipHistoryStore)
+        for (String  relationshipGUID : relationshipStore.keySet())
         {
-            if (oldRelationship != null)
+            Relationship  relationship = timeWarpRelationship(relationshipGUID, asOfTime);
+
+            if (relationship != null)
             {
-                String relationshipGUID = oldRelationship.getGUID();
+                timeWarpedRelationshipStore.put(relationshipGUID, relationship);
+            }
+        }
 
-                if (oldRelationship.getUpdateTime() != null)
-                {
-                    if (! oldRelationship.getUpdateTime().after(asOfTime))
-                    {
-                        Relationship newerRelationship = timeWarpedRelationshipStore.put(relationshipGUID, oldRelationship);
+        /*
+         * Now pick up the relationships that are no longer in the current store.
+         */
+        for (String  relationshipGUID : relationshipHistoryStore.keySet())
+        {
+            if (! timeWarpedRelationshipStore.containsKey(relationshipGUID))
+            {
+                Relationship  relationship = timeWarpRelationship(relationshipGUID, asOfTime);
 
-                        if (newerRelationship != null)
-                        {
-                            timeWarpedRelationshipStore.put(relationshipGUID, newerRelationship);
-                        }
-                        break;
-                    }
-                }
-                else if (oldRelationship.getCreateTime() != null)
+                if (relationship != null)
                 {
-                    if (! oldRelationship.getCreateTime().after(asOfTime))
-                    {
-                        timeWarpedRelationshipStore.put(relationshipGUID, oldRelationship);
-                        break;
-                    }
+                    timeWarpedRelationshipStore.put(relationshipGUID, relationship);
                 }
             }
         }
@@ -267,27 +514,67 @@ class InMemoryOMRSMetadataStore
         return timeWarpedRelationshipStore;
     }
 
+
+    /**
+     * Return the version of the relationship that was in effect at the time supplied in the asOfTime parameter.
+     *
+     * @param guid - unique identifier for the relationship
+     * @param asOfTime - time of interest (or null means now)
+     * @return relationship or null if it did not exist at that time
+     */
+    Relationship  timeWarpRelationship(String   guid,
+                                       Date     asOfTime)
+    {
+        Relationship  currentRelationship = relationshipStore.get(guid);
+
+        if (asOfTime == null)
+        {
+            return currentRelationship;
+        }
+
+        if ((currentRelationship != null) && (InMemoryInstanceHistory.isInEffectAsOf(currentRelationship, asOfTime)))
+        {
+            return currentRelationship;
+        }
+
+        InMemoryInstanceHistory<Relationship>  history = relationshipHistoryStore.get(guid);
+
+        if (history != null)
+        {
+            return history.getVersionAsOf(asOfTime);
+        }
+
+        return null;
+    }
+
     /**
      * Create a new entity in the entity store.
      *
      * @param entity - new version of the entity
      * @return entity with potentially updated GUID
      */
-    synchronized EntityDetail createEntityInStore(EntityDetail    entity)
+    EntityDetail createEntityInStore(EntityDetail    entity)
     {
         /*
-         * There is a small chance the randomly generated GUID will clash with an existing relationship.
-         * If this happens a new GUID is generated for the relationship and the process repeats.
+         * There is a small chance the randomly generated GUID will clash with an existing entity.
+         * If this happens a new GUID is generated for the entity and the process repeats.
+         * The entity is stored and indexed under its instance lock so an update or removal of the same GUID
+         * cannot slip in between the two steps.
          */
-        EntityDetail existingEntity = entityStore.put(entity.getGUID(), entity);
-
-        while (existingEntity != null)
+        while (true)
         {
+            synchronized (getInstanceLock(entity.getGUID()))
+            {
+                if (entityStore.putIfAbsent(entity.getGUID(), entity) == null)
+                {
+                    this.addEntityToIndexes(entity);
+
+                    return entity;
+                }
+            }
+
             entity.setGUID(UUID.randomUUID().toString());
-            existingEntity = entityStore.put(entity.getGUID(), entity);
         }
-
-        return entity;
     }
 
 
@@ -297,21 +584,28 @@ class InMemoryOMRSMetadataStore
      * @param relationship - new version of the relationship
      * @return relationship with potentially updated GUID
      */
-    synchronized Relationship createRelationshipInStore(Relationship    relationship)
+    Relationship createRelationshipInStore(Relationship    relationship)
     {
         /*
          * There is a small chance the randomly generated GUID will clash with an existing relationship.
          * If this happens a new GUID is generated for the relationship and the process repeats.
+         * The relationship is stored and indexed under its instance lock so an update or removal of the same GUID
+         * cannot slip in between the two steps.
          */
-        Relationship existingRelationship = relationshipStore.put(relationship.getGUID(), relationship);
-
-        while (existingRelationship != null)
+        while (true)
         {
+            synchronized (getInstanceLock(relationship.getGUID()))
+            {
+                if (relationshipStore.putIfAbsent(relationship.getGUID(), relationship) == null)
+                {
+                    this.addRelationshipToIndexes(relationship);
+
+                    return relationship;
+                }
+            }
+
             relationship.setGUID(UUID.randomUUID().toString());
-            existingRelationship = relationshipStore.put(relationship.getGUID(), relationship);
         }
-
-        return relationship;
     }
 
 
@@ -320,7 +614,7 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy - entity proxy object to add
      */
-    synchronized void addEntityProxyToStore(EntityProxy    entityProxy)
+    void addEntityProxyToStore(EntityProxy    entityProxy)
     {
         entityProxyStore.put(entityProxy.getGUID(), entityProxy);
     }
@@ -332,13 +626,19 @@ class InMemoryOMRSMetadataStore
      *
      * @param entity - new version of the entity
      */
-    synchronized void updateEntityInStore(EntityDetail    entity)
+    void updateEntityInStore(EntityDetail    entity)
     {
-        EntityDetail    oldEntity = entityStore.put(entity.getGUID(), entity);
-
-        if (oldEntity != null)
+        synchronized (getInstanceLock(entity.getGUID()))
         {
-            entityHistoryStore.add(0, oldEntity);
+            EntityDetail    oldEntity = entityStore.put(entity.getGUID(), entity);
+
+            this.addEntityToIndexes(entity);
+
+            if (oldEntity != null)
+            {
+                this.removeEntityFromIndexes(oldEntity, entity);
+                this.addEntityToHistory(oldEntity);
+            }
         }
     }
 
@@ -348,7 +648,7 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy - entity proxy object to add
      */
-    synchronized void updateEntityProxyInStore(EntityProxy    entityProxy)
+    void updateEntityProxyInStore(EntityProxy    entityProxy)
     {
         entityProxyStore.put(entityProxy.getGUID(), entityProxy);
     }
@@ -360,26 +660,42 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - new version of the relationship
      */
-    synchronized void updateRelationshipInStore(Relationship    relationship)
+    void updateRelationshipInStore(Relationship    relationship)
     {
-        Relationship    oldRelationship = relationshipStore.put(relationship.getGUID(), relationship);
-
-        if (oldRelationship != null)
+        synchronized (getInstanceLock(relationship.getGUID()))
         {
-            relationshipHistoryStore.add(0, oldRelationship);
-        }
-    }
+            Relationship    oldRelationship = relationshipStore.put(relationship.getGUID(), relationship);
 
+            this.addRelationshipToIndexes(relationship);
 
-    /**
-     * Save a reference copy of an entity to the active store.  Reference copies are not maintained in the
+            if (oldRelationship != null)
+            {
+                this.removeRelationshipFromIndexes(oldRelationship, relationship);
+                this.addRelationshipToHistory(oldRelationship);
+            }
+        }
+    }
+
+
+    /**
+     * Save a reference copy of an entity to the active store.  Reference copies are not maintained in the
      * history store.
      *
      * @param entity - object to save
      */
-    synchronized void saveReferenceEntityToStore(EntityDetail    entity)
+    void saveReferenceEntityToStore(EntityDetail    entity)
     {
-        entityStore.put(entity.getGUID(), entity);
+        synchronized (getInstanceLock(entity.getGUID()))
+        {
+            EntityDetail    oldEntity = entityStore.put(entity.getGUID(), entity);
+
+            this.addEntityToIndexes(entity);
+
+            if (oldEntity != null)
+            {
+                this.removeEntityFromIndexes(oldEntity, entity);
+            }
+        }
     }
 
 
@@ -389,52 +705,129 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - object to save
      */
-    synchronized void saveReferenceRelationshipToStore(Relationship    relationship)
+    void saveReferenceRelationshipToStore(Relationship    relationship)
     {
-        relationshipStore.put(relationship.getGUID(), relationship);
+        synchronized (getInstanceLock(relationship.getGUID()))
+        {
+            Relationship    oldRelationship = relationshipStore.put(relationship.getGUID(), relationship);
+
+            this.addRelationshipToIndexes(relationship);
+
+            if (oldRelationship != null)
+            {
+                this.removeRelationshipFromIndexes(oldRelationship, relationship);
+            }
+        }
     }
 
 
     /**
-     * Retrieve the previous version of a Relationship.  This is the first instance of this element that
-     * appears in the history.
+     * Save a batch of reference copies of entities to the active store and remove any proxies they replace.
+     * The entities are grouped by their instance lock so each lock is taken once for the batch rather than
+     * once for each entity.
      *
-     * @param guid - unique identifier for the required element
-     * @return - previous version of this relationship - or null if not found
+     * @param entities - objects to save
      */
-    synchronized Relationship retrievePreviousVersionOfRelationship(String   guid)
+    void saveReferenceEntitiesToStore(List<EntityDetail>    entities)
     {
-        if (guid != null)
+        for (Map.Entry<Integer, List<EntityDetail>> lockGroup : this.groupByInstanceLock(entities).entrySet())
         {
-            Relationship  currentVersionOfRelationship = relationshipStore.get(guid);
+            synchronized (instanceLocks[lockGroup.getKey()])
+            {
+                for (EntityDetail entity : lockGroup.getValue())
+                {
+                    EntityDetail    oldEntity = entityStore.put(entity.getGUID(), entity);
 
-            long versionNumber = 0;
+                    this.addEntityToIndexes(entity);
 
-            if (currentVersionOfRelationship != null)
+                    if (oldEntity != null)
+                    {
+                        this.removeEntityFromIndexes(oldEntity, entity);
+                    }
+                    entityProxyStore.remove(entity.getGUID());
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Save a batch of reference copies of relationships to the active store.  The relationships are grouped by
+     * their instance lock so each lock is taken once for the batch rather than once for each relationship.
+     *
+     * @param relationships - objects to save
+     */
+    void saveReferenceRelationshipsToStore(List<Relationship>    relationships)
+    {
+        for (Map.Entry<Integer, List<Relationship>> lockGroup : this.groupByInstanceLock(relationships).entrySet())
+        {
+            synchronized (instanceLocks[lockGroup.getKey()])
             {
-                versionNumber = currentVersionOfRelationship.getVersion() + 1;
+                for (Relationship relationship : lockGroup.getValue())
+                {
+                    Relationship    oldRelationship = relationshipStore.put(relationship.getGUID(), relationship);
+
+                    this.addRelationshipToIndexes(relationship);
+
+                    if (oldRelationship != null)
+                    {
+                        this.removeRelationshipFromIndexes(oldRelationship, relationship);
+                    }
+                }
             }
+        }
+    }
 
-            int  elementPosition = 0;
 
-            for (Relationship relationship : relationshipHistoryStore)
+    /**
+     * Retrieve the previous version of a Relationship.  This is the latest version of this element
+     * in the history.
+     *
+     * @param guid - unique identifier for the required element
+     * @return - previous version of this relationship - or null if not found
+     */
+    Relationship retrievePreviousVersionOfRelationship(String   guid)
+    {
+        if (guid != null)
+        {
+            synchronized (getInstanceLock(guid))
             {
-                if (relationship != null)
+                InMemoryInstanceHistory<Relationship>  history = relationshipHistoryStore.get(guid);
+
+                if (history == null)
+                {
+                    return null;
+                }
+
+                Relationship  previousVersionOfRelationship = history.removeLatestVersion();
+
+                if (history.isEmpty())
+                {
+                    relationshipHistoryStore.remove(guid);
+                }
+
+                if (previousVersionOfRelationship != null)
                 {
-                    if (guid.equals(relationship.getGUID()))
+                    Relationship  currentVersionOfRelationship = relationshipStore.get(guid);
+
+                    long versionNumber = previousVersionOfRelationship.getVersion() + 1;
+
+                    if (currentVersionOfRelationship != null)
                     {
-                        if (versionNumber == 0)
-                        {
-                            versionNumber = relationship.getVersion() + 1;
-                        }
-                        relationship.setVersion(versionNumber);
-                        relationshipHistoryStore.remove(elementPosition);
-                        relationshipStore.put(guid, relationship);
-                        return relationship;
+                        versionNumber = currentVersionOfRelationship.getVersion() + 1;
+                    }
+
+                    previousVersionOfRelationship.setVersion(versionNumber);
+                    relationshipStore.put(guid, previousVersionOfRelationship);
+                    this.addRelationshipToIndexes(previousVersionOfRelationship);
+
+                    if (currentVersionOfRelationship != null)
+                    {
+                        this.removeRelationshipFromIndexes(currentVersionOfRelationship, previousVersionOfRelationship);
                     }
                 }
 
-                elementPosition ++;
+                return previousVersionOfRelationship;
             }
         }
 
@@ -444,44 +837,53 @@ class InMemoryOMRSMetadataStore
 
     /**
      * Retrieve the previous version of an Entity from the history store and restore it in the entity store.
-     * This is the first instance of this element that appears in the history.
+     * This is the latest version of this element in the history.
      *
      * @param guid - unique identifier for the required element
      * @return - previous version of this Entity - or null if not found
      */
-    synchronized EntityDetail retrievePreviousVersionOfEntity(String   guid)
+    EntityDetail retrievePreviousVersionOfEntity(String   guid)
     {
         if (guid != null)
         {
-            EntityDetail  currentVersionOfEntity = entityStore.get(guid);
+            synchronized (getInstanceLock(guid))
+            {
+                InMemoryInstanceHistory<EntityDetail>  history = entityHistoryStore.get(guid);
 
-            long versionNumber = 0;
+                if (history == null)
+                {
+                    return null;
+                }
 
-            if (currentVersionOfEntity != null)
-            {
-                versionNumber = currentVersionOfEntity.getVersion() + 1;
-            }
+                EntityDetail  previousVersionOfEntity = history.removeLatestVersion();
 
-            int  elementPosition = 0;
+                if (history.isEmpty())
+                {
+                    entityHistoryStore.remove(guid);
+                }
 
-            for (EntityDetail entity : entityHistoryStore)
-            {
-                if (entity != null)
+                if (previousVersionOfEntity != null)
                 {
-                    if (guid.equals(entity.getGUID()))
+                    EntityDetail  currentVersionOfEntity = entityStore.get(guid);
+
+                    long versionNumber = previousVersionOfEntity.getVersion() + 1;
+
+                    if (currentVersionOfEntity != null)
                     {
-                        if (versionNumber == 0)
-                        {
-                            versionNumber = entity.getVersion() + 1;
-                        }
-                        entity.setVersion(versionNumber);
-                        entityHistoryStore.remove(elementPosition);
-                        entityStore.put(guid, entity);
-                        return entity;
+                        versionNumber = currentVersionOfEntity.getVersion() + 1;
+                    }
+
+                    previousVersionOfEntity.setVersion(versionNumber);
+                    entityStore.put(guid, previousVersionOfEntity);
+                    this.addEntityToIndexes(previousVersionOfEntity);
+
+                    if (currentVersionOfEntity != null)
+                    {
+                        this.removeEntityFromIndexes(currentVersionOfEntity, previousVersionOfEntity);
                     }
                 }
 
-                elementPosition ++;
+                return previousVersionOfEntity;
             }
         }
 
@@ -494,10 +896,19 @@ class InMemoryOMRSMetadataStore
      *
      * @param entity - entity to remove
      */
-    synchronized void removeEntityFromStore(EntityDetail     entity)
+    void removeEntityFromStore(EntityDetail     entity)
     {
-        entityStore.remove(entity.getGUID());
-        entityHistoryStore.add(0, entity);
+        synchronized (getInstanceLock(entity.getGUID()))
+        {
+            EntityDetail  storedEntity = entityStore.remove(entity.getGUID());
+
+            if (storedEntity != null)
+            {
+                this.removeEntityFromIndexes(storedEntity, null);
+            }
+
+            this.addEntityToHistory(entity);
+        }
     }
 
 
@@ -506,13 +917,17 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - entity to remove
      */
-    synchronized void removeReferenceEntityFromStore(String     guid)
+    void removeReferenceEntityFromStore(String     guid)
     {
-        EntityDetail entity = entityStore.remove(guid);
-
-        if (entity != null)
+        synchronized (getInstanceLock(guid))
         {
-            entityHistoryStore.add(0, entity);
+            EntityDetail entity = entityStore.remove(guid);
+
+            if (entity != null)
+            {
+                this.removeEntityFromIndexes(entity, null);
+                this.addEntityToHistory(entity);
+            }
         }
     }
 
@@ -522,7 +937,7 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - entity proxy to remove
      */
-    synchronized void removeEntityProxyFromStore(String     guid)
+    void removeEntityProxyFromStore(String     guid)
     {
         entityProxyStore.remove(guid);
     }
@@ -533,10 +948,19 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - relationship to remove
      */
-    synchronized void removeRelationshipFromStore(Relationship     relationship)
+    void removeRelationshipFromStore(Relationship     relationship)
     {
-        relationshipStore.remove(relationship.getGUID());
-        relationshipHistoryStore.add(0, relationship);
+        synchronized (getInstanceLock(relationship.getGUID()))
+        {
+            Relationship  storedRelationship = relationshipStore.remove(relationship.getGUID());
+
+            if (storedRelationship != null)
+            {
+                this.removeRelationshipFromIndexes(storedRelationship, null);
+            }
+
+            this.addRelationshipToHistory(relationship);
+        }
     }
 
 
@@ -545,14 +969,648 @@ class InMemoryOMRSMetadataStore
      *
      * @param guid - relationship to remove
      */
-    synchronized void removeReferenceRelationshipFromStore(String     guid)
+    void removeReferenceRelationshipFromStore(String     guid)
+    {
+        synchronized (getInstanceLock(guid))
+        {
+            Relationship  relationship = relationshipStore.remove(guid);
+
+            if (relationship != null)
+            {
+                this.removeRelationshipFromIndexes(relationship, null);
+                this.addRelationshipToHistory(relationship);
+            }
+        }
+    }
+
+
+    /**
+     * Add a superseded version of an entity to its history.
+     *
+     * @param entity version to add
+     */
+    private void addEntityToHistory(EntityDetail   entity)
+    {
+        entityHistoryStore.computeIfAbsent(entity.getGUID(), key -> new InMemoryInstanceHistory<>()).addVersion(entity);
+    }
+
+
+    /**
+     * Add a superseded version of a relationship to its history.
+     *
+     * @param relationship version to add
+     */
+    private void addRelationshipToHistory(Relationship   relationship)
+    {
+        relationshipHistoryStore.computeIfAbsent(relationship.getGUID(), key -> new InMemoryInstanceHistory<>()).addVersion(relationship);
+    }
+
+
+    /**
+     * Add the entity to each of the secondary indexes.
+     *
+     * @param entity entity to index
+     */
+    private void addEntityToIndexes(EntityDetail   entity)
     {
-        Relationship  relationship = relationshipStore.remove(guid);
+        String  entityGUID = entity.getGUID();
 
-        if (relationship != null)
+        if (entityGUID == null)
         {
-            relationshipHistoryStore.add(0, relationship);
+            return;
+        }
+
+        for (String typeGUID : getTypeGUIDs(entity.getType()))
+        {
+            addToIndex(entityTypeIndex, typeGUID, entityGUID);
+        }
+
+        addToIndex(entityStatusIndex, entity.getStatus(), entityGUID);
+
+        for (String classificationName : getClassificationNames(entity))
+        {
+            addToIndex(entityClassificationIndex, classificationName, entityGUID);
+        }
+
+        InstanceProperties  properties = entity.getProperties();
+
+        if (properties != null)
+        {
+            Iterator<String>  propertyNames = properties.getPropertyNames();
+
+            while (propertyNames.hasNext())
+            {
+                String                 propertyName  = propertyNames.next();
+                InstancePropertyValue  propertyValue = properties.getPropertyValue(propertyName);
+                String                 stringValue   = getStringValue(propertyValue);
+
+                if (stringValue != null)
+                {
+                    addToNestedIndex(entityPropertyIndex, propertyName, stringValue, entityGUID);
+                }
+                else if (isComplexValue(propertyValue))
+                {
+                    addToIndex(entityComplexPropertyIndex, propertyName, entityGUID);
+                }
+            }
+
+            for (String value : getAllStringValues(properties, new HashSet<>()))
+            {
+                addToIndex(entityPropertyValueIndex, value, entityGUID);
+            }
         }
     }
 
+
+    /**
+     * Remove the entity from each of the secondary indexes.  The entity supplied must be the version that was
+     * indexed.  When the entity is being replaced by a new version, the new version is indexed first and the
+     * entries it shares with the old version are left in place.  This means a reader that does not take the
+     * instance lock never sees the entity disappear from an entry that applies to both versions.
+     *
+     * @param entity entity to remove
+     * @param retainedEntity new version of the entity that is already indexed (null if the entity is being removed)
+     */
+    private void removeEntityFromIndexes(EntityDetail   entity,
+                                         EntityDetail   retainedEntity)
+    {
+        String  entityGUID = entity.getGUID();
+
+        if (entityGUID == null)
+        {
+            return;
+        }
+
+        Set<String>  retainedTypeGUIDs           = new HashSet<>();
+        Set<String>  retainedClassificationNames = new HashSet<>();
+        Set<String>  retainedValues              = new HashSet<>();
+
+        InstanceStatus      retainedStatus     = null;
+        InstanceProperties  retainedProperties = null;
+
+        if (retainedEntity != null)
+        {
+            retainedTypeGUIDs = getTypeGUIDs(retainedEntity.getType());
+            retainedClassificationNames = getClassificationNames(retainedEntity);
+            retainedStatus = retainedEntity.getStatus();
+            retainedProperties = retainedEntity.getProperties();
+
+            if (retainedProperties != null)
+            {
+                retainedValues = getAllStringValues(retainedProperties, new HashSet<>());
+            }
+        }
+
+        for (String typeGUID : getTypeGUIDs(entity.getType()))
+        {
+            if (! retainedTypeGUIDs.contains(typeGUID))
+            {
+                removeFromIndex(entityTypeIndex, typeGUID, entityGUID);
+            }
+        }
+
+        if (entity.getStatus() != retainedStatus)
+        {
+            removeFromIndex(entityStatusIndex, entity.getStatus(), entityGUID);
+        }
+
+        for (String classificationName : getClassificationNames(entity))
+        {
+            if (! retainedClassificationNames.contains(classificationName))
+            {
+                removeFromIndex(entityClassificationIndex, classificationName, entityGUID);
+            }
+        }
+
+        InstanceProperties  properties = entity.getProperties();
+
+        if (properties != null)
+        {
+            Iterator<String>  propertyNames = properties.getPropertyNames();
+
+            while (propertyNames.hasNext())
+            {
+                String                 propertyName          = propertyNames.next();
+                InstancePropertyValue  propertyValue         = properties.getPropertyValue(propertyName);
+                String                 stringValue           = getStringValue(propertyValue);
+                InstancePropertyValue  retainedPropertyValue = null;
+
+                if (retainedProperties != null)
+                {
+                    retainedPropertyValue = retainedProperties.getPropertyValue(propertyName);
+                }
+
+                if (stringValue != null)
+                {
+                    if (! stringValue.equals(getStringValue(retainedPropertyValue)))
+                    {
+                        removeFromNestedIndex(entityPropertyIndex, propertyName, stringValue, entityGUID);
+                    }
+                }
+                else if ((isComplexValue(propertyValue)) && (! isComplexValue(retainedPropertyValue)))
+                {
+                    removeFromIndex(entityComplexPropertyIndex, propertyName, entityGUID);
+                }
+            }
+
+            for (String value : getAllStringValues(properties, new HashSet<>()))
+            {
+                if (! retainedValues.contains(value))
+                {
+                    removeFromIndex(entityPropertyValueIndex, value, entityGUID);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Add the relationship to the adjacency index of each of the entities at its ends.
+     *
+     * @param relationship relationship to index
+     */
+    private void addRelationshipToIndexes(Relationship   relationship)
+    {
+        String  relationshipGUID     = relationship.getGUID();
+        String  relationshipTypeGUID = getRelationshipTypeGUID(relationship);
+
+        if ((relationshipGUID == null) || (relationshipTypeGUID == null))
+        {
+            return;
+        }
+
+        for (String entityGUID : getEndEntityGUIDs(relationship))
+        {
+            addToNestedIndex(relationshipAdjacencyIndex, entityGUID, relationshipTypeGUID, relationshipGUID);
+        }
+    }
+
+
+    /**
+     * Remove the relationship from the adjacency index of each of the entities at its ends.  The relationship
+     * supplied must be the version that was indexed.  When the relationship is being replaced by a new version,
+     * the new version is indexed first and the ends it shares with the old version are left in place.
+     *
+     * @param relationship relationship to remove
+     * @param retainedRelationship new version of the relationship that is already indexed (null if the
+     *                             relationship is being removed)
+     */
+    private void removeRelationshipFromIndexes(Relationship   relationship,
+                                               Relationship   retainedRelationship)
+    {
+        String  relationshipGUID     = relationship.getGUID();
+        String  relationshipTypeGUID = getRelationshipTypeGUID(relationship);
+
+        if ((relationshipGUID == null) || (relationshipTypeGUID == null))
+        {
+            return;
+        }
+
+        Set<String>  retainedEntityGUIDs = new HashSet<>();
+
+        if ((retainedRelationship != null) && (relationshipTypeGUID.equals(getRelationshipTypeGUID(retainedRelationship))))
+        {
+            retainedEntityGUIDs = getEndEntityGUIDs(retainedRelationship);
+        }
+
+        for (String entityGUID : getEndEntityGUIDs(relationship))
+        {
+            if (! retainedEntityGUIDs.contains(entityGUID))
+            {
+                removeFromNestedIndex(relationshipAdjacencyIndex, entityGUID, relationshipTypeGUID, relationshipGUID);
+            }
+        }
+    }
+
+
+    /**
+     * Return the GUIDs of an instance type and its super types.
+     *
+     * @param type type of the instance (may be null)
+     * @return set of type GUIDs
+     */
+    private Set<String> getTypeGUIDs(InstanceType   type)
+    {
+        Set<String>  typeGUIDs = new HashSet<>();
+
+        if (type != null)
+        {
+            if (type.getTypeDefGUID() != null)
+            {
+                typeGUIDs.add(type.getTypeDefGUID());
+            }
+
+            List<TypeDefLink>  superTypes = type.getTypeDefSuperTypes();
+
+            if (superTypes != null)
+            {
+                for (TypeDefLink superType : superTypes)
+                {
+                    if ((superType != null) && (superType.getGUID() != null))
+                    {
+                        typeGUIDs.add(superType.getGUID());
+                    }
+                }
+            }
+        }
+
+        return typeGUIDs;
+    }
+
+
+    /**
+     * Return the names of the classifications attached to an entity.
+     *
+     * @param entity entity to test
+     * @return set of classification names
+     */
+    private Set<String> getClassificationNames(EntityDetail   entity)
+    {
+        Set<String>           classificationNames = new HashSet<>();
+        List<Classification>  classifications     = entity.getClassifications();
+
+        if (classifications != null)
+        {
+            for (Classification classification : classifications)
+            {
+                if ((classification != null) && (classification.getName() != null))
+                {
+                    classificationNames.add(classification.getName());
+                }
+            }
+        }
+
+        return classificationNames;
+    }
+
+
+    /**
+     * Return the type GUID of a relationship.
+     *
+     * @param relationship relationship to test
+     * @return type GUID or null if the type is not set up
+     */
+    private String getRelationshipTypeGUID(Relationship   relationship)
+    {
+        InstanceType  type = relationship.getType();
+
+        if (type != null)
+        {
+            return type.getTypeDefGUID();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the GUIDs of the entities at each end of the relationship.
+     *
+     * @param relationship relationship to test
+     * @return set of entity GUIDs (one entry if the relationship links an entity to itself)
+     */
+    private Set<String> getEndEntityGUIDs(Relationship   relationship)
+    {
+        Set<String>  entityGUIDs = new HashSet<>();
+
+        EntityProxy  entityOneProxy = relationship.getEntityOneProxy();
+        EntityProxy  entityTwoProxy = relationship.getEntityTwoProxy();
+
+        if ((entityOneProxy != null) && (entityOneProxy.getGUID() != null))
+        {
+            entityGUIDs.add(entityOneProxy.getGUID());
+        }
+
+        if ((entityTwoProxy != null) && (entityTwoProxy.getGUID() != null))
+        {
+            entityGUIDs.add(entityTwoProxy.getGUID());
+        }
+
+        return entityGUIDs;
+    }
+
+
+    /**
+     * Return the value of a property if it is a string primitive.
+     *
+     * @param propertyValue property value to test
+     * @return string value or null if it is not a string
+     */
+    private String getStringValue(InstancePropertyValue   propertyValue)
+    {
+        if ((propertyValue != null) && (propertyValue.getInstancePropertyCategory() == InstancePropertyCategory.PRIMITIVE))
+        {
+            PrimitivePropertyValue  primitivePropertyValue = (PrimitivePropertyValue)propertyValue;
+
+            if ((primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING) &&
+                (primitivePropertyValue.getPrimitiveValue() instanceof String))
+            {
+                return (String)primitivePropertyValue.getPrimitiveValue();
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return whether the property value is a struct, array or map.  These are matched against their string form
+     * so can not be located through the exact value index.
+     *
+     * @param propertyValue property value to test
+     * @return boolean flag
+     */
+    private boolean isComplexValue(InstancePropertyValue   propertyValue)
+    {
+        if (propertyValue != null)
+        {
+            InstancePropertyCategory  category = propertyValue.getInstancePropertyCategory();
+
+            return (category == InstancePropertyCategory.STRUCT) ||
+                   (category == InstancePropertyCategory.ARRAY)  ||
+                   (category == InstancePropertyCategory.MAP);
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Gather all of the string and enum values from the properties, including those nested in structs,
+     * arrays and maps.
+     *
+     * @param properties properties to search
+     * @param values accumulated values
+     * @return accumulated values
+     */
+    private Set<String>  getAllStringValues(InstanceProperties   properties,
+                                            Set<String>          values)
+    {
+        if (properties != null)
+        {
+            Iterator<String>  propertyNames = properties.getPropertyNames();
+
+            while (propertyNames.hasNext())
+            {
+                InstancePropertyValue  propertyValue = properties.getPropertyValue(propertyNames.next());
+
+                if (propertyValue != null)
+                {
+                    switch (propertyValue.getInstancePropertyCategory())
+                    {
+                        case PRIMITIVE:
+                            String stringValue = getStringValue(propertyValue);
+
+                            if (stringValue != null)
+                            {
+                                values.add(stringValue);
+                            }
+                            break;
+
+                        case ENUM:
+                            String symbolicName = ((EnumPropertyValue)propertyValue).getSymbolicName();
+
+                            if (symbolicName != null)
+                            {
+                                values.add(symbolicName);
+                            }
+                            break;
+
+                        case STRUCT:
+                            getAllStringValues(((StructPropertyValue)propertyValue).getAttributes(), values);
+                            break;
+
+                        case ARRAY:
+                            getAllStringValues(((ArrayPropertyValue)propertyValue).getArrayValues(), values);
+                            break;
+
+                        case MAP:
+                            getAllStringValues(((MapPropertyValue)propertyValue).getMapValues(), values);
+                            break;
+                    }
+                }
+            }
+        }
+
+        return values;
+    }
+
+
+    /**
+     * Return the lock that serializes updates to the instance with the supplied GUID.
+     *
+     * @param guid unique identifier of the instance
+     * @return lock object
+     */
+    private Object  getInstanceLock(String   guid)
+    {
+        return instanceLocks[getInstanceLockIndex(guid)];
+    }
+
+
+    /**
+     * Return the index of the lock that serializes updates to the instance with the supplied GUID.
+     *
+     * @param guid unique identifier of the instance
+     * @return index into the instance locks
+     */
+    private int  getInstanceLockIndex(String   guid)
+    {
+        if (guid == null)
+        {
+            return 0;
+        }
+
+        return (guid.hashCode() & Integer.MAX_VALUE) % instanceLocks.length;
+    }
+
+
+    /**
+     * Group a batch of instances by the index of their instance lock, keeping the order of the batch within
+     * each group.
+     *
+     * @param instances instances to group
+     * @param <T> type of the instances
+     * @return map from lock index to instances
+     */
+    private <T extends InstanceHeader> Map<Integer, List<T>> groupByInstanceLock(List<T>   instances)
+    {
+        Map<Integer, List<T>> lockGroups = new TreeMap<>();
+
+        if (instances != null)
+        {
+            for (T instance : instances)
+            {
+                lockGroups.computeIfAbsent(getInstanceLockIndex(instance.getGUID()), lockIndex -> new ArrayList<>()).add(instance);
+            }
+        }
+
+        return lockGroups;
+    }
+
+
+    /**
+     * Add a GUID to an index entry.  The entry is created and updated atomically so concurrent updates
+     * to the same entry are not lost.
+     *
+     * @param index index to update
+     * @param key key of the entry
+     * @param guid unique identifier to add
+     * @param <K> type of the key
+     */
+    private static <K> void addToIndex(Map<K, Set<String>>   index,
+                                       K                     key,
+                                       String                guid)
+    {
+        if (key != null)
+        {
+            index.compute(key, (indexKey, indexEntry) ->
+            {
+                Set<String>  updatedEntry = indexEntry;
+
+                if (updatedEntry == null)
+                {
+                    updatedEntry = ConcurrentHashMap.newKeySet();
+                }
+
+                updatedEntry.add(guid);
+                return updatedEntry;
+            });
+        }
+    }
+
+
+    /**
+     * Remove a GUID from an index entry, removing the entry once it is empty.
+     *
+     * @param index index to update
+     * @param key key of the entry
+     * @param guid unique identifier to remove
+     * @param <K> type of the key
+     */
+    private static <K> void removeFromIndex(Map<K, Set<String>>   index,
+                                            K                     key,
+                                            String                guid)
+    {
+        if (key != null)
+        {
+            index.computeIfPresent(key, (indexKey, indexEntry) ->
+            {
+                indexEntry.remove(guid);
+                return indexEntry.isEmpty() ? null : indexEntry;
+            });
+        }
+    }
+
+
+    /**
+     * Add a GUID to an entry of a two-level index.
+     *
+     * @param index index to update
+     * @param outerKey key of the outer entry
+     * @param innerKey key of the inner entry
+     * @param guid unique identifier to add
+     */
+    private static void addToNestedIndex(Map<String, Map<String, Set<String>>>   index,
+                                         String                                  outerKey,
+                                         String                                  innerKey,
+                                         String                                  guid)
+    {
+        if ((outerKey != null) && (innerKey != null))
+        {
+            index.compute(outerKey, (indexKey, innerIndex) ->
+            {
+                Map<String, Set<String>>  updatedIndex = innerIndex;
+
+                if (updatedIndex == null)
+                {
+                    updatedIndex = new ConcurrentHashMap<>();
+                }
+
+                addToIndex(updatedIndex, innerKey, guid);
+                return updatedIndex;
+            });
+        }
+    }
+
+
+    /**
+     * Remove a GUID from an entry of a two-level index, removing entries at either level once they are empty.
+     *
+     * @param index index to update
+     * @param outerKey key of the outer entry
+     * @param innerKey key of the inner entry
+     * @param guid unique identifier to remove
+     */
+    private static void removeFromNestedIndex(Map<String, Map<String, Set<String>>>   index,
+                                              String                                  outerKey,
+                                              String                                  innerKey,
+                                              String                                  guid)
+    {
+        if ((outerKey != null) && (innerKey != null))
+        {
+            index.computeIfPresent(outerKey, (indexKey, innerIndex) ->
+            {
+                removeFromIndex(innerIndex, innerKey, guid);
+                return innerIndex.isEmpty() ? null : innerIndex;
+            });
+        }
+    }
+
+
+    /**
+     * Return a copy of an index entry so the caller is isolated from concurrent updates to the index.
+     *
+     * @param indexEntry entry to copy (may be null)
+     * @return copy of the entry
+     */
+    private static Set<String>  copyIndexEntry(Set<String>   indexEntry)
+    {
+        if (indexEntry == null)
+        {
+            return new HashSet<>();
+        }
+
+        return new HashSet<>(indexEntry);
+    }
 }
@@ -0,0 +1,643 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify the maintenance of the in-memory repository store.
+ */
+public class InMemoryOMRSMetadataStoreTest
+{
+    private static final String assetTypeGUID      = "asset-type-guid";
+    private static final String dataSetTypeGUID    = "data-set-type-guid";
+    private static final String referenceableGUID  = "referenceable-type-guid";
+
+    private static final int    stressEntityCount  = 200;
+    private static final int    stressUpdateCount  = 50;
+
+
+    @Test
+    public void testEntityIndexes()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        EntityDetail asset   = getEntity("1111", assetTypeGUID, "Asset", InstanceStatus.ACTIVE, "Confidentiality", "asset1");
+        EntityDetail dataSet = getEntity("2222", dataSetTypeGUID, "DataSet", InstanceStatus.DRAFT, null, "dataSet1");
+
+        store.createEntityInStore(asset);
+        store.createEntityInStore(dataSet);
+
+        assertEquals(store.getEntityGUIDsForType(referenceableGUID).size(), 2);
+        assertEquals(store.getEntityGUIDsForType(assetTypeGUID).size(), 1);
+        assertTrue(store.getEntityGUIDsForType(dataSetTypeGUID).contains("2222"));
+        assertTrue(store.getEntityGUIDsForStatus(Collections.singletonList(InstanceStatus.ACTIVE)).contains("1111"));
+        assertEquals(store.getEntityGUIDsForClassification(Collections.singletonList("Confidentiality")).size(), 1);
+        assertTrue(store.getEntityGUIDsForPropertyValue("qualifiedName", "asset1").contains("1111"));
+        assertTrue(store.getEntityGUIDsForAnyPropertyValue("dataSet1").contains("2222"));
+
+        /*
+         * Update the asset - the old values must drop out of the indexes.
+         */
+        EntityDetail updatedAsset = getEntity("1111", assetTypeGUID, "Asset", InstanceStatus.DRAFT, null, "asset2");
+
+        store.updateEntityInStore(updatedAsset);
+
+        assertTrue(store.getEntityGUIDsForStatus(Collections.singletonList(InstanceStatus.ACTIVE)).isEmpty());
+        assertEquals(store.getEntityGUIDsForStatus(Collections.singletonList(InstanceStatus.DRAFT)).size(), 2);
+        assertTrue(store.getEntityGUIDsForClassification(Collections.singletonList("Confidentiality")).isEmpty());
+        assertTrue(store.getEntityGUIDsForPropertyValue("qualifiedName", "asset1").isEmpty());
+        assertTrue(store.getEntityGUIDsForPropertyValue("qualifiedName", "asset2").contains("1111"));
+
+        /*
+         * Restore the previous version - the original values are indexed again.
+         */
+        store.retrievePreviousVersionOfEntity("1111");
+
+        assertTrue(store.getEntityGUIDsForPropertyValue("qualifiedName", "asset1").contains("1111"));
+        assertTrue(store.getEntityGUIDsForPropertyValue("qualifiedName", "asset2").isEmpty());
+
+        /*
+         * Remove the entities.
+         */
+        store.removeEntityFromStore(store.getEntity("1111"));
+        store.removeReferenceEntityFromStore("2222");
+
+        assertTrue(store.getEntityGUIDsForType(referenceableGUID).isEmpty());
+        assertTrue(store.getEntityGUIDsForAnyPropertyValue("dataSet1").isEmpty());
+    }
+
+
+    @Test
+    public void testRelationshipAdjacency()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        Relationship link1 = getRelationship("r1", "link-type-guid", "1111", "2222");
+        Relationship link2 = getRelationship("r2", "link-type-guid", "1111", "3333");
+        Relationship other = getRelationship("r3", "other-type-guid", "2222", "3333");
+
+        store.createRelationshipInStore(link1);
+        store.createRelationshipInStore(link2);
+        store.createRelationshipInStore(other);
+
+        assertEquals(store.getRelationshipsForEntity("1111", null).size(), 2);
+        assertEquals(store.getRelationshipsForEntity("2222", null).size(), 2);
+        assertEquals(store.getRelationshipsForEntity("2222", "other-type-guid").size(), 1);
+        assertTrue(store.getRelationshipsForEntity("1111", "other-type-guid").isEmpty());
+        assertTrue(store.getRelationshipGUIDsForEntity("3333").contains("r2"));
+
+        /*
+         * Re-home relationship 2 onto a different entity.
+         */
+        store.updateRelationshipInStore(getRelationship("r2", "link-type-guid", "1111", "4444"));
+
+        assertTrue(store.getRelationshipsForEntity("3333", "link-type-guid").isEmpty());
+        assertEquals(store.getRelationshipsForEntity("4444", null).size(), 1);
+
+        /*
+         * Restore the previous version and then purge.
+         */
+        store.retrievePreviousVersionOfRelationship("r2");
+
+        assertTrue(store.getRelationshipsForEntity("4444", null).isEmpty());
+        assertEquals(store.getRelationshipsForEntity("3333", null).size(), 2);
+
+        store.removeRelationshipFromStore(store.getRelationship("r2"));
+        store.removeReferenceRelationshipFromStore("r3");
+
+        assertTrue(store.getRelationshipsForEntity("3333", null).isEmpty());
+        assertEquals(store.getRelationshipsForEntity("1111", null).size(), 1);
+    }
+
+
+    @Test
+    public void testRelationshipCounts()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        store.createRelationshipInStore(getRelationship("r1", "link-type-guid", "1111", "2222"));
+        store.createRelationshipInStore(getRelationship("r2", "link-type-guid", "1111", "3333"));
+        store.createRelationshipInStore(getRelationship("r3", "other-type-guid", "4444", "1111"));
+
+        Relationship deleted = getRelationship("r4", "other-type-guid", "1111", "5555");
+        deleted.setStatus(InstanceStatus.DELETED);
+        store.createRelationshipInStore(deleted);
+
+        Map<String, Integer> allCounts = store.countRelationshipsForEntity("1111", null, null);
+
+        assertEquals(allCounts.size(), 2);
+        assertEquals(allCounts.get("link-type-guid"), Integer.valueOf(2));
+        assertEquals(allCounts.get("other-type-guid"), Integer.valueOf(1));
+
+        Map<String, Integer> requestedCounts = store.countRelationshipsForEntity("1111",
+                                                                                 Arrays.asList("link-type-guid", "unused-type-guid"),
+                                                                                 null);
+
+        assertEquals(requestedCounts.size(), 2);
+        assertEquals(requestedCounts.get("link-type-guid"), Integer.valueOf(2));
+        assertEquals(requestedCounts.get("unused-type-guid"), Integer.valueOf(0));
+
+        Map<String, Integer> proposedCounts = store.countRelationshipsForEntity("1111",
+                                                                                null,
+                                                                                Collections.singletonList(InstanceStatus.PROPOSED));
+
+        assertTrue(proposedCounts.isEmpty());
+        assertTrue(store.countRelationshipsForEntity("9999", null, null).isEmpty());
+    }
+
+
+    @Test
+    public void testReferenceCopyBatches()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        List<EntityDetail> entities      = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (int i = 0; i < stressEntityCount; i++)
+        {
+            entities.add(getEntity("guid-" + i, assetTypeGUID, "Asset", InstanceStatus.ACTIVE, null, "name-" + i));
+
+            if (i > 0)
+            {
+                relationships.add(getRelationship("r-" + i, "link-type-guid", "guid-" + (i - 1), "guid-" + i));
+            }
+        }
+
+        /*
+         * A proxy saved before the batch is replaced by the full entity.
+         */
+        EntityProxy proxy = new EntityProxy();
+        proxy.setGUID("guid-0");
+        store.addEntityProxyToStore(proxy);
+
+        store.saveReferenceEntitiesToStore(entities);
+        store.saveReferenceRelationshipsToStore(relationships);
+
+        assertEquals(store.getEntityGUIDsForType(assetTypeGUID).size(), stressEntityCount);
+        assertTrue(store.getEntityGUIDsForPropertyValue("qualifiedName", "name-7").contains("guid-7"));
+        assertTrue(store.getEntityProxy("guid-0") == null);
+        assertEquals(store.getRelationshipsForEntity("guid-7", null).size(), 2);
+        assertEquals(store.getRelationshipsForEntity("guid-0", "link-type-guid").size(), 1);
+    }
+
+
+    @Test
+    public void testTimeTravel()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        EntityDetail version1 = getEntity("1111", assetTypeGUID, "Asset", InstanceStatus.ACTIVE, null, "asset1");
+        version1.setCreateTime(new Date(1000));
+        store.createEntityInStore(version1);
+
+        EntityDetail version2 = getEntity("1111", assetTypeGUID, "Asset", InstanceStatus.ACTIVE, null, "asset2");
+        version2.setCreateTime(new Date(1000));
+        version2.setUpdateTime(new Date(2000));
+        version2.setVersion(2);
+        store.updateEntityInStore(version2);
+
+        EntityDetail version3 = getEntity("1111", assetTypeGUID, "Asset", InstanceStatus.ACTIVE, null, "asset3");
+        version3.setCreateTime(new Date(1000));
+        version3.setUpdateTime(new Date(3000));
+        version3.setVersion(3);
+        store.updateEntityInStore(version3);
+
+        assertTrue(store.timeWarpEntity("1111", new Date(500)) == null);
+        assertTrue(store.timeWarpEntity("1111", new Date(1500)) == version1);
+        assertTrue(store.timeWarpEntity("1111", new Date(2000)) == version2);
+        assertTrue(store.timeWarpEntity("1111", new Date(5000)) == version3);
+        assertTrue(store.timeWarpEntity("1111", null) == version3);
+        assertTrue(store.timeWarpEntityStore(new Date(2500)).get("1111") == version2);
+        assertTrue(store.timeWarpEntityStore(new Date(500)).isEmpty());
+
+        /*
+         * A purged entity is still visible in the past.
+         */
+        store.removeEntityFromStore(version3);
+
+        assertTrue(store.getEntity("1111") == null);
+        assertTrue(store.timeWarpEntityStore(null).isEmpty());
+        assertTrue(store.timeWarpEntityStore(new Date(1500)).get("1111") == version1);
+
+        /*
+         * Undo walks back through the versions, latest first.
+         */
+        assertTrue(store.retrievePreviousVersionOfEntity("1111") == version3);
+        assertTrue(store.retrievePreviousVersionOfEntity("1111") == version2);
+        assertEquals(store.getEntity("1111").getVersion(), 5L);
+        assertTrue(store.retrievePreviousVersionOfEntity("1111") == version1);
+        assertTrue(store.retrievePreviousVersionOfEntity("1111") == null);
+    }
+
+
+    @Test
+    public void testUndoBackDatedVersion()
+    {
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore();
+
+        EntityDetail version1 = getEntity("1111", assetTypeGUID, "Asset", InstanceStatus.ACTIVE, null, "asset1");
+        version1.setCreateTime(new Date(3000));
+        store.createEntityInStore(version1);
+
+        /*
+         * The second version is back-dated so it comes into effect before the first.
+         */
+        EntityDetail version2 = getEntity("1111", assetTypeGUID, "Asset", InstanceStatus.ACTIVE, null, "asset2");
+        version2.setCreateTime(new Date(1000));
+        version2.setVersion(2);
+        store.updateEntityInStore(version2);
+
+        EntityDetail version3 = getEntity("1111", assetTypeGUID, "Asset", InstanceStatus.ACTIVE, null, "asset3");
+        version3.setCreateTime(new Date(1000));
+        version3.setUpdateTime(new Date(4000));
+        version3.setVersion(3);
+        store.updateEntityInStore(version3);
+
+        assertTrue(store.timeWarpEntity("1111", new Date(2000)) == version2);
+
+        /*
+         * Undo returns the versions in the reverse of the order they were stored, not their effective times.
+         */
+        assertTrue(store.retrievePreviousVersionOfEntity("1111") == version2);
+        assertTrue(store.getEntity("1111") == version2);
+        assertTrue(store.retrievePreviousVersionOfEntity("1111") == version1);
+        assertTrue(store.getEntity("1111") == version1);
+        assertTrue(store.retrievePreviousVersionOfEntity("1111") == null);
+    }
+
+
+    @Test
+    public void testConcurrentUpdatesAndReads() throws Exception
+    {
+        InMemoryOMRSMetadataStore store       = new InMemoryOMRSMetadataStore();
+        int                       writerCount = 4;
+        int                       readerCount = 4;
+        ExecutorService           executor    = Executors.newFixedThreadPool(writerCount + readerCount);
+        AtomicBoolean             writing     = new AtomicBoolean(true);
+
+        for (int i = 0; i < stressEntityCount; i++)
+        {
+            store.createEntityInStore(getEntity("guid-" + i, assetTypeGUID, "Asset", InstanceStatus.ACTIVE, null, "name-" + i + "-0"));
+        }
+
+        /*
+         * Every writer updates every entity so the updates to each GUID contend with one another.
+         */
+        List<Future<?>> writers = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++)
+        {
+            final int writer = w;
+
+            writers.add(executor.submit(() ->
+            {
+                for (int update = 1; update <= stressUpdateCount; update++)
+                {
+                    for (int i = 0; i < stressEntityCount; i++)
+                    {
+                        InstanceStatus status = (update % 2 == 0) ? InstanceStatus.ACTIVE : InstanceStatus.DRAFT;
+
+                        store.updateEntityInStore(getEntity("guid-" + i, assetTypeGUID, "Asset", status, "Class-" + writer, "name-" + i + "-w" + writer));
+                    }
+                }
+            }));
+        }
+
+        List<Future<Integer>> readers = new ArrayList<>();
+        for (int r = 0; r < readerCount; r++)
+        {
+            readers.add(executor.submit(() ->
+            {
+                int reads = 0;
+
+                while (writing.get())
+                {
+                    for (int i = 0; i < stressEntityCount; i++)
+                    {
+                        assertTrue(store.getEntity("guid-" + i) != null);
+                        store.getEntityGUIDsForType(referenceableGUID);
+                        store.getEntityGUIDsForPropertyValue("qualifiedName", "name-" + i + "-0");
+                        reads++;
+                    }
+                }
+
+                return reads;
+            }));
+        }
+
+        for (Future<?> writer : writers)
+        {
+            writer.get(2, TimeUnit.MINUTES);
+        }
+        writing.set(false);
+
+        for (Future<Integer> reader : readers)
+        {
+            assertTrue(reader.get(2, TimeUnit.MINUTES) >= 0);
+        }
+        executor.shutdown();
+
+        /*
+         * Each GUID must be indexed exactly once, under the values of its current version.
+         */
+        List<InstanceStatus> allStatuses = new ArrayList<>();
+        allStatuses.add(InstanceStatus.ACTIVE);
+        allStatuses.add(InstanceStatus.DRAFT);
+
+        assertEquals(store.getEntityGUIDsForType(referenceableGUID).size(), stressEntityCount);
+        assertEquals(store.getEntityGUIDsForStatus(allStatuses).size(), stressEntityCount);
+
+        for (int i = 0; i < stressEntityCount; i++)
+        {
+            String       guid          = "guid-" + i;
+            EntityDetail entity        = store.getEntity(guid);
+            String       qualifiedName = entity.getProperties().getPropertyValue("qualifiedName").valueAsString();
+
+            assertTrue(store.getEntityGUIDsForPropertyValue("qualifiedName", qualifiedName).contains(guid));
+            assertTrue(store.getEntityGUIDsForStatus(Collections.singletonList(entity.getStatus())).contains(guid));
+            assertTrue(store.getEntityGUIDsForClassification(Collections.singletonList(entity.getClassifications().get(0).getName())).contains(guid));
+            assertFalse(store.getEntityGUIDsForPropertyValue("qualifiedName", "name-" + i + "-0").contains(guid));
+        }
+
+        assertEquals(store.getEntityGUIDsForClassification(getClassificationNames(writerCount)).size(), stressEntityCount);
+    }
+
+
+    @Test
+    public void testConcurrentCreatesAndUpdates() throws Exception
+    {
+        InMemoryOMRSMetadataStore  store    = new InMemoryOMRSMetadataStore();
+        ExecutorService            executor = Executors.newFixedThreadPool(2);
+
+        /*
+         * A creator and an updater race on the same GUIDs.  Whichever wins, the indexes must only
+         * hold the values of the entities left in the store.
+         */
+        Future<List<EntityDetail>> creator = executor.submit(() ->
+        {
+            List<EntityDetail> createdEntities = new ArrayList<>();
+
+            for (int i = 0; i < stressEntityCount; i++)
+            {
+                createdEntities.add(store.createEntityInStore(getEntity("race-" + i, assetTypeGUID, "Asset", InstanceStatus.ACTIVE, null, "created-" + i)));
+            }
+
+            return createdEntities;
+        });
+
+        Future<?> updater = executor.submit(() ->
+        {
+            for (int i = 0; i < stressEntityCount; i++)
+            {
+                store.updateEntityInStore(getEntity("race-" + i, assetTypeGUID, "Asset", InstanceStatus.DRAFT, null, "updated-" + i));
+            }
+        });
+
+        List<EntityDetail> createdEntities = creator.get(2, TimeUnit.MINUTES);
+        updater.get(2, TimeUnit.MINUTES);
+        executor.shutdown();
+
+        assertEquals(store.getEntityGUIDsForType(referenceableGUID).size(), store.getEntities().size());
+
+        for (EntityDetail createdEntity : createdEntities)
+        {
+            assertTrue(store.getEntity(createdEntity.getGUID()) != null);
+        }
+
+        for (EntityDetail entity : store.getEntities())
+        {
+            String qualifiedName = entity.getProperties().getPropertyValue("qualifiedName").valueAsString();
+
+            assertEquals(store.getEntityGUIDsForPropertyValue("qualifiedName", qualifiedName), Collections.singleton(entity.getGUID()));
+            assertTrue(store.getEntityGUIDsForStatus(Collections.singletonList(entity.getStatus())).contains(entity.getGUID()));
+        }
+    }
+
+
+    @Test
+    public void testConcurrentReadersAndWriter() throws Exception
+    {
+        InMemoryOMRSMetadataStore store       = new InMemoryOMRSMetadataStore();
+        int                       readerCount = 4;
+        ExecutorService           executor    = Executors.newFixedThreadPool(readerCount + 1);
+        CountDownLatch            start       = new CountDownLatch(1);
+        AtomicBoolean             writing     = new AtomicBoolean(true);
+
+        for (int i = 0; i < stressEntityCount; i++)
+        {
+            store.createEntityInStore(getEntity("guid-" + i, assetTypeGUID, "Asset", InstanceStatus.ACTIVE, "Shared", "name-" + i + "-1"));
+            store.createRelationshipInStore(getRelationship("link-" + i, "link-type-guid", "hub", "guid-" + i));
+        }
+
+        /*
+         * The writer changes the status and name of every entity and moves the far end of every relationship.
+         * The type, classification and hub end are the same in every version.
+         */
+        Future<?> writer = executor.submit(() ->
+        {
+            start.await();
+
+            for (int version = 2; version <= stressUpdateCount; version++)
+            {
+                for (int i = 0; i < stressEntityCount; i++)
+                {
+                    InstanceStatus status = (version % 2 == 0) ? InstanceStatus.DRAFT : InstanceStatus.ACTIVE;
+                    EntityDetail   entity = getEntity("guid-" + i, assetTypeGUID, "Asset", status, "Shared", "name-" + i + "-" + version);
+
+                    entity.setVersion(version);
+                    store.updateEntityInStore(entity);
+                    store.updateRelationshipInStore(getRelationship("link-" + i, "link-type-guid", "hub", "guid-" + ((i + version) % stressEntityCount)));
+                }
+            }
+
+            writing.set(false);
+            return null;
+        });
+
+        /*
+         * Readers do not take the instance locks so they must never see an instance go missing from an index
+         * entry that applies to both its old and new versions, or see an older version after a newer one.
+         */
+        List<Future<?>> readers = new ArrayList<>();
+        for (int r = 0; r < readerCount; r++)
+        {
+            readers.add(executor.submit(() ->
+            {
+                long[] lastVersions = new long[stressEntityCount];
+
+                start.await();
+
+                do
+                {
+                    for (int i = 0; i < stressEntityCount; i++)
+                    {
+                        EntityDetail entity = store.getEntity("guid-" + i);
+
+                        assertTrue(entity != null);
+                        assertTrue(entity.getVersion() >= lastVersions[i]);
+                        lastVersions[i] = entity.getVersion();
+                    }
+
+                    assertEquals(store.getEntityGUIDsForType(referenceableGUID).size(), stressEntityCount);
+                    assertEquals(store.getEntityGUIDsForClassification(Collections.singletonList("Shared")).size(), stressEntityCount);
+                    assertEquals(store.getRelationshipsForEntity("hub", "link-type-guid").size(), stressEntityCount);
+                }
+                while (writing.get());
+
+                return null;
+            }));
+        }
+
+        start.countDown();
+
+        writer.get(2, TimeUnit.MINUTES);
+
+        for (Future<?> reader : readers)
+        {
+            reader.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        /*
+         * Values that only the old versions had have gone from the indexes.
+         */
+        assertEquals(store.getEntityGUIDsForStatus(Collections.singletonList(InstanceStatus.DRAFT)).size(), stressEntityCount);
+        assertTrue(store.getEntityGUIDsForStatus(Collections.singletonList(InstanceStatus.ACTIVE)).isEmpty());
+
+        for (int i = 0; i < stressEntityCount; i++)
+        {
+            assertEquals(store.getEntityGUIDsForPropertyValue("qualifiedName", "name-" + i + "-" + stressUpdateCount), Collections.singleton("guid-" + i));
+            assertTrue(store.getEntityGUIDsForPropertyValue("qualifiedName", "name-" + i + "-1").isEmpty());
+            assertEquals(store.getRelationshipsForEntity("guid-" + i, null).size(), 1);
+        }
+    }
+
+
+    /**
+     * Return the names of the classifications attached by the writers in the stress test.
+     *
+     * @param writerCount number of writers
+     * @return list of classification names
+     */
+    private List<String> getClassificationNames(int   writerCount)
+    {
+        List<String> classificationNames = new ArrayList<>();
+
+        for (int w = 0; w < writerCount; w++)
+        {
+            classificationNames.add("Class-" + w);
+        }
+
+        return classificationNames;
+    }
+
+
+    /**
+     * Build a relationship for the tests.
+     *
+     * @param guid unique identifier
+     * @param typeGUID unique identifier of the type
+     * @param entityOneGUID unique identifier of the entity at end 1
+     * @param entityTwoGUID unique identifier of the entity at end 2
+     * @return relationship
+     */
+    private Relationship getRelationship(String   guid,
+                                         String   typeGUID,
+                                         String   entityOneGUID,
+                                         String   entityTwoGUID)
+    {
+        Relationship relationship = new Relationship();
+        InstanceType type         = new InstanceType();
+
+        type.setTypeDefGUID(typeGUID);
+
+        EntityProxy entityOneProxy = new EntityProxy();
+        entityOneProxy.setGUID(entityOneGUID);
+
+        EntityProxy entityTwoProxy = new EntityProxy();
+        entityTwoProxy.setGUID(entityTwoGUID);
+
+        relationship.setGUID(guid);
+        relationship.setType(type);
+        relationship.setStatus(InstanceStatus.ACTIVE);
+        relationship.setEntityOneProxy(entityOneProxy);
+        relationship.setEntityTwoProxy(entityTwoProxy);
+
+        return relationship;
+    }
+
+
+    /**
+     * Build an entity for the tests.
+     *
+     * @param guid unique identifier
+     * @param typeGUID unique identifier of the type
+     * @param typeName name of the type
+     * @param status status of the entity
+     * @param classificationName name of a classification to attach (or null)
+     * @param qualifiedName value for the qualifiedName property
+     * @return entity
+     */
+    private EntityDetail getEntity(String         guid,
+                                   String         typeGUID,
+                                   String         typeName,
+                                   InstanceStatus status,
+                                   String         classificationName,
+                                   String         qualifiedName)
+    {
+        EntityDetail  entity = new EntityDetail();
+        InstanceType  type   = new InstanceType();
+
+        List<TypeDefLink> superTypes = new ArrayList<>();
+        superTypes.add(new TypeDefLink(referenceableGUID, "Referenceable"));
+
+        type.setTypeDefGUID(typeGUID);
+        type.setTypeDefName(typeName);
+        type.setTypeDefSuperTypes(superTypes);
+
+        entity.setGUID(guid);
+        entity.setType(type);
+        entity.setStatus(status);
+        entity.setVersion(1);
+        entity.setCreateTime(new Date());
+
+        if (classificationName != null)
+        {
+            Classification classification = new Classification();
+
+            classification.setName(classificationName);
+            entity.setClassifications(Collections.singletonList(classification));
+        }
+
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue(qualifiedName);
+
+        InstanceProperties properties = new InstanceProperties();
+        properties.setProperty("qualifiedName", propertyValue);
+        entity.setProperties(properties);
+
+        return entity;
+    }
+}
@@ -17,6 +17,7 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * The OMRSRESTMetadataCollection represents a remote metadata repository that supports the OMRS REST API.
@@ -1598,6 +1599,239 @@ public class OMRSRESTMetadataCollection extends OMRSMetadataCollection
     }
 
 
+    /**
+     * The searches below are passed to the remote repository without blocking the caller.
+     *
+     * @return true
+     */
+    @Override
+    public boolean supportsAsynchronousQueries()
+    {
+        return true;
+    }
+
+
+    /**
+     * Issue findEntitiesByProperty to the remote repository without waiting for the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param matchProperties Optional list of entity properties to match.
+     * @param matchCriteria Enum defining how the properties should be matched to the entities in the repository.
+     * @param fromEntityElement the starting element number of the entities to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.
+     * @return future for the list of matching entities
+     */
+    @Override
+    public CompletableFuture<List<EntityDetail>> findEntitiesByPropertyAsync(String                    userId,
+                                                                             String                    entityTypeGUID,
+                                                                             InstanceProperties        matchProperties,
+                                                                             MatchCriteria             matchCriteria,
+                                                                             int                       fromEntityElement,
+                                                                             List<InstanceStatus>      limitResultsByStatus,
+                                                                             List<String>              limitResultsByClassification,
+                                                                             Date                      asOfTime,
+                                                                             String                    sequencingProperty,
+                                                                             SequencingOrder           sequencingOrder,
+                                                                             int                       pageSize)
+    {
+        final String  methodName = "findEntitiesByProperty";
+
+        try
+        {
+            validateClient(methodName);
+        }
+        catch (RepositoryErrorException error)
+        {
+            return this.getFailedSearch(error);
+        }
+
+        return omrsClient.findEntitiesByPropertyAsync(userId,
+                                                      entityTypeGUID,
+                                                      matchProperties,
+                                                      matchCriteria,
+                                                      fromEntityElement,
+                                                      limitResultsByStatus,
+                                                      limitResultsByClassification,
+                                                      asOfTime,
+                                                      sequencingProperty,
+                                                      sequencingOrder,
+                                                      pageSize);
+    }
+
+
+    /**
+     * Issue findEntitiesByPropertyValue to the remote repository without waiting for the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID GUID of the type of entity to search for. Null means all types will be searched.
+     * @param searchCriteria String Java regular expression used to match against any of the String property values.
+     * @param fromEntityElement the starting element number of the entities to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.
+     * @return future for the list of matching entities
+     */
+    @Override
+    public CompletableFuture<List<EntityDetail>> findEntitiesByPropertyValueAsync(String                userId,
+                                                                                  String                entityTypeGUID,
+                                                                                  String                searchCriteria,
+                                                                                  int                   fromEntityElement,
+                                                                                  List<InstanceStatus>  limitResultsByStatus,
+                                                                                  List<String>          limitResultsByClassification,
+                                                                                  Date                  asOfTime,
+                                                                                  String                sequencingProperty,
+                                                                                  SequencingOrder       sequencingOrder,
+                                                                                  int                   pageSize)
+    {
+        final String  methodName = "findEntitiesByPropertyValue";
+
+        try
+        {
+            validateClient(methodName);
+        }
+        catch (RepositoryErrorException error)
+        {
+            return this.getFailedSearch(error);
+        }
+
+        return omrsClient.findEntitiesByPropertyValueAsync(userId,
+                                                           entityTypeGUID,
+                                                           searchCriteria,
+                                                           fromEntityElement,
+                                                           limitResultsByStatus,
+                                                           limitResultsByClassification,
+                                                           asOfTime,
+                                                           sequencingProperty,
+                                                           sequencingOrder,
+                                                           pageSize);
+    }
+
+
+    /**
+     * Issue findRelationshipsByProperty to the remote repository without waiting for the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types.
+     * @param matchProperties Optional list of relationship properties to match.
+     * @param matchCriteria Enum defining how the properties should be matched to the relationships in the repository.
+     * @param fromRelationshipElement the starting element number of the relationships to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param asOfTime Requests a historical query of the relationships.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.
+     * @return future for the list of matching relationships
+     */
+    @Override
+    public CompletableFuture<List<Relationship>> findRelationshipsByPropertyAsync(String                    userId,
+                                                                                  String                    relationshipTypeGUID,
+                                                                                  InstanceProperties        matchProperties,
+                                                                                  MatchCriteria             matchCriteria,
+                                                                                  int                       fromRelationshipElement,
+                                                                                  List<InstanceStatus>      limitResultsByStatus,
+                                                                                  Date                      asOfTime,
+                                                                                  String                    sequencingProperty,
+                                                                                  SequencingOrder           sequencingOrder,
+                                                                                  int                       pageSize)
+    {
+        final String  methodName = "findRelationshipsByProperty";
+
+        try
+        {
+            validateClient(methodName);
+        }
+        catch (RepositoryErrorException error)
+        {
+            return this.getFailedSearch(error);
+        }
+
+        return omrsClient.findRelationshipsByPropertyAsync(userId,
+                                                           relationshipTypeGUID,
+                                                           matchProperties,
+                                                           matchCriteria,
+                                                           fromRelationshipElement,
+                                                           limitResultsByStatus,
+                                                           asOfTime,
+                                                           sequencingProperty,
+                                                           sequencingOrder,
+                                                           pageSize);
+    }
+
+
+    /**
+     * Issue findRelationshipsByPropertyValue to the remote repository without waiting for the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID GUID of the type of relationship to search for. Null means all types.
+     * @param searchCriteria String Java regular expression used to match against any of the String property values.
+     * @param fromRelationshipElement the starting element number of the relationships to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param asOfTime Requests a historical query of the relationships.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.
+     * @return future for the list of matching relationships
+     */
+    @Override
+    public CompletableFuture<List<Relationship>> findRelationshipsByPropertyValueAsync(String                    userId,
+                                                                                       String                    relationshipTypeGUID,
+                                                                                       String                    searchCriteria,
+                                                                                       int                       fromRelationshipElement,
+                                                                                       List<InstanceStatus>      limitResultsByStatus,
+                                                                                       Date                      asOfTime,
+                                                                                       String                    sequencingProperty,
+                                                                                       SequencingOrder           sequencingOrder,
+                                                                                       int                       pageSize)
+    {
+        final String  methodName = "findRelationshipsByPropertyValue";
+
+        try
+        {
+            validateClient(methodName);
+        }
+        catch (RepositoryErrorException error)
+        {
+            return this.getFailedSearch(error);
+        }
+
+        return omrsClient.findRelationshipsByPropertyValueAsync(userId,
+                                                                relationshipTypeGUID,
+                                                                searchCriteria,
+                                                                fromRelationshipElement,
+                                                                limitResultsByStatus,
+                                                                asOfTime,
+                                                                sequencingProperty,
+                                                                sequencingOrder,
+                                                                pageSize);
+    }
+
+
+    /**
+     * Return a search that has already failed.
+     *
+     * @param error reason for the failure
+     * @param <T> type of the search results
+     * @return future completed with the exception
+     */
+    private <T> CompletableFuture<T> getFailedSearch(Exception   error)
+    {
+        CompletableFuture<T> failedSearch = new CompletableFuture<>();
+
+        failedSearch.completeExceptionally(error);
+
+        return failedSearch;
+    }
+
+
     /* ======================================================
      * Group 4: Maintaining entity and relationship instances
      */
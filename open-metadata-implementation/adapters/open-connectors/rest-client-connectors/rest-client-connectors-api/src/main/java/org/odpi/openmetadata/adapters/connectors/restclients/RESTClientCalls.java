@@ -4,8 +4,12 @@ package org.odpi.openmetadata.adapters.connectors.restclients;
 
 import org.odpi.openmetadata.adapters.connectors.restclients.ffdc.exceptions.RESTServerException;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
- * RESTClientCalls provides a generic interface for calling REST Clients.
+ * RESTClientCalls provides a generic interface for calling REST Clients.  Each call can be issued synchronously,
+ * where the caller waits for the response, or asynchronously, where the caller receives a future that completes
+ * when the response arrives.
  */
 public interface RESTClientCalls
 {
@@ -81,4 +85,42 @@ public interface RESTClientCalls
                            String    urlTemplate,
                            Object    requestBody,
                            Object... params) throws RESTServerException;
+
+
+    /**
+     * Issue a GET REST call asynchronously.  The returned future completes with the response object, or
+     * exceptionally with a RESTServerException if something went wrong with the REST call stack.
+     *
+     * @param <T> class name
+     * @param methodName  name of the method being called.
+     * @param returnClass class of the response object.
+     * @param urlTemplate template of the URL for the REST API call with place-holders for the parameters.
+     * @param params      a list of parameters that are slotted into the url template.
+     *
+     * @return future for the response object
+     */
+    <T> CompletableFuture<T> callGetRESTCallAsync(String    methodName,
+                                                  Class<T>  returnClass,
+                                                  String    urlTemplate,
+                                                  Object... params);
+
+
+    /**
+     * Issue a POST REST call asynchronously.  The returned future completes with the response object, or
+     * exceptionally with a RESTServerException if something went wrong with the REST call stack.
+     *
+     * @param <T> class name
+     * @param methodName  name of the method being called.
+     * @param returnClass class of the response object.
+     * @param urlTemplate  template of the URL for the REST API call with place-holders for the parameters.
+     * @param requestBody request body for the request.
+     * @param params  a list of parameters that are slotted into the url template.
+     *
+     * @return future for the response object
+     */
+    <T> CompletableFuture<T> callPostRESTCallAsync(String    methodName,
+                                                   Class<T>  returnClass,
+                                                   String    urlTemplate,
+                                                   Object    requestBody,
+                                                   Object... params);
 }
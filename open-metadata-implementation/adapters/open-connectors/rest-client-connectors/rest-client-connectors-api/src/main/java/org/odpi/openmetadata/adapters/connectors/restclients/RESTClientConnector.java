@@ -13,4 +13,16 @@ public abstract class RESTClientConnector extends ConnectorBase implements RESTC
     {
         super();
     }
+
+
+    /**
+     * Return the histogram of the latencies of the REST calls issued through this connector.  Connectors that
+     * do not record latencies return null.
+     *
+     * @return latency histogram or null
+     */
+    public RESTClientLatencyHistogram getLatencyHistogram()
+    {
+        return null;
+    }
 }
@@ -0,0 +1,150 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.restclients;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RESTClientLatencyHistogram records the elapsed time of the REST calls made through a REST client transport.
+ * The latencies are counted in fixed buckets, each identified by its upper bound in milliseconds.  The final bucket
+ * has no upper bound and collects every call that took longer than the largest bound.
+ * Calls may be recorded concurrently from many threads without locking.
+ */
+public class RESTClientLatencyHistogram
+{
+    private static final long[] bucketUpperBoundsMillis = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    private final AtomicLongArray bucketCounts      = new AtomicLongArray(bucketUpperBoundsMillis.length + 1);
+    private final LongAdder       callCount         = new LongAdder();
+    private final LongAdder       totalLatencyNanos = new LongAdder();
+
+
+    /**
+     * Default constructor
+     */
+    public RESTClientLatencyHistogram()
+    {
+    }
+
+
+    /**
+     * Record the elapsed time of a single REST call.
+     *
+     * @param latencyNanos elapsed time of the call in nanoseconds
+     */
+    public void recordLatency(long   latencyNanos)
+    {
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(latencyNanos);
+        int  bucket        = bucketUpperBoundsMillis.length;
+
+        for (int i = 0; i < bucketUpperBoundsMillis.length; i++)
+        {
+            if (latencyMillis < bucketUpperBoundsMillis[i])
+            {
+                bucket = i;
+                break;
+            }
+        }
+
+        bucketCounts.incrementAndGet(bucket);
+        callCount.increment();
+        totalLatencyNanos.add(latencyNanos);
+    }
+
+
+    /**
+     * Return the upper bound in milliseconds of each bucket except the last, which is unbounded.
+     *
+     * @return array of upper bounds (exclusive)
+     */
+    public long[] getBucketUpperBoundsMillis()
+    {
+        return bucketUpperBoundsMillis.clone();
+    }
+
+
+    /**
+     * Return a snapshot of the number of calls counted in each bucket.  The array has one more entry than
+     * the array of upper bounds.
+     *
+     * @return array of call counts
+     */
+    public long[] getBucketCounts()
+    {
+        long[] counts = new long[bucketCounts.length()];
+
+        for (int i = 0; i < counts.length; i++)
+        {
+            counts[i] = bucketCounts.get(i);
+        }
+
+        return counts;
+    }
+
+
+    /**
+     * Return the number of calls recorded.
+     *
+     * @return count of calls
+     */
+    public long getCallCount()
+    {
+        return callCount.sum();
+    }
+
+
+    /**
+     * Return the mean elapsed time of the calls recorded.
+     *
+     * @return mean latency in milliseconds (0 if no calls have been recorded)
+     */
+    public double getMeanLatencyMillis()
+    {
+        long calls = callCount.sum();
+
+        if (calls == 0)
+        {
+            return 0;
+        }
+
+        return (double)totalLatencyNanos.sum() / calls / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        StringBuilder buckets = new StringBuilder();
+        long[]        counts  = this.getBucketCounts();
+
+        for (int i = 0; i < counts.length; i++)
+        {
+            if (i > 0)
+            {
+                buckets.append(", ");
+            }
+
+            if (i < bucketUpperBoundsMillis.length)
+            {
+                buckets.append("<").append(bucketUpperBoundsMillis[i]).append("ms=").append(counts[i]);
+            }
+            else
+            {
+                buckets.append(">=").append(bucketUpperBoundsMillis[i - 1]).append("ms=").append(counts[i]);
+            }
+        }
+
+        return "RESTClientLatencyHistogram{" +
+                "callCount=" + getCallCount() +
+                ", meanLatencyMillis=" + getMeanLatencyMillis() +
+                ", buckets={" + buckets + "}" +
+                '}';
+    }
+}
@@ -10,8 +10,15 @@ import org.odpi.openmetadata.frameworks.connectors.properties.beans.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
+/**
+ * RESTClientFactory builds the connection for a Spring based REST client connector and uses it to create the connector.
+ * The optional configuration properties tune the HTTP transport - see SpringRESTClientConnectorProvider for the
+ * properties that are recognized.
+ */
 public class RESTClientFactory
 {
     private static final Logger log = LoggerFactory.getLogger(RESTClientFactory.class);
@@ -48,6 +55,58 @@ public class RESTClientFactory
     }
 
 
+    /**
+     * Constructor for unsecured client connector with transport settings.
+     *
+     * @param serverName name of the OMAG Server to call
+     * @param serverPlatformURLRoot URL root of the server platform where the OMAG Server is running.
+     * @param configurationProperties properties for the HTTP transport such as timeouts and connection limits
+     */
+    public RESTClientFactory(String              serverName,
+                             String              serverPlatformURLRoot,
+                             Map<String, Object> configurationProperties)
+    {
+        clientConnection = this.getSpringRESTClientConnection(serverName, serverPlatformURLRoot);
+
+        this.setConfigurationProperties(configurationProperties);
+    }
+
+
+    /**
+     * Constructor for authenticated client connector with transport settings.
+     *
+     * @param serverName name of the OMAG Server to call
+     * @param serverPlatformURLRoot URL root of the server platform where the OMAG Server is running.
+     * @param userId user id for the HTTP request
+     * @param password password for the HTTP request
+     * @param configurationProperties properties for the HTTP transport such as timeouts and connection limits
+     */
+    public RESTClientFactory(String              serverName,
+                             String              serverPlatformURLRoot,
+                             String              userId,
+                             String              password,
+                             Map<String, Object> configurationProperties)
+    {
+        clientConnection = this.getSpringRESTClientConnection(serverName, serverPlatformURLRoot, userId, password);
+
+        this.setConfigurationProperties(configurationProperties);
+    }
+
+
+    /**
+     * Add the transport settings to the connection.
+     *
+     * @param configurationProperties properties for the HTTP transport (may be null)
+     */
+    private void setConfigurationProperties(Map<String, Object> configurationProperties)
+    {
+        if ((configurationProperties != null) && (! configurationProperties.isEmpty()))
+        {
+            clientConnection.setConfigurationProperties(new HashMap<>(configurationProperties));
+        }
+    }
+
+
     /**
      * Return the connection object for a Spring based REST Client.
      *
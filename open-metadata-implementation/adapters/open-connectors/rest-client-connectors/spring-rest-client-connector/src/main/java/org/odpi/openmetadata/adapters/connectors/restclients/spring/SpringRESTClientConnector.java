@@ -4,6 +4,7 @@ package org.odpi.openmetadata.adapters.connectors.restclients.spring;
 
 import org.codehaus.plexus.util.Base64;
 import org.odpi.openmetadata.adapters.connectors.restclients.RESTClientConnector;
+import org.odpi.openmetadata.adapters.connectors.restclients.RESTClientLatencyHistogram;
 import org.odpi.openmetadata.adapters.connectors.restclients.ffdc.RESTClientConnectorErrorCode;
 import org.odpi.openmetadata.adapters.connectors.restclients.ffdc.exceptions.RESTServerException;
 import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
@@ -17,17 +18,23 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
 
 import java.nio.charset.Charset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 
 /**
- * RESTClient is responsible for issuing calls to the server's REST APIs.
+ * RESTClient is responsible for issuing calls to the server's REST APIs.  The calls are issued through a
+ * pooled HTTP transport that is shared with the other connectors calling the same platform with the same settings.
  */
 public class SpringRESTClientConnector extends RESTClientConnector
 {
-    private RestTemplate restTemplate             = new RestTemplate();
-    private String       serverName               = null;
-    private String       serverPlatformURLRoot    = null;
-    private HttpHeaders  basicAuthorizationHeader = null;
+    private RestTemplate               restTemplate             = null;
+    private ExecutorService            asyncCallExecutor        = null;
+    private RESTClientLatencyHistogram latencyHistogram         = null;
+    private String                     serverName               = null;
+    private String                     serverPlatformURLRoot    = null;
+    private HttpHeaders                basicAuthorizationHeader = null;
 
     private static final Logger log = LoggerFactory.getLogger(SpringRESTClientConnector.class);
 
@@ -66,6 +73,13 @@ public class SpringRESTClientConnector extends RESTClientConnector
             this.serverName = null;
         }
 
+        SpringRESTClientTransport transport = SpringRESTClientTransport.getTransport(this.serverPlatformURLRoot,
+                                                                                     connectionProperties.getConfigurationProperties());
+
+        this.restTemplate = transport.getRestTemplate();
+        this.asyncCallExecutor = transport.getAsyncCallExecutor();
+        this.latencyHistogram = transport.getLatencyHistogram();
+
         String     userId = connectionProperties.getUserId();
         String     password = connectionProperties.getClearPassword();
 
@@ -83,6 +97,19 @@ public class SpringRESTClientConnector extends RESTClientConnector
     }
 
 
+    /**
+     * Return the histogram of the latencies of the REST calls issued through this connector's transport.
+     * The histogram is shared with the other connectors calling the same platform with the same settings.
+     *
+     * @return latency histogram
+     */
+    @Override
+    public RESTClientLatencyHistogram getLatencyHistogram()
+    {
+        return latencyHistogram;
+    }
+
+
     /**
      * Create the HTTP header for basic authorization.
      *
@@ -401,4 +428,66 @@ public class SpringRESTClientConnector extends RESTClientConnector
                                               error);
         }
     }
+
+
+    /**
+     * Issue a GET REST call asynchronously.  The returned future completes with the response object, or
+     * exceptionally with a RESTServerException if something went wrong with the REST call stack.
+     *
+     * @param methodName  name of the method being called.
+     * @param returnClass class of the response object.
+     * @param urlTemplate template of the URL for the REST API call with place-holders for the parameters.
+     * @param params      a list of parameters that are slotted into the url template.
+     *
+     * @return future for the response object
+     */
+    public <T> CompletableFuture<T> callGetRESTCallAsync(String    methodName,
+                                                         Class<T>  returnClass,
+                                                         String    urlTemplate,
+                                                         Object... params)
+    {
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                return this.callGetRESTCall(methodName, returnClass, urlTemplate, params);
+            }
+            catch (RESTServerException error)
+            {
+                throw new CompletionException(error);
+            }
+        }, asyncCallExecutor);
+    }
+
+
+    /**
+     * Issue a POST REST call asynchronously.  The returned future completes with the response object, or
+     * exceptionally with a RESTServerException if something went wrong with the REST call stack.
+     *
+     * @param methodName  name of the method being called.
+     * @param returnClass class of the response object.
+     * @param urlTemplate  template of the URL for the REST API call with place-holders for the parameters.
+     * @param requestBody request body for the request.
+     * @param params  a list of parameters that are slotted into the url template.
+     *
+     * @return future for the response object
+     */
+    public <T> CompletableFuture<T> callPostRESTCallAsync(String    methodName,
+                                                          Class<T>  returnClass,
+                                                          String    urlTemplate,
+                                                          Object    requestBody,
+                                                          Object... params)
+    {
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                return this.callPostRESTCall(methodName, returnClass, urlTemplate, requestBody, params);
+            }
+            catch (RESTServerException error)
+            {
+                throw new CompletionException(error);
+            }
+        }, asyncCallExecutor);
+    }
 }
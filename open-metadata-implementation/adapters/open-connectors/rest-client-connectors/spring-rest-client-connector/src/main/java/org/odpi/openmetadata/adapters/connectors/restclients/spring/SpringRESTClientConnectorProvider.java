@@ -6,9 +6,20 @@ import org.odpi.openmetadata.adapters.connectors.restclients.RESTClientConnector
 import org.odpi.openmetadata.frameworks.connectors.ConnectorProviderBase;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * SpringRESTClientConnectorProvider provides the connector provider for the SpringRESTClientConnector.
+ * The configuration properties control the HTTP transport that is shared by the connectors calling the same platform:
+ * <ul>
+ *     <li>connectTimeout - milliseconds to wait to connect to the platform (default 10000; 0 means no limit)</li>
+ *     <li>readTimeout - milliseconds to wait for the platform to respond (default 0 meaning no limit)</li>
+ *     <li>maxConnectionsPerRoute - maximum keep-alive connections open to the platform (default 20)</li>
+ *     <li>maxTotalConnections - maximum keep-alive connections open in the pool (default 200)</li>
+ *     <li>compressRequests - send large request bodies in gzip format (default false)</li>
+ * </ul>
  */
 public class SpringRESTClientConnectorProvider extends RESTClientConnectorProvider
 {
@@ -16,6 +27,12 @@ public class SpringRESTClientConnectorProvider extends RESTClientConnectorProvid
     static final String  connectorTypeName = "Spring REST Client Connector";
     static final String  connectorTypeDescription = "Connector that calls the REST API of a remote server using Spring.";
 
+    public static final String  connectTimeoutProperty = "connectTimeout";
+    public static final String  readTimeoutProperty = "readTimeout";
+    public static final String  maxConnectionsPerRouteProperty = "maxConnectionsPerRoute";
+    public static final String  maxTotalConnectionsProperty = "maxTotalConnections";
+    public static final String  compressRequestsProperty = "compressRequests";
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * REST Client Connector implementation.
@@ -34,6 +51,15 @@ public class SpringRESTClientConnectorProvider extends RESTClientConnectorProvid
         connectorType.setDescription(connectorTypeDescription);
         connectorType.setConnectorProviderClassName(this.getClass().getName());
 
+        List<String> recognizedConfigurationProperties = new ArrayList<>();
+        recognizedConfigurationProperties.add(connectTimeoutProperty);
+        recognizedConfigurationProperties.add(readTimeoutProperty);
+        recognizedConfigurationProperties.add(maxConnectionsPerRouteProperty);
+        recognizedConfigurationProperties.add(maxTotalConnectionsProperty);
+        recognizedConfigurationProperties.add(compressRequestsProperty);
+
+        connectorType.setRecognizedConfigurationProperties(recognizedConfigurationProperties);
+
         super.connectorTypeBean = connectorType;
     }
 }
@@ -0,0 +1,322 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.restclients.spring;
+
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.odpi.openmetadata.adapters.connectors.restclients.RESTClientLatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import javax.net.ssl.HttpsURLConnection;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * SpringRESTClientTransport holds the HTTP machinery shared by every SpringRESTClientConnector that calls the
+ * same server platform with the same transport settings.  This is a pool of keep-alive connections managed by
+ * an Apache HTTP client, the RestTemplate (with its JSON message converters) that issues the calls through the pool,
+ * and the histogram of the call latencies.  Responses are requested in gzip format and decompressed by the HTTP client.
+ * Request bodies are only compressed when the compressRequests configuration property is set since the receiving
+ * platform (or a proxy in front of it) must accept gzip-encoded request bodies.
+ *
+ * Asynchronous calls are issued by a small pool of daemon threads that is no larger than the number of connections
+ * allowed to the platform.  Calls beyond this limit wait in the pool's queue without holding a thread, so callers
+ * can have many calls outstanding without each one needing a thread of its own.
+ *
+ * The transports live for the life of the JVM.  They are created on first use so that any SSL defaults set up by
+ * the server platform (see strict.ssl) are in place.
+ */
+class SpringRESTClientTransport
+{
+    static final int defaultConnectTimeout          = 10000;
+    static final int defaultReadTimeout             = 0;
+    static final int defaultMaxConnectionsPerRoute  = 20;
+    static final int defaultMaxTotalConnections     = 200;
+
+    private static final int  minimumCompressedBodySize  = 2048;
+    private static final long idleConnectionTimeoutMillis = 30000;
+
+    private static final Map<String, SpringRESTClientTransport> transports = new ConcurrentHashMap<>();
+
+    private static final Logger log = LoggerFactory.getLogger(SpringRESTClientTransport.class);
+
+    private final RestTemplate               restTemplate;
+    private final ExecutorService            asyncCallExecutor;
+    private final RESTClientLatencyHistogram latencyHistogram = new RESTClientLatencyHistogram();
+
+
+    /**
+     * Return the transport for the requested platform and configuration properties, creating it if this is the
+     * first connector to use these settings.
+     *
+     * @param serverPlatformURLRoot URL root of the server platform
+     * @param configurationProperties configuration properties from the connection (may be null)
+     * @return shared transport
+     */
+    static SpringRESTClientTransport getTransport(String              serverPlatformURLRoot,
+                                                  Map<String, Object> configurationProperties)
+    {
+        int     connectTimeout         = getIntProperty(configurationProperties,
+                                                        SpringRESTClientConnectorProvider.connectTimeoutProperty,
+                                                        defaultConnectTimeout);
+        int     readTimeout            = getIntProperty(configurationProperties,
+                                                        SpringRESTClientConnectorProvider.readTimeoutProperty,
+                                                        defaultReadTimeout);
+        int     maxConnectionsPerRoute = Math.max(1, getIntProperty(configurationProperties,
+                                                                    SpringRESTClientConnectorProvider.maxConnectionsPerRouteProperty,
+                                                                    defaultMaxConnectionsPerRoute));
+        int     maxTotalConnections    = getIntProperty(configurationProperties,
+                                                        SpringRESTClientConnectorProvider.maxTotalConnectionsProperty,
+                                                        defaultMaxTotalConnections);
+        boolean compressRequests       = getBooleanProperty(configurationProperties,
+                                                            SpringRESTClientConnectorProvider.compressRequestsProperty);
+
+        String transportKey = serverPlatformURLRoot + " " + connectTimeout + " " + readTimeout + " "
+                                    + maxConnectionsPerRoute + " " + maxTotalConnections + " " + compressRequests;
+
+        return transports.computeIfAbsent(transportKey,
+                                          key -> new SpringRESTClientTransport(serverPlatformURLRoot,
+                                                                               connectTimeout,
+                                                                               readTimeout,
+                                                                               maxConnectionsPerRoute,
+                                                                               maxTotalConnections,
+                                                                               compressRequests));
+    }
+
+
+    /**
+     * Build the connection pool, HTTP client and RestTemplate.
+     *
+     * @param serverPlatformURLRoot URL root of the server platform (for logging)
+     * @param connectTimeout milliseconds to wait for a connection to be established or leased from the pool (0 = no limit)
+     * @param readTimeout milliseconds to wait for data on an open connection (0 = no limit)
+     * @param maxConnectionsPerRoute maximum open connections to a single host and port
+     * @param maxTotalConnections maximum open connections in the pool
+     * @param compressRequests should request bodies be sent in gzip format
+     */
+    private SpringRESTClientTransport(String  serverPlatformURLRoot,
+                                      int     connectTimeout,
+                                      int     readTimeout,
+                                      int     maxConnectionsPerRoute,
+                                      int     maxTotalConnections,
+                                      boolean compressRequests)
+    {
+        log.debug("Creating REST client transport for platform " + serverPlatformURLRoot
+                          + " with connectTimeout=" + connectTimeout
+                          + ", readTimeout=" + readTimeout
+                          + ", maxConnectionsPerRoute=" + maxConnectionsPerRoute
+                          + ", maxTotalConnections=" + maxTotalConnections
+                          + ", compressRequests=" + compressRequests + ".");
+
+        Registry<ConnectionSocketFactory> socketFactoryRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", new SSLConnectionSocketFactory(HttpsURLConnection.getDefaultSSLSocketFactory(),
+                                                                  HttpsURLConnection.getDefaultHostnameVerifier()))
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(socketFactoryRegistry);
+
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+        connectionManager.setMaxTotal(Math.max(maxTotalConnections, maxConnectionsPerRoute));
+
+        CloseableHttpClient httpClient = HttpClientBuilder.create()
+                                                          .setConnectionManager(connectionManager)
+                                                          .evictExpiredConnections()
+                                                          .evictIdleConnections(idleConnectionTimeoutMillis, TimeUnit.MILLISECONDS)
+                                                          .build();
+
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setConnectionRequestTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+
+        interceptors.add((request, body, execution) ->
+        {
+            long startTime = System.nanoTime();
+
+            try
+            {
+                return execution.execute(request, body);
+            }
+            finally
+            {
+                latencyHistogram.recordLatency(System.nanoTime() - startTime);
+            }
+        });
+
+        if (compressRequests)
+        {
+            interceptors.add((request, body, execution) ->
+            {
+                if (body.length < minimumCompressedBodySize)
+                {
+                    return execution.execute(request, body);
+                }
+
+                request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+                return execution.execute(request, compress(body));
+            });
+        }
+
+        restTemplate = new RestTemplate(requestFactory);
+        restTemplate.setInterceptors(interceptors);
+
+        AtomicInteger      threadNumber = new AtomicInteger(0);
+        ThreadPoolExecutor callExecutor = new ThreadPoolExecutor(maxConnectionsPerRoute,
+                                                                 maxConnectionsPerRoute,
+                                                                 idleConnectionTimeoutMillis,
+                                                                 TimeUnit.MILLISECONDS,
+                                                                 new LinkedBlockingQueue<>(),
+                                                                 runnable ->
+                                                                 {
+                                                                     Thread thread = new Thread(runnable,
+                                                                                                "REST client " + serverPlatformURLRoot
+                                                                                                        + " " + threadNumber.incrementAndGet());
+                                                                     thread.setDaemon(true);
+                                                                     return thread;
+                                                                 });
+
+        callExecutor.allowCoreThreadTimeOut(true);
+        asyncCallExecutor = callExecutor;
+    }
+
+
+    /**
+     * Return the RestTemplate that issues calls through the connection pool.  It is safe to use from many threads.
+     *
+     * @return RestTemplate
+     */
+    RestTemplate getRestTemplate()
+    {
+        return restTemplate;
+    }
+
+
+    /**
+     * Return the executor that issues the asynchronous calls.
+     *
+     * @return executor service
+     */
+    ExecutorService getAsyncCallExecutor()
+    {
+        return asyncCallExecutor;
+    }
+
+
+    /**
+     * Return the histogram of the latencies of the calls made through this transport.
+     *
+     * @return latency histogram
+     */
+    RESTClientLatencyHistogram getLatencyHistogram()
+    {
+        return latencyHistogram;
+    }
+
+
+    /**
+     * Compress a request body into gzip format.
+     *
+     * @param body uncompressed request body
+     * @return compressed request body
+     * @throws IOException problem compressing the body
+     */
+    static byte[] compress(byte[]   body) throws IOException
+    {
+        ByteArrayOutputStream compressedBody = new ByteArrayOutputStream(body.length / 4 + 64);
+
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(compressedBody))
+        {
+            gzipStream.write(body);
+        }
+
+        return compressedBody.toByteArray();
+    }
+
+
+    /**
+     * Extract an integer configuration property.  Numbers and strings are accepted.
+     *
+     * @param configurationProperties configuration properties from the connection (may be null)
+     * @param propertyName name of the property
+     * @param defaultValue value to use when the property is missing or invalid
+     * @return property value
+     */
+    private static int getIntProperty(Map<String, Object> configurationProperties,
+                                      String              propertyName,
+                                      int                 defaultValue)
+    {
+        if (configurationProperties != null)
+        {
+            Object propertyValue = configurationProperties.get(propertyName);
+
+            if (propertyValue instanceof Number)
+            {
+                return ((Number)propertyValue).intValue();
+            }
+            else if (propertyValue != null)
+            {
+                try
+                {
+                    return Integer.parseInt(propertyValue.toString().trim());
+                }
+                catch (NumberFormatException error)
+                {
+                    log.error("Ignoring invalid value " + propertyValue + " for configuration property " + propertyName + ".");
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+
+    /**
+     * Extract a boolean configuration property.  Booleans and strings are accepted.
+     *
+     * @param configurationProperties configuration properties from the connection (may be null)
+     * @param propertyName name of the property
+     * @return property value (false if missing)
+     */
+    private static boolean getBooleanProperty(Map<String, Object> configurationProperties,
+                                              String              propertyName)
+    {
+        if (configurationProperties != null)
+        {
+            Object propertyValue = configurationProperties.get(propertyName);
+
+            if (propertyValue != null)
+            {
+                return Boolean.parseBoolean(propertyValue.toString().trim());
+            }
+        }
+
+        return false;
+    }
+}
@@ -0,0 +1,307 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.restclients.spring;
+
+import com.sun.net.httpserver.HttpServer;
+import org.odpi.openmetadata.adapters.connectors.restclients.ffdc.exceptions.RESTServerException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that the SpringRESTClientConnector issues its calls through a shared, pooled transport that
+ * reuses connections, compresses large request bodies on request and records call latencies.  The asynchronous
+ * calls are also checked.
+ */
+public class SpringRESTClientConnectorTest
+{
+    private static final int slowCallConnections = 4;
+
+    private HttpServer  server;
+    private String      platformURLRoot;
+    private Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger     slowCallsInFlight     = new AtomicInteger(0);
+    private final AtomicInteger     peakSlowCallsInFlight = new AtomicInteger(0);
+    private volatile CountDownLatch slowCallArrivals      = new CountDownLatch(0);
+    private volatile CountDownLatch slowCallRelease       = new CountDownLatch(0);
+
+
+    @BeforeClass
+    public void startPlatform() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+        /*
+         * Echo back the size of the (decompressed) request body and how it was encoded.
+         */
+        server.createContext("/echo", exchange ->
+        {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+
+            String      encoding    = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            InputStream requestBody = exchange.getRequestBody();
+
+            if ("gzip".equals(encoding))
+            {
+                requestBody = new GZIPInputStream(requestBody);
+            }
+
+            byte[] response = (readFully(requestBody).length + " " + encoding).getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, response.length);
+
+            try (OutputStream responseBody = exchange.getResponseBody())
+            {
+                responseBody.write(response);
+            }
+        });
+
+        /*
+         * Hold each request until the test releases them, counting how many are outstanding at once.
+         */
+        server.createContext("/slow", exchange ->
+        {
+            peakSlowCallsInFlight.accumulateAndGet(slowCallsInFlight.incrementAndGet(), Math::max);
+            slowCallArrivals.countDown();
+
+            try
+            {
+                slowCallRelease.await(1, TimeUnit.MINUTES);
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            slowCallsInFlight.decrementAndGet();
+
+            byte[] response = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+
+            exchange.getResponseHeaders().set("Content-Type", "text/plain");
+            exchange.sendResponseHeaders(200, response.length);
+
+            try (OutputStream responseBody = exchange.getResponseBody())
+            {
+                responseBody.write(response);
+            }
+        });
+
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        platformURLRoot = "http://localhost:" + server.getAddress().getPort();
+    }
+
+
+    @AfterClass
+    public void stopPlatform()
+    {
+        server.stop(0);
+    }
+
+
+    @Test
+    public void testTransportSharedByPlatformAndSettings()
+    {
+        Map<String, Object> shortTimeout = new HashMap<>();
+
+        shortTimeout.put(SpringRESTClientConnectorProvider.readTimeoutProperty, "5000");
+
+        SpringRESTClientConnector first    = getConnector(platformURLRoot, null);
+        SpringRESTClientConnector second   = getConnector(platformURLRoot, null);
+        SpringRESTClientConnector other    = getConnector("http://localhost:1", null);
+        SpringRESTClientConnector tuned    = getConnector(platformURLRoot, shortTimeout);
+
+        assertSame(first.getLatencyHistogram(), second.getLatencyHistogram());
+        assertNotSame(first.getLatencyHistogram(), other.getLatencyHistogram());
+        assertNotSame(first.getLatencyHistogram(), tuned.getLatencyHistogram());
+    }
+
+
+    @Test
+    public void testCallsReuseConnectionsAndCompressBodies() throws Exception
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(SpringRESTClientConnectorProvider.compressRequestsProperty, true);
+        configurationProperties.put(SpringRESTClientConnectorProvider.maxConnectionsPerRouteProperty, 4);
+
+        SpringRESTClientConnector connector  = getConnector(platformURLRoot, configurationProperties);
+        StringBuilder             largeBody  = new StringBuilder();
+
+        for (int i = 0; i < 1000; i++)
+        {
+            largeBody.append("0123456789");
+        }
+
+        clientPorts.clear();
+
+        long callsBefore = connector.getLatencyHistogram().getCallCount();
+
+        for (int i = 0; i < 20; i++)
+        {
+            assertEquals(connector.callPostRESTCall("testCall", String.class, platformURLRoot + "/echo/{0}", largeBody.toString(), i),
+                         "10000 gzip");
+            assertEquals(connector.callPostRESTCallNoParams("testCall", String.class, platformURLRoot + "/echo", "small"),
+                         "5 null");
+        }
+
+        assertEquals(connector.getLatencyHistogram().getCallCount() - callsBefore, 40);
+        assertEquals(clientPorts.size(), 1, "Connections were not reused: " + clientPorts);
+
+        long bucketTotal = 0;
+
+        for (long bucketCount : connector.getLatencyHistogram().getBucketCounts())
+        {
+            bucketTotal = bucketTotal + bucketCount;
+        }
+
+        assertEquals(bucketTotal, connector.getLatencyHistogram().getCallCount());
+        assertTrue(connector.getLatencyHistogram().getMeanLatencyMillis() >= 0);
+    }
+
+
+    @Test
+    public void testAsynchronousCalls() throws Exception
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        configurationProperties.put(SpringRESTClientConnectorProvider.maxConnectionsPerRouteProperty, slowCallConnections);
+
+        SpringRESTClientConnector       connector = getConnector(platformURLRoot, configurationProperties);
+        List<CompletableFuture<String>> calls     = new ArrayList<>();
+
+        peakSlowCallsInFlight.set(0);
+        slowCallArrivals = new CountDownLatch(slowCallConnections);
+        slowCallRelease = new CountDownLatch(1);
+
+        /*
+         * Many more calls than connections are issued without the caller waiting for any of them.  The platform
+         * holds every call until all of them have been issued.
+         */
+        for (int i = 0; i < 40; i++)
+        {
+            if (i % 2 == 0)
+            {
+                calls.add(connector.callGetRESTCallAsync("testCall", String.class, platformURLRoot + "/slow/{0}", i));
+            }
+            else
+            {
+                calls.add(connector.callPostRESTCallAsync("testCall", String.class, platformURLRoot + "/slow/{0}", "body", i));
+            }
+        }
+
+        /*
+         * One call per connection reaches the platform at the same time.
+         */
+        assertTrue(slowCallArrivals.await(1, TimeUnit.MINUTES), "Calls were not issued in parallel");
+
+        for (CompletableFuture<String> call : calls)
+        {
+            assertFalse(call.isDone());
+        }
+
+        slowCallRelease.countDown();
+
+        for (int i = 0; i < calls.size(); i++)
+        {
+            assertEquals(calls.get(i).get(1, TimeUnit.MINUTES), "/slow/" + i);
+        }
+
+        assertEquals(peakSlowCallsInFlight.get(), slowCallConnections);
+
+        CompletableFuture<String> failedCall = connector.callGetRESTCallAsync("testCall",
+                                                                              String.class,
+                                                                              "http://localhost:1/unknown");
+
+        try
+        {
+            failedCall.get(1, TimeUnit.MINUTES);
+            fail("Call to unknown platform succeeded");
+        }
+        catch (ExecutionException error)
+        {
+            assertTrue(error.getCause() instanceof RESTServerException);
+        }
+    }
+
+
+    /**
+     * Create and initialize a connector for the platform.
+     *
+     * @param platformURLRoot URL root of the platform
+     * @param configurationProperties transport settings
+     * @return initialized connector
+     */
+    private SpringRESTClientConnector getConnector(String              platformURLRoot,
+                                                   Map<String, Object> configurationProperties)
+    {
+        Endpoint   endpoint   = new Endpoint();
+        Connection connection = new Connection();
+
+        endpoint.setAddress(platformURLRoot);
+        endpoint.setDisplayName("testServer");
+        connection.setEndpoint(endpoint);
+        connection.setConfigurationProperties(configurationProperties);
+
+        SpringRESTClientConnector connector = new SpringRESTClientConnector();
+
+        connector.initialize("testConnector", new ConnectionProperties(connection));
+
+        return connector;
+    }
+
+
+    /**
+     * Read the whole of a stream.
+     *
+     * @param stream input stream
+     * @return bytes read
+     * @throws IOException problem reading the stream
+     */
+    private static byte[] readFully(InputStream  stream) throws IOException
+    {
+        ByteArrayOutputStream bytes  = new ByteArrayOutputStream();
+        byte[]                buffer = new byte[4096];
+        int                   count;
+
+        while ((count = stream.read(buffer)) != -1)
+        {
+            bytes.write(buffer, 0, count);
+        }
+
+        return bytes.toByteArray();
+    }
+}
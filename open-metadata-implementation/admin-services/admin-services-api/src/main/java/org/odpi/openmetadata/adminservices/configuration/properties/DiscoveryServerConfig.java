@@ -8,6 +8,7 @@ import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
@@ -22,6 +23,9 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
 @JsonIgnoreProperties(ignoreUnknown=true)
 public class DiscoveryServerConfig extends AdminServicesConfigHeader
 {
+    private static final int defaultDiscoveryWorkerCount = 5;
+    private static final int defaultDiscoveryQueueSize   = 100;
+
     /* Properties needed to call the access service REST APIs */
     private String        accessServiceRootURL     = null;
     private String        accessServiceServerName  = null;
@@ -29,6 +33,11 @@ public class DiscoveryServerConfig extends AdminServicesConfigHeader
     /* List of discovery engines that run in this server */
     private List<String>  discoveryEngineGUIDs = null;
 
+    /* Properties that control how discovery requests are scheduled in each discovery engine */
+    private int                   discoveryWorkerCount       = defaultDiscoveryWorkerCount;
+    private int                   discoveryQueueSize         = defaultDiscoveryQueueSize;
+    private Map<String, Integer>  discoveryRequestPriorities = null;
+
     /**
      * Default constructor
      */
@@ -52,6 +61,9 @@ public class DiscoveryServerConfig extends AdminServicesConfigHeader
             accessServiceRootURL = template.getAccessServiceRootURL();
             accessServiceServerName = template.getAccessServiceServerName();
             discoveryEngineGUIDs = template.getDiscoveryEngineGUIDs();
+            discoveryWorkerCount = template.getDiscoveryWorkerCount();
+            discoveryQueueSize = template.getDiscoveryQueueSize();
+            discoveryRequestPriorities = template.getDiscoveryRequestPriorities();
         }
     }
 
@@ -124,6 +136,77 @@ public class DiscoveryServerConfig extends AdminServicesConfigHeader
     }
 
 
+    /**
+     * Return the number of discovery requests that each discovery engine runs at the same time.
+     *
+     * @return number of worker threads
+     */
+    public int getDiscoveryWorkerCount()
+    {
+        return discoveryWorkerCount;
+    }
+
+
+    /**
+     * Set up the number of discovery requests that each discovery engine runs at the same time.
+     *
+     * @param discoveryWorkerCount number of worker threads
+     */
+    public void setDiscoveryWorkerCount(int discoveryWorkerCount)
+    {
+        this.discoveryWorkerCount = discoveryWorkerCount;
+    }
+
+
+    /**
+     * Return the maximum number of discovery requests that each discovery engine holds waiting for a worker.
+     * Further requests are rejected until the queue drains.
+     *
+     * @return queue size
+     */
+    public int getDiscoveryQueueSize()
+    {
+        return discoveryQueueSize;
+    }
+
+
+    /**
+     * Set up the maximum number of discovery requests that each discovery engine holds waiting for a worker.
+     *
+     * @param discoveryQueueSize queue size
+     */
+    public void setDiscoveryQueueSize(int discoveryQueueSize)
+    {
+        this.discoveryQueueSize = discoveryQueueSize;
+    }
+
+
+    /**
+     * Return the priority of discovery requests.  The request type of a discovery request is the qualified name
+     * of the discovery service that runs it.  A key of the form "assetType:requestType" sets the priority for
+     * one asset type and request type; a key that is just an asset type, or just a request type, sets the priority
+     * for all of its requests.  The most specific key wins.  Waiting requests with a higher priority run first.
+     * Requests that match no key have priority 0.
+     *
+     * @return map from asset type and/or request type to priority
+     */
+    public Map<String, Integer> getDiscoveryRequestPriorities()
+    {
+        return discoveryRequestPriorities;
+    }
+
+
+    /**
+     * Set up the priority of discovery requests by asset type and request type.
+     *
+     * @param discoveryRequestPriorities map from asset type and/or request type to priority
+     */
+    public void setDiscoveryRequestPriorities(Map<String, Integer> discoveryRequestPriorities)
+    {
+        this.discoveryRequestPriorities = discoveryRequestPriorities;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -136,6 +219,9 @@ public class DiscoveryServerConfig extends AdminServicesConfigHeader
                 "accessServiceRootURL='" + accessServiceRootURL + '\'' +
                 ", accessServiceServerName='" + accessServiceServerName + '\'' +
                 ", discoveryEngineGUIDs=" + discoveryEngineGUIDs +
+                ", discoveryWorkerCount=" + discoveryWorkerCount +
+                ", discoveryQueueSize=" + discoveryQueueSize +
+                ", discoveryRequestPriorities=" + discoveryRequestPriorities +
                 '}';
     }
 
@@ -158,9 +244,12 @@ public class DiscoveryServerConfig extends AdminServicesConfigHeader
             return false;
         }
         DiscoveryServerConfig that = (DiscoveryServerConfig) objectToCompare;
-        return Objects.equals(getAccessServiceRootURL(), that.getAccessServiceRootURL()) &&
+        return getDiscoveryWorkerCount() == that.getDiscoveryWorkerCount() &&
+                getDiscoveryQueueSize() == that.getDiscoveryQueueSize() &&
+                Objects.equals(getAccessServiceRootURL(), that.getAccessServiceRootURL()) &&
                 Objects.equals(getAccessServiceServerName(), that.getAccessServiceServerName()) &&
-                Objects.equals(getDiscoveryEngineGUIDs(), that.getDiscoveryEngineGUIDs());
+                Objects.equals(getDiscoveryEngineGUIDs(), that.getDiscoveryEngineGUIDs()) &&
+                Objects.equals(getDiscoveryRequestPriorities(), that.getDiscoveryRequestPriorities());
     }
 
 
@@ -172,6 +261,7 @@ public class DiscoveryServerConfig extends AdminServicesConfigHeader
     @Override
     public int hashCode()
     {
-        return Objects.hash(getAccessServiceRootURL(), getAccessServiceServerName(), getDiscoveryEngineGUIDs());
+        return Objects.hash(getAccessServiceRootURL(), getAccessServiceServerName(), getDiscoveryEngineGUIDs(),
+                            getDiscoveryWorkerCount(), getDiscoveryQueueSize(), getDiscoveryRequestPriorities());
     }
 }
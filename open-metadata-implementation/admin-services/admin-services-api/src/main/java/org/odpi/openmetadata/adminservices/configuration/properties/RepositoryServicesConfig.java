@@ -10,6 +10,7 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
 import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
 
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLogBufferFullAction;
 
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -27,6 +28,14 @@ import java.util.Objects;
  *         component should use.
  *     </li>
  *     <li>
+ *         auditLogBufferSize is the number of audit log records that can wait to be passed to the audit log
+ *         destinations.  Zero means the default size is used.
+ *     </li>
+ *     <li>
+ *         auditLogBufferFullAction defines what happens to a new audit log record when the buffer is full.
+ *         Null means the caller waits for space in the buffer.
+ *     </li>
+ *     <li>
  *         openMetadataArchiveConnections is a list of Open Metadata Archive Connections.
  *         An open metadata archive connection provides properties needed to create a connector to manage
  *         an open metadata archive.  This contains pre-built TypeDefs and metadata instance.
@@ -50,11 +59,13 @@ import java.util.Objects;
 @JsonIgnoreProperties(ignoreUnknown=true)
 public class RepositoryServicesConfig extends AdminServicesConfigHeader
 {
-    private List<Connection>       auditLogConnections            = new ArrayList<>();
-    private List<Connection>       openMetadataArchiveConnections = new ArrayList<>();
-    private LocalRepositoryConfig  localRepositoryConfig          = null;
-    private EnterpriseAccessConfig enterpriseAccessConfig         = null;
-    private List<CohortConfig>     cohortConfigList               = new ArrayList<>();
+    private List<Connection>             auditLogConnections            = new ArrayList<>();
+    private int                          auditLogBufferSize             = 0;
+    private OMRSAuditLogBufferFullAction auditLogBufferFullAction       = null;
+    private List<Connection>             openMetadataArchiveConnections = new ArrayList<>();
+    private LocalRepositoryConfig        localRepositoryConfig          = null;
+    private EnterpriseAccessConfig       enterpriseAccessConfig         = null;
+    private List<CohortConfig>           cohortConfigList               = new ArrayList<>();
 
 
     /**
@@ -78,6 +89,8 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
         if (template != null)
         {
             this.auditLogConnections = template.getAuditLogConnections();
+            this.auditLogBufferSize = template.getAuditLogBufferSize();
+            this.auditLogBufferFullAction = template.getAuditLogBufferFullAction();
             this.openMetadataArchiveConnections = template.getOpenMetadataArchiveConnections();
             this.localRepositoryConfig = template.getLocalRepositoryConfig();
             this.enterpriseAccessConfig = template.getEnterpriseAccessConfig();
@@ -119,6 +132,52 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
     }
 
 
+    /**
+     * Return the number of audit log records that can wait to be passed to the audit log destinations.
+     *
+     * @return buffer size (0 means use the default)
+     */
+    public int getAuditLogBufferSize()
+    {
+        return auditLogBufferSize;
+    }
+
+
+    /**
+     * Set up the number of audit log records that can wait to be passed to the audit log destinations.
+     *
+     * @param auditLogBufferSize buffer size (0 means use the default)
+     */
+    public void setAuditLogBufferSize(int auditLogBufferSize)
+    {
+        this.auditLogBufferSize = auditLogBufferSize;
+    }
+
+
+    /**
+     * Return what happens to a new audit log record when the buffer of records waiting to be passed to the
+     * audit log destinations is full.
+     *
+     * @return buffer full action (null means use the default)
+     */
+    public OMRSAuditLogBufferFullAction getAuditLogBufferFullAction()
+    {
+        return auditLogBufferFullAction;
+    }
+
+
+    /**
+     * Set up what happens to a new audit log record when the buffer of records waiting to be passed to the
+     * audit log destinations is full.
+     *
+     * @param auditLogBufferFullAction buffer full action (null means use the default)
+     */
+    public void setAuditLogBufferFullAction(OMRSAuditLogBufferFullAction auditLogBufferFullAction)
+    {
+        this.auditLogBufferFullAction = auditLogBufferFullAction;
+    }
+
+
     /**
      * Return the list of Connection object, each of which is used to create the Connector to an Open Metadata
      * Archive.  Open Metadata Archive contains pre-built metadata types and instances.
@@ -245,6 +304,8 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
     {
         return "RepositoryServicesConfig{" +
                 "auditLogConnections=" + auditLogConnections +
+                ", auditLogBufferSize=" + auditLogBufferSize +
+                ", auditLogBufferFullAction=" + auditLogBufferFullAction +
                 ", openMetadataArchiveConnections=" + openMetadataArchiveConnections +
                 ", localRepositoryConfig=" + localRepositoryConfig +
                 ", enterpriseAccessConfig=" + enterpriseAccessConfig +
@@ -271,7 +332,9 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
             return false;
         }
         RepositoryServicesConfig that = (RepositoryServicesConfig) objectToCompare;
-        return Objects.equals(getAuditLogConnections(), that.getAuditLogConnections()) &&
+        return getAuditLogBufferSize() == that.getAuditLogBufferSize() &&
+                Objects.equals(getAuditLogConnections(), that.getAuditLogConnections()) &&
+                getAuditLogBufferFullAction() == that.getAuditLogBufferFullAction() &&
                 Objects.equals(getOpenMetadataArchiveConnections(), that.getOpenMetadataArchiveConnections()) &&
                 Objects.equals(getLocalRepositoryConfig(), that.getLocalRepositoryConfig()) &&
                 Objects.equals(getEnterpriseAccessConfig(), that.getEnterpriseAccessConfig()) &&
@@ -287,7 +350,8 @@ public class RepositoryServicesConfig extends AdminServicesConfigHeader
     @Override
     public int hashCode()
     {
-        return Objects.hash(getAuditLogConnections(), getOpenMetadataArchiveConnections(), getLocalRepositoryConfig(),
+        return Objects.hash(getAuditLogConnections(), getAuditLogBufferSize(), getAuditLogBufferFullAction(),
+                            getOpenMetadataArchiveConnections(), getLocalRepositoryConfig(),
                             getEnterpriseAccessConfig(), getCohortConfigList());
     }
 }
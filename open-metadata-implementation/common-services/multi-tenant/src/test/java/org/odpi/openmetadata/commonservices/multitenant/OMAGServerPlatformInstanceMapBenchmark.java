@@ -0,0 +1,147 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.multitenant;
+
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measure the throughput of service instance lookups through the platform instance map as the number of
+ * threads grows, with the lookups spread across several servers.  This is not part of the unit tests - run it
+ * with mvn test -Pbenchmark.
+ */
+public class OMAGServerPlatformInstanceMapBenchmark
+{
+    private static final String userId          = "benchmarkUser";
+    private static final String serviceName     = "Benchmark OMAS";
+    private static final String operationName   = "benchmarkOperation";
+    private static final int    serverCount     = 8;
+    private static final long   warmUpTimeMs    = 1000;
+    private static final long   measureTimeMs   = 2000;
+
+    private OMAGServerPlatformInstanceMap platformInstanceMap = new OMAGServerPlatformInstanceMap();
+
+
+    @BeforeClass
+    public void startServers() throws Exception
+    {
+        for (int s = 0; s < serverCount; s++)
+        {
+            platformInstanceMap.startUpServerInstance(userId, getServerName(s), null, null);
+
+            new OMAGServerServiceInstance(getServerName(s), serviceName, 100)
+            {
+            };
+        }
+    }
+
+
+    @AfterClass
+    public void stopServers() throws Exception
+    {
+        for (int s = 0; s < serverCount; s++)
+        {
+            platformInstanceMap.removeServiceInstanceFromPlatform(getServerName(s), serviceName);
+            platformInstanceMap.shutdownServerInstance(userId, getServerName(s), operationName);
+        }
+    }
+
+
+    @Test
+    public void benchmarkLookupThroughput() throws Exception
+    {
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        measureLookupThroughput(cores, warmUpTimeMs);
+
+        for (int threadCount = 1; threadCount <= cores * 2; threadCount = threadCount * 2)
+        {
+            long lookups = measureLookupThroughput(threadCount, measureTimeMs);
+
+            Reporter.log("Platform instance map: " + threadCount + " threads, " + (lookups * 1000 / measureTimeMs) +
+                                 " lookups per second across " + serverCount + " servers", true);
+        }
+    }
+
+
+    /**
+     * Run the requested number of threads looking up service instances across the servers for a fixed period
+     * and return the total number of lookups they completed.
+     *
+     * @param threadCount number of concurrent threads
+     * @param durationMs length of the measurement
+     * @return total lookups
+     * @throws Exception problem running the threads
+     */
+    private long measureLookupThroughput(int    threadCount,
+                                         long   durationMs) throws Exception
+    {
+        ExecutorService        executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch         ready    = new CountDownLatch(threadCount);
+        List<Callable<Long>>   threads  = new ArrayList<>();
+
+        for (int t = 0; t < threadCount; t++)
+        {
+            final int firstServer = t;
+
+            threads.add(() ->
+            {
+                long lookups = 0;
+
+                ready.countDown();
+                ready.await();
+
+                long endTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMs);
+
+                while (System.nanoTime() < endTime)
+                {
+                    String serverName = getServerName((int)((firstServer + lookups) % serverCount));
+
+                    platformInstanceMap.getServiceInstance(userId, serverName, serviceName, operationName);
+                    lookups++;
+                }
+
+                return lookups;
+            });
+        }
+
+        long total = 0;
+
+        try
+        {
+            for (Future<Long> thread : executor.invokeAll(threads))
+            {
+                total = total + thread.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        return total;
+    }
+
+
+    /**
+     * Return the name of one of the benchmark servers.
+     *
+     * @param serverNumber number of the server
+     * @return server name
+     */
+    private String getServerName(int   serverNumber)
+    {
+        return "benchmarkServer" + serverNumber;
+    }
+}
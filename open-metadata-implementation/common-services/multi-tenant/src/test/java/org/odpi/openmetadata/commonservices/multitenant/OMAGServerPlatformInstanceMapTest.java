@@ -0,0 +1,211 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.commonservices.multitenant;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the platform instance map resolves service instances for many threads across several servers
+ * while other servers start and stop.
+ */
+public class OMAGServerPlatformInstanceMapTest
+{
+    private static final String userId        = "testUser";
+    private static final String serviceName   = "Test OMAS";
+    private static final String operationName = "testOperation";
+    private static final int    serverCount   = 4;
+
+    private OMAGServerPlatformInstanceMap platformInstanceMap = new OMAGServerPlatformInstanceMap();
+
+
+    @BeforeClass
+    public void startServers() throws Exception
+    {
+        for (int s = 0; s < serverCount; s++)
+        {
+            startServer(getServerName(s));
+        }
+    }
+
+
+    @AfterClass
+    public void stopServers() throws Exception
+    {
+        for (int s = 0; s < serverCount; s++)
+        {
+            stopServer(getServerName(s));
+        }
+    }
+
+
+    @Test
+    public void testLookupsDuringServerRestarts() throws Exception
+    {
+        final String restartingServerName = "restartingServer";
+
+        ExecutorService         executor   = Executors.newFixedThreadPool(serverCount + 1);
+        AtomicBoolean           restarting = new AtomicBoolean(true);
+        List<Future<Integer>>   readers    = new ArrayList<>();
+
+        /*
+         * Once the server is known it must stay known while it moves between the active and inactive maps.
+         */
+        startServer(restartingServerName);
+        stopServer(restartingServerName);
+
+        Future<?> restarter = executor.submit(() ->
+        {
+            for (int i = 0; i < 200; i++)
+            {
+                startServer(restartingServerName);
+                stopServer(restartingServerName);
+            }
+
+            return null;
+        });
+
+        for (int r = 0; r < serverCount; r++)
+        {
+            final String serverName = getServerName(r);
+
+            readers.add(executor.submit(() ->
+            {
+                int lookups = 0;
+
+                while (restarting.get())
+                {
+                    assertTrue(platformInstanceMap.getServiceInstance(userId, serverName, serviceName, operationName) != null);
+                    assertTrue(platformInstanceMap.isServerKnown(userId, restartingServerName));
+                    lookups++;
+                }
+
+                return lookups;
+            }));
+        }
+
+        restarter.get(2, TimeUnit.MINUTES);
+        restarting.set(false);
+
+        for (Future<Integer> reader : readers)
+        {
+            assertTrue(reader.get(2, TimeUnit.MINUTES) >= 0);
+        }
+        executor.shutdown();
+
+        assertFalse(platformInstanceMap.isServerActive(userId, restartingServerName));
+        assertTrue(platformInstanceMap.isServerKnown(userId, restartingServerName));
+        assertEquals(platformInstanceMap.getServerHistory(userId, restartingServerName).size(), 201);
+    }
+
+
+    @Test
+    public void testConcurrentLookups() throws Exception
+    {
+        final int threadCount      = serverCount * 2;
+        final int lookupsPerThread = 2000;
+
+        ExecutorService        executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch         ready    = new CountDownLatch(threadCount);
+        List<Callable<Long>>   threads  = new ArrayList<>();
+
+        for (int t = 0; t < threadCount; t++)
+        {
+            final int firstServer = t;
+
+            threads.add(() ->
+            {
+                long lookups = 0;
+
+                /*
+                 * Start all of the threads together so the lookups overlap.
+                 */
+                ready.countDown();
+                ready.await();
+
+                for (int i = 0; i < lookupsPerThread; i++)
+                {
+                    String serverName = getServerName((firstServer + i) % serverCount);
+
+                    assertEquals(platformInstanceMap.getServiceInstance(userId, serverName, serviceName, operationName).getServerName(),
+                                 serverName);
+                    lookups++;
+                }
+
+                return lookups;
+            });
+        }
+
+        long total = 0;
+
+        try
+        {
+            for (Future<Long> thread : executor.invokeAll(threads))
+            {
+                total = total + thread.get(2, TimeUnit.MINUTES);
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        assertEquals(total, (long)threadCount * lookupsPerThread);
+    }
+
+
+    /**
+     * Start a server with a single service.
+     *
+     * @param serverName name of the server
+     * @throws Exception problem starting the server
+     */
+    private void startServer(String   serverName) throws Exception
+    {
+        platformInstanceMap.startUpServerInstance(userId, serverName, null, null);
+
+        new OMAGServerServiceInstance(serverName, serviceName, 100)
+        {
+        };
+    }
+
+
+    /**
+     * Stop a server and its service.
+     *
+     * @param serverName name of the server
+     * @throws Exception problem stopping the server
+     */
+    private void stopServer(String   serverName) throws Exception
+    {
+        platformInstanceMap.removeServiceInstanceFromPlatform(serverName, serviceName);
+        platformInstanceMap.shutdownServerInstance(userId, serverName, operationName);
+    }
+
+
+    /**
+     * Return the name of one of the test servers.
+     *
+     * @param serverNumber number of the server
+     * @return server name
+     */
+    private String getServerName(int   serverNumber)
+    {
+        return "testServer" + serverNumber;
+    }
+}
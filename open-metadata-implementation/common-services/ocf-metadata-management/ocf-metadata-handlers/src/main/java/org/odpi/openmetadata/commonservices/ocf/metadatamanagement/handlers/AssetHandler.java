@@ -1978,6 +1978,93 @@ public class AssetHandler
     }
 
 
+    /**
+     * Return the counts of the objects attached to an asset, keyed by the name of the relationship type that
+     * attaches them.  The relationships are counted in a single request to the repository rather than
+     * one request per type.  Comments, likes and ratings are only retrieved when the asset has some, so that
+     * the ones that are not visible to the user can be left out of the count.
+     *
+     * @param userId     calling user
+     * @param assetGUID identifier for the asset that the objects are attached to
+     * @param methodName calling method
+     * @return map of relationship type name to count
+     * @throws InvalidParameterException  the parameters are invalid
+     * @throws UserNotAuthorizedException user not authorized to issue this request
+     * @throws PropertyServerException    problem accessing the property server
+     */
+    public Map<String, Integer> getAttachmentCounts(String   userId,
+                                                    String   assetGUID,
+                                                    String   methodName) throws InvalidParameterException,
+                                                                                PropertyServerException,
+                                                                                UserNotAuthorizedException
+    {
+        final String guidParameterName = "assetGUID";
+
+        invalidParameterHandler.validateUserId(userId, methodName);
+        invalidParameterHandler.validateGUID(assetGUID, guidParameterName, methodName);
+
+        Map<String, String> attachmentTypes = new HashMap<>();
+
+        attachmentTypes.put(CertificationMapper.CERTIFICATION_OF_REFERENCEABLE_TYPE_GUID, CertificationMapper.CERTIFICATION_OF_REFERENCEABLE_TYPE_NAME);
+        attachmentTypes.put(CommentMapper.REFERENCEABLE_TO_COMMENT_TYPE_GUID, CommentMapper.REFERENCEABLE_TO_COMMENT_TYPE_NAME);
+        attachmentTypes.put(AssetMapper.ASSET_TO_CONNECTION_TYPE_GUID, AssetMapper.ASSET_TO_CONNECTION_TYPE_NAME);
+        attachmentTypes.put(ExternalIdentifierMapper.REFERENCEABLE_TO_EXTERNAL_ID_TYPE_GUID, ExternalIdentifierMapper.REFERENCEABLE_TO_EXTERNAL_ID_TYPE_NAME);
+        attachmentTypes.put(ExternalReferenceMapper.REFERENCEABLE_TO_EXT_REF_TYPE_GUID, ExternalReferenceMapper.REFERENCEABLE_TO_EXT_REF_TYPE_NAME);
+        attachmentTypes.put(InformalTagMapper.REFERENCEABLE_TO_TAG_TYPE_GUID, InformalTagMapper.REFERENCEABLE_TO_TAG_TYPE_NAME);
+        attachmentTypes.put(LicenseMapper.LICENSE_OF_REFERENCEABLE_TYPE_GUID, LicenseMapper.LICENSE_OF_REFERENCEABLE_TYPE_NAME);
+        attachmentTypes.put(LikeMapper.REFERENCEABLE_TO_LIKE_TYPE_GUID, LikeMapper.REFERENCEABLE_TO_LIKE_TYPE_NAME);
+        attachmentTypes.put(LocationMapper.ASSET_LOCATION_TYPE_GUID, LocationMapper.ASSET_LOCATION_TYPE_NAME);
+        attachmentTypes.put(NoteLogMapper.REFERENCEABLE_TO_NOTE_LOG_TYPE_GUID, NoteLogMapper.REFERENCEABLE_TO_NOTE_LOG_TYPE_NAME);
+        attachmentTypes.put(RatingMapper.REFERENCEABLE_TO_RATING_TYPE_GUID, RatingMapper.REFERENCEABLE_TO_RATING_TYPE_NAME);
+        attachmentTypes.put(RelatedMediaMapper.REFERENCEABLE_TO_RELATED_MEDIA_TYPE_GUID, RelatedMediaMapper.REFERENCEABLE_TO_RELATED_MEDIA_TYPE_NAME);
+
+        Map<String, Integer> relationshipCounts = repositoryHandler.countAttachedRelationshipsByTypes(userId,
+                                                                                                      assetGUID,
+                                                                                                      AssetMapper.ASSET_TYPE_NAME,
+                                                                                                      new ArrayList<>(attachmentTypes.keySet()),
+                                                                                                      methodName);
+
+        Map<String, Integer> attachmentCounts = new HashMap<>();
+
+        for (Map.Entry<String, String> attachmentType : attachmentTypes.entrySet())
+        {
+            Integer count = null;
+
+            if (relationshipCounts != null)
+            {
+                count = relationshipCounts.get(attachmentType.getKey());
+            }
+
+            if (count == null)
+            {
+                count = 0;
+            }
+
+            attachmentCounts.put(attachmentType.getValue(), count);
+        }
+
+        if (attachmentCounts.get(CommentMapper.REFERENCEABLE_TO_COMMENT_TYPE_NAME) > 0)
+        {
+            attachmentCounts.put(CommentMapper.REFERENCEABLE_TO_COMMENT_TYPE_NAME,
+                                 commentHandler.countAttachedComments(userId, assetGUID, methodName));
+        }
+
+        if (attachmentCounts.get(LikeMapper.REFERENCEABLE_TO_LIKE_TYPE_NAME) > 0)
+        {
+            attachmentCounts.put(LikeMapper.REFERENCEABLE_TO_LIKE_TYPE_NAME,
+                                 likeHandler.countLikes(userId, assetGUID, methodName));
+        }
+
+        if (attachmentCounts.get(RatingMapper.REFERENCEABLE_TO_RATING_TYPE_NAME) > 0)
+        {
+            attachmentCounts.put(RatingMapper.REFERENCEABLE_TO_RATING_TYPE_NAME,
+                                 ratingHandler.countRatings(userId, assetGUID, methodName));
+        }
+
+        return attachmentCounts;
+    }
+
+
     /**
      * Return the count of attached certifications.
      *
@@ -5,6 +5,7 @@ package org.odpi.openmetadata.commonservices.ocf.metadatamanagement.server;
 import org.odpi.openmetadata.commonservices.ffdc.RESTExceptionHandler;
 import org.odpi.openmetadata.commonservices.ffdc.rest.GUIDResponse;
 import org.odpi.openmetadata.commonservices.ocf.metadatamanagement.handlers.*;
+import org.odpi.openmetadata.commonservices.ocf.metadatamanagement.mappers.*;
 import org.odpi.openmetadata.commonservices.ocf.metadatamanagement.rest.*;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
@@ -17,6 +18,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -263,19 +265,21 @@ public class OCFMetadataRESTServices
                                                         instanceHandler.getServiceName(serviceURLName),
                                                         methodName));
             }
-            response.setCertificationCount(assetHandler.getCertificationCount(userId, assetGUID, methodName));
-            response.setCommentCount(assetHandler.getCommentCount(userId, assetGUID, methodName));
-            response.setConnectionCount(assetHandler.getConnectionCount(userId, assetGUID, methodName));
-            response.setExternalIdentifierCount(assetHandler.getExternalIdentifierCount(userId, assetGUID, methodName));
-            response.setExternalReferencesCount(assetHandler.getExternalReferencesCount(userId, assetGUID, methodName));
-            response.setInformalTagCount(assetHandler.getInformalTagCount(userId, assetGUID, methodName));
-            response.setLicenseCount(assetHandler.getLicenseCount(userId, assetGUID, methodName));
-            response.setLikeCount(assetHandler.getLikeCount(userId, assetGUID, methodName));
-            response.setKnownLocationsCount(assetHandler.getKnownLocationsCount(userId, assetGUID, methodName));
-            response.setNoteLogsCount(assetHandler.getNoteLogsCount(userId, assetGUID, methodName));
-            response.setRatingsCount(assetHandler.getRatingsCount(userId, assetGUID, methodName));
+            Map<String, Integer> attachmentCounts = assetHandler.getAttachmentCounts(userId, assetGUID, methodName);
+
+            response.setCertificationCount(attachmentCounts.get(CertificationMapper.CERTIFICATION_OF_REFERENCEABLE_TYPE_NAME));
+            response.setCommentCount(attachmentCounts.get(CommentMapper.REFERENCEABLE_TO_COMMENT_TYPE_NAME));
+            response.setConnectionCount(attachmentCounts.get(AssetMapper.ASSET_TO_CONNECTION_TYPE_NAME));
+            response.setExternalIdentifierCount(attachmentCounts.get(ExternalIdentifierMapper.REFERENCEABLE_TO_EXTERNAL_ID_TYPE_NAME));
+            response.setExternalReferencesCount(attachmentCounts.get(ExternalReferenceMapper.REFERENCEABLE_TO_EXT_REF_TYPE_NAME));
+            response.setInformalTagCount(attachmentCounts.get(InformalTagMapper.REFERENCEABLE_TO_TAG_TYPE_NAME));
+            response.setLicenseCount(attachmentCounts.get(LicenseMapper.LICENSE_OF_REFERENCEABLE_TYPE_NAME));
+            response.setLikeCount(attachmentCounts.get(LikeMapper.REFERENCEABLE_TO_LIKE_TYPE_NAME));
+            response.setKnownLocationsCount(attachmentCounts.get(LocationMapper.ASSET_LOCATION_TYPE_NAME));
+            response.setNoteLogsCount(attachmentCounts.get(NoteLogMapper.REFERENCEABLE_TO_NOTE_LOG_TYPE_NAME));
+            response.setRatingsCount(attachmentCounts.get(RatingMapper.REFERENCEABLE_TO_RATING_TYPE_NAME));
             response.setRelatedAssetCount(assetHandler.getRelatedAssetCount(userId, assetGUID, methodName));
-            response.setRelatedMediaReferenceCount(assetHandler.getRelatedMediaReferenceCount(userId, assetGUID, methodName));
+            response.setRelatedMediaReferenceCount(attachmentCounts.get(RelatedMediaMapper.REFERENCEABLE_TO_RELATED_MEDIA_TYPE_NAME));
             response.setSchemaType(assetHandler.getSchemaType(userId, assetGUID, methodName));
         }
         catch (InvalidParameterException error)
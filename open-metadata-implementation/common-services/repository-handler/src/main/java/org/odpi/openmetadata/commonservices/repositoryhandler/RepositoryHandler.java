@@ -15,6 +15,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 
 /**
@@ -1873,6 +1874,57 @@ public class RepositoryHandler
     }
 
 
+    /**
+     * Count the number of relationships of each of the requested types attached to an anchor entity.
+     * The counts are retrieved from the repository in a single request.
+     *
+     * @param userId  user making the request
+     * @param anchorEntityGUID  starting entity's GUID
+     * @param anchorEntityTypeName  starting entity's type name
+     * @param relationshipTypeGUIDs  identifiers for the relationships to count (null for all)
+     * @param methodName  name of calling method
+     *
+     * @return map of relationship type GUID to count - requested types with no relationships have a count of zero
+     *
+     * @throws UserNotAuthorizedException user not authorized to issue this request
+     * @throws PropertyServerException    problem accessing the property server
+     */
+    public Map<String, Integer> countAttachedRelationshipsByTypes(String                 userId,
+                                                                  String                 anchorEntityGUID,
+                                                                  String                 anchorEntityTypeName,
+                                                                  List<String>           relationshipTypeGUIDs,
+                                                                  String                 methodName) throws PropertyServerException,
+                                                                                                            UserNotAuthorizedException
+    {
+        try
+        {
+            Map<String, Integer> relationshipCounts = metadataCollection.getRelationshipCountsForEntity(userId,
+                                                                                                        anchorEntityGUID,
+                                                                                                        relationshipTypeGUIDs,
+                                                                                                        null,
+                                                                                                        null);
+
+            if (log.isDebugEnabled())
+            {
+                log.debug("Relationship counts for " + anchorEntityTypeName + " entity " + anchorEntityGUID +
+                          " are " + relationshipCounts);
+            }
+
+            return relationshipCounts;
+        }
+        catch (org.odpi.openmetadata.repositoryservices.ffdc.exception.UserNotAuthorizedException  error)
+        {
+            errorHandler.handleUnauthorizedUser(userId, methodName);
+        }
+        catch (Throwable   error)
+        {
+            errorHandler.handleRepositoryError(error, methodName);
+        }
+
+        return null;
+    }
+
+
     /**
      * Return the list of relationships of the requested type connected to the anchor entity.
      *
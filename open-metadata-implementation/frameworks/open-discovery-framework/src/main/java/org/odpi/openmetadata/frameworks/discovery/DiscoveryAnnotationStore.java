@@ -9,6 +9,7 @@ import org.odpi.openmetadata.frameworks.discovery.properties.Annotation;
 import org.odpi.openmetadata.frameworks.discovery.properties.AnnotationStatus;
 import org.odpi.openmetadata.frameworks.discovery.properties.DataField;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,6 +17,10 @@ import java.util.List;
  * store annotations in the annotation store.  There is one instance of the annotation store
  * for each discovery request.  The userId that made the discovery request is the default user for
  * the annotation store.  This userId may be over-ridden by the discovery engine.
+ *
+ * Top level annotations that the discovery service does not need to refer to again can be queued with
+ * queueAnnotationForDiscoveryReport().  They are saved in batches of the size set by setAnnotationBatchSize().
+ * The queue is thread-safe so a single annotation store can be shared by discovery services running in parallel.
  */
 public abstract class DiscoveryAnnotationStore
 {
@@ -23,6 +28,10 @@ public abstract class DiscoveryAnnotationStore
     protected String  assetGUID;
     protected String  discoveryReportGUID;
 
+    private final Object           annotationQueueLock = new Object();
+    private final List<Annotation> queuedAnnotations   = new ArrayList<>();
+    private       int              annotationBatchSize = 1;
+
 
     /**
      * Constructor sets up the key parameters for accessing the annotations store.
@@ -140,6 +149,130 @@ public abstract class DiscoveryAnnotationStore
                                                                                          PropertyServerException;
 
 
+    /**
+     * Add a list of new annotations to the annotation store as top level annotations linked directly off of the report.
+     * This implementation adds them one at a time.  Annotation stores that can save a list of annotations in one
+     * request should override it.
+     *
+     * @param annotations list of annotation objects
+     * @return unique identifiers of the new annotations in the same order as the annotations
+     * @throws InvalidParameterException one of the annotations is invalid
+     * @throws UserNotAuthorizedException the user id not authorized to issue this request
+     * @throws PropertyServerException there was a problem adding the annotations to the annotation store.
+     */
+    public List<String>  addAnnotationsToDiscoveryReport(List<Annotation> annotations) throws InvalidParameterException,
+                                                                                              UserNotAuthorizedException,
+                                                                                              PropertyServerException
+    {
+        List<String> annotationGUIDs = new ArrayList<>();
+
+        if (annotations != null)
+        {
+            for (Annotation annotation : annotations)
+            {
+                annotationGUIDs.add(this.addAnnotationToDiscoveryReport(annotation));
+            }
+        }
+
+        return annotationGUIDs;
+    }
+
+
+    /**
+     * Return the number of queued annotations that are saved together.
+     *
+     * @return batch size
+     */
+    public int getAnnotationBatchSize()
+    {
+        synchronized (annotationQueueLock)
+        {
+            return annotationBatchSize;
+        }
+    }
+
+
+    /**
+     * Set up the number of queued annotations that are saved together.  The default is 1, which saves each
+     * annotation as it is queued.
+     *
+     * @param annotationBatchSize batch size - values less than 1 are treated as 1
+     */
+    public void setAnnotationBatchSize(int annotationBatchSize)
+    {
+        synchronized (annotationQueueLock)
+        {
+            this.annotationBatchSize = Math.max(1, annotationBatchSize);
+        }
+    }
+
+
+    /**
+     * Add a new top level annotation to the queue for this report.  This is used in place of
+     * addAnnotationToDiscoveryReport() when the caller does not need the unique identifier of the annotation.
+     * The queued annotations are saved once there is a full batch, or when flushQueuedAnnotations() is called.
+     *
+     * @param annotation annotation object
+     * @throws InvalidParameterException one of the queued annotations is invalid
+     * @throws UserNotAuthorizedException the user id not authorized to issue this request
+     * @throws PropertyServerException there was a problem adding the queued annotations to the annotation store.
+     */
+    public void  queueAnnotationForDiscoveryReport(Annotation annotation) throws InvalidParameterException,
+                                                                                UserNotAuthorizedException,
+                                                                                PropertyServerException
+    {
+        synchronized (annotationQueueLock)
+        {
+            queuedAnnotations.add(annotation);
+
+            if (queuedAnnotations.size() >= annotationBatchSize)
+            {
+                this.saveQueuedAnnotations();
+            }
+        }
+    }
+
+
+    /**
+     * Save any queued annotations.  This is called when the discovery service has finished.
+     *
+     * @throws InvalidParameterException one of the queued annotations is invalid
+     * @throws UserNotAuthorizedException the user id not authorized to issue this request
+     * @throws PropertyServerException there was a problem adding the queued annotations to the annotation store.
+     */
+    public void  flushQueuedAnnotations() throws InvalidParameterException,
+                                                 UserNotAuthorizedException,
+                                                 PropertyServerException
+    {
+        synchronized (annotationQueueLock)
+        {
+            this.saveQueuedAnnotations();
+        }
+    }
+
+
+    /**
+     * Save the queued annotations as one batch.  The queue is emptied even if the save fails so the same
+     * annotations are not saved twice.  The caller holds the queue lock, so batches are saved one at a time.
+     *
+     * @throws InvalidParameterException one of the queued annotations is invalid
+     * @throws UserNotAuthorizedException the user id not authorized to issue this request
+     * @throws PropertyServerException there was a problem adding the queued annotations to the annotation store.
+     */
+    private void  saveQueuedAnnotations() throws InvalidParameterException,
+                                                 UserNotAuthorizedException,
+                                                 PropertyServerException
+    {
+        if (! queuedAnnotations.isEmpty())
+        {
+            List<Annotation> batch = new ArrayList<>(queuedAnnotations);
+
+            queuedAnnotations.clear();
+            this.addAnnotationsToDiscoveryReport(batch);
+        }
+    }
+
+
     /**
      * Add a new annotation and link it to an existing annotation.
      *
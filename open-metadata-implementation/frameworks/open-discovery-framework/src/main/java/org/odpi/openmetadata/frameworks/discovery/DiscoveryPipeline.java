@@ -89,6 +89,7 @@ public class DiscoveryPipeline extends DiscoveryService implements VirtualConnec
 
     /**
      * This implementation provides an inline sequential invocation of the supplied discovery services.
+     * Any annotations queued by the discovery services are saved before it returns.
      *
      * @throws ConnectorCheckedException there is a problem within the connector.
      */
@@ -113,18 +114,57 @@ public class DiscoveryPipeline extends DiscoveryService implements VirtualConnec
                                                 errorCode.getUserAction());
         }
 
-        for (DiscoveryService discoveryService : embeddedDiscoveryServices)
+        runEmbeddedDiscoveryServices(embeddedDiscoveryServices);
+
+        DiscoveryAnnotationStore annotationStore = super.discoveryContext.getAnnotationStore();
+
+        if (annotationStore != null)
+        {
+            try
+            {
+                annotationStore.flushQueuedAnnotations();
+            }
+            catch (Throwable error)
+            {
+                super.handleUnexpectedException(methodName, error);
+            }
+        }
+    }
+
+
+    /**
+     * Run the embedded discovery services.  This implementation runs them one after another on the calling thread
+     * in the order they were supplied.
+     *
+     * @param discoveryServices list of discovery services
+     * @throws ConnectorCheckedException there is a problem within one of the discovery services.
+     */
+    protected void runEmbeddedDiscoveryServices(List<DiscoveryService> discoveryServices) throws ConnectorCheckedException
+    {
+        for (DiscoveryService discoveryService : discoveryServices)
         {
             if (discoveryService != null)
             {
-                discoveryService.setDiscoveryContext(super.discoveryContext);
-                discoveryService.start();
-                discoveryService.disconnect();
+                runEmbeddedDiscoveryService(discoveryService);
             }
         }
     }
 
 
+    /**
+     * Run a single embedded discovery service against this pipeline's discovery context.
+     *
+     * @param discoveryService discovery service to run
+     * @throws ConnectorCheckedException there is a problem within the discovery service.
+     */
+    protected void runEmbeddedDiscoveryService(DiscoveryService discoveryService) throws ConnectorCheckedException
+    {
+        discoveryService.setDiscoveryContext(super.discoveryContext);
+        discoveryService.start();
+        discoveryService.disconnect();
+    }
+
+
     /**
      * Free up any resources held since the connector is no longer needed.
      *
@@ -0,0 +1,419 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.frameworks.discovery;
+
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.discovery.ffdc.DiscoveryServiceException;
+import org.odpi.openmetadata.frameworks.discovery.ffdc.ODFErrorCode;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ParallelDiscoveryPipeline is a discovery pipeline that runs its embedded discovery services in parallel.
+ * All of the discovery services share the pipeline's discovery context.  A discovery service starts once
+ * all of the discovery services it depends on have finished.  If a discovery service fails, the discovery
+ * services that depend on it are not run and the pipeline fails once the others have finished.
+ * <p>
+ *     The pipeline is configured through the configuration properties of its connection:
+ * </p>
+ * <ul>
+ *     <li>serviceDependencies - map from the name of an embedded discovery service to the name, or list of names,
+ *     of the embedded discovery services that must finish before it starts.  The name of an embedded
+ *     discovery service is the qualified name of its connection (or the display name if there is no qualified
+ *     name).  Discovery services that are not mentioned have no dependencies.</li>
+ *     <li>maxParallelServices - the maximum number of discovery services to run at the same time.  The default
+ *     is to run all of them.</li>
+ *     <li>annotationBatchSize - the number of annotations queued through the annotation store's
+ *     queueAnnotationForDiscoveryReport() method that are saved together.</li>
+ * </ul>
+ * <p>
+ *     The discovery asset store and annotation store in the discovery context must be thread-safe.
+ * </p>
+ */
+public class ParallelDiscoveryPipeline extends DiscoveryPipeline
+{
+    public static final String serviceDependenciesProperty = "serviceDependencies";
+    public static final String maxParallelServicesProperty = "maxParallelServices";
+    public static final String annotationBatchSizeProperty = "annotationBatchSize";
+
+
+    /**
+     * Run the embedded discovery services in parallel, respecting the dependencies between them.
+     *
+     * @param discoveryServices list of discovery services
+     * @throws ConnectorCheckedException the dependencies are not valid or one of the discovery services failed.
+     */
+    @Override
+    protected void runEmbeddedDiscoveryServices(List<DiscoveryService> discoveryServices) throws ConnectorCheckedException
+    {
+        final String methodName = "runEmbeddedDiscoveryServices";
+
+        List<DiscoveryService> services = new ArrayList<>();
+
+        for (DiscoveryService discoveryService : discoveryServices)
+        {
+            if (discoveryService != null)
+            {
+                services.add(discoveryService);
+            }
+        }
+
+        Map<String, Object>                           configurationProperties = getConfigurationProperties();
+        Map<DiscoveryService, List<DiscoveryService>> prerequisites           = getPrerequisites(services,
+                                                                                                 configurationProperties.get(serviceDependenciesProperty));
+        List<DiscoveryService>                        runOrder                = getRunOrder(services, prerequisites);
+
+        Integer annotationBatchSize = getIntegerProperty(configurationProperties, annotationBatchSizeProperty);
+
+        if ((annotationBatchSize != null) && (super.discoveryContext.getAnnotationStore() != null))
+        {
+            super.discoveryContext.getAnnotationStore().setAnnotationBatchSize(annotationBatchSize);
+        }
+
+        Integer maxParallelServices = getIntegerProperty(configurationProperties, maxParallelServicesProperty);
+        int     threadCount         = runOrder.size();
+
+        if ((maxParallelServices != null) && (maxParallelServices > 0) && (maxParallelServices < threadCount))
+        {
+            threadCount = maxParallelServices;
+        }
+
+        if (threadCount == 0)
+        {
+            return;
+        }
+
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount,
+                                                                (runnable) ->
+                                                                {
+                                                                    Thread thread = new Thread(runnable,
+                                                                                               "DiscoveryPipeline:" + discoveryServiceName + ":" + threadNumber.incrementAndGet());
+                                                                    thread.setDaemon(true);
+                                                                    return thread;
+                                                                });
+
+        Map<DiscoveryService, CompletableFuture<Void>> results = new IdentityHashMap<>();
+        Throwable                                      failure = null;
+
+        try
+        {
+            for (DiscoveryService discoveryService : runOrder)
+            {
+                List<CompletableFuture<Void>> prerequisiteResults = new ArrayList<>();
+
+                for (DiscoveryService prerequisite : prerequisites.get(discoveryService))
+                {
+                    prerequisiteResults.add(results.get(prerequisite));
+                }
+
+                CompletableFuture<Void> ready = CompletableFuture.allOf(prerequisiteResults.toArray(new CompletableFuture<?>[0]));
+
+                results.put(discoveryService, ready.thenRunAsync(() ->
+                                                                 {
+                                                                     try
+                                                                     {
+                                                                         runEmbeddedDiscoveryService(discoveryService);
+                                                                     }
+                                                                     catch (ConnectorCheckedException error)
+                                                                     {
+                                                                         throw new CompletionException(error);
+                                                                     }
+                                                                 }, executor));
+            }
+
+            /*
+             * The run order puts each discovery service after the ones it depends on, so the first failure
+             * found is the original error rather than a dependent discovery service that was not run.
+             */
+            for (DiscoveryService discoveryService : runOrder)
+            {
+                try
+                {
+                    results.get(discoveryService).join();
+                }
+                catch (CompletionException error)
+                {
+                    if (failure == null)
+                    {
+                        failure = (error.getCause() == null) ? error : error.getCause();
+                    }
+                }
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        if (failure instanceof ConnectorCheckedException)
+        {
+            throw (ConnectorCheckedException)failure;
+        }
+        else if (failure != null)
+        {
+            super.handleUnexpectedException(methodName, failure);
+        }
+    }
+
+
+    /**
+     * Return the configuration properties from the pipeline's connection.
+     *
+     * @return map of properties - empty if there are none
+     */
+    private Map<String, Object> getConfigurationProperties()
+    {
+        if (connectionProperties != null)
+        {
+            Map<String, Object> configurationProperties = connectionProperties.getConfigurationProperties();
+
+            if (configurationProperties != null)
+            {
+                return configurationProperties;
+            }
+        }
+
+        return new HashMap<>();
+    }
+
+
+    /**
+     * Return a configuration property as an integer.
+     *
+     * @param configurationProperties configuration properties
+     * @param propertyName name of the property
+     * @return value or null if the property is not set or is not a number
+     */
+    private Integer getIntegerProperty(Map<String, Object> configurationProperties,
+                                       String              propertyName)
+    {
+        Object value = configurationProperties.get(propertyName);
+
+        if (value instanceof Number)
+        {
+            return ((Number)value).intValue();
+        }
+        else if (value != null)
+        {
+            try
+            {
+                return Integer.parseInt(value.toString().trim());
+            }
+            catch (NumberFormatException error)
+            {
+                return null;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the name of an embedded discovery service used in the serviceDependencies property.
+     *
+     * @param discoveryService discovery service
+     * @return name or null if the discovery service has no connection
+     */
+    private String getEmbeddedServiceName(DiscoveryService discoveryService)
+    {
+        ConnectionProperties connection = discoveryService.getConnection();
+
+        if (connection == null)
+        {
+            return null;
+        }
+
+        return connection.getConnectionName();
+    }
+
+
+    /**
+     * Build the map from each discovery service to the discovery services it depends on.
+     *
+     * @param discoveryServices embedded discovery services
+     * @param serviceDependencies value of the serviceDependencies configuration property
+     * @return map of prerequisites
+     * @throws DiscoveryServiceException the dependencies name an unknown or ambiguous discovery service
+     */
+    private Map<DiscoveryService, List<DiscoveryService>> getPrerequisites(List<DiscoveryService> discoveryServices,
+                                                                          Object                 serviceDependencies) throws DiscoveryServiceException
+    {
+        final String methodName = "getPrerequisites";
+
+        Map<DiscoveryService, List<DiscoveryService>> prerequisites  = new IdentityHashMap<>();
+        Map<String, DiscoveryService>                 servicesByName = new HashMap<>();
+        List<String>                                  duplicateNames = new ArrayList<>();
+
+        for (DiscoveryService discoveryService : discoveryServices)
+        {
+            prerequisites.put(discoveryService, new ArrayList<>());
+
+            String name = getEmbeddedServiceName(discoveryService);
+
+            if (name != null)
+            {
+                if (servicesByName.put(name, discoveryService) != null)
+                {
+                    duplicateNames.add(name);
+                }
+            }
+        }
+
+        if (! (serviceDependencies instanceof Map))
+        {
+            return prerequisites;
+        }
+
+        for (Map.Entry<?, ?> dependencyEntry : ((Map<?, ?>)serviceDependencies).entrySet())
+        {
+            String       dependentName     = String.valueOf(dependencyEntry.getKey());
+            List<String> prerequisiteNames = new ArrayList<>();
+
+            if (dependencyEntry.getValue() instanceof List)
+            {
+                for (Object prerequisiteName : (List<?>)dependencyEntry.getValue())
+                {
+                    if (prerequisiteName != null)
+                    {
+                        prerequisiteNames.add(prerequisiteName.toString());
+                    }
+                }
+            }
+            else if (dependencyEntry.getValue() != null)
+            {
+                prerequisiteNames.add(dependencyEntry.getValue().toString());
+            }
+
+            for (String prerequisiteName : prerequisiteNames)
+            {
+                for (String name : new String[]{ dependentName, prerequisiteName })
+                {
+                    if (duplicateNames.contains(name))
+                    {
+                        ODFErrorCode errorCode    = ODFErrorCode.DUPLICATE_PIPELINE_SERVICE_NAME;
+                        String       errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(discoveryServiceName,
+                                                                                                                       name);
+
+                        throw new DiscoveryServiceException(errorCode.getHTTPErrorCode(),
+                                                            this.getClass().getName(),
+                                                            methodName,
+                                                            errorMessage,
+                                                            errorCode.getSystemAction(),
+                                                            errorCode.getUserAction());
+                    }
+                }
+
+                DiscoveryService dependentService    = servicesByName.get(dependentName);
+                DiscoveryService prerequisiteService = servicesByName.get(prerequisiteName);
+
+                if ((dependentService == null) || (prerequisiteService == null))
+                {
+                    ODFErrorCode errorCode    = ODFErrorCode.UNKNOWN_PIPELINE_DEPENDENCY;
+                    String       errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(discoveryServiceName,
+                                                                                                                   dependentName,
+                                                                                                                   prerequisiteName,
+                                                                                                                   servicesByName.keySet().toString());
+
+                    throw new DiscoveryServiceException(errorCode.getHTTPErrorCode(),
+                                                        this.getClass().getName(),
+                                                        methodName,
+                                                        errorMessage,
+                                                        errorCode.getSystemAction(),
+                                                        errorCode.getUserAction());
+                }
+
+                prerequisites.get(dependentService).add(prerequisiteService);
+            }
+        }
+
+        return prerequisites;
+    }
+
+
+    /**
+     * Sort the discovery services so each one comes after the discovery services it depends on.  Discovery services
+     * with no ordering between them keep the order they were supplied in.
+     *
+     * @param discoveryServices embedded discovery services
+     * @param prerequisites map of prerequisites
+     * @return discovery services in run order
+     * @throws DiscoveryServiceException the dependencies form a loop
+     */
+    private List<DiscoveryService> getRunOrder(List<DiscoveryService>                        discoveryServices,
+                                               Map<DiscoveryService, List<DiscoveryService>> prerequisites) throws DiscoveryServiceException
+    {
+        final String methodName = "getRunOrder";
+
+        List<DiscoveryService>         runOrder  = new ArrayList<>();
+        Map<DiscoveryService, Boolean> scheduled = new IdentityHashMap<>();
+        boolean                        progress  = true;
+
+        while (progress && (runOrder.size() < discoveryServices.size()))
+        {
+            progress = false;
+
+            for (DiscoveryService discoveryService : discoveryServices)
+            {
+                if (! scheduled.containsKey(discoveryService))
+                {
+                    boolean ready = true;
+
+                    for (DiscoveryService prerequisite : prerequisites.get(discoveryService))
+                    {
+                        if (! scheduled.containsKey(prerequisite))
+                        {
+                            ready = false;
+                            break;
+                        }
+                    }
+
+                    if (ready)
+                    {
+                        runOrder.add(discoveryService);
+                        scheduled.put(discoveryService, Boolean.TRUE);
+                        progress = true;
+                    }
+                }
+            }
+        }
+
+        if (runOrder.size() < discoveryServices.size())
+        {
+            List<String> unscheduledNames = new ArrayList<>();
+
+            for (DiscoveryService discoveryService : discoveryServices)
+            {
+                if (! scheduled.containsKey(discoveryService))
+                {
+                    unscheduledNames.add(getEmbeddedServiceName(discoveryService));
+                }
+            }
+
+            ODFErrorCode errorCode    = ODFErrorCode.PIPELINE_DEPENDENCY_LOOP;
+            String       errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(discoveryServiceName,
+                                                                                                           unscheduledNames.toString());
+
+            throw new DiscoveryServiceException(errorCode.getHTTPErrorCode(),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                errorMessage,
+                                                errorCode.getSystemAction(),
+                                                errorCode.getUserAction());
+        }
+
+        return runOrder;
+    }
+}
@@ -66,6 +66,18 @@ public enum ODFErrorCode
             "Invalid connector for asset {0}.  Error message was {1}.  The connection was {2}",
             "The discovery service is not able to analyze the asset.",
             "This may be a configuration or a code error.  Look for other error messages and review the code of the connector.  Once the cause is resolved, retry the discovery request."),
+    UNKNOWN_PIPELINE_DEPENDENCY(400, "ODF-DISCOVERY-SERVICE-400-008 ",
+            "The discovery pipeline {0} has a dependency between {1} and {2} but only has embedded discovery services called {3}",
+            "The discovery pipeline is not able to determine the order to run its discovery services.",
+            "Correct the serviceDependencies configuration property in the discovery pipeline's connection so it only names its embedded discovery services.  Then retry the discovery request."),
+    DUPLICATE_PIPELINE_SERVICE_NAME(400, "ODF-DISCOVERY-SERVICE-400-009 ",
+            "The discovery pipeline {0} has more than one embedded discovery service called {1}",
+            "The discovery pipeline is not able to determine the order to run its discovery services.",
+            "Give each embedded discovery service connection a unique qualified name.  Then retry the discovery request."),
+    PIPELINE_DEPENDENCY_LOOP(400, "ODF-DISCOVERY-SERVICE-400-010 ",
+            "The dependencies between the embedded discovery services of discovery pipeline {0} form a loop that includes {1}",
+            "The discovery pipeline is not able to determine the order to run its discovery services.",
+            "Correct the serviceDependencies configuration property in the discovery pipeline's connection to remove the loop.  Then retry the discovery request."),
 
     UNEXPECTED_EXCEPTION(500, "ODF-DISCOVERY-SERVICE-500-001 ",
             "Unexpected exception in discovery service {0} of type {1} detected by method {2}.  The error message was {3}",
@@ -0,0 +1,201 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.frameworks.discovery;
+
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
+import org.odpi.openmetadata.frameworks.discovery.properties.Annotation;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that the DiscoveryAnnotationStore saves queued annotations in batches, saves the last partial batch
+ * on flush and never saves an annotation twice.
+ */
+public class DiscoveryAnnotationStoreTest
+{
+    /**
+     * Each annotation is saved as it is queued unless a batch size is set.  Batch sizes below 1 are treated as 1.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testDefaultBatchSize() throws Exception
+    {
+        MockDiscoveryAnnotationStore annotationStore = new MockDiscoveryAnnotationStore();
+
+        assertEquals(annotationStore.getAnnotationBatchSize(), 1);
+
+        annotationStore.queueAnnotationForDiscoveryReport(this.getAnnotation(0));
+        assertEquals(annotationStore.getBatchSizes(), Collections.singletonList(1));
+
+        annotationStore.setAnnotationBatchSize(0);
+        assertEquals(annotationStore.getAnnotationBatchSize(), 1);
+    }
+
+
+    /**
+     * Queued annotations are saved once there is a full batch.  Flush saves the partial batch that is left and
+     * does nothing when the queue is empty.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testQueueAndFlush() throws Exception
+    {
+        MockDiscoveryAnnotationStore annotationStore = new MockDiscoveryAnnotationStore();
+
+        annotationStore.setAnnotationBatchSize(4);
+
+        for (int i = 0; i < 3; i++)
+        {
+            annotationStore.queueAnnotationForDiscoveryReport(this.getAnnotation(i));
+        }
+
+        assertTrue(annotationStore.getBatchSizes().isEmpty());
+
+        for (int i = 3; i < 10; i++)
+        {
+            annotationStore.queueAnnotationForDiscoveryReport(this.getAnnotation(i));
+        }
+
+        assertEquals(annotationStore.getBatchSizes(), Arrays.asList(4, 4));
+
+        annotationStore.flushQueuedAnnotations();
+        annotationStore.flushQueuedAnnotations();
+
+        assertEquals(annotationStore.getBatchSizes(), Arrays.asList(4, 4, 2));
+        assertEquals(annotationStore.getSavedAnnotations().size(), 10);
+        assertEquals(annotationStore.getSavedAnnotations().get(9).getSummary(), "9");
+    }
+
+
+    /**
+     * A batch that fails to save is removed from the queue so it is not saved again with the next batch.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testFailedBatchIsNotSavedAgain() throws Exception
+    {
+        MockDiscoveryAnnotationStore annotationStore = new MockDiscoveryAnnotationStore();
+
+        annotationStore.setAnnotationBatchSize(2);
+        annotationStore.setFailBatches(true);
+        annotationStore.queueAnnotationForDiscoveryReport(this.getAnnotation(0));
+
+        try
+        {
+            annotationStore.queueAnnotationForDiscoveryReport(this.getAnnotation(1));
+            fail("Failed batch not reported");
+        }
+        catch (PropertyServerException error)
+        {
+            /* expected */
+        }
+
+        annotationStore.setFailBatches(false);
+        annotationStore.queueAnnotationForDiscoveryReport(this.getAnnotation(2));
+        annotationStore.flushQueuedAnnotations();
+
+        assertEquals(annotationStore.getBatchSizes(), Collections.singletonList(1));
+        assertEquals(annotationStore.getSavedAnnotations().get(0).getSummary(), "2");
+    }
+
+
+    /**
+     * Annotations queued from several threads are each saved once, in batches no bigger than the batch size.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testConcurrentQueueing() throws Exception
+    {
+        final int threadCount          = 4;
+        final int annotationsPerThread = 250;
+        final int batchSize            = 7;
+
+        MockDiscoveryAnnotationStore annotationStore = new MockDiscoveryAnnotationStore();
+        ExecutorService              executor        = Executors.newFixedThreadPool(threadCount);
+        List<Callable<Void>>         tasks           = new ArrayList<>();
+
+        annotationStore.setAnnotationBatchSize(batchSize);
+
+        for (int thread = 0; thread < threadCount; thread++)
+        {
+            final int firstAnnotation = thread * annotationsPerThread;
+
+            tasks.add(() ->
+                      {
+                          for (int i = firstAnnotation; i < firstAnnotation + annotationsPerThread; i++)
+                          {
+                              annotationStore.queueAnnotationForDiscoveryReport(this.getAnnotation(i));
+                          }
+
+                          return null;
+                      });
+        }
+
+        try
+        {
+            for (Future<Void> result : executor.invokeAll(tasks))
+            {
+                result.get();
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        annotationStore.flushQueuedAnnotations();
+
+        Set<String> summaries = new HashSet<>();
+
+        for (Annotation annotation : annotationStore.getSavedAnnotations())
+        {
+            summaries.add(annotation.getSummary());
+        }
+
+        assertEquals(annotationStore.getSavedAnnotations().size(), threadCount * annotationsPerThread);
+        assertEquals(summaries.size(), threadCount * annotationsPerThread);
+
+        List<Integer> batchSizes = annotationStore.getBatchSizes();
+
+        for (int i = 0; i < batchSizes.size() - 1; i++)
+        {
+            assertEquals(batchSizes.get(i).intValue(), batchSize);
+        }
+
+        assertEquals(batchSizes.get(batchSizes.size() - 1).intValue(), (threadCount * annotationsPerThread) % batchSize);
+    }
+
+
+    /**
+     * Return an annotation whose summary is its number.
+     *
+     * @param number number of the annotation
+     * @return annotation
+     */
+    private Annotation getAnnotation(int   number)
+    {
+        Annotation annotation = new Annotation();
+
+        annotation.setSummary(Integer.toString(number));
+
+        return annotation;
+    }
+}
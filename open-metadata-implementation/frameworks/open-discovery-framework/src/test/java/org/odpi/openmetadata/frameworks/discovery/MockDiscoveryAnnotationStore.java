@@ -0,0 +1,243 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.frameworks.discovery;
+
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
+import org.odpi.openmetadata.frameworks.discovery.properties.Annotation;
+import org.odpi.openmetadata.frameworks.discovery.properties.AnnotationStatus;
+import org.odpi.openmetadata.frameworks.discovery.properties.DataField;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MockDiscoveryAnnotationStore keeps the annotations added to the discovery report in memory and records the
+ * size of each batch.  The other methods do nothing.
+ */
+public class MockDiscoveryAnnotationStore extends DiscoveryAnnotationStore
+{
+    private final List<Annotation> savedAnnotations = new ArrayList<>();
+    private final List<Integer>    batchSizes       = new ArrayList<>();
+    private       boolean          failBatches      = false;
+
+
+    /**
+     * Constructor
+     */
+    public MockDiscoveryAnnotationStore()
+    {
+        super("testUser", "testAssetGUID", "testReportGUID");
+    }
+
+
+    /**
+     * Set up whether saving a batch fails.
+     *
+     * @param failBatches true to fail
+     */
+    public synchronized void setFailBatches(boolean failBatches)
+    {
+        this.failBatches = failBatches;
+    }
+
+
+    /**
+     * Return the annotations saved so far.
+     *
+     * @return list of annotations
+     */
+    public synchronized List<Annotation> getSavedAnnotations()
+    {
+        return new ArrayList<>(savedAnnotations);
+    }
+
+
+    /**
+     * Return the size of each batch saved so far.
+     *
+     * @return list of batch sizes
+     */
+    public synchronized List<Integer> getBatchSizes()
+    {
+        return new ArrayList<>(batchSizes);
+    }
+
+
+    /**
+     * Record the batch and save the annotations.
+     *
+     * @param annotations list of annotation objects
+     * @return unique identifiers of the new annotations
+     * @throws PropertyServerException the store is set up to fail
+     */
+    @Override
+    public synchronized List<String> addAnnotationsToDiscoveryReport(List<Annotation> annotations) throws PropertyServerException
+    {
+        if (failBatches)
+        {
+            throw new PropertyServerException(500,
+                                              this.getClass().getName(),
+                                              "addAnnotationsToDiscoveryReport",
+                                              "Test failure",
+                                              "No action",
+                                              "No action");
+        }
+
+        batchSizes.add(annotations.size());
+
+        List<String> annotationGUIDs = new ArrayList<>();
+
+        for (Annotation annotation : annotations)
+        {
+            annotationGUIDs.add(this.addAnnotationToDiscoveryReport(annotation));
+        }
+
+        return annotationGUIDs;
+    }
+
+
+    /**
+     * Save the annotation.
+     *
+     * @param annotation annotation object
+     * @return unique identifier of the annotation
+     */
+    @Override
+    public synchronized String addAnnotationToDiscoveryReport(Annotation annotation)
+    {
+        savedAnnotations.add(annotation);
+
+        return "annotation-" + savedAnnotations.size();
+    }
+
+
+    /* The remaining methods are not used by the tests. */
+
+    @Override
+    public List<Annotation> getPreviousAnnotationsForAsset(int startingFrom, int maximumResults)
+    {
+        return null;
+    }
+
+
+    @Override
+    public List<Annotation> getPreviousAnnotationsForAsset(AnnotationStatus status, int startingFrom, int maximumResults)
+    {
+        return null;
+    }
+
+
+    @Override
+    public List<Annotation> getNewAnnotationsForAsset(int startingFrom, int maximumResults)
+    {
+        return null;
+    }
+
+
+    @Override
+    public List<Annotation> getExtendedAnnotations(String annotationGUID, int startingFrom, int maximumResults)
+    {
+        return null;
+    }
+
+
+    @Override
+    public Annotation getAnnotation(String annotationGUID)
+    {
+        return null;
+    }
+
+
+    @Override
+    public String addAnnotationToAnnotation(String anchorAnnotationGUID, Annotation annotation)
+    {
+        return null;
+    }
+
+
+    @Override
+    public void linkAnnotation(String anchorGUID, String annotationGUID)
+    {
+    }
+
+
+    @Override
+    public void unlinkAnnotation(String anchorGUID, String annotationGUID)
+    {
+    }
+
+
+    @Override
+    public Annotation updateAnnotation(Annotation annotation)
+    {
+        return annotation;
+    }
+
+
+    @Override
+    public void deleteAnnotation(String annotationGUID)
+    {
+    }
+
+
+    @Override
+    public List<DataField> getPreviousDataFieldsForAsset(int startingFrom, int maximumResults)
+    {
+        return null;
+    }
+
+
+    @Override
+    public List<Annotation> getNewDataFieldsForAsset(int startingFrom, int maximumResults)
+    {
+        return null;
+    }
+
+
+    @Override
+    public List<DataField> getNestedDataFields(String anchorDataFieldGUID, int startingFrom, int maximumResults)
+    {
+        return null;
+    }
+
+
+    @Override
+    public DataField getDataField(String dataFieldGUID)
+    {
+        return null;
+    }
+
+
+    @Override
+    public String addDataFieldToDiscoveryReport(String annotationGUID, DataField dataField)
+    {
+        return null;
+    }
+
+
+    @Override
+    public String addDataFieldToDataField(String anchorDataFieldGUID, DataField dataField)
+    {
+        return null;
+    }
+
+
+    @Override
+    public String addAnnotationToDataField(String anchorDataFieldGUID, Annotation annotation)
+    {
+        return null;
+    }
+
+
+    @Override
+    public DataField updateDataField(DataField dataField)
+    {
+        return dataField;
+    }
+
+
+    @Override
+    public void deleteDataField(String dataFieldGUID)
+    {
+    }
+}
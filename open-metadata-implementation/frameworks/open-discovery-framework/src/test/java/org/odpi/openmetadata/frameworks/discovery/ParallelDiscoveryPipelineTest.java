@@ -0,0 +1,463 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.frameworks.discovery;
+
+import org.odpi.openmetadata.frameworks.connectors.Connector;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.ConnectionProperties;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.discovery.ffdc.DiscoveryServiceException;
+import org.odpi.openmetadata.frameworks.discovery.properties.Annotation;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that the ParallelDiscoveryPipeline runs its embedded discovery services in parallel in the order set
+ * by their dependencies, rejects dependency loops, skips the discovery services that depend on a failed one,
+ * honours maxParallelServices and saves queued annotations in batches.
+ */
+public class ParallelDiscoveryPipelineTest
+{
+    private List<String>                  events;
+    private AtomicInteger                 inFlight;
+    private AtomicInteger                 peakInFlight;
+    private MockDiscoveryAnnotationStore  annotationStore;
+
+
+    /**
+     * Reset the shared state of the discovery services.
+     */
+    @BeforeMethod
+    public void resetState()
+    {
+        events          = Collections.synchronizedList(new ArrayList<>());
+        inFlight        = new AtomicInteger(0);
+        peakInFlight    = new AtomicInteger(0);
+        annotationStore = new MockDiscoveryAnnotationStore();
+    }
+
+
+    /**
+     * Each discovery service starts after the discovery services it depends on have finished.  Dependencies
+     * may name one discovery service or a list of them.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testDependencyGraph() throws Exception
+    {
+        Map<String, Object> dependencies = new HashMap<>();
+
+        dependencies.put("C", Arrays.asList("A", "B"));
+        dependencies.put("D", "C");
+
+        this.runPipeline(this.getConfiguration(dependencies, null, null),
+                         new TestDiscoveryService("D"),
+                         new TestDiscoveryService("C"),
+                         new TestDiscoveryService("B"),
+                         new TestDiscoveryService("A"));
+
+        assertEquals(events.size(), 8);
+        assertTrue(events.indexOf("start:C") > events.indexOf("end:A"));
+        assertTrue(events.indexOf("start:C") > events.indexOf("end:B"));
+        assertTrue(events.indexOf("start:D") > events.indexOf("end:C"));
+    }
+
+
+    /**
+     * Discovery services with no dependencies between them run at the same time.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testIndependentServicesRunInParallel() throws Exception
+    {
+        CountDownLatch allStarted = new CountDownLatch(3);
+
+        this.runPipeline(this.getConfiguration(null, null, null),
+                         new TestDiscoveryService("A", allStarted),
+                         new TestDiscoveryService("B", allStarted),
+                         new TestDiscoveryService("C", allStarted));
+
+        assertEquals(peakInFlight.get(), 3);
+    }
+
+
+    /**
+     * Dependencies that form a loop are rejected before any discovery service runs.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testCycleDetection() throws Exception
+    {
+        Map<String, Object> dependencies = new HashMap<>();
+
+        dependencies.put("A", "C");
+        dependencies.put("B", "A");
+        dependencies.put("C", "B");
+
+        try
+        {
+            this.runPipeline(this.getConfiguration(dependencies, null, null),
+                             new TestDiscoveryService("A"),
+                             new TestDiscoveryService("B"),
+                             new TestDiscoveryService("C"),
+                             new TestDiscoveryService("D"));
+            fail("Dependency loop accepted");
+        }
+        catch (DiscoveryServiceException error)
+        {
+            assertTrue(error.getErrorMessage().contains("ODF-DISCOVERY-SERVICE-400-010"));
+        }
+
+        assertTrue(events.isEmpty());
+    }
+
+
+    /**
+     * Dependencies that name a discovery service that is not in the pipeline are rejected.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testUnknownDependency() throws Exception
+    {
+        try
+        {
+            this.runPipeline(this.getConfiguration(Collections.singletonMap("A", "Z"), null, null),
+                             new TestDiscoveryService("A"));
+            fail("Unknown dependency accepted");
+        }
+        catch (DiscoveryServiceException error)
+        {
+            assertTrue(error.getErrorMessage().contains("ODF-DISCOVERY-SERVICE-400-008"));
+        }
+
+        assertTrue(events.isEmpty());
+    }
+
+
+    /**
+     * When a discovery service fails, the discovery services that depend on it, directly or indirectly, do not
+     * run.  The others do, and the pipeline then fails with the original error.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testDependentsOfFailedServiceAreSkipped() throws Exception
+    {
+        Map<String, Object>  dependencies = new HashMap<>();
+        TestDiscoveryService failing      = new TestDiscoveryService("A");
+
+        dependencies.put("B", "A");
+        dependencies.put("C", "B");
+
+        failing.setFails();
+
+        try
+        {
+            this.runPipeline(this.getConfiguration(dependencies, null, null),
+                             failing,
+                             new TestDiscoveryService("B"),
+                             new TestDiscoveryService("C"),
+                             new TestDiscoveryService("D"));
+            fail("Pipeline succeeded when a discovery service failed");
+        }
+        catch (DiscoveryServiceException error)
+        {
+            assertSame(error, failing.getFailure());
+        }
+
+        assertTrue(events.contains("start:A"));
+        assertFalse(events.contains("start:B"));
+        assertFalse(events.contains("start:C"));
+        assertTrue(events.contains("end:D"));
+    }
+
+
+    /**
+     * No more than maxParallelServices discovery services run at the same time.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testMaxParallelServices() throws Exception
+    {
+        CountDownLatch twoStarted = new CountDownLatch(2);
+
+        this.runPipeline(this.getConfiguration(null, "2", null),
+                         new TestDiscoveryService("A", twoStarted),
+                         new TestDiscoveryService("B", twoStarted),
+                         new TestDiscoveryService("C", twoStarted),
+                         new TestDiscoveryService("D", twoStarted),
+                         new TestDiscoveryService("E", twoStarted));
+
+        assertEquals(peakInFlight.get(), 2);
+        assertEquals(events.size(), 10);
+    }
+
+
+    /**
+     * Annotations queued by the discovery services are saved in batches of annotationBatchSize.  The pipeline
+     * saves the last partial batch when the discovery services have finished.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testAnnotationsAreSavedInBatches() throws Exception
+    {
+        TestDiscoveryService serviceA = new TestDiscoveryService("A");
+        TestDiscoveryService serviceB = new TestDiscoveryService("B");
+
+        serviceA.setAnnotationCount(4);
+        serviceB.setAnnotationCount(4);
+
+        this.runPipeline(this.getConfiguration(null, null, 3), serviceA, serviceB);
+
+        assertEquals(annotationStore.getAnnotationBatchSize(), 3);
+        assertEquals(annotationStore.getBatchSizes(), Arrays.asList(3, 3, 2));
+        assertEquals(annotationStore.getSavedAnnotations().size(), 8);
+    }
+
+
+    /**
+     * Build the configuration properties for the pipeline.
+     *
+     * @param dependencies value for serviceDependencies - or null
+     * @param maxParallelServices value for maxParallelServices - or null
+     * @param annotationBatchSize value for annotationBatchSize - or null
+     * @return configuration properties
+     */
+    private Map<String, Object> getConfiguration(Map<String, Object>  dependencies,
+                                                 Object               maxParallelServices,
+                                                 Object               annotationBatchSize)
+    {
+        Map<String, Object> configurationProperties = new HashMap<>();
+
+        if (dependencies != null)
+        {
+            configurationProperties.put(ParallelDiscoveryPipeline.serviceDependenciesProperty, dependencies);
+        }
+
+        if (maxParallelServices != null)
+        {
+            configurationProperties.put(ParallelDiscoveryPipeline.maxParallelServicesProperty, maxParallelServices);
+        }
+
+        if (annotationBatchSize != null)
+        {
+            configurationProperties.put(ParallelDiscoveryPipeline.annotationBatchSizeProperty, annotationBatchSize);
+        }
+
+        return configurationProperties;
+    }
+
+
+    /**
+     * Create a pipeline with the configuration properties and discovery services and run it.
+     *
+     * @param configurationProperties configuration properties for the pipeline's connection
+     * @param discoveryServices embedded discovery services
+     * @throws ConnectorCheckedException the pipeline failed
+     */
+    private void runPipeline(Map<String, Object>     configurationProperties,
+                             TestDiscoveryService... discoveryServices) throws ConnectorCheckedException
+    {
+        ParallelDiscoveryPipeline pipeline   = new ParallelDiscoveryPipeline();
+        Connection                connection = new Connection();
+
+        connection.setQualifiedName("TestPipeline");
+        connection.setConfigurationProperties(configurationProperties);
+
+        pipeline.initialize("TestPipelineInstance", new ConnectionProperties(connection));
+        pipeline.initializeEmbeddedConnectors(new ArrayList<Connector>(Arrays.asList(discoveryServices)));
+        pipeline.setDiscoveryServiceName("TestPipeline");
+        pipeline.setDiscoveryContext(new DiscoveryContext("testUser",
+                                                          "testAssetGUID",
+                                                          "testReportGUID",
+                                                          null,
+                                                          null,
+                                                          null,
+                                                          annotationStore));
+        pipeline.start();
+    }
+
+
+    /**
+     * TestDiscoveryService records when it starts and ends and how many discovery services are running.
+     * It can wait for other discovery services to start, queue annotations or fail.
+     */
+    private class TestDiscoveryService extends DiscoveryService
+    {
+        private final String                    name;
+        private final CountDownLatch            startLatch;
+        private       int                       annotationCount = 0;
+        private       boolean                   fails           = false;
+        private       DiscoveryServiceException failure         = null;
+
+
+        /**
+         * Discovery service that runs straight through.
+         *
+         * @param name qualified name of the discovery service's connection
+         */
+        TestDiscoveryService(String name)
+        {
+            this(name, null);
+        }
+
+
+        /**
+         * Discovery service that counts down the latch when it starts and then waits for the latch to reach zero.
+         *
+         * @param name qualified name of the discovery service's connection
+         * @param startLatch latch shared with other discovery services - or null
+         */
+        TestDiscoveryService(String         name,
+                             CountDownLatch startLatch)
+        {
+            Connection connection = new Connection();
+
+            connection.setQualifiedName(name);
+            super.initialize(name + "Instance", new ConnectionProperties(connection));
+
+            this.name = name;
+            this.startLatch = startLatch;
+        }
+
+
+        /**
+         * Set up the number of annotations to queue.
+         *
+         * @param annotationCount number of annotations
+         */
+        void setAnnotationCount(int annotationCount)
+        {
+            this.annotationCount = annotationCount;
+        }
+
+
+        /**
+         * Set up the discovery service to fail.
+         */
+        void setFails()
+        {
+            this.fails = true;
+        }
+
+
+        /**
+         * Return the exception thrown when the discovery service failed.
+         *
+         * @return exception
+         */
+        DiscoveryServiceException getFailure()
+        {
+            return failure;
+        }
+
+
+        /**
+         * Record the start, do the configured work and record the end.
+         *
+         * @throws ConnectorCheckedException the discovery service is set up to fail or the latch timed out
+         */
+        @Override
+        public void start() throws ConnectorCheckedException
+        {
+            super.start();
+
+            events.add("start:" + name);
+
+            int    running = inFlight.incrementAndGet();
+            String problem = null;
+
+            peakInFlight.accumulateAndGet(running, Math::max);
+
+            try
+            {
+                if ((startLatch != null) && (! this.awaitOtherServices()))
+                {
+                    problem = "Other discovery services did not start";
+                }
+
+                for (int i = 0; i < annotationCount; i++)
+                {
+                    Annotation annotation = new Annotation();
+
+                    annotation.setSummary(name + ":" + i);
+                    discoveryContext.getAnnotationStore().queueAnnotationForDiscoveryReport(annotation);
+                }
+            }
+            catch (Exception error)
+            {
+                problem = error.getMessage();
+            }
+            finally
+            {
+                inFlight.decrementAndGet();
+            }
+
+            if ((problem == null) && (fails))
+            {
+                problem = "Test failure";
+            }
+
+            if (problem != null)
+            {
+                this.fail(problem);
+            }
+
+            events.add("end:" + name);
+        }
+
+
+        /**
+         * Count down the start latch and wait for it to reach zero.
+         *
+         * @return false if the other discovery services did not start
+         * @throws InterruptedException the test was interrupted
+         */
+        private boolean awaitOtherServices() throws InterruptedException
+        {
+            startLatch.countDown();
+
+            return startLatch.await(10, TimeUnit.SECONDS);
+        }
+
+
+        /**
+         * Throw an exception from the discovery service.
+         *
+         * @param message message for the exception
+         * @throws DiscoveryServiceException always
+         */
+        private void fail(String message) throws DiscoveryServiceException
+        {
+            failure = new DiscoveryServiceException(500,
+                                                    this.getClass().getName(),
+                                                    "start",
+                                                    message,
+                                                    "No action",
+                                                    "No action");
+            throw failure;
+        }
+    }
+}
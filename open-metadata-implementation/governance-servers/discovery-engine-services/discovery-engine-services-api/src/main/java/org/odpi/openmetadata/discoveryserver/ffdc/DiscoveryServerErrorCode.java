@@ -26,6 +26,7 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
  *         <li>400 - invalid parameters</li>
  *         <li>404 - not found</li>
  *         <li>409 - data conflict errors - eg item already defined</li>
+ *         <li>503 - server busy - eg too many requests waiting</li>
  *     </ul></li>
  *     <li>Error Message Id - to uniquely identify the message</li>
  *     <li>Error Message Text - includes placeholder to allow additional values to be captured</li>
@@ -71,7 +72,22 @@ public enum DiscoveryServerErrorCode
     NO_DISCOVERY_ENGINES_STARTED(400,"OMAS-DISCOVERY-SERVER-400-007",
                          "Discovery server {0} is unable to start any discovery engines",
                          "The server is not able to run any discovery requests.  It fails to start.",
-                         "Add the configuration for at least one discovery engine to this discovery server.");
+                         "Add the configuration for at least one discovery engine to this discovery server."),
+
+    UNKNOWN_DISCOVERY_REQUEST(404, "OMAS-DISCOVERY-SERVER-404-008",
+                         "Discovery request {0} is not waiting or running in discovery engine {1} of discovery server {2}",
+                         "The discovery request can not be cancelled because the discovery engine is not processing it.  It may have already finished.",
+                         "Check the status of the discovery request in its discovery analysis report."),
+
+    DISCOVERY_QUEUE_FULL(503, "OMAS-DISCOVERY-SERVER-503-009",
+                         "Discovery engine {0} in discovery server {1} is not able to accept a discovery request for asset {2} of type {3} because {4} discovery requests are already waiting to run",
+                         "The discovery request is rejected.  No discovery analysis report is created.",
+                         "Retry the discovery request later.  If this happens often, increase the number of workers or the queue size for the discovery engines in the discovery server's configuration document."),
+
+    DISCOVERY_ENGINE_SHUTTING_DOWN(503, "OMAS-DISCOVERY-SERVER-503-010",
+                         "Discovery engine {0} in discovery server {1} is shutting down and is not able to run a discovery request for asset {2} of type {3}",
+                         "The discovery request is rejected and its discovery analysis report is marked as failed.",
+                         "Retry the discovery request once the discovery server has restarted.");
 
 
     private int    httpErrorCode;
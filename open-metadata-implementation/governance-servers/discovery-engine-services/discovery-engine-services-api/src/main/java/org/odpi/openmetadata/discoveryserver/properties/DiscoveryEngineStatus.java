@@ -0,0 +1,486 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.discoveryserver.properties;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+/**
+ * DiscoveryEngineStatus describes the work of a discovery engine running in a discovery server.  It shows how
+ * many discovery requests are waiting and running, how many have finished and how long they waited and ran.
+ */
+@JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class DiscoveryEngineStatus implements java.io.Serializable
+{
+    private static final long    serialVersionUID = 1L;
+
+    private String discoveryEngineGUID = null;
+    private String discoveryEngineName = null;
+    private int    workerCount         = 0;
+    private int    queueCapacity       = 0;
+    private int    queuedRequests      = 0;
+    private int    activeRequests      = 0;
+    private long   completedRequests   = 0;
+    private long   failedRequests      = 0;
+    private long   cancelledRequests   = 0;
+    private long   rejectedRequests    = 0;
+    private long   duplicateRequests   = 0;
+    private long   averageQueueTime    = 0;
+    private long   maximumQueueTime    = 0;
+    private long   averageRunTime      = 0;
+    private long   maximumRunTime      = 0;
+
+
+    /**
+     * Default constructor
+     */
+    public DiscoveryEngineStatus()
+    {
+    }
+
+
+    /**
+     * Copy/clone constructor
+     *
+     * @param template object to copy
+     */
+    public DiscoveryEngineStatus(DiscoveryEngineStatus template)
+    {
+        if (template != null)
+        {
+            discoveryEngineGUID = template.getDiscoveryEngineGUID();
+            discoveryEngineName = template.getDiscoveryEngineName();
+            workerCount = template.getWorkerCount();
+            queueCapacity = template.getQueueCapacity();
+            queuedRequests = template.getQueuedRequests();
+            activeRequests = template.getActiveRequests();
+            completedRequests = template.getCompletedRequests();
+            failedRequests = template.getFailedRequests();
+            cancelledRequests = template.getCancelledRequests();
+            rejectedRequests = template.getRejectedRequests();
+            duplicateRequests = template.getDuplicateRequests();
+            averageQueueTime = template.getAverageQueueTime();
+            maximumQueueTime = template.getMaximumQueueTime();
+            averageRunTime = template.getAverageRunTime();
+            maximumRunTime = template.getMaximumRunTime();
+        }
+    }
+
+
+    /**
+     * Return the unique identifier of the discovery engine.
+     *
+     * @return unique identifier (guid)
+     */
+    public String getDiscoveryEngineGUID()
+    {
+        return discoveryEngineGUID;
+    }
+
+
+    /**
+     * Set up the unique identifier of the discovery engine.
+     *
+     * @param discoveryEngineGUID unique identifier (guid)
+     */
+    public void setDiscoveryEngineGUID(String discoveryEngineGUID)
+    {
+        this.discoveryEngineGUID = discoveryEngineGUID;
+    }
+
+
+    /**
+     * Return the qualified name of the discovery engine.
+     *
+     * @return name
+     */
+    public String getDiscoveryEngineName()
+    {
+        return discoveryEngineName;
+    }
+
+
+    /**
+     * Set up the qualified name of the discovery engine.
+     *
+     * @param discoveryEngineName name
+     */
+    public void setDiscoveryEngineName(String discoveryEngineName)
+    {
+        this.discoveryEngineName = discoveryEngineName;
+    }
+
+
+    /**
+     * Return the number of discovery requests that the discovery engine can run at the same time.
+     *
+     * @return number of worker threads
+     */
+    public int getWorkerCount()
+    {
+        return workerCount;
+    }
+
+
+    /**
+     * Set up the number of discovery requests that the discovery engine can run at the same time.
+     *
+     * @param workerCount number of worker threads
+     */
+    public void setWorkerCount(int workerCount)
+    {
+        this.workerCount = workerCount;
+    }
+
+
+    /**
+     * Return the maximum number of discovery requests that can wait for a worker.
+     *
+     * @return queue size
+     */
+    public int getQueueCapacity()
+    {
+        return queueCapacity;
+    }
+
+
+    /**
+     * Set up the maximum number of discovery requests that can wait for a worker.
+     *
+     * @param queueCapacity queue size
+     */
+    public void setQueueCapacity(int queueCapacity)
+    {
+        this.queueCapacity = queueCapacity;
+    }
+
+
+    /**
+     * Return the number of discovery requests that are waiting for a worker.
+     *
+     * @return queue depth
+     */
+    public int getQueuedRequests()
+    {
+        return queuedRequests;
+    }
+
+
+    /**
+     * Set up the number of discovery requests that are waiting for a worker.
+     *
+     * @param queuedRequests queue depth
+     */
+    public void setQueuedRequests(int queuedRequests)
+    {
+        this.queuedRequests = queuedRequests;
+    }
+
+
+    /**
+     * Return the number of discovery requests that are running.
+     *
+     * @return count
+     */
+    public int getActiveRequests()
+    {
+        return activeRequests;
+    }
+
+
+    /**
+     * Set up the number of discovery requests that are running.
+     *
+     * @param activeRequests count
+     */
+    public void setActiveRequests(int activeRequests)
+    {
+        this.activeRequests = activeRequests;
+    }
+
+
+    /**
+     * Return the number of discovery requests that have completed since the discovery engine started.
+     *
+     * @return count
+     */
+    public long getCompletedRequests()
+    {
+        return completedRequests;
+    }
+
+
+    /**
+     * Set up the number of discovery requests that have completed since the discovery engine started.
+     *
+     * @param completedRequests count
+     */
+    public void setCompletedRequests(long completedRequests)
+    {
+        this.completedRequests = completedRequests;
+    }
+
+
+    /**
+     * Return the number of discovery requests that have failed since the discovery engine started.
+     *
+     * @return count
+     */
+    public long getFailedRequests()
+    {
+        return failedRequests;
+    }
+
+
+    /**
+     * Set up the number of discovery requests that have failed since the discovery engine started.
+     *
+     * @param failedRequests count
+     */
+    public void setFailedRequests(long failedRequests)
+    {
+        this.failedRequests = failedRequests;
+    }
+
+
+    /**
+     * Return the number of discovery requests that have been cancelled since the discovery engine started.
+     *
+     * @return count
+     */
+    public long getCancelledRequests()
+    {
+        return cancelledRequests;
+    }
+
+
+    /**
+     * Set up the number of discovery requests that have been cancelled since the discovery engine started.
+     *
+     * @param cancelledRequests count
+     */
+    public void setCancelledRequests(long cancelledRequests)
+    {
+        this.cancelledRequests = cancelledRequests;
+    }
+
+
+    /**
+     * Return the number of discovery requests that have been rejected because the queue was full.
+     *
+     * @return count
+     */
+    public long getRejectedRequests()
+    {
+        return rejectedRequests;
+    }
+
+
+    /**
+     * Set up the number of discovery requests that have been rejected because the queue was full.
+     *
+     * @param rejectedRequests count
+     */
+    public void setRejectedRequests(long rejectedRequests)
+    {
+        this.rejectedRequests = rejectedRequests;
+    }
+
+
+    /**
+     * Return the number of discovery requests that were answered with a request already waiting or running for the same asset.
+     *
+     * @return count
+     */
+    public long getDuplicateRequests()
+    {
+        return duplicateRequests;
+    }
+
+
+    /**
+     * Set up the number of discovery requests that were answered with a request already waiting or running for the same asset.
+     *
+     * @param duplicateRequests count
+     */
+    public void setDuplicateRequests(long duplicateRequests)
+    {
+        this.duplicateRequests = duplicateRequests;
+    }
+
+
+    /**
+     * Return the average time in milliseconds that discovery requests have waited for a worker.
+     *
+     * @return milliseconds
+     */
+    public long getAverageQueueTime()
+    {
+        return averageQueueTime;
+    }
+
+
+    /**
+     * Set up the average time in milliseconds that discovery requests have waited for a worker.
+     *
+     * @param averageQueueTime milliseconds
+     */
+    public void setAverageQueueTime(long averageQueueTime)
+    {
+        this.averageQueueTime = averageQueueTime;
+    }
+
+
+    /**
+     * Return the longest time in milliseconds that a discovery request has waited for a worker.
+     *
+     * @return milliseconds
+     */
+    public long getMaximumQueueTime()
+    {
+        return maximumQueueTime;
+    }
+
+
+    /**
+     * Set up the longest time in milliseconds that a discovery request has waited for a worker.
+     *
+     * @param maximumQueueTime milliseconds
+     */
+    public void setMaximumQueueTime(long maximumQueueTime)
+    {
+        this.maximumQueueTime = maximumQueueTime;
+    }
+
+
+    /**
+     * Return the average time in milliseconds that discovery requests have taken to run.
+     *
+     * @return milliseconds
+     */
+    public long getAverageRunTime()
+    {
+        return averageRunTime;
+    }
+
+
+    /**
+     * Set up the average time in milliseconds that discovery requests have taken to run.
+     *
+     * @param averageRunTime milliseconds
+     */
+    public void setAverageRunTime(long averageRunTime)
+    {
+        this.averageRunTime = averageRunTime;
+    }
+
+
+    /**
+     * Return the longest time in milliseconds that a discovery request has taken to run.
+     *
+     * @return milliseconds
+     */
+    public long getMaximumRunTime()
+    {
+        return maximumRunTime;
+    }
+
+
+    /**
+     * Set up the longest time in milliseconds that a discovery request has taken to run.
+     *
+     * @param maximumRunTime milliseconds
+     */
+    public void setMaximumRunTime(long maximumRunTime)
+    {
+        this.maximumRunTime = maximumRunTime;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return JSON style description of variables.
+     */
+    @Override
+    public String toString()
+    {
+        return "DiscoveryEngineStatus{" +
+                "discoveryEngineGUID='" + discoveryEngineGUID + '\'' +
+                ", discoveryEngineName='" + discoveryEngineName + '\'' +
+                ", workerCount=" + workerCount +
+                ", queueCapacity=" + queueCapacity +
+                ", queuedRequests=" + queuedRequests +
+                ", activeRequests=" + activeRequests +
+                ", completedRequests=" + completedRequests +
+                ", failedRequests=" + failedRequests +
+                ", cancelledRequests=" + cancelledRequests +
+                ", rejectedRequests=" + rejectedRequests +
+                ", duplicateRequests=" + duplicateRequests +
+                ", averageQueueTime=" + averageQueueTime +
+                ", maximumQueueTime=" + maximumQueueTime +
+                ", averageRunTime=" + averageRunTime +
+                ", maximumRunTime=" + maximumRunTime +
+                '}';
+    }
+
+
+    /**
+     * Validate that an object is equal depending on their stored values.
+     *
+     * @param objectToCompare object
+     * @return boolean result
+     */
+    @Override
+    public boolean equals(Object objectToCompare)
+    {
+        if (this == objectToCompare)
+        {
+            return true;
+        }
+        if (objectToCompare == null || getClass() != objectToCompare.getClass())
+        {
+            return false;
+        }
+        DiscoveryEngineStatus that = (DiscoveryEngineStatus) objectToCompare;
+        return Objects.equals(getDiscoveryEngineGUID(), that.getDiscoveryEngineGUID()) &&
+                Objects.equals(getDiscoveryEngineName(), that.getDiscoveryEngineName()) &&
+                getWorkerCount() == that.getWorkerCount() &&
+                getQueueCapacity() == that.getQueueCapacity() &&
+                getQueuedRequests() == that.getQueuedRequests() &&
+                getActiveRequests() == that.getActiveRequests() &&
+                getCompletedRequests() == that.getCompletedRequests() &&
+                getFailedRequests() == that.getFailedRequests() &&
+                getCancelledRequests() == that.getCancelledRequests() &&
+                getRejectedRequests() == that.getRejectedRequests() &&
+                getDuplicateRequests() == that.getDuplicateRequests() &&
+                getAverageQueueTime() == that.getAverageQueueTime() &&
+                getMaximumQueueTime() == that.getMaximumQueueTime() &&
+                getAverageRunTime() == that.getAverageRunTime() &&
+                getMaximumRunTime() == that.getMaximumRunTime();
+    }
+
+
+    /**
+     * Return a hash code based on the values of this object.
+     *
+     * @return int hash code
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(getDiscoveryEngineGUID(), getDiscoveryEngineName(), getWorkerCount(),
+                            getQueueCapacity(), getQueuedRequests(), getActiveRequests(),
+                            getCompletedRequests(), getFailedRequests(), getCancelledRequests(),
+                            getRejectedRequests(), getDuplicateRequests(), getAverageQueueTime(),
+                            getMaximumQueueTime(), getAverageRunTime(), getMaximumRunTime());
+    }
+}
@@ -0,0 +1,134 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.discoveryserver.rest;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.odpi.openmetadata.commonservices.ffdc.rest.FFDCResponseBase;
+import org.odpi.openmetadata.discoveryserver.properties.DiscoveryEngineStatus;
+
+import java.util.Objects;
+
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.NONE;
+import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_ONLY;
+
+
+/**
+ * DiscoveryEngineStatusResponse is the response structure used on the discovery server REST API calls that
+ * return the status of a discovery engine.
+ */
+@JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown=true)
+public class DiscoveryEngineStatusResponse extends FFDCResponseBase
+{
+    private static final long    serialVersionUID = 1L;
+
+    private DiscoveryEngineStatus discoveryEngineStatus = null;
+
+
+    /**
+     * Default constructor
+     */
+    public DiscoveryEngineStatusResponse()
+    {
+        super();
+    }
+
+
+    /**
+     * Copy/clone constructor
+     *
+     * @param template object to copy
+     */
+    public DiscoveryEngineStatusResponse(DiscoveryEngineStatusResponse template)
+    {
+        super(template);
+
+        if (template != null)
+        {
+            this.discoveryEngineStatus = template.getDiscoveryEngineStatus();
+        }
+    }
+
+
+    /**
+     * Return the status of the discovery engine.
+     *
+     * @return status object
+     */
+    public DiscoveryEngineStatus getDiscoveryEngineStatus()
+    {
+        return discoveryEngineStatus;
+    }
+
+
+    /**
+     * Set up the status of the discovery engine.
+     *
+     * @param discoveryEngineStatus status object
+     */
+    public void setDiscoveryEngineStatus(DiscoveryEngineStatus discoveryEngineStatus)
+    {
+        this.discoveryEngineStatus = discoveryEngineStatus;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return return string containing the property names and values
+     */
+    @Override
+    public String toString()
+    {
+        return "DiscoveryEngineStatusResponse{" +
+                "discoveryEngineStatus=" + discoveryEngineStatus +
+                ", relatedHTTPCode=" + getRelatedHTTPCode() +
+                ", exceptionClassName='" + getExceptionClassName() + '\'' +
+                ", exceptionErrorMessage='" + getExceptionErrorMessage() + '\'' +
+                ", exceptionSystemAction='" + getExceptionSystemAction() + '\'' +
+                ", exceptionUserAction='" + getExceptionUserAction() + '\'' +
+                ", exceptionProperties=" + getExceptionProperties() +
+                '}';
+    }
+
+
+    /**
+     * Return comparison result based on the content of the properties.
+     *
+     * @param objectToCompare test object
+     * @return result of comparison
+     */
+    @Override
+    public boolean equals(Object objectToCompare)
+    {
+        if (this == objectToCompare)
+        {
+            return true;
+        }
+        if (!(objectToCompare instanceof DiscoveryEngineStatusResponse))
+        {
+            return false;
+        }
+        if (!super.equals(objectToCompare))
+        {
+            return false;
+        }
+        DiscoveryEngineStatusResponse that = (DiscoveryEngineStatusResponse) objectToCompare;
+        return Objects.equals(getDiscoveryEngineStatus(), that.getDiscoveryEngineStatus());
+    }
+
+
+    /**
+     * Return hash code for this object
+     *
+     * @return int hash code
+     */
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(super.hashCode(), getDiscoveryEngineStatus());
+    }
+}
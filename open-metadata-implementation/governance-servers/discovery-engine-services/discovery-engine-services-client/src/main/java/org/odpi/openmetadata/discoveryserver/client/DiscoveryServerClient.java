@@ -5,6 +5,8 @@ package org.odpi.openmetadata.discoveryserver.client;
 import org.odpi.openmetadata.commonservices.ffdc.InvalidParameterHandler;
 import org.odpi.openmetadata.commonservices.ffdc.RESTExceptionHandler;
 import org.odpi.openmetadata.commonservices.ffdc.rest.GUIDResponse;
+import org.odpi.openmetadata.commonservices.ffdc.rest.NullRequestBody;
+import org.odpi.openmetadata.commonservices.ffdc.rest.VoidResponse;
 import org.odpi.openmetadata.commonservices.odf.metadatamanagement.client.ODFRESTClient;
 import org.odpi.openmetadata.commonservices.odf.metadatamanagement.rest.AnnotationListResponse;
 import org.odpi.openmetadata.commonservices.odf.metadatamanagement.rest.AnnotationResponse;
@@ -191,6 +193,49 @@ public class DiscoveryServerClient extends DiscoveryEngine
     }
 
 
+    /**
+     * Cancel a discovery request that is waiting or running.  Its discovery analysis report is marked as failed.
+     *
+     * @param userId identifier of calling user
+     * @param discoveryRequestGUID identifier of the discovery request.
+     *
+     * @throws InvalidParameterException the discovery request is not waiting or running.
+     * @throws UserNotAuthorizedException user not authorized to issue this request.
+     * @throws DiscoveryEngineException there was a problem detected by the discovery engine.
+     */
+    public  void cancelDiscoveryRequest(String   userId,
+                                        String   discoveryRequestGUID) throws InvalidParameterException,
+                                                                              UserNotAuthorizedException,
+                                                                              DiscoveryEngineException
+    {
+        final String   methodName = "cancelDiscoveryRequest";
+        final String   reportGUIDParameterName = "discoveryRequestGUID";
+        final String   urlTemplate = "/servers/{0}/open-metadata/discovery-server/users/{1}/discovery-engine/{2}/discovery-analysis-reports/{3}/cancel";
+
+        invalidParameterHandler.validateUserId(userId, methodName);
+        invalidParameterHandler.validateGUID(discoveryRequestGUID, reportGUIDParameterName, methodName);
+
+        try
+        {
+            VoidResponse restResult = restClient.callVoidPostRESTCall(methodName,
+                                                                      serverPlatformRootURL + urlTemplate,
+                                                                      new NullRequestBody(),
+                                                                      serverName,
+                                                                      userId,
+                                                                      discoveryEngineGUID,
+                                                                      discoveryRequestGUID);
+
+            exceptionHandler.detectAndThrowInvalidParameterException(methodName, restResult);
+            exceptionHandler.detectAndThrowUserNotAuthorizedException(methodName, restResult);
+            exceptionHandler.detectAndThrowPropertyServerException(methodName, restResult);
+        }
+        catch (PropertyServerException  exception)
+        {
+            throw new DiscoveryEngineException(exception);
+        }
+    }
+
+
     /**
      * Request the status of an executing discovery request.
      *
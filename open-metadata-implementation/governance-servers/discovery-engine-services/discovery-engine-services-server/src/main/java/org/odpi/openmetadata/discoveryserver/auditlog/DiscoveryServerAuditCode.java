@@ -162,6 +162,18 @@ public enum DiscoveryServerAuditCode
                                  "The server is not able to record the failed result for a discovery request. The discovery report status is not updated.",
                                  "Review the error message and any other reported failures to determine the cause of the problem.  Once this is resolved, retry the discovery request."),
 
+    ENGINE_SCHEDULER_STARTED("OMAS-DISCOVERY-SERVER-0022",
+                             OMRSAuditLogRecordSeverity.INFO,
+                             "The discovery engine {0} in discovery server {1} will run up to {2} discovery requests at a time with up to {3} discovery requests waiting",
+                             "The discovery engine has started the workers that run its discovery requests.",
+                             "No action is required.  This is part of the normal operation of the service."),
+
+    DISCOVERY_REQUEST_CANCELLED("OMAS-DISCOVERY-SERVER-0023",
+                                OMRSAuditLogRecordSeverity.INFO,
+                                "The discovery request for discovery analysis report {0} in discovery engine {1} (guid={2}) has been cancelled; the report is marked as failed",
+                                "The discovery request is removed from the queue, or interrupted if it is already running.",
+                                "No action is required.  This is part of the normal operation of the service."),
+
     ;
 
     private String                     logMessageId;
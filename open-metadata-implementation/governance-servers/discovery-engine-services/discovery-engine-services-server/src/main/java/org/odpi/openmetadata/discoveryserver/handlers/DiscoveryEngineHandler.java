@@ -8,6 +8,8 @@ import org.odpi.openmetadata.accessservices.discoveryengine.client.DiscoveryConf
 import org.odpi.openmetadata.accessservices.discoveryengine.client.DiscoveryEngineClient;
 import org.odpi.openmetadata.commonservices.odf.metadatamanagement.client.ODFRESTClient;
 import org.odpi.openmetadata.discoveryserver.auditlog.DiscoveryServerAuditCode;
+import org.odpi.openmetadata.discoveryserver.ffdc.DiscoveryServerErrorCode;
+import org.odpi.openmetadata.discoveryserver.properties.DiscoveryEngineStatus;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBroker;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.*;
 import org.odpi.openmetadata.frameworks.discovery.DiscoveryAnnotationStore;
@@ -22,11 +24,13 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * The DiscoveryEngineHandler is responsible for running discovery services on demand.  It is initialized
  * with the configuration for the discovery services it supports along with the clients to the
- * asset properties store and annotations store.
+ * asset properties store and annotations store.  Discovery requests run on the discovery engine's
+ * DiscoveryScheduler.
  */
 public class DiscoveryEngineHandler
 {
@@ -40,6 +44,8 @@ public class DiscoveryEngineHandler
 
     private Map<String, DiscoveryServiceCache>  discoveryServiceLookupTable = new HashMap<>();
 
+    private DiscoveryScheduler                  discoveryScheduler;
+
     /**
      * Create a client-side object for calling a discovery engine.
      *
@@ -51,6 +57,10 @@ public class DiscoveryEngineHandler
      * @param restClient REST client for direct REST Calls
      * @param auditLog logging destination
      * @param maxPageSize maximum number of results that can be returned in a single request
+     * @param workerCount number of discovery requests to run at the same time
+     * @param queueSize maximum number of discovery requests waiting to run
+     * @param requestPriorities map from "assetType:requestType", asset type or request type to the priority
+     *                          of its discovery requests - the request type is the discovery service's qualified name
      * @throws InvalidParameterException one of the parameters is null or invalid.
      * @throws UserNotAuthorizedException user id not allowed to access configuration
      * @throws PropertyServerException problem in configuration server
@@ -62,10 +72,16 @@ public class DiscoveryEngineHandler
                                   DiscoveryConfigurationClient configurationClient,
                                   ODFRESTClient                restClient,
                                   OMRSAuditLog                 auditLog,
-                                  int                          maxPageSize) throws InvalidParameterException,
-                                                                                   UserNotAuthorizedException,
-                                                                                   PropertyServerException
+                                  int                          maxPageSize,
+                                  int                          workerCount,
+                                  int                          queueSize,
+                                  Map<String, Integer>         requestPriorities) throws InvalidParameterException,
+                                                                                         UserNotAuthorizedException,
+                                                                                         PropertyServerException
     {
+        final String             actionDescription = "initialize";
+        DiscoveryServerAuditCode auditCode;
+
         this.discoveryEngineGUID       = discoveryEngineGUID;
         this.discoveryEngineProperties = configurationClient.getDiscoveryEngineByGUID(serverUserId, discoveryEngineGUID);
 
@@ -122,12 +138,30 @@ public class DiscoveryEngineHandler
         this.serverUserId = serverUserId;
         this.auditLog = auditLog;
         this.discoveryEngineClient = new DiscoveryEngineClient(serverName, serverPlatformRootURL, restClient);
+        this.discoveryScheduler = new DiscoveryScheduler(discoveryEngineGUID,
+                                                         discoveryEngineProperties.getQualifiedName(),
+                                                         workerCount,
+                                                         queueSize,
+                                                         requestPriorities);
 
+        auditCode = DiscoveryServerAuditCode.ENGINE_SCHEDULER_STARTED;
+        auditLog.logRecord(actionDescription,
+                           auditCode.getLogMessageId(),
+                           auditCode.getSeverity(),
+                           auditCode.getFormattedLogMessage(discoveryEngineGUID,
+                                                            serverName,
+                                                            Integer.toString(discoveryScheduler.getWorkerCount()),
+                                                            Integer.toString(discoveryScheduler.getQueueCapacity())),
+                           null,
+                           auditCode.getSystemAction(),
+                           auditCode.getUserAction());
     }
 
 
     /**
-     * Request the execution of a discovery service to explore a specific asset.
+     * Request the execution of a discovery service to explore a specific asset.  The request is queued on the
+     * discovery engine's scheduler.  If a request for the same asset and asset type is already waiting or running,
+     * its unique identifier is returned instead.
      *
      * @param assetGUID identifier of the asset to analyze.
      * @param assetType identifier of the type of asset to analyze - this determines which discovery service to run.
@@ -138,7 +172,7 @@ public class DiscoveryEngineHandler
      *
      * @throws InvalidParameterException one of the parameters is null or invalid.
      * @throws UserNotAuthorizedException user not authorized to issue this request.
-     * @throws PropertyServerException there was a problem detected by the discovery engine.
+     * @throws PropertyServerException there was a problem detected by the discovery engine or its queue is full.
      */
     public  String discoverAsset(String              assetGUID,
                                  String              assetType,
@@ -147,55 +181,224 @@ public class DiscoveryEngineHandler
                                                                              UserNotAuthorizedException,
                                                                              PropertyServerException
     {
-        Date creationTime = new Date();
+        final String methodName = "discoverAsset";
+
         DiscoveryServiceCache   discoveryServiceCache = discoveryServiceLookupTable.get(assetType);
 
-        if (discoveryServiceCache != null)
+        if (discoveryServiceCache == null)
         {
-            DiscoveryAnalysisReport discoveryReport = discoveryEngineClient.createDiscoveryAnalysisReport(serverUserId,
-                                                                                                          "DiscoveryAnalysisReport:" + assetType + ":" + assetGUID + ":" + creationTime.toString(),
-                                                                                                          "Discovery Analysis Report for " + assetGUID,
-                                                                                                          "This is the " + assetType + " discovery analysis report for asset " + assetGUID + " generated at " + creationTime.toString() +
-                                                                                                                          " by the " + discoveryServiceCache.getDiscoveryServiceName() + " discovery service running on discovery engine " +
-                                                                                                                          discoveryEngineProperties.getDisplayName() + " (" + discoveryEngineGUID + ").",
-                                                                                                          creationTime,
-                                                                                                          analysisParameters,
-                                                                                                          DiscoveryRequestStatus.WAITING,
-                                                                                                          assetGUID,
-                                                                                                          discoveryEngineGUID,
-                                                                                                          discoveryServiceCache.getDiscoveryServiceGUID(),
-                                                                                                          null,
-                                                                                                          null);
-            DiscoveryAnnotationStore annotationStore = new DiscoveryAnnotationStoreClient(serverUserId,
-                                                                                          assetGUID,
-                                                                                          discoveryReport.getGUID(),
-                                                                                          discoveryEngineClient);
-            DiscoveryAssetStore assetStore = new DiscoveryAssetStoreClient(assetGUID,
-                                                                           serverUserId,
-                                                                           discoveryEngineClient);
-            DiscoveryContext discoveryContext = new DiscoveryContext(serverUserId,
-                                                                     assetGUID,
-                                                                     discoveryReport.getGUID(),
-                                                                     analysisParameters,
-                                                                     annotationTypes,
-                                                                     assetStore,
-                                                                     annotationStore);
-
-            DiscoveryServiceHandler discoveryServiceHandler = new DiscoveryServiceHandler(discoveryEngineProperties,
-                                                                                          assetType,
-                                                                                          discoveryServiceCache.getDiscoveryServiceName(),
-                                                                                          discoveryServiceCache.getNextDiscoveryService(),
-                                                                                          discoveryContext,
-                                                                                          auditLog,
-                                                                                          discoveryEngineClient,
-                                                                                          serverUserId);
-            Thread thread = new Thread(discoveryServiceHandler, discoveryServiceCache.getDiscoveryServiceName() + assetGUID + new Date().toString());
-            thread.start();
-
-            return discoveryReport.getGUID();
+            return null;
         }
 
-        return null;
+        synchronized (discoveryScheduler.getRequestLock(assetGUID, assetType))
+        {
+            String inFlightRequestGUID = discoveryScheduler.getInFlightRequest(assetGUID, assetType);
+
+            if (inFlightRequestGUID != null)
+            {
+                return inFlightRequestGUID;
+            }
+
+            if (! discoveryScheduler.reserveQueueSlot())
+            {
+                DiscoveryServerErrorCode errorCode    = DiscoveryServerErrorCode.DISCOVERY_QUEUE_FULL;
+                String                   errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(discoveryEngineGUID,
+                                                                                                                           serverName,
+                                                                                                                           assetGUID,
+                                                                                                                           assetType,
+                                                                                                                           Integer.toString(discoveryScheduler.getQueueCapacity()));
+
+                throw new PropertyServerException(errorCode.getHTTPErrorCode(),
+                                                  this.getClass().getName(),
+                                                  methodName,
+                                                  errorMessage,
+                                                  errorCode.getSystemAction(),
+                                                  errorCode.getUserAction());
+            }
+
+            boolean scheduled = false;
+
+            try
+            {
+                String reportGUID = this.createDiscoveryRequest(discoveryServiceCache,
+                                                                assetGUID,
+                                                                assetType,
+                                                                analysisParameters,
+                                                                annotationTypes);
+                scheduled = true;
+
+                return reportGUID;
+            }
+            finally
+            {
+                if (! scheduled)
+                {
+                    discoveryScheduler.releaseQueueSlot();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Create the discovery analysis report for a new discovery request and pass the request to the scheduler.
+     *
+     * @param discoveryServiceCache discovery service for the asset type
+     * @param assetGUID identifier of the asset to analyze.
+     * @param assetType identifier of the type of asset to analyze.
+     * @param analysisParameters name value properties to control the analysis
+     * @param annotationTypes list of the types of annotations to produce (and no others)
+     *
+     * @return unique id for the discovery request.
+     *
+     * @throws InvalidParameterException one of the parameters is null or invalid.
+     * @throws UserNotAuthorizedException user not authorized to issue this request.
+     * @throws PropertyServerException there was a problem detected by the discovery engine.
+     */
+    private String createDiscoveryRequest(DiscoveryServiceCache discoveryServiceCache,
+                                          String                assetGUID,
+                                          String                assetType,
+                                          Map<String, String>   analysisParameters,
+                                          List<String>          annotationTypes) throws InvalidParameterException,
+                                                                                        UserNotAuthorizedException,
+                                                                                        PropertyServerException
+    {
+        Date creationTime = new Date();
+
+        DiscoveryAnalysisReport discoveryReport = discoveryEngineClient.createDiscoveryAnalysisReport(serverUserId,
+                                                                                                      "DiscoveryAnalysisReport:" + assetType + ":" + assetGUID + ":" + creationTime.toString(),
+                                                                                                      "Discovery Analysis Report for " + assetGUID,
+                                                                                                      "This is the " + assetType + " discovery analysis report for asset " + assetGUID + " generated at " + creationTime.toString() +
+                                                                                                                      " by the " + discoveryServiceCache.getDiscoveryServiceName() + " discovery service running on discovery engine " +
+                                                                                                                      discoveryEngineProperties.getDisplayName() + " (" + discoveryEngineGUID + ").",
+                                                                                                      creationTime,
+                                                                                                      analysisParameters,
+                                                                                                      DiscoveryRequestStatus.WAITING,
+                                                                                                      assetGUID,
+                                                                                                      discoveryEngineGUID,
+                                                                                                      discoveryServiceCache.getDiscoveryServiceGUID(),
+                                                                                                      null,
+                                                                                                      null);
+        DiscoveryAnnotationStore annotationStore = new DiscoveryAnnotationStoreClient(serverUserId,
+                                                                                      assetGUID,
+                                                                                      discoveryReport.getGUID(),
+                                                                                      discoveryEngineClient);
+        DiscoveryAssetStore assetStore = new DiscoveryAssetStoreClient(assetGUID,
+                                                                       serverUserId,
+                                                                       discoveryEngineClient);
+        DiscoveryContext discoveryContext = new DiscoveryContext(serverUserId,
+                                                                 assetGUID,
+                                                                 discoveryReport.getGUID(),
+                                                                 analysisParameters,
+                                                                 annotationTypes,
+                                                                 assetStore,
+                                                                 annotationStore);
+
+        DiscoveryServiceHandler discoveryServiceHandler = new DiscoveryServiceHandler(discoveryEngineProperties,
+                                                                                      assetType,
+                                                                                      discoveryServiceCache.getDiscoveryServiceName(),
+                                                                                      discoveryServiceCache.getNextDiscoveryService(),
+                                                                                      discoveryContext,
+                                                                                      auditLog,
+                                                                                      discoveryEngineClient,
+                                                                                      serverUserId);
+
+        try
+        {
+            discoveryScheduler.schedule(discoveryReport.getGUID(),
+                                        assetGUID,
+                                        assetType,
+                                        discoveryServiceCache.getDiscoveryServiceName(),
+                                        discoveryServiceHandler);
+        }
+        catch (RejectedExecutionException error)
+        {
+            final String methodName = "discoverAsset";
+
+            DiscoveryServerErrorCode errorCode    = DiscoveryServerErrorCode.DISCOVERY_ENGINE_SHUTTING_DOWN;
+            String                   errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(discoveryEngineGUID,
+                                                                                                                       serverName,
+                                                                                                                       assetGUID,
+                                                                                                                       assetType);
+
+            discoveryEngineClient.setDiscoveryStatus(serverUserId, discoveryReport.getGUID(), DiscoveryRequestStatus.FAILED);
+
+            throw new PropertyServerException(errorCode.getHTTPErrorCode(),
+                                              this.getClass().getName(),
+                                              methodName,
+                                              errorMessage,
+                                              errorCode.getSystemAction(),
+                                              errorCode.getUserAction(),
+                                              error);
+        }
+
+        return discoveryReport.getGUID();
+    }
+
+
+    /**
+     * Cancel a discovery request that is waiting or running.  A waiting request is removed from the queue.
+     * A running request is interrupted.  Either way its discovery analysis report is marked as failed.
+     *
+     * @param discoveryRequestGUID identifier of the discovery request.
+     *
+     * @throws InvalidParameterException the discovery request is not waiting or running.
+     * @throws UserNotAuthorizedException user not authorized to issue this request.
+     * @throws DiscoveryEngineException there was a problem detected by the discovery engine.
+     */
+    public void cancelDiscoveryRequest(String   discoveryRequestGUID) throws InvalidParameterException,
+                                                                             UserNotAuthorizedException,
+                                                                             DiscoveryEngineException
+    {
+        final String  methodName        = "cancelDiscoveryRequest";
+        final String  guidParameterName = "discoveryRequestGUID";
+
+        if (! discoveryScheduler.cancel(discoveryRequestGUID))
+        {
+            DiscoveryServerErrorCode errorCode    = DiscoveryServerErrorCode.UNKNOWN_DISCOVERY_REQUEST;
+            String                   errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(discoveryRequestGUID,
+                                                                                                                       discoveryEngineGUID,
+                                                                                                                       serverName);
+
+            throw new InvalidParameterException(errorCode.getHTTPErrorCode(),
+                                                this.getClass().getName(),
+                                                methodName,
+                                                errorMessage,
+                                                errorCode.getSystemAction(),
+                                                errorCode.getUserAction(),
+                                                guidParameterName);
+        }
+
+        DiscoveryServerAuditCode auditCode = DiscoveryServerAuditCode.DISCOVERY_REQUEST_CANCELLED;
+        auditLog.logRecord(methodName,
+                           auditCode.getLogMessageId(),
+                           auditCode.getSeverity(),
+                           auditCode.getFormattedLogMessage(discoveryRequestGUID,
+                                                            discoveryEngineProperties.getQualifiedName(),
+                                                            discoveryEngineGUID),
+                           null,
+                           auditCode.getSystemAction(),
+                           auditCode.getUserAction());
+
+        try
+        {
+            discoveryEngineClient.setDiscoveryStatus(serverUserId, discoveryRequestGUID, DiscoveryRequestStatus.FAILED);
+        }
+        catch (PropertyServerException  error)
+        {
+            throw new DiscoveryEngineException(error);
+        }
+    }
+
+
+    /**
+     * Return the counts and timings of the discovery requests for this discovery engine.
+     *
+     * @return status of the discovery engine
+     */
+    public DiscoveryEngineStatus getDiscoveryEngineStatus()
+    {
+        return discoveryScheduler.getStatus();
     }
 
 
@@ -324,13 +527,37 @@ public class DiscoveryEngineHandler
 
 
     /**
-     * Confirms termination of the discovery engine.
+     * Confirms termination of the discovery engine.  Discovery requests that have not started are marked as failed
+     * and running requests are interrupted.
      */
     public void terminate()
     {
         final String             actionDescription = "terminate";
         DiscoveryServerAuditCode auditCode;
 
+        for (String discardedReportGUID : discoveryScheduler.shutdown())
+        {
+            try
+            {
+                discoveryEngineClient.setDiscoveryStatus(serverUserId, discardedReportGUID, DiscoveryRequestStatus.FAILED);
+            }
+            catch (Throwable  error)
+            {
+                auditCode = DiscoveryServerAuditCode.EXC_ON_ERROR_STATUS_UPDATE;
+                auditLog.logException(actionDescription,
+                                      auditCode.getLogMessageId(),
+                                      auditCode.getSeverity(),
+                                      auditCode.getFormattedLogMessage(discoveryEngineProperties.getDisplayName(),
+                                                                       discardedReportGUID,
+                                                                       error.getClass().getName(),
+                                                                       error.getMessage()),
+                                      error.toString(),
+                                      auditCode.getSystemAction(),
+                                      auditCode.getUserAction(),
+                                      error);
+            }
+        }
+
         auditCode = DiscoveryServerAuditCode.ENGINE_SHUTDOWN;
         auditLog.logRecord(actionDescription,
                            auditCode.getLogMessageId(),
@@ -0,0 +1,601 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.discoveryserver.handlers;
+
+import org.odpi.openmetadata.discoveryserver.properties.DiscoveryEngineStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * DiscoveryScheduler runs the discovery requests for a discovery engine on a fixed pool of worker threads.
+ * Requests that can not start straight away wait in a priority queue.  The priority of a request comes from
+ * the asset type it analyses and its request type - that is, the discovery service that runs it.  Requests with
+ * a higher priority run first and requests with the same priority run in the order they arrived.
+ * <p>
+ *     The number of waiting requests is bounded.  A caller reserves a place in the queue before doing any work
+ *     for a new request, so a request that is rejected leaves nothing behind in the metadata repository.
+ *     While a request for an asset is waiting or running, the scheduler returns it to new requests for the same
+ *     asset and asset type rather than starting another.
+ * </p>
+ * <p>
+ *     The scheduler also keeps the counts and timings returned by getStatus().
+ * </p>
+ */
+class DiscoveryScheduler
+{
+    private static final int  requestLockCount = 64;
+
+    private final String                discoveryEngineGUID;
+    private final String                discoveryEngineName;
+    private final int                   workerCount;
+    private final int                   queueCapacity;
+    private final Map<String, Integer>  requestPriorities;
+    private final ThreadPoolExecutor    workerPool;
+    private final Object[]              requestLocks = new Object[requestLockCount];
+
+    private final Map<String, ScheduledDiscoveryRequest> requestsByAsset  = new ConcurrentHashMap<>();
+    private final Map<String, ScheduledDiscoveryRequest> requestsByReport = new ConcurrentHashMap<>();
+
+    private final AtomicLong    nextSequenceNumber = new AtomicLong(0);
+    private final AtomicInteger queuedRequests     = new AtomicInteger(0);
+    private final AtomicInteger activeRequests     = new AtomicInteger(0);
+    private final AtomicLong    startedRequests    = new AtomicLong(0);
+    private final AtomicLong    finishedRequests   = new AtomicLong(0);
+    private final AtomicLong    completedRequests  = new AtomicLong(0);
+    private final AtomicLong    failedRequests     = new AtomicLong(0);
+    private final AtomicLong    cancelledRequests  = new AtomicLong(0);
+    private final AtomicLong    rejectedRequests   = new AtomicLong(0);
+    private final AtomicLong    duplicateRequests  = new AtomicLong(0);
+    private final AtomicLong    totalQueueTime     = new AtomicLong(0);
+    private final AtomicLong    maximumQueueTime   = new AtomicLong(0);
+    private final AtomicLong    totalRunTime       = new AtomicLong(0);
+    private final AtomicLong    maximumRunTime     = new AtomicLong(0);
+
+
+    /**
+     * Constructor starts the worker threads.
+     *
+     * @param discoveryEngineGUID unique identifier of the discovery engine - used in thread names and status
+     * @param discoveryEngineName qualified name of the discovery engine - used in status
+     * @param workerCount number of discovery requests to run at the same time - at least one is used
+     * @param queueCapacity maximum number of discovery requests waiting to run - at least one is used
+     * @param requestPriorities map from "assetType:requestType", asset type or request type to priority - may be null
+     */
+    DiscoveryScheduler(String                discoveryEngineGUID,
+                       String                discoveryEngineName,
+                       int                   workerCount,
+                       int                   queueCapacity,
+                       Map<String, Integer>  requestPriorities)
+    {
+        this.discoveryEngineGUID = discoveryEngineGUID;
+        this.discoveryEngineName = discoveryEngineName;
+        this.workerCount = Math.max(1, workerCount);
+        this.queueCapacity = Math.max(1, queueCapacity);
+
+        if (requestPriorities == null)
+        {
+            this.requestPriorities = new HashMap<>();
+        }
+        else
+        {
+            this.requestPriorities = new HashMap<>(requestPriorities);
+        }
+
+        for (int i = 0; i < requestLockCount; i++)
+        {
+            requestLocks[i] = new Object();
+        }
+
+        final AtomicInteger threadNumber = new AtomicInteger(0);
+
+        this.workerPool = new ThreadPoolExecutor(this.workerCount,
+                                                 this.workerCount,
+                                                 0L,
+                                                 TimeUnit.MILLISECONDS,
+                                                 new PriorityBlockingQueue<>(),
+                                                 (runnable) ->
+                                                 {
+                                                     Thread thread = new Thread(runnable,
+                                                                                "DiscoveryEngine:" + discoveryEngineGUID + ":" + threadNumber.incrementAndGet());
+                                                     thread.setDaemon(true);
+                                                     return thread;
+                                                 });
+    }
+
+
+    /**
+     * Return the number of worker threads.
+     *
+     * @return count
+     */
+    int getWorkerCount()
+    {
+        return workerCount;
+    }
+
+
+    /**
+     * Return the maximum number of discovery requests that can wait to run.
+     *
+     * @return count
+     */
+    int getQueueCapacity()
+    {
+        return queueCapacity;
+    }
+
+
+    /**
+     * Return the object to synchronize on while checking for, and creating, a request for an asset.
+     * Requests for different assets usually use different locks.
+     *
+     * @param assetGUID unique identifier of the asset
+     * @param assetType type of the asset
+     * @return lock object
+     */
+    Object getRequestLock(String   assetGUID,
+                          String   assetType)
+    {
+        return requestLocks[(getAssetKey(assetGUID, assetType).hashCode() & 0x7fffffff) % requestLockCount];
+    }
+
+
+    /**
+     * Return the discovery report of a request for the asset that is waiting or running.  The caller should hold
+     * the request lock for the asset.
+     *
+     * @param assetGUID unique identifier of the asset
+     * @param assetType type of the asset
+     * @return unique identifier of the discovery report or null if there is no request for the asset
+     */
+    String getInFlightRequest(String   assetGUID,
+                              String   assetType)
+    {
+        ScheduledDiscoveryRequest request = requestsByAsset.get(getAssetKey(assetGUID, assetType));
+
+        if (request == null)
+        {
+            return null;
+        }
+
+        duplicateRequests.incrementAndGet();
+
+        return request.getReportGUID();
+    }
+
+
+    /**
+     * Reserve a place in the queue for a new request.  Every successful reservation must be followed by
+     * either schedule() or releaseQueueSlot().
+     *
+     * @return false if the queue is full
+     */
+    boolean reserveQueueSlot()
+    {
+        int queued;
+
+        do
+        {
+            queued = queuedRequests.get();
+
+            if (queued >= queueCapacity)
+            {
+                rejectedRequests.incrementAndGet();
+                return false;
+            }
+        } while (! queuedRequests.compareAndSet(queued, queued + 1));
+
+        return true;
+    }
+
+
+    /**
+     * Give back a place in the queue that was reserved for a request that was not scheduled.
+     */
+    void releaseQueueSlot()
+    {
+        queuedRequests.decrementAndGet();
+    }
+
+
+    /**
+     * Queue a discovery request.  The caller must have reserved a place in the queue and should hold the
+     * request lock for the asset.
+     *
+     * @param reportGUID unique identifier of the discovery report for the request
+     * @param assetGUID unique identifier of the asset
+     * @param assetType type of the asset
+     * @param requestType qualified name of the discovery service that runs the request
+     * @param serviceHandler handler that runs the discovery service
+     * @throws RejectedExecutionException the scheduler has been shut down
+     */
+    void schedule(String                  reportGUID,
+                  String                  assetGUID,
+                  String                  assetType,
+                  String                  requestType,
+                  DiscoveryServiceHandler serviceHandler) throws RejectedExecutionException
+    {
+        ScheduledDiscoveryRequest request  = new ScheduledDiscoveryRequest(reportGUID,
+                                                                           getAssetKey(assetGUID, assetType),
+                                                                           getPriority(assetType, requestType),
+                                                                           nextSequenceNumber.getAndIncrement(),
+                                                                           serviceHandler);
+
+        requestsByAsset.put(request.getAssetKey(), request);
+        requestsByReport.put(reportGUID, request);
+
+        try
+        {
+            workerPool.execute(request);
+        }
+        catch (RejectedExecutionException error)
+        {
+            this.removeRequest(request);
+            throw error;
+        }
+    }
+
+
+    /**
+     * Cancel a discovery request.  A waiting request is removed from the queue.  A running request has its
+     * worker thread interrupted; the discovery service stops if it responds to the interrupt.
+     *
+     * @param reportGUID unique identifier of the discovery report for the request
+     * @return true if the request was waiting or running
+     */
+    boolean cancel(String   reportGUID)
+    {
+        ScheduledDiscoveryRequest request = requestsByReport.get(reportGUID);
+
+        if ((request == null) || (! request.cancel()))
+        {
+            return false;
+        }
+
+        cancelledRequests.incrementAndGet();
+
+        return true;
+    }
+
+
+    /**
+     * Stop the workers.  Waiting requests are discarded and running requests are interrupted.
+     *
+     * @return unique identifiers of the discovery reports for the requests that were waiting
+     */
+    List<String> shutdown()
+    {
+        List<String> discardedReportGUIDs = new ArrayList<>();
+
+        workerPool.shutdown();
+
+        for (ScheduledDiscoveryRequest request : new ArrayList<>(requestsByReport.values()))
+        {
+            if (request.discard())
+            {
+                discardedReportGUIDs.add(request.getReportGUID());
+            }
+        }
+
+        workerPool.shutdownNow();
+
+        return discardedReportGUIDs;
+    }
+
+
+    /**
+     * Return the current counts and timings for the discovery engine.
+     *
+     * @return status bean
+     */
+    DiscoveryEngineStatus getStatus()
+    {
+        DiscoveryEngineStatus status   = new DiscoveryEngineStatus();
+        long                  started  = startedRequests.get();
+        long                  finished = finishedRequests.get();
+
+        status.setDiscoveryEngineGUID(discoveryEngineGUID);
+        status.setDiscoveryEngineName(discoveryEngineName);
+        status.setWorkerCount(workerCount);
+        status.setQueueCapacity(queueCapacity);
+        status.setQueuedRequests(queuedRequests.get());
+        status.setActiveRequests(activeRequests.get());
+        status.setCompletedRequests(completedRequests.get());
+        status.setFailedRequests(failedRequests.get());
+        status.setCancelledRequests(cancelledRequests.get());
+        status.setRejectedRequests(rejectedRequests.get());
+        status.setDuplicateRequests(duplicateRequests.get());
+        status.setAverageQueueTime(started == 0 ? 0 : totalQueueTime.get() / started);
+        status.setMaximumQueueTime(maximumQueueTime.get());
+        status.setAverageRunTime(finished == 0 ? 0 : totalRunTime.get() / finished);
+        status.setMaximumRunTime(maximumRunTime.get());
+
+        return status;
+    }
+
+
+    /**
+     * Return the key used to find the request for an asset.
+     *
+     * @param assetGUID unique identifier of the asset
+     * @param assetType type of the asset
+     * @return key
+     */
+    private String getAssetKey(String   assetGUID,
+                               String   assetType)
+    {
+        return assetType + ":" + assetGUID;
+    }
+
+
+    /**
+     * Return the priority for a request.  A priority for the asset type and request type together is used
+     * before one for the asset type alone, which is used before one for the request type alone.
+     *
+     * @param assetType type of the asset
+     * @param requestType qualified name of the discovery service that runs the request
+     * @return priority - 0 if none is configured
+     */
+    private int getPriority(String   assetType,
+                            String   requestType)
+    {
+        Integer priority = requestPriorities.get(assetType + ":" + requestType);
+
+        if (priority == null)
+        {
+            priority = requestPriorities.get(assetType);
+        }
+
+        if (priority == null)
+        {
+            priority = requestPriorities.get(requestType);
+        }
+
+        return priority == null ? 0 : priority;
+    }
+
+
+    /**
+     * Remove a request that has finished, or will never run, from the lookup tables.
+     *
+     * @param request request to remove
+     */
+    private void removeRequest(ScheduledDiscoveryRequest request)
+    {
+        requestsByAsset.remove(request.getAssetKey(), request);
+        requestsByReport.remove(request.getReportGUID(), request);
+    }
+
+
+    /**
+     * Add a time to a total and keep the maximum up to date.
+     *
+     * @param time time in milliseconds
+     * @param total total to add to
+     * @param maximum maximum to update
+     */
+    private static void recordTime(long        time,
+                                   AtomicLong  total,
+                                   AtomicLong  maximum)
+    {
+        long currentMaximum;
+
+        total.addAndGet(time);
+
+        do
+        {
+            currentMaximum = maximum.get();
+        } while ((time > currentMaximum) && (! maximum.compareAndSet(currentMaximum, time)));
+    }
+
+
+    /**
+     * The state of a scheduled request.
+     */
+    private enum RequestState
+    {
+        WAITING, RUNNING, CANCELLED, FINISHED
+    }
+
+
+    /**
+     * ScheduledDiscoveryRequest is the unit of work on the priority queue.  It runs the discovery service
+     * handler and records the timings.
+     */
+    private class ScheduledDiscoveryRequest implements Runnable, Comparable<ScheduledDiscoveryRequest>
+    {
+        private final String                        reportGUID;
+        private final String                        assetKey;
+        private final int                           priority;
+        private final long                          sequenceNumber;
+        private final DiscoveryServiceHandler       serviceHandler;
+        private final long                          queueTime = System.currentTimeMillis();
+        private final AtomicReference<RequestState> state     = new AtomicReference<>(RequestState.WAITING);
+        private volatile Thread                     worker    = null;
+
+
+        /**
+         * Constructor
+         *
+         * @param reportGUID unique identifier of the discovery report
+         * @param assetKey key of the asset
+         * @param priority priority of the request
+         * @param sequenceNumber order of arrival
+         * @param serviceHandler handler that runs the discovery service
+         */
+        ScheduledDiscoveryRequest(String                  reportGUID,
+                                  String                  assetKey,
+                                  int                     priority,
+                                  long                    sequenceNumber,
+                                  DiscoveryServiceHandler serviceHandler)
+        {
+            this.reportGUID = reportGUID;
+            this.assetKey = assetKey;
+            this.priority = priority;
+            this.sequenceNumber = sequenceNumber;
+            this.serviceHandler = serviceHandler;
+        }
+
+
+        /**
+         * Return the unique identifier of the discovery report.
+         *
+         * @return guid
+         */
+        String getReportGUID()
+        {
+            return reportGUID;
+        }
+
+
+        /**
+         * Return the key of the asset.
+         *
+         * @return key
+         */
+        String getAssetKey()
+        {
+            return assetKey;
+        }
+
+
+        /**
+         * Cancel the request.
+         *
+         * @return true if the request was waiting or running
+         */
+        boolean cancel()
+        {
+            if (this.discard())
+            {
+                return true;
+            }
+
+            if (state.compareAndSet(RequestState.RUNNING, RequestState.CANCELLED))
+            {
+                /*
+                 * The worker is set before the request becomes RUNNING and is only cleared under this lock,
+                 * so the interrupt always reaches the thread while it is still running this request.
+                 */
+                synchronized (this)
+                {
+                    if (worker != null)
+                    {
+                        worker.interrupt();
+                    }
+                }
+
+                return true;
+            }
+
+            return false;
+        }
+
+
+        /**
+         * Remove the request from the queue if it has not started.
+         *
+         * @return true if the request was waiting
+         */
+        boolean discard()
+        {
+            if (state.compareAndSet(RequestState.WAITING, RequestState.CANCELLED))
+            {
+                workerPool.remove(this);
+                queuedRequests.decrementAndGet();
+                removeRequest(this);
+
+                return true;
+            }
+
+            return false;
+        }
+
+
+        /**
+         * Run the discovery service on the worker thread.
+         */
+        @Override
+        public void run()
+        {
+            worker = Thread.currentThread();
+
+            if (! state.compareAndSet(RequestState.WAITING, RequestState.RUNNING))
+            {
+                worker = null;
+                return;
+            }
+
+            long startTime = System.currentTimeMillis();
+
+            queuedRequests.decrementAndGet();
+            activeRequests.incrementAndGet();
+            startedRequests.incrementAndGet();
+            recordTime(startTime - queueTime, totalQueueTime, maximumQueueTime);
+
+            try
+            {
+                serviceHandler.run();
+            }
+            finally
+            {
+                /*
+                 * Clear any interrupt from a cancel that arrived as the service finished so it does not
+                 * affect the next request on this thread.
+                 */
+                synchronized (this)
+                {
+                    worker = null;
+                    Thread.interrupted();
+                }
+
+                removeRequest(this);
+
+                recordTime(System.currentTimeMillis() - startTime, totalRunTime, maximumRunTime);
+                finishedRequests.incrementAndGet();
+                activeRequests.decrementAndGet();
+
+                if (state.compareAndSet(RequestState.RUNNING, RequestState.FINISHED))
+                {
+                    if (serviceHandler.isCompleted())
+                    {
+                        completedRequests.incrementAndGet();
+                    }
+                    else
+                    {
+                        failedRequests.incrementAndGet();
+                    }
+                }
+            }
+        }
+
+
+        /**
+         * Order requests by priority, highest first, and then by order of arrival.
+         *
+         * @param other request to compare with
+         * @return negative if this request should run first
+         */
+        @Override
+        public int compareTo(ScheduledDiscoveryRequest other)
+        {
+            if (priority != other.priority)
+            {
+                return Integer.compare(other.priority, priority);
+            }
+
+            return Long.compare(sequenceNumber, other.sequenceNumber);
+        }
+    }
+}
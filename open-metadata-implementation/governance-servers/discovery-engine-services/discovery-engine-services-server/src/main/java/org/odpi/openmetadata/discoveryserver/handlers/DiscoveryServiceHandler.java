@@ -23,6 +23,7 @@ public class DiscoveryServiceHandler implements Runnable
     private OMRSAuditLog              auditLog;
     private DiscoveryEngineClient     discoveryEngineClient;
     private String                    discoveryEngineUserId;
+    private volatile boolean          completed = false;
 
 
     /**
@@ -59,6 +60,17 @@ public class DiscoveryServiceHandler implements Runnable
     }
 
 
+    /**
+     * Return whether the discovery service completed successfully.  This is false until run() has finished.
+     *
+     * @return boolean
+     */
+    boolean isCompleted()
+    {
+        return completed;
+    }
+
+
     /**
      * This is the method that provides the behaviour of the thread.
      */
@@ -95,6 +107,7 @@ public class DiscoveryServiceHandler implements Runnable
             discoveryService.setDiscoveryServiceName(discoveryServiceName);
             startTime = new Date();
             discoveryService.start();
+            discoveryContext.getAnnotationStore().flushQueuedAnnotations();
             endTime = new Date();
             auditCode = DiscoveryServerAuditCode.DISCOVERY_SERVICE_COMPLETE;
             auditLog.logRecord(actionDescription,
@@ -112,6 +125,7 @@ public class DiscoveryServiceHandler implements Runnable
             discoveryEngineClient.setDiscoveryStatus(discoveryEngineUserId,
                                                      discoveryContext.getDiscoveryReportGUID(),
                                                      DiscoveryRequestStatus.COMPLETED);
+            completed = true;
             discoveryService.disconnect();
         }
         catch (Throwable  error)
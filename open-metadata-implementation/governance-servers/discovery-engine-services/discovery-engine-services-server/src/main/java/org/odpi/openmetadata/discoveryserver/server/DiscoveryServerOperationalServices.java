@@ -219,7 +219,10 @@ public class DiscoveryServerOperationalServices
                                                                                  configurationClient,
                                                                                  ODFRESTClient,
                                                                                  auditLog,
-                                                                                 maxPageSize);
+                                                                                 maxPageSize,
+                                                                                 discoveryServerConfig.getDiscoveryWorkerCount(),
+                                                                                 discoveryServerConfig.getDiscoveryQueueSize(),
+                                                                                 discoveryServerConfig.getDiscoveryRequestPriorities());
 
                     discoveryEngineHandlers.put(discoveryEngineGUID, handler);
                 }
@@ -4,8 +4,11 @@ package org.odpi.openmetadata.discoveryserver.server;
 
 import org.odpi.openmetadata.commonservices.ffdc.RESTExceptionHandler;
 import org.odpi.openmetadata.commonservices.ffdc.rest.GUIDResponse;
+import org.odpi.openmetadata.commonservices.ffdc.rest.NullRequestBody;
+import org.odpi.openmetadata.commonservices.ffdc.rest.VoidResponse;
 import org.odpi.openmetadata.commonservices.odf.metadatamanagement.rest.*;
 import org.odpi.openmetadata.discoveryserver.handlers.DiscoveryEngineHandler;
+import org.odpi.openmetadata.discoveryserver.rest.DiscoveryEngineStatusResponse;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.UserNotAuthorizedException;
@@ -341,4 +344,123 @@ public class DiscoveryServerRESTServices
 
         return response;
     }
+
+
+    /**
+     * Cancel a discovery request that is waiting or running.  Its discovery analysis report is marked as failed.
+     *
+     * @param serverName name of the discovery server.
+     * @param discoveryEngineGUID unique identifier of the discovery engine.
+     * @param userId calling user
+     * @param discoveryRequestGUID identifier of the discovery request.
+     * @param requestBody null request body to satisfy the POST protocol.
+     *
+     * @return void or
+     *
+     *  InvalidParameterException the discovery request is not waiting or running or
+     *  UserNotAuthorizedException user not authorized to issue this request or
+     *  DiscoveryEngineException there was a problem detected by the discovery engine.
+     */
+    public VoidResponse cancelDiscoveryRequest(String          serverName,
+                                               String          discoveryEngineGUID,
+                                               String          userId,
+                                               String          discoveryRequestGUID,
+                                               NullRequestBody requestBody)
+    {
+        final String        methodName = "cancelDiscoveryRequest";
+
+        log.debug("Calling method: " + methodName);
+
+        VoidResponse response = new VoidResponse();
+        OMRSAuditLog auditLog = null;
+
+        try
+        {
+            DiscoveryEngineHandler handler = instanceHandler.getDiscoveryEngineHandler(userId,
+                                                                                       serverName,
+                                                                                       discoveryEngineGUID,
+                                                                                       methodName);
+
+            auditLog = instanceHandler.getAuditLog(userId, serverName, methodName);
+            handler.cancelDiscoveryRequest(discoveryRequestGUID);
+        }
+        catch (InvalidParameterException error)
+        {
+            restExceptionHandler.captureInvalidParameterException(response, error);
+        }
+        catch (PropertyServerException error)
+        {
+            restExceptionHandler.capturePropertyServerException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            restExceptionHandler.captureUserNotAuthorizedException(response, error);
+        }
+        catch (Throwable error)
+        {
+            restExceptionHandler.captureThrowable(response, error, methodName, auditLog);
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
+
+
+    /**
+     * Return the status of a discovery engine.  This includes the number of discovery requests that are waiting
+     * and running, the number that have finished, and how long they waited and ran.
+     *
+     * @param serverName name of the discovery server.
+     * @param discoveryEngineGUID unique identifier of the discovery engine.
+     * @param userId calling user
+     *
+     * @return discovery engine status or
+     *
+     *  InvalidParameterException the discovery engine is not known or
+     *  UserNotAuthorizedException user not authorized to issue this request or
+     *  PropertyServerException there was a problem detected by the discovery server.
+     */
+    public DiscoveryEngineStatusResponse getDiscoveryEngineStatus(String   serverName,
+                                                                  String   discoveryEngineGUID,
+                                                                  String   userId)
+    {
+        final String        methodName = "getDiscoveryEngineStatus";
+
+        log.debug("Calling method: " + methodName);
+
+        DiscoveryEngineStatusResponse response = new DiscoveryEngineStatusResponse();
+        OMRSAuditLog                  auditLog = null;
+
+        try
+        {
+            DiscoveryEngineHandler handler = instanceHandler.getDiscoveryEngineHandler(userId,
+                                                                                       serverName,
+                                                                                       discoveryEngineGUID,
+                                                                                       methodName);
+
+            auditLog = instanceHandler.getAuditLog(userId, serverName, methodName);
+            response.setDiscoveryEngineStatus(handler.getDiscoveryEngineStatus());
+        }
+        catch (InvalidParameterException error)
+        {
+            restExceptionHandler.captureInvalidParameterException(response, error);
+        }
+        catch (PropertyServerException error)
+        {
+            restExceptionHandler.capturePropertyServerException(response, error);
+        }
+        catch (UserNotAuthorizedException error)
+        {
+            restExceptionHandler.captureUserNotAuthorizedException(response, error);
+        }
+        catch (Throwable error)
+        {
+            restExceptionHandler.captureThrowable(response, error, methodName, auditLog);
+        }
+
+        log.debug("Returning from method: " + methodName + " with response: " + response.toString());
+
+        return response;
+    }
 }
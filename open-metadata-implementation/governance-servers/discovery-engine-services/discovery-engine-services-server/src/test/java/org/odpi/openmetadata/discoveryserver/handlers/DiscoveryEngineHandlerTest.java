@@ -0,0 +1,256 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.discoveryserver.handlers;
+
+import org.odpi.openmetadata.accessservices.discoveryengine.client.DiscoveryConfigurationClient;
+import org.odpi.openmetadata.commonservices.odf.metadatamanagement.client.ODFRESTClient;
+import org.odpi.openmetadata.commonservices.odf.metadatamanagement.rest.DiscoveryAnalysisReportResponse;
+import org.odpi.openmetadata.discoveryserver.properties.DiscoveryEngineStatus;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.InvalidParameterException;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.PropertyServerException;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.ConnectorType;
+import org.odpi.openmetadata.frameworks.discovery.properties.DiscoveryAnalysisReport;
+import org.odpi.openmetadata.frameworks.discovery.properties.DiscoveryEngineProperties;
+import org.odpi.openmetadata.frameworks.discovery.properties.RegisteredDiscoveryService;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that the DiscoveryEngineHandler rejects requests when its queue is full without creating a discovery
+ * analysis report, returns the in-flight request for a duplicate and cancels requests through its scheduler.
+ */
+public class DiscoveryEngineHandlerTest
+{
+    private static final String serverName         = "TestDiscoveryServer";
+    private static final String serverUserId       = "discoveryServerNPA";
+    private static final String platformRootURL    = "https://localhost:9443";
+    private static final String engineGUID         = "test-engine-guid";
+    private static final String serviceGUID        = "test-service-guid";
+    private static final String assetType          = "DataFile";
+    private static final int    maxPageSize        = 50;
+    private static final long   waitTime           = 10;
+
+    private ODFRESTClient           restClient;
+    private CountDownLatch          release;
+    private DiscoveryEngineHandler  handler;
+
+
+    /**
+     * Create a handler with one worker and room for one waiting request.  Its discovery service waits until
+     * the test ends.
+     *
+     * @throws Exception problem in the test
+     */
+    @BeforeMethod
+    public void createHandler() throws Exception
+    {
+        DiscoveryConfigurationClient configurationClient = mock(DiscoveryConfigurationClient.class);
+        DiscoveryEngineProperties    engineProperties    = new DiscoveryEngineProperties();
+        RegisteredDiscoveryService   discoveryService    = new RegisteredDiscoveryService();
+        ConnectorType                connectorType       = new ConnectorType();
+        Connection                   connection          = new Connection();
+        AtomicInteger                reportCount         = new AtomicInteger(0);
+
+        engineProperties.setGUID(engineGUID);
+        engineProperties.setQualifiedName("TestDiscoveryEngine");
+        engineProperties.setDisplayName("Test Discovery Engine");
+
+        connectorType.setQualifiedName("Test.MockDiscoveryService.ConnectorType");
+        connectorType.setConnectorProviderClassName(MockDiscoveryServiceProvider.class.getName());
+        connection.setQualifiedName("Test.MockDiscoveryService.Connection");
+        connection.setConnectorType(connectorType);
+
+        discoveryService.setGUID(serviceGUID);
+        discoveryService.setQualifiedName("TestDiscoveryService");
+        discoveryService.setAssetTypes(Collections.singletonList(assetType));
+        discoveryService.setConnection(connection);
+
+        when(configurationClient.getDiscoveryEngineByGUID(serverUserId, engineGUID)).thenReturn(engineProperties);
+        when(configurationClient.getRegisteredDiscoveryServices(serverUserId, engineGUID, 0, maxPageSize)).thenReturn(Collections.singletonList(serviceGUID));
+        when(configurationClient.getRegisteredDiscoveryService(serverUserId, engineGUID, serviceGUID)).thenReturn(discoveryService);
+
+        restClient = mock(ODFRESTClient.class);
+
+        when(restClient.callDiscoveryAnalysisReportPostRESTCall(anyString(), anyString(), any(), any())).thenAnswer((invocation) ->
+        {
+            DiscoveryAnalysisReportResponse response = new DiscoveryAnalysisReportResponse();
+            DiscoveryAnalysisReport         report   = new DiscoveryAnalysisReport();
+
+            report.setGUID("report-" + reportCount.incrementAndGet());
+            response.setAnalysisReport(report);
+
+            return response;
+        });
+        when(restClient.callDiscoveryAnalysisReportGetRESTCall(anyString(), anyString(), any())).thenReturn(new DiscoveryAnalysisReportResponse());
+
+        release = new CountDownLatch(1);
+        MockDiscoveryService.setRelease(release);
+
+        handler = new DiscoveryEngineHandler(engineGUID,
+                                             platformRootURL,
+                                             serverName,
+                                             serverUserId,
+                                             configurationClient,
+                                             restClient,
+                                             mock(OMRSAuditLog.class),
+                                             maxPageSize,
+                                             1,
+                                             1,
+                                             null);
+    }
+
+
+    /**
+     * Let the discovery services finish and stop the handler.
+     */
+    @AfterMethod
+    public void terminateHandler()
+    {
+        release.countDown();
+        handler.terminate();
+    }
+
+
+    /**
+     * When the queue is full, a new request fails before its discovery analysis report is created.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testQueueFullRejection() throws Exception
+    {
+        String runningGUID = handler.discoverAsset("asset-0", assetType, null, null);
+
+        this.awaitActiveRequests(1);
+
+        String waitingGUID = handler.discoverAsset("asset-1", assetType, null, null);
+
+        assertNotEquals(waitingGUID, runningGUID);
+
+        try
+        {
+            handler.discoverAsset("asset-2", assetType, null, null);
+            fail("Request accepted when the queue is full");
+        }
+        catch (PropertyServerException error)
+        {
+            /* expected */
+        }
+
+        verify(restClient, times(2)).callDiscoveryAnalysisReportPostRESTCall(anyString(), anyString(), any(), any());
+
+        DiscoveryEngineStatus status = handler.getDiscoveryEngineStatus();
+
+        assertEquals(status.getRejectedRequests(), 1);
+        assertEquals(status.getQueuedRequests(), 1);
+        assertEquals(status.getActiveRequests(), 1);
+    }
+
+
+    /**
+     * A request for an asset that already has a request waiting or running returns the existing report.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testDuplicateDetection() throws Exception
+    {
+        String runningGUID = handler.discoverAsset("asset-0", assetType, null, null);
+
+        this.awaitActiveRequests(1);
+
+        String waitingGUID = handler.discoverAsset("asset-1", assetType, null, null);
+
+        assertEquals(handler.discoverAsset("asset-0", assetType, null, null), runningGUID);
+        assertEquals(handler.discoverAsset("asset-1", assetType, null, null), waitingGUID);
+
+        verify(restClient, times(2)).callDiscoveryAnalysisReportPostRESTCall(anyString(), anyString(), any(), any());
+        assertEquals(handler.getDiscoveryEngineStatus().getDuplicateRequests(), 2);
+    }
+
+
+    /**
+     * Requests for asset types that no discovery service supports are ignored.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testUnsupportedAssetType() throws Exception
+    {
+        assertNull(handler.discoverAsset("asset-0", "CSVFile", null, null));
+        assertEquals(handler.getDiscoveryEngineStatus().getQueuedRequests(), 0);
+    }
+
+
+    /**
+     * A waiting request can be cancelled once.  Cancelling a request that is not waiting or running fails.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testCancelWaitingRequest() throws Exception
+    {
+        handler.discoverAsset("asset-0", assetType, null, null);
+
+        this.awaitActiveRequests(1);
+
+        String waitingGUID = handler.discoverAsset("asset-1", assetType, null, null);
+
+        handler.cancelDiscoveryRequest(waitingGUID);
+
+        DiscoveryEngineStatus status = handler.getDiscoveryEngineStatus();
+
+        assertEquals(status.getCancelledRequests(), 1);
+        assertEquals(status.getQueuedRequests(), 0);
+
+        try
+        {
+            handler.cancelDiscoveryRequest(waitingGUID);
+            fail("Cancelled request cancelled again");
+        }
+        catch (InvalidParameterException error)
+        {
+            /* expected */
+        }
+    }
+
+
+    /**
+     * Wait until the scheduler reports the given number of running requests.
+     *
+     * @param activeRequests number of running requests
+     * @throws InterruptedException the test was interrupted
+     */
+    private void awaitActiveRequests(int   activeRequests) throws InterruptedException
+    {
+        for (int attempt = 0; attempt < 1000; attempt++)
+        {
+            if (handler.getDiscoveryEngineStatus().getActiveRequests() == activeRequests)
+            {
+                return;
+            }
+
+            Thread.sleep(waitTime);
+        }
+
+        throw new AssertionError("Discovery requests did not start: " + handler.getDiscoveryEngineStatus());
+    }
+}
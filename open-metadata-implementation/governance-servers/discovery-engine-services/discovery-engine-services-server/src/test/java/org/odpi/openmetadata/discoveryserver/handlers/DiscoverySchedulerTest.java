@@ -0,0 +1,499 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.discoveryserver.handlers;
+
+import org.odpi.openmetadata.discoveryserver.properties.DiscoveryEngineStatus;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the DiscoveryScheduler bounds its queue, returns in-flight requests for duplicates, runs waiting
+ * requests in priority order, cancels waiting and running requests and keeps its status counters.
+ */
+public class DiscoverySchedulerTest
+{
+    private static final String engineGUID = "test-engine-guid";
+    private static final String engineName = "TestDiscoveryEngine";
+    private static final long   waitTime   = 10;
+
+    private DiscoveryScheduler scheduler = null;
+
+
+    /**
+     * Stop the workers of the scheduler used by the test.
+     */
+    @AfterMethod
+    public void shutdownScheduler()
+    {
+        if (scheduler != null)
+        {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+
+    /**
+     * Once the queue is full, reservations fail and are counted as rejected.  Running requests do not use up
+     * places in the queue.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testQueueFullRejection() throws Exception
+    {
+        CountDownLatch      release = new CountDownLatch(1);
+        TestServiceHandler  running = new TestServiceHandler(release);
+
+        scheduler = new DiscoveryScheduler(engineGUID, engineName, 1, 2, null);
+
+        this.scheduleRequest("report-0", "asset-0", "DataFile", running);
+        running.awaitStarted();
+
+        this.scheduleRequest("report-1", "asset-1", "DataFile", new TestServiceHandler(release));
+        this.scheduleRequest("report-2", "asset-2", "DataFile", new TestServiceHandler(release));
+
+        assertFalse(scheduler.reserveQueueSlot());
+
+        DiscoveryEngineStatus status = scheduler.getStatus();
+
+        assertEquals(status.getQueuedRequests(), 2);
+        assertEquals(status.getActiveRequests(), 1);
+        assertEquals(status.getRejectedRequests(), 1);
+
+        release.countDown();
+        this.awaitFinished(3);
+
+        assertTrue(scheduler.reserveQueueSlot());
+        scheduler.releaseQueueSlot();
+        assertEquals(scheduler.getStatus().getQueuedRequests(), 0);
+    }
+
+
+    /**
+     * A waiting or running request is returned for a new request for the same asset and asset type.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testDuplicateDetection() throws Exception
+    {
+        CountDownLatch      release = new CountDownLatch(1);
+        TestServiceHandler  running = new TestServiceHandler(release);
+
+        scheduler = new DiscoveryScheduler(engineGUID, engineName, 1, 2, null);
+
+        this.scheduleRequest("report-0", "asset-0", "DataFile", running);
+        this.scheduleRequest("report-1", "asset-1", "DataFile", new TestServiceHandler(release));
+        running.awaitStarted();
+
+        assertEquals(scheduler.getInFlightRequest("asset-0", "DataFile"), "report-0");
+        assertEquals(scheduler.getInFlightRequest("asset-1", "DataFile"), "report-1");
+        assertNull(scheduler.getInFlightRequest("asset-0", "CSVFile"));
+        assertNull(scheduler.getInFlightRequest("asset-2", "DataFile"));
+        assertEquals(scheduler.getStatus().getDuplicateRequests(), 2);
+
+        release.countDown();
+        this.awaitFinished(2);
+
+        assertNull(scheduler.getInFlightRequest("asset-0", "DataFile"));
+        assertNull(scheduler.getInFlightRequest("asset-1", "DataFile"));
+    }
+
+
+    /**
+     * Waiting requests run highest priority first, then in order of arrival.  A priority for the asset type and
+     * request type together beats one for the asset type, which beats one for the request type.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testPriorityOrder() throws Exception
+    {
+        Map<String, Integer> priorities = new HashMap<>();
+        List<String>         runOrder   = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch       release    = new CountDownLatch(1);
+        TestServiceHandler   running    = new TestServiceHandler(release);
+
+        priorities.put("DataFile:UrgentService", 10);
+        priorities.put("DataFile", 5);
+        priorities.put("BackgroundService", -1);
+
+        scheduler = new DiscoveryScheduler(engineGUID, engineName, 1, 10, priorities);
+
+        this.scheduleRequest("report-running", "asset-running", "CSVFile", running);
+        running.awaitStarted();
+
+        this.scheduleRequest("report-a", "asset-a", "CSVFile", "PlainService", new TestServiceHandler("a", runOrder));
+        this.scheduleRequest("report-b", "asset-b", "DataFile", "PlainService", new TestServiceHandler("b", runOrder));
+        this.scheduleRequest("report-c", "asset-c", "DataFile", "UrgentService", new TestServiceHandler("c", runOrder));
+        this.scheduleRequest("report-d", "asset-d", "CSVFile", "BackgroundService", new TestServiceHandler("d", runOrder));
+        this.scheduleRequest("report-e", "asset-e", "DataFile", "BackgroundService", new TestServiceHandler("e", runOrder));
+        this.scheduleRequest("report-f", "asset-f", "CSVFile", "UrgentService", new TestServiceHandler("f", runOrder));
+
+        release.countDown();
+        this.awaitFinished(7);
+
+        assertEquals(runOrder, Arrays.asList("c", "b", "e", "a", "f", "d"));
+    }
+
+
+    /**
+     * A waiting request that is cancelled never runs and gives back its place in the queue.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testCancelWaitingRequest() throws Exception
+    {
+        CountDownLatch      release   = new CountDownLatch(1);
+        TestServiceHandler  running   = new TestServiceHandler(release);
+        TestServiceHandler  cancelled = new TestServiceHandler(release);
+
+        scheduler = new DiscoveryScheduler(engineGUID, engineName, 1, 1, null);
+
+        this.scheduleRequest("report-0", "asset-0", "DataFile", running);
+        running.awaitStarted();
+        this.scheduleRequest("report-1", "asset-1", "DataFile", cancelled);
+
+        assertTrue(scheduler.cancel("report-1"));
+        assertFalse(scheduler.cancel("report-1"));
+        assertFalse(scheduler.cancel("unknown-report"));
+
+        DiscoveryEngineStatus status = scheduler.getStatus();
+
+        assertEquals(status.getQueuedRequests(), 0);
+        assertEquals(status.getCancelledRequests(), 1);
+        assertNull(scheduler.getInFlightRequest("asset-1", "DataFile"));
+
+        release.countDown();
+        this.awaitFinished(2);
+
+        assertFalse(cancelled.hasStarted());
+    }
+
+
+    /**
+     * A running request that is cancelled is interrupted.  The interrupt does not leak into the next request
+     * on the same worker thread.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testCancelRunningRequest() throws Exception
+    {
+        TestServiceHandler  cancelled = new TestServiceHandler(new CountDownLatch(1));
+        TestServiceHandler  next      = new TestServiceHandler(new CountDownLatch(0));
+
+        scheduler = new DiscoveryScheduler(engineGUID, engineName, 1, 2, null);
+
+        this.scheduleRequest("report-0", "asset-0", "DataFile", cancelled);
+        cancelled.awaitStarted();
+
+        assertTrue(scheduler.cancel("report-0"));
+        assertTrue(cancelled.awaitInterrupted());
+        assertFalse(scheduler.cancel("report-0"));
+
+        this.scheduleRequest("report-1", "asset-1", "DataFile", next);
+        this.awaitFinished(2);
+
+        assertFalse(next.wasInterruptedAtStart());
+        assertTrue(next.isCompleted());
+
+        DiscoveryEngineStatus status = scheduler.getStatus();
+
+        assertEquals(status.getCancelledRequests(), 1);
+        assertEquals(status.getCompletedRequests(), 1);
+        assertEquals(status.getFailedRequests(), 0);
+    }
+
+
+    /**
+     * The status reports the configuration of the scheduler and counts each outcome once.
+     *
+     * @throws Exception problem in the test
+     */
+    @Test
+    public void testStatusCounters() throws Exception
+    {
+        CountDownLatch      release   = new CountDownLatch(1);
+        TestServiceHandler  completed = new TestServiceHandler(release);
+        TestServiceHandler  failed    = new TestServiceHandler(release, false);
+
+        scheduler = new DiscoveryScheduler(engineGUID, engineName, 2, 2, null);
+
+        this.scheduleRequest("report-0", "asset-0", "DataFile", completed);
+        this.scheduleRequest("report-1", "asset-1", "DataFile", failed);
+        completed.awaitStarted();
+        failed.awaitStarted();
+
+        this.scheduleRequest("report-2", "asset-2", "DataFile", new TestServiceHandler(release));
+        this.scheduleRequest("report-3", "asset-3", "DataFile", new TestServiceHandler(release));
+        assertFalse(scheduler.reserveQueueSlot());
+        assertEquals(scheduler.getInFlightRequest("asset-0", "DataFile"), "report-0");
+        assertTrue(scheduler.cancel("report-3"));
+
+        DiscoveryEngineStatus status = scheduler.getStatus();
+
+        assertEquals(status.getDiscoveryEngineGUID(), engineGUID);
+        assertEquals(status.getDiscoveryEngineName(), engineName);
+        assertEquals(status.getWorkerCount(), 2);
+        assertEquals(status.getQueueCapacity(), 2);
+        assertEquals(status.getActiveRequests(), 2);
+        assertEquals(status.getQueuedRequests(), 1);
+
+        release.countDown();
+        this.awaitFinished(4);
+
+        status = scheduler.getStatus();
+
+        assertEquals(status.getActiveRequests(), 0);
+        assertEquals(status.getQueuedRequests(), 0);
+        assertEquals(status.getCompletedRequests(), 2);
+        assertEquals(status.getFailedRequests(), 1);
+        assertEquals(status.getCancelledRequests(), 1);
+        assertEquals(status.getRejectedRequests(), 1);
+        assertEquals(status.getDuplicateRequests(), 1);
+        assertTrue(status.getMaximumQueueTime() >= status.getAverageQueueTime());
+        assertTrue(status.getMaximumRunTime() >= status.getAverageRunTime());
+    }
+
+
+    /**
+     * Reserve a place in the queue and schedule a request.  The request type is the asset type.
+     *
+     * @param reportGUID unique identifier of the report for the request
+     * @param assetGUID unique identifier of the asset
+     * @param assetType type of the asset
+     * @param handler handler to run
+     */
+    private void scheduleRequest(String             reportGUID,
+                                 String             assetGUID,
+                                 String             assetType,
+                                 TestServiceHandler handler)
+    {
+        this.scheduleRequest(reportGUID, assetGUID, assetType, assetType + "Service", handler);
+    }
+
+
+    /**
+     * Reserve a place in the queue and schedule a request.
+     *
+     * @param reportGUID unique identifier of the report for the request
+     * @param assetGUID unique identifier of the asset
+     * @param assetType type of the asset
+     * @param requestType name of the discovery service for the request
+     * @param handler handler to run
+     */
+    private void scheduleRequest(String             reportGUID,
+                                 String             assetGUID,
+                                 String             assetType,
+                                 String             requestType,
+                                 TestServiceHandler handler)
+    {
+        assertTrue(scheduler.reserveQueueSlot());
+        scheduler.schedule(reportGUID, assetGUID, assetType, requestType, handler);
+    }
+
+
+    /**
+     * Wait until the queue is empty and the scheduler has counted the given number of requests as completed,
+     * failed or cancelled.
+     *
+     * @param finishedCount number of requests that are completed, failed or cancelled at the end
+     * @throws InterruptedException the test was interrupted
+     */
+    private void awaitFinished(int   finishedCount) throws InterruptedException
+    {
+        for (int attempt = 0; attempt < 1000; attempt++)
+        {
+            DiscoveryEngineStatus status = scheduler.getStatus();
+
+            if ((status.getActiveRequests() == 0) &&
+                (status.getQueuedRequests() == 0) &&
+                (status.getCompletedRequests() + status.getFailedRequests() + status.getCancelledRequests() >= finishedCount))
+            {
+                return;
+            }
+
+            Thread.sleep(waitTime);
+        }
+
+        throw new AssertionError("Discovery requests did not finish: " + scheduler.getStatus());
+    }
+
+
+    /**
+     * TestServiceHandler stands in for a discovery service.  It waits for a latch before finishing and records
+     * whether it was interrupted.
+     */
+    private static class TestServiceHandler extends DiscoveryServiceHandler
+    {
+        private final CountDownLatch  started     = new CountDownLatch(1);
+        private final CountDownLatch  interrupted = new CountDownLatch(1);
+        private final CountDownLatch  release;
+        private final boolean         succeeds;
+        private final String          name;
+        private final List<String>    runOrder;
+
+        private volatile boolean      completed            = false;
+        private volatile boolean      interruptedAtStart   = false;
+
+
+        /**
+         * Handler that finishes successfully once the latch is released.
+         *
+         * @param release latch to wait for
+         */
+        TestServiceHandler(CountDownLatch release)
+        {
+            this(release, true);
+        }
+
+
+        /**
+         * Handler that finishes once the latch is released.
+         *
+         * @param release latch to wait for
+         * @param succeeds whether the discovery service completes successfully
+         */
+        TestServiceHandler(CountDownLatch release,
+                           boolean        succeeds)
+        {
+            this(release, succeeds, null, null);
+        }
+
+
+        /**
+         * Handler that records its name when it runs and finishes straight away.
+         *
+         * @param name name to record
+         * @param runOrder list of the names of the handlers that have run
+         */
+        TestServiceHandler(String       name,
+                           List<String> runOrder)
+        {
+            this(new CountDownLatch(0), true, name, runOrder);
+        }
+
+
+        /**
+         * Constructor
+         *
+         * @param release latch to wait for
+         * @param succeeds whether the discovery service completes successfully
+         * @param name name to record
+         * @param runOrder list of the names of the handlers that have run
+         */
+        private TestServiceHandler(CountDownLatch release,
+                                   boolean        succeeds,
+                                   String         name,
+                                   List<String>   runOrder)
+        {
+            super(null, null, null, null, null, null, null, null);
+
+            this.release = release;
+            this.succeeds = succeeds;
+            this.name = name;
+            this.runOrder = runOrder;
+        }
+
+
+        /**
+         * Record the start and wait for the release or an interrupt.
+         */
+        @Override
+        public void run()
+        {
+            interruptedAtStart = Thread.currentThread().isInterrupted();
+
+            if (runOrder != null)
+            {
+                runOrder.add(name);
+            }
+
+            started.countDown();
+
+            try
+            {
+                release.await();
+                completed = succeeds;
+            }
+            catch (InterruptedException error)
+            {
+                interrupted.countDown();
+            }
+        }
+
+
+        /**
+         * Return whether the discovery service completed successfully.
+         *
+         * @return boolean
+         */
+        @Override
+        boolean isCompleted()
+        {
+            return completed;
+        }
+
+
+        /**
+         * Return whether run() has been called.
+         *
+         * @return boolean
+         */
+        boolean hasStarted()
+        {
+            return started.getCount() == 0;
+        }
+
+
+        /**
+         * Return whether the worker thread was already interrupted when run() was called.
+         *
+         * @return boolean
+         */
+        boolean wasInterruptedAtStart()
+        {
+            return interruptedAtStart;
+        }
+
+
+        /**
+         * Wait for run() to be called.
+         *
+         * @throws InterruptedException the test was interrupted
+         */
+        void awaitStarted() throws InterruptedException
+        {
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+        }
+
+
+        /**
+         * Wait for run() to be interrupted.
+         *
+         * @return true if it was interrupted
+         * @throws InterruptedException the test was interrupted
+         */
+        boolean awaitInterrupted() throws InterruptedException
+        {
+            return interrupted.await(10, TimeUnit.SECONDS);
+        }
+    }
+}
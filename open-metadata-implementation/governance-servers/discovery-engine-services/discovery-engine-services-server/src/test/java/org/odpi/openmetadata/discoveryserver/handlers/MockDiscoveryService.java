@@ -0,0 +1,48 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.discoveryserver.handlers;
+
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.discovery.DiscoveryService;
+
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * MockDiscoveryService does no analysis.  It waits until the test releases it, or its thread is interrupted.
+ */
+public class MockDiscoveryService extends DiscoveryService
+{
+    private static volatile CountDownLatch release = new CountDownLatch(0);
+
+
+    /**
+     * Set up the latch that discovery services started from now on wait for.
+     *
+     * @param newRelease latch
+     */
+    static void setRelease(CountDownLatch newRelease)
+    {
+        release = newRelease;
+    }
+
+
+    /**
+     * Wait for the release.
+     *
+     * @throws ConnectorCheckedException the discovery context is missing
+     */
+    @Override
+    public void start() throws ConnectorCheckedException
+    {
+        super.start();
+
+        try
+        {
+            release.await();
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
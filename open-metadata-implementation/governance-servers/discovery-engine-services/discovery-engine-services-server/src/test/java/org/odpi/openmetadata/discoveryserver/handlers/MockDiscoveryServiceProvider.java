@@ -0,0 +1,19 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.discoveryserver.handlers;
+
+import org.odpi.openmetadata.frameworks.discovery.DiscoveryServiceProvider;
+
+/**
+ * MockDiscoveryServiceProvider creates MockDiscoveryService instances.
+ */
+public class MockDiscoveryServiceProvider extends DiscoveryServiceProvider
+{
+    /**
+     * Constructor sets up the class name of the connector.
+     */
+    public MockDiscoveryServiceProvider()
+    {
+        super.setConnectorClassName(MockDiscoveryService.class.getName());
+    }
+}
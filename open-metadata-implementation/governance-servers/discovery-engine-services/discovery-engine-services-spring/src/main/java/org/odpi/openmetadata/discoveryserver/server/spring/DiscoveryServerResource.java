@@ -3,7 +3,10 @@
 package org.odpi.openmetadata.discoveryserver.server.spring;
 
 import org.odpi.openmetadata.commonservices.ffdc.rest.GUIDResponse;
+import org.odpi.openmetadata.commonservices.ffdc.rest.NullRequestBody;
+import org.odpi.openmetadata.commonservices.ffdc.rest.VoidResponse;
 import org.odpi.openmetadata.commonservices.odf.metadatamanagement.rest.*;
+import org.odpi.openmetadata.discoveryserver.rest.DiscoveryEngineStatusResponse;
 import org.odpi.openmetadata.discoveryserver.server.DiscoveryServerRESTServices;
 import org.springframework.web.bind.annotation.*;
 
@@ -166,4 +169,55 @@ public class DiscoveryServerResource
     {
         return restAPI.getAnnotation(serverName, discoveryEngineGUID, userId, discoveryRequestGUID, annotationGUID);
     }
+
+
+    /**
+     * Cancel a discovery request that is waiting or running.  Its discovery analysis report is marked as failed.
+     *
+     * @param serverName name of the discovery server.
+     * @param discoveryEngineGUID unique identifier of the discovery engine.
+     * @param userId calling user
+     * @param discoveryRequestGUID identifier of the discovery request.
+     * @param requestBody null request body to satisfy the POST protocol.
+     *
+     * @return void or
+     *
+     *  InvalidParameterException the discovery request is not waiting or running or
+     *  UserNotAuthorizedException user not authorized to issue this request or
+     *  DiscoveryEngineException there was a problem detected by the discovery engine.
+     */
+    @RequestMapping(method = RequestMethod.POST, path = "/discovery-analysis-reports/{discoveryRequestGUID}/cancel")
+
+    public VoidResponse cancelDiscoveryRequest(@PathVariable String          serverName,
+                                               @PathVariable String          discoveryEngineGUID,
+                                               @PathVariable String          userId,
+                                               @PathVariable String          discoveryRequestGUID,
+                                               @RequestBody  NullRequestBody requestBody)
+    {
+        return restAPI.cancelDiscoveryRequest(serverName, discoveryEngineGUID, userId, discoveryRequestGUID, requestBody);
+    }
+
+
+    /**
+     * Return the status of a discovery engine.  This includes the number of discovery requests that are waiting
+     * and running, the number that have finished, and how long they waited and ran.
+     *
+     * @param serverName name of the discovery server.
+     * @param discoveryEngineGUID unique identifier of the discovery engine.
+     * @param userId calling user
+     *
+     * @return discovery engine status or
+     *
+     *  InvalidParameterException the discovery engine is not known or
+     *  UserNotAuthorizedException user not authorized to issue this request or
+     *  PropertyServerException there was a problem detected by the discovery server.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/status")
+
+    public DiscoveryEngineStatusResponse getDiscoveryEngineStatus(@PathVariable String   serverName,
+                                                                  @PathVariable String   discoveryEngineGUID,
+                                                                  @PathVariable String   userId)
+    {
+        return restAPI.getDiscoveryEngineStatus(serverName, discoveryEngineGUID, userId);
+    }
 }
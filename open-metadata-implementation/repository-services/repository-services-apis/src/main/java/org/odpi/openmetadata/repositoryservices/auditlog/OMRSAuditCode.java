@@ -196,6 +196,16 @@ public enum OMRSAuditCode
                                 "open metadata repository cohort.",
                       "No action is required.  This is part of the normal operation of the server."),
 
+    AUDIT_LOG_BUFFER_STATISTICS("OMRS-AUDIT-0027",
+                      OMRSAuditLogRecordSeverity.INFO,
+                      "The audit log buffer of {0} records using the {1} policy has dropped {2} records when full, " +
+                              "sampled out {3} repeated records and seen {4} records fail to reach an audit log store; " +
+                              "the slowest audit log store is {5} records behind",
+                      "The local server is reporting the activity of the buffer that passes audit log records to the audit log stores.",
+                      "No action is required if no records are being lost.  Otherwise consider increasing the " +
+                              "auditLogBufferSize in the repository services configuration, changing the auditLogBufferFullAction " +
+                              "or using a faster audit log destination."),
+
     INITIALIZING_EVENT_MANAGER("OMRS-AUDIT-0029",
                                OMRSAuditLogRecordSeverity.INFO,
                                "The {0} event manager is initializing",
@@ -306,6 +316,24 @@ public enum OMRSAuditCode
                        "The local server has completed the processing of the open metadata archive.",
                        "No action is required.  This is part of the normal operation of the server."),
 
+    ARCHIVE_LOAD_PROGRESS("OMRS-AUDIT-0054",
+                       OMRSAuditLogRecordSeverity.INFO,
+                       "The Open Metadata Repository Services (OMRS) has loaded {0} instances from open metadata archive {1} at {2} instances per second",
+                       "The local server is loading the instances from the open metadata archive in batches.",
+                       "No action is required.  This is part of the normal operation of the server."),
+
+    ARCHIVE_LOAD_THROUGHPUT("OMRS-AUDIT-0055",
+                       OMRSAuditLogRecordSeverity.INFO,
+                       "The Open Metadata Repository Services (OMRS) loaded {0} instances from open metadata archive {1} in {2} milliseconds at {3} instances per second",
+                       "The local server has finished loading the instances from the open metadata archive.",
+                       "No action is required.  This is part of the normal operation of the server."),
+
+    ARCHIVE_BATCH_LOAD_ERROR("OMRS-AUDIT-0056",
+                       OMRSAuditLogRecordSeverity.EXCEPTION,
+                       "The Open Metadata Repository Services (OMRS) was unable to load a batch of instances from open metadata archive {0} due to exception {1} with message {2}",
+                       "The local server has skipped the instances in the batch and continues to load the rest of the archive.",
+                       "Review the exception to determine the source of the error and correct it.  Then reload the archive."),
+
     REGISTERED_WITH_COHORT("OMRS-AUDIT-0060",
                            OMRSAuditLogRecordSeverity.INFO,
                            "Registering with open metadata repository cohort {0} using metadata collection id {1}",
@@ -0,0 +1,84 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+/**
+ * OMRSAuditLogBufferFullAction defines what the OMRSAuditLogDestination does with a new log record when its
+ * buffer of log records waiting to be passed to the audit log stores is full.
+ * <ul>
+ *     <li>
+ *         BLOCK: The caller waits until the slowest audit log store has taken a log record from the buffer.
+ *         No log records are lost.
+ *     </li>
+ *     <li>
+ *         DROP_OLDEST: The oldest log record in the buffer is dropped for the audit log stores that have not yet
+ *         taken it so the caller never waits.
+ *     </li>
+ *     <li>
+ *         SAMPLE_REPEATED: The new log record is dropped if a log record with the same message id is already
+ *         waiting in the buffer.  Otherwise the caller waits as for BLOCK.  This keeps one sample of a message
+ *         that is being repeated rapidly without losing the other messages.
+ *     </li>
+ * </ul>
+ */
+public enum OMRSAuditLogBufferFullAction
+{
+    BLOCK           (0, "Block",           "The caller waits for space in the buffer."),
+    DROP_OLDEST     (1, "DropOldest",      "The oldest log record in the buffer is dropped."),
+    SAMPLE_REPEATED (2, "SampleRepeated",  "Log records with a message id already in the buffer are dropped, " +
+                                           "otherwise the caller waits for space in the buffer.");
+
+    private  int    actionCode;
+    private  String actionName;
+    private  String actionDescription;
+
+
+    /**
+     * Typical constructor sets up the selected enum value.
+     *
+     * @param actionCode numeric of this enum.
+     * @param actionName name of enum.
+     * @param actionDescription default description of enum.
+     */
+    OMRSAuditLogBufferFullAction(int      actionCode,
+                                 String   actionName,
+                                 String   actionDescription)
+    {
+        this.actionCode = actionCode;
+        this.actionName = actionName;
+        this.actionDescription = actionDescription;
+    }
+
+
+    /**
+     * Return the code for this enum.
+     *
+     * @return int code
+     */
+    public int getOrdinal()
+    {
+        return actionCode;
+    }
+
+
+    /**
+     * Return the name of this enum.
+     *
+     * @return String name
+     */
+    public String getName()
+    {
+        return actionName;
+    }
+
+
+    /**
+     * Return the default description of this enum.
+     *
+     * @return String description
+     */
+    public String getDescription()
+    {
+        return actionDescription;
+    }
+}
@@ -12,21 +12,43 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * OMRSAuditLogDestination provides information needed to log records to the configured audit log destinations
  * for a specific server instance.
+ * <p>
+ *     The log records are passed to the audit log stores through a bounded ring buffer with a consumer thread
+ *     for each store, so the caller does not wait for the stores to write the log record.  The buffer size and
+ *     the action taken when the buffer is full can be set in the constructor.  Once the destination is closed,
+ *     log records are passed to the stores on the caller's thread.
+ * </p>
  */
 public class OMRSAuditLogDestination
 {
+    /*
+     * Defaults for the buffer of log records waiting to be passed to the audit log stores.
+     */
+    public static final int                          defaultBufferSize       = 1024;
+    public static final OMRSAuditLogBufferFullAction defaultBufferFullAction = OMRSAuditLogBufferFullAction.BLOCK;
+
+    private static final long shutdownWaitTimeMs = 10000;
+
     private final OMRSAuditLogRecordOriginator originator     = new OMRSAuditLogRecordOriginator();
     private       List<OMRSAuditLogStore>      auditLogStores = null;
+    private       OMRSAuditLogRingBuffer       ringBuffer     = null;
 
     private static final Logger log = LoggerFactory.getLogger(OMRSAuditLog.class);
 
+
+    /**
+     * Constructor used when there is no information about the local server.
+     *
+     * @param auditLogStores list of destinations for the audit log records
+     */
     public OMRSAuditLogDestination(List<OMRSAuditLogStore> auditLogStores)
     {
-        this.auditLogStores = auditLogStores;
+        this(null, null, null, auditLogStores);
     }
 
 
@@ -43,6 +65,33 @@ public class OMRSAuditLogDestination
                                    String                  localServerType,
                                    String                  localOrganizationName,
                                    List<OMRSAuditLogStore> auditLogStores)
+    {
+        this(localServerName,
+             localServerType,
+             localOrganizationName,
+             auditLogStores,
+             defaultBufferSize,
+             defaultBufferFullAction);
+    }
+
+
+    /**
+     * Initialize the static values used in all log records along with the buffer between the callers and the
+     * audit log stores.
+     *
+     * @param localServerName name of the local server
+     * @param localServerType type of the local server
+     * @param localOrganizationName name of the organization that owns the local server
+     * @param auditLogStores list of destinations for the audit log records
+     * @param bufferSize number of log records that can wait to be passed to the audit log stores
+     * @param bufferFullAction what to do with a new log record when the buffer is full
+     */
+    public OMRSAuditLogDestination(String                       localServerName,
+                                   String                       localServerType,
+                                   String                       localOrganizationName,
+                                   List<OMRSAuditLogStore>      auditLogStores,
+                                   int                          bufferSize,
+                                   OMRSAuditLogBufferFullAction bufferFullAction)
     {
         this.originator.setServerName(localServerName);
         this.originator.setServerType(localServerType);
@@ -51,6 +100,18 @@ public class OMRSAuditLogDestination
         if (auditLogStores != null)
         {
             this.auditLogStores = new ArrayList<>(auditLogStores);
+
+            /*
+             * The ring buffer needs at least one audit log store to consume its log records - otherwise
+             * it fills up and never empties.
+             */
+            if (this.auditLogStores.stream().anyMatch(Objects::nonNull))
+            {
+                this.ringBuffer = new OMRSAuditLogRingBuffer(localServerName + " AuditLogStore-",
+                                                             this.auditLogStores,
+                                                             bufferSize,
+                                                             bufferFullAction);
+            }
         }
     }
 
@@ -105,34 +166,119 @@ public class OMRSAuditLogDestination
 
         if (auditLogStores != null)
         {
-            for (OMRSAuditLogStore  auditLogStore : auditLogStores)
+            List<String> additionalInformationArray = null;
+
+            if (additionalInformation != null)
+            {
+                additionalInformationArray = new ArrayList<>();
+                additionalInformationArray.add(additionalInformation);
+            }
+
+            OMRSAuditLogRecord logRecord = new OMRSAuditLogRecord(originator,
+                                                                  reportingComponent,
+                                                                  severity.getName(),
+                                                                  logMessageId,
+                                                                  logMessage,
+                                                                  additionalInformationArray,
+                                                                  systemAction,
+                                                                  userAction);
+
+            if ((ringBuffer == null) || (! ringBuffer.publish(logRecord)))
             {
-                if (auditLogStore != null)
+                this.storeLogRecord(logRecord);
+            }
+        }
+    }
+
+
+    /**
+     * Return the number of log records waiting to be passed to at least one of the audit log stores.
+     *
+     * @return count
+     */
+    public int getBufferedLogRecordCount()
+    {
+        return (ringBuffer == null) ? 0 : ringBuffer.getBufferedCount();
+    }
+
+
+    /**
+     * Return the number of log records dropped because the buffer was full.  A log record dropped for more than
+     * one audit log store is counted for each store.
+     *
+     * @return count
+     */
+    public long getDroppedLogRecordCount()
+    {
+        return (ringBuffer == null) ? 0 : ringBuffer.getDroppedCount();
+    }
+
+
+    /**
+     * Return the number of log records dropped because the buffer was full and a log record with the same
+     * message id was already waiting in the buffer.
+     *
+     * @return count
+     */
+    public long getSampledLogRecordCount()
+    {
+        return (ringBuffer == null) ? 0 : ringBuffer.getSampledCount();
+    }
+
+
+    /**
+     * Return the number of log records that the audit log stores failed to store.
+     *
+     * @return count
+     */
+    public long getFailedLogRecordCount()
+    {
+        return (ringBuffer == null) ? 0 : ringBuffer.getFailedCount();
+    }
+
+
+    /**
+     * Return the number of log records that the slowest audit log store is behind the callers.
+     *
+     * @return count
+     */
+    public long getLogRecordLag()
+    {
+        return (ringBuffer == null) ? 0 : ringBuffer.getMaxLag();
+    }
+
+
+    /**
+     * Pass the log records waiting in the buffer to the audit log stores and stop the consumer threads.
+     * Any log records received after this call are passed to the audit log stores on the caller's thread.
+     */
+    public void close()
+    {
+        if (ringBuffer != null)
+        {
+            ringBuffer.shutdown(shutdownWaitTimeMs);
+        }
+    }
+
+
+    /**
+     * Pass a log record to each of the audit log stores on the caller's thread.
+     *
+     * @param logRecord log record
+     */
+    private void storeLogRecord(OMRSAuditLogRecord   logRecord)
+    {
+        for (OMRSAuditLogStore  auditLogStore : auditLogStores)
+        {
+            if (auditLogStore != null)
+            {
+                try
+                {
+                    auditLogStore.storeLogRecord(logRecord);
+                }
+                catch (Throwable error)
                 {
-                    List<String> additionalInformationArray = null;
-
-                    if (additionalInformation != null)
-                    {
-                        additionalInformationArray = new ArrayList<>();
-                        additionalInformationArray.add(additionalInformation);
-                    }
-
-                    OMRSAuditLogRecord logRecord = new OMRSAuditLogRecord(originator,
-                                                                          reportingComponent,
-                                                                          severity.getName(),
-                                                                          logMessageId,
-                                                                          logMessage,
-                                                                          additionalInformationArray,
-                                                                          systemAction,
-                                                                          userAction);
-                    try
-                    {
-                        auditLogStore.storeLogRecord(logRecord);
-                    }
-                    catch (Throwable error)
-                    {
-                        log.error("Error: " + error + " writing audit log: " + logRecord);
-                    }
+                    log.error("Error: " + error + " writing audit log: " + logRecord);
                 }
             }
         }
@@ -0,0 +1,484 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * OMRSAuditLogRingBuffer passes log records from the threads calling the audit log to the audit log stores.
+ * <p>
+ *     The log records are held in a bounded ring of slots.  Each audit log store has its own consumer thread
+ *     with its own position in the ring, so a slow store only delays its own log records.  A slot is reused once
+ *     every store has taken its log record.  When the ring is full, the OMRSAuditLogBufferFullAction decides
+ *     whether the caller waits, the oldest log record is dropped, or a repeated log record is dropped.
+ * </p>
+ * <p>
+ *     A consumer thread never waits for space in the ring.  If a store logs a message while the ring is full,
+ *     that message is dropped so the store can not deadlock with itself.
+ * </p>
+ */
+class OMRSAuditLogRingBuffer
+{
+    private static final Logger log = LoggerFactory.getLogger(OMRSAuditLogRingBuffer.class);
+
+    private static final int  maxBatchSize    = 256;
+    private static final long waitIntervalMs  = 1000;
+
+    private final OMRSAuditLogRecord[]          slots;
+    private final OMRSAuditLogBufferFullAction  fullAction;
+    private final List<StoreConsumer>           consumers          = new ArrayList<>();
+    private final Map<String, Integer>          bufferedMessageIds = new HashMap<>();
+    private final ReentrantLock                 lock               = new ReentrantLock();
+    private final Condition                     notEmpty           = lock.newCondition();
+    private final Condition                     notFull            = lock.newCondition();
+
+    /*
+     * These values are guarded by the lock.  The log records from releasedSequence up to (but not including)
+     * publishedSequence are in the ring.
+     */
+    private long     publishedSequence = 0;
+    private long     releasedSequence  = 0;
+    private long     sampledCount      = 0;
+    private long     rejectedCount     = 0;
+    private boolean  running           = true;
+
+
+    /**
+     * Constructor starts a consumer thread for each audit log store.
+     *
+     * @param threadNamePrefix start of the name of each consumer thread
+     * @param auditLogStores destinations for the log records
+     * @param bufferSize number of log records the ring can hold
+     * @param fullAction what to do with a new log record when the ring is full
+     */
+    OMRSAuditLogRingBuffer(String                        threadNamePrefix,
+                           List<OMRSAuditLogStore>       auditLogStores,
+                           int                           bufferSize,
+                           OMRSAuditLogBufferFullAction  fullAction)
+    {
+        this.slots = new OMRSAuditLogRecord[Math.max(bufferSize, 1)];
+        this.fullAction = (fullAction == null) ? OMRSAuditLogBufferFullAction.BLOCK : fullAction;
+
+        if (auditLogStores != null)
+        {
+            for (OMRSAuditLogStore auditLogStore : auditLogStores)
+            {
+                if (auditLogStore != null)
+                {
+                    consumers.add(new StoreConsumer(auditLogStore));
+                }
+            }
+        }
+
+        /*
+         * With no consumers nothing would ever free a slot, so the ring refuses all log records.
+         */
+        if (consumers.isEmpty())
+        {
+            running = false;
+        }
+
+        for (int i = 0; i < consumers.size(); i++)
+        {
+            Thread consumerThread = new Thread(consumers.get(i), threadNamePrefix + i);
+
+            consumerThread.setDaemon(true);
+            consumers.get(i).thread = consumerThread;
+            consumerThread.start();
+        }
+    }
+
+
+    /**
+     * Add a log record to the ring.
+     *
+     * @param logRecord log record
+     * @return true if the log record was added to the ring or deliberately dropped, false if the ring has been
+     * shut down so the caller must pass the log record to the stores itself
+     */
+    boolean publish(OMRSAuditLogRecord   logRecord)
+    {
+        lock.lock();
+        try
+        {
+            while ((running) && (publishedSequence - releasedSequence >= slots.length))
+            {
+                if (fullAction == OMRSAuditLogBufferFullAction.DROP_OLDEST)
+                {
+                    this.dropOldest();
+                }
+                else if ((fullAction == OMRSAuditLogBufferFullAction.SAMPLE_REPEATED) &&
+                         (bufferedMessageIds.containsKey(logRecord.getMessageId())))
+                {
+                    sampledCount++;
+                    return true;
+                }
+                else if (this.isConsumerThread())
+                {
+                    rejectedCount++;
+                    return true;
+                }
+                else
+                {
+                    try
+                    {
+                        notFull.await(waitIntervalMs, TimeUnit.MILLISECONDS);
+                    }
+                    catch (InterruptedException error)
+                    {
+                        Thread.currentThread().interrupt();
+                        rejectedCount++;
+                        return true;
+                    }
+                }
+            }
+
+            if (! running)
+            {
+                return false;
+            }
+
+            slots[this.getSlot(publishedSequence)] = logRecord;
+            publishedSequence++;
+            bufferedMessageIds.merge(logRecord.getMessageId(), 1, Integer::sum);
+
+            notEmpty.signalAll();
+
+            return true;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of log records in the ring.
+     *
+     * @return count
+     */
+    int getBufferedCount()
+    {
+        lock.lock();
+        try
+        {
+            return (int)(publishedSequence - releasedSequence);
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of log records dropped for each store because the ring was full, added up over all
+     * of the stores.
+     *
+     * @return count
+     */
+    long getDroppedCount()
+    {
+        lock.lock();
+        try
+        {
+            long droppedCount = rejectedCount;
+
+            for (StoreConsumer consumer : consumers)
+            {
+                droppedCount = droppedCount + consumer.droppedCount;
+            }
+
+            return droppedCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of log records dropped because a log record with the same message id was in the ring.
+     *
+     * @return count
+     */
+    long getSampledCount()
+    {
+        lock.lock();
+        try
+        {
+            return sampledCount;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Return the number of log records that a store rejected with an exception, added up over all of the stores.
+     *
+     * @return count
+     */
+    long getFailedCount()
+    {
+        long failedCount = 0;
+
+        for (StoreConsumer consumer : consumers)
+        {
+            failedCount = failedCount + consumer.failedCount;
+        }
+
+        return failedCount;
+    }
+
+
+    /**
+     * Return the number of log records published to the ring that the slowest store has not yet stored.
+     *
+     * @return count
+     */
+    long getMaxLag()
+    {
+        lock.lock();
+        try
+        {
+            long maxLag = 0;
+
+            for (StoreConsumer consumer : consumers)
+            {
+                maxLag = Math.max(maxLag, publishedSequence - consumer.storedSequence);
+            }
+
+            return maxLag;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Stop accepting log records and wait for the consumer threads to pass the log records already in the ring
+     * to their stores.
+     *
+     * @param waitTimeMs maximum time to wait for each consumer thread
+     */
+    void shutdown(long   waitTimeMs)
+    {
+        lock.lock();
+        try
+        {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        for (StoreConsumer consumer : consumers)
+        {
+            try
+            {
+                consumer.thread.join(waitTimeMs);
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * Return the index of the slot used by a sequence number.
+     *
+     * @param sequence sequence number of a log record
+     * @return slot index
+     */
+    private int getSlot(long   sequence)
+    {
+        return (int)(sequence % slots.length);
+    }
+
+
+    /**
+     * Return whether the current thread is one of the consumer threads.
+     *
+     * @return boolean
+     */
+    private boolean isConsumerThread()
+    {
+        Thread currentThread = Thread.currentThread();
+
+        for (StoreConsumer consumer : consumers)
+        {
+            if (consumer.thread == currentThread)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Move the stores that have not taken the oldest log record past it and release its slot.  Called with the
+     * lock held.
+     */
+    private void dropOldest()
+    {
+        for (StoreConsumer consumer : consumers)
+        {
+            if (consumer.takenSequence == releasedSequence)
+            {
+                consumer.takenSequence++;
+                consumer.droppedCount++;
+            }
+        }
+
+        this.releaseSlots();
+    }
+
+
+    /**
+     * Release the slots of the log records that every store has taken.  Called with the lock held.
+     */
+    private void releaseSlots()
+    {
+        long minTakenSequence = publishedSequence;
+
+        for (StoreConsumer consumer : consumers)
+        {
+            minTakenSequence = Math.min(minTakenSequence, consumer.takenSequence);
+        }
+
+        while (releasedSequence < minTakenSequence)
+        {
+            int                slot      = this.getSlot(releasedSequence);
+            OMRSAuditLogRecord logRecord = slots[slot];
+
+            slots[slot] = null;
+            bufferedMessageIds.computeIfPresent(logRecord.getMessageId(), (messageId, count) -> (count > 1) ? count - 1 : null);
+            releasedSequence++;
+        }
+
+        notFull.signalAll();
+    }
+
+
+    /**
+     * StoreConsumer takes the log records from the ring for one audit log store.
+     */
+    private class StoreConsumer implements Runnable
+    {
+        private final OMRSAuditLogStore  auditLogStore;
+        private Thread                   thread         = null;
+
+        /*
+         * takenSequence and droppedCount are guarded by the lock.
+         */
+        private long                     takenSequence  = 0;
+        private long                     droppedCount   = 0;
+        private volatile long            storedSequence = 0;
+        private volatile long            failedCount    = 0;
+
+
+        /**
+         * Constructor
+         *
+         * @param auditLogStore destination for the log records
+         */
+        StoreConsumer(OMRSAuditLogStore   auditLogStore)
+        {
+            this.auditLogStore = auditLogStore;
+        }
+
+
+        /**
+         * Pass log records to the store until the ring is shut down and this store has taken all of its
+         * log records.
+         */
+        @Override
+        public void run()
+        {
+            List<OMRSAuditLogRecord> batch = new ArrayList<>();
+
+            while (this.takeBatch(batch))
+            {
+                for (OMRSAuditLogRecord logRecord : batch)
+                {
+                    try
+                    {
+                        auditLogStore.storeLogRecord(logRecord);
+                    }
+                    catch (Throwable error)
+                    {
+                        failedCount++;
+                        log.error("Error: " + error + " writing audit log: " + logRecord);
+                    }
+                }
+
+                storedSequence = storedSequence + batch.size();
+                batch.clear();
+            }
+        }
+
+
+        /**
+         * Wait for log records and copy them from the ring.
+         *
+         * @param batch list to add the log records to
+         * @return false if the ring is shut down and there are no more log records for this store
+         */
+        private boolean takeBatch(List<OMRSAuditLogRecord>   batch)
+        {
+            lock.lock();
+            try
+            {
+                while ((running) && (takenSequence == publishedSequence))
+                {
+                    notEmpty.awaitUninterruptibly();
+                }
+
+                /*
+                 * Log records dropped from under this store count as stored for the lag.
+                 */
+                storedSequence = takenSequence;
+
+                while ((takenSequence < publishedSequence) && (batch.size() < maxBatchSize))
+                {
+                    batch.add(slots[getSlot(takenSequence)]);
+                    takenSequence++;
+                }
+
+                releaseSlots();
+
+                return ! batch.isEmpty();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -3,6 +3,8 @@
 package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.odpi.openmetadata.frameworks.connectors.Connector;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
 import org.odpi.openmetadata.frameworks.connectors.VirtualConnectorExtension;
@@ -63,6 +65,13 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
     private static final String connectorName    = "OMRSTopicListener";
 
+    /*
+     * The reader and writer are thread-safe so one of each is shared by all of the topic connectors
+     * rather than creating a new object mapper for every event.
+     */
+    private static final ObjectWriter eventWriter = new ObjectMapper().writerFor(OMRSEventV1.class);
+    private static final ObjectReader eventReader = new ObjectMapper().readerFor(OMRSEventBean.class);
+
     private List<Connector> embeddedConnectors = null;
 
     private List<OMRSTopicListener>          internalTopicListeners = new ArrayList<>();
@@ -363,13 +372,16 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
         {
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
+                /*
+                 * The event is serialized once and the same payload is sent to each event bus.
+                 */
+                byte[] eventPayload = eventWriter.writeValueAsBytes(event);
 
                 for (OpenMetadataTopicConnector eventBusConnector : eventBusConnectors)
                 {
                     if (eventBusConnector != null)
                     {
-                        eventBusConnector.sendEvent(objectMapper.writeValueAsString(event));
+                        eventBusConnector.sendEvent(eventPayload);
                     }
                 }
             }
@@ -433,9 +445,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
              */
             try
             {
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                eventBean = objectMapper.readValue(event, OMRSEventBean.class);
+                eventBean = eventReader.readValue(event);
             }
             catch (Throwable   exception)
             {
@@ -0,0 +1,155 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * IncomingEventDispatcher passes the events received by an OpenMetadataTopicConnector to a pool of worker
+ * threads for distribution to the topic listeners.  Each worker thread has its own queue.  Events that refer to
+ * the same metadata instance (or type) are always placed on the same queue so they are processed in the order
+ * they were received.  Events that do not refer to an instance or type are all placed on the first queue.
+ */
+class IncomingEventDispatcher
+{
+    private static final Logger log = LoggerFactory.getLogger(IncomingEventDispatcher.class);
+
+    private ExecutorService[]        workers;
+    private Consumer<IncomingEvent>  distributor;
+    private AtomicInteger            queuedEventCount = new AtomicInteger(0);
+
+
+    /**
+     * Constructor
+     *
+     * @param threadName name of the listener thread - used to name the worker threads
+     * @param workerCount number of worker threads
+     * @param distributor function that passes an event to the topic listeners
+     */
+    IncomingEventDispatcher(String                   threadName,
+                            int                      workerCount,
+                            Consumer<IncomingEvent>  distributor)
+    {
+        this.distributor = distributor;
+        this.workers = new ExecutorService[workerCount];
+
+        for (int i = 0; i < workerCount; i++)
+        {
+            final String workerName = threadName + " worker " + i;
+
+            workers[i] = Executors.newSingleThreadExecutor((runnable) ->
+                                                           {
+                                                               Thread thread = new Thread(runnable, workerName);
+                                                               thread.setDaemon(true);
+                                                               return thread;
+                                                           });
+        }
+    }
+
+
+    /**
+     * Queue an event for distribution.
+     *
+     * @param event event to distribute
+     */
+    void dispatch(IncomingEvent   event)
+    {
+        ExecutorService worker = workers[getWorkerIndex(OMRSEventOrderingKey.getOrderingKey(event.getJson()))];
+
+        queuedEventCount.incrementAndGet();
+
+        try
+        {
+            worker.execute(() ->
+                           {
+                               try
+                               {
+                                   distributor.accept(event);
+                               }
+                               finally
+                               {
+                                   queuedEventCount.decrementAndGet();
+                               }
+                           });
+        }
+        catch (RejectedExecutionException error)
+        {
+            queuedEventCount.decrementAndGet();
+
+            log.debug("Event received after shutdown: " + event.getJson());
+        }
+    }
+
+
+    /**
+     * Return the number of events waiting for, or undergoing, distribution.
+     *
+     * @return count
+     */
+    int getQueuedEventCount()
+    {
+        return queuedEventCount.get();
+    }
+
+
+    /**
+     * Stop accepting new events.  The events already queued are still distributed.
+     */
+    void shutdown()
+    {
+        for (ExecutorService worker : workers)
+        {
+            worker.shutdown();
+        }
+    }
+
+
+    /**
+     * Wait for the events queued before shutdown to be distributed.
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return true if all of the workers have finished; false if the timeout expired first
+     * @throws InterruptedException interrupted while waiting
+     */
+    boolean awaitTermination(long       timeout,
+                             TimeUnit   unit) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+
+        for (ExecutorService worker : workers)
+        {
+            if (! worker.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Select the worker for an ordering key.
+     *
+     * @param orderingKey key or null
+     * @return index of the worker
+     */
+    private int getWorkerIndex(String   orderingKey)
+    {
+        if (orderingKey == null)
+        {
+            return 0;
+        }
+
+        return (orderingKey.hashCode() & Integer.MAX_VALUE) % workers.length;
+    }
+}
@@ -0,0 +1,195 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * OMRSEventOrderingKey extracts the unique identifier of the metadata instance (or type) that an OMRS event
+ * refers to.  Events with the same ordering key must be processed in the order they were sent.  It is used
+ * by the topic connectors to keep the events for an instance in sequence while events for different instances
+ * are sent or processed in parallel.
+ */
+public class OMRSEventOrderingKey
+{
+    private static final Logger      log         = LoggerFactory.getLogger(OMRSEventOrderingKey.class);
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private static final String INSTANCE_SECTION = "instanceEventSection";
+    private static final String TYPEDEF_SECTION  = "typeDefEventSection";
+    private static final String INSTANCE_GUID    = "instanceGUID";
+    private static final String TYPEDEF_GUID     = "typeDefGUID";
+    private static final String GUID             = "guid";
+
+    private static final List<String> instanceObjects = Arrays.asList("entity", "relationship");
+    private static final List<String> typeDefObjects  = Arrays.asList("typeDef", "attributeTypeDef");
+    private static final String       typeDefPatch    = "typeDefPatch";
+
+
+    /**
+     * Private constructor since all methods are static.
+     */
+    private OMRSEventOrderingKey()
+    {
+    }
+
+
+    /**
+     * Extract the unique identifier of the instance or type that an OMRS event refers to.  The event is scanned
+     * rather than parsed, skipping over the parts of the event that can not contain the identifier.
+     *
+     * @param json event payload
+     * @return guid or null if the event does not refer to an instance or type (or is not an OMRS event)
+     */
+    public static String getOrderingKey(String   json)
+    {
+        if (json == null)
+        {
+            return null;
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(json))
+        {
+            JsonToken token = parser.nextToken();
+
+            if (token != JsonToken.START_OBJECT)
+            {
+                return null;
+            }
+
+            String sectionGUID = null;
+
+            while ((token = parser.nextToken()) != null)
+            {
+                if (token == JsonToken.FIELD_NAME)
+                {
+                    String            fieldName   = parser.getCurrentName();
+                    JsonStreamContext context     = parser.getParsingContext();
+                    String            parentName  = getParentFieldName(context);
+                    String            sectionName = getParentFieldName(context.getParent());
+
+                    token = parser.nextToken();
+
+                    if (token == JsonToken.VALUE_STRING)
+                    {
+                        if (isSectionGUID(fieldName, parentName))
+                        {
+                            sectionGUID = parser.getText();
+                        }
+                        else if (isObjectGUID(fieldName, parentName, sectionName))
+                        {
+                            return parser.getText();
+                        }
+                    }
+                    else if (((token == JsonToken.START_OBJECT) || (token == JsonToken.START_ARRAY)) &&
+                             (! isOnPathToKey(fieldName, parentName)))
+                    {
+                        parser.skipChildren();
+                    }
+                }
+            }
+
+            return sectionGUID;
+        }
+        catch (Throwable error)
+        {
+            log.debug("Unable to extract ordering key from event: " + error.getMessage());
+
+            return null;
+        }
+    }
+
+
+    /**
+     * Return the name of the field that holds the object for the supplied context.
+     *
+     * @param context object context
+     * @return field name or null if this is the root
+     */
+    private static String getParentFieldName(JsonStreamContext   context)
+    {
+        if ((context == null) || (context.getParent() == null))
+        {
+            return null;
+        }
+
+        return context.getParent().getCurrentName();
+    }
+
+
+    /**
+     * Return whether the field is the GUID held in the event section itself.  This is only set for some types
+     * of event so it is used if the GUID of the instance or type in the event is not found.
+     *
+     * @param fieldName name of the field
+     * @param parentName name of the field that holds the object containing the field
+     * @return boolean result
+     */
+    private static boolean isSectionGUID(String   fieldName,
+                                         String   parentName)
+    {
+        return (INSTANCE_SECTION.equals(parentName) && INSTANCE_GUID.equals(fieldName)) ||
+               (TYPEDEF_SECTION.equals(parentName) && TYPEDEF_GUID.equals(fieldName));
+    }
+
+
+    /**
+     * Return whether the field is the GUID of the instance or type carried in the event.
+     *
+     * @param fieldName name of the field
+     * @param parentName name of the field that holds the object containing the field
+     * @param sectionName name of the field that holds the object containing the parent
+     * @return boolean result
+     */
+    private static boolean isObjectGUID(String   fieldName,
+                                        String   parentName,
+                                        String   sectionName)
+    {
+        if (INSTANCE_SECTION.equals(sectionName))
+        {
+            return GUID.equals(fieldName) && instanceObjects.contains(parentName);
+        }
+        else if (TYPEDEF_SECTION.equals(sectionName))
+        {
+            return (GUID.equals(fieldName) && typeDefObjects.contains(parentName)) ||
+                   (TYPEDEF_GUID.equals(fieldName) && typeDefPatch.equals(parentName));
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Return whether an object value may contain the ordering key.
+     *
+     * @param fieldName name of the field that holds the object
+     * @param parentName name of the field that holds the object containing the field
+     * @return boolean result
+     */
+    private static boolean isOnPathToKey(String   fieldName,
+                                         String   parentName)
+    {
+        if (parentName == null)
+        {
+            return INSTANCE_SECTION.equals(fieldName) || TYPEDEF_SECTION.equals(fieldName);
+        }
+        else if (INSTANCE_SECTION.equals(parentName))
+        {
+            return instanceObjects.contains(fieldName);
+        }
+        else if (TYPEDEF_SECTION.equals(parentName))
+        {
+            return typeDefObjects.contains(fieldName) || typeDefPatch.equals(fieldName);
+        }
+
+        return false;
+    }
+}
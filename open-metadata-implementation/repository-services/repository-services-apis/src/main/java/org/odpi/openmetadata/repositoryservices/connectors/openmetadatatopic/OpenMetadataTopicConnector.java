@@ -2,10 +2,14 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
@@ -25,7 +29,12 @@ import org.slf4j.LoggerFactory;
  * extend this class to include the interaction with the eventing/messaging layer.
  * <ul>
  *     <li>
- *         For inbound events it should call the protected distributeEvents() method.
+ *         For inbound events it should either call the protected addIncomingEvent() method as each event arrives,
+ *         or override checkForIncomingEvents() to return the events that have arrived since the last call.
+ *         Events passed to addIncomingEvent() wake the listener thread immediately.  checkForIncomingEvents()
+ *         is called whenever the listener thread has no other work and at least every sleepTime milliseconds.
+ *         Alternatively, an implementation with its own processing threads can pass each event to
+ *         distributeEvent(), which calls the listeners on the caller's thread.
  *     </li>
  *     <li>
  *         For outbound events, callers will invoke the sendEvent() method.
@@ -34,6 +43,12 @@ import org.slf4j.LoggerFactory;
  *         When the server no longer needs the topic, it will call disconnect().
  *     </li>
  * </ul>
+ * <p>
+ *     By default, events are passed to the listeners on the listener thread.  Setting the eventDistributionThreads
+ *     configuration property to a value greater than one passes them to a pool of worker threads instead.
+ *     Events that refer to the same metadata instance are always processed by the same worker thread so they
+ *     reach the listeners in the order they were received.
+ * </p>
  */
 public abstract class OpenMetadataTopicConnector extends ConnectorBase implements OpenMetadataTopic,
                                                                                   Runnable,
@@ -46,10 +61,14 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
 
     private volatile boolean keepRunning = false;
 
-    private List<OpenMetadataTopicListener> topicListeners     = new ArrayList<>();
-    private String                          listenerThreadName = defaultThreadName;
-    private String                          topicName          = defaultTopicName;
-    private int                             sleepTime          = 100;
+    private List<OpenMetadataTopicListener> topicListeners      = new ArrayList<>();
+    private String                          listenerThreadName  = defaultThreadName;
+    private String                          topicName           = defaultTopicName;
+    private int                             sleepTime           = 100;
+    private int                             distributionThreads = 1;
+
+    private BlockingQueue<IncomingEvent>    pushedEvents        = new LinkedBlockingQueue<>();
+    private IncomingEventDispatcher         dispatcher          = null;
 
     protected OMRSAuditLog auditLog = null;
 
@@ -91,17 +110,21 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
         {
             try
             {
+                boolean eventsFound = false;
+
                 try
                 {
                     List<IncomingEvent> receivedEvents = checkForIncomingEvents();
 
                     if ((receivedEvents != null) && (!receivedEvents.isEmpty()))
                     {
+                        eventsFound = true;
+
                         for (IncomingEvent event : receivedEvents)
                         {
                             if (event != null)
                             {
-                                this.distributeEvent(event);
+                                this.dispatchEvent(event);
                             }
                         }
                     }
@@ -111,7 +134,20 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                     log.error("Bad exception from checkForEvents", error);
                 }
 
-                Thread.sleep(sleepTime);
+                /*
+                 * Wait for an event to be pushed by the subclass.  If there is no event, the wait times out
+                 * so checkForIncomingEvents() is called again.  There is no wait if the last call to
+                 * checkForIncomingEvents() returned events since there may be more.
+                 */
+                IncomingEvent pushedEvent = eventsFound ? pushedEvents.poll()
+                                                        : pushedEvents.poll(sleepTime, TimeUnit.MILLISECONDS);
+
+                while (pushedEvent != null)
+                {
+                    this.dispatchEvent(pushedEvent);
+
+                    pushedEvent = pushedEvents.poll();
+                }
             }
             catch (InterruptedException   wakeUp)
             {
@@ -131,11 +167,31 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
 
 
     /**
-     * Pass an event that has been received on the topic to each of the registered listeners.
+     * Pass an event to the worker pool, or distribute it on the listener thread if there is no worker pool.
+     *
+     * @param event event to distribute
+     */
+    private void dispatchEvent(IncomingEvent event)
+    {
+        if (dispatcher == null)
+        {
+            this.distributeEvent(event);
+        }
+        else
+        {
+            dispatcher.dispatch(event);
+        }
+    }
+
+
+    /**
+     * Pass an event that has been received on the topic to each of the registered listeners.  The event is
+     * processed on the caller's thread.  It is used directly by implementations that manage their own
+     * processing threads rather than passing events to addIncomingEvent().
      *
      * @param event OMRSEvent to distribute
      */
-    private void distributeEvent(IncomingEvent event)
+    protected void distributeEvent(IncomingEvent event)
     {
         //Initially clear the async event processing context to ensure that it will only
         //have results from processing this event
@@ -177,6 +233,40 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     }
 
 
+    /**
+     * Pass an event that has been received from the event bus to the listener thread.  The listener thread
+     * is woken immediately if it is waiting for events.
+     *
+     * @param event event received from the event bus
+     */
+    protected void addIncomingEvent(IncomingEvent event)
+    {
+        if (event != null)
+        {
+            pushedEvents.add(event);
+        }
+    }
+
+
+    /**
+     * Return the number of events passed to addIncomingEvent() that have not yet been passed to all of the
+     * listeners.  This can be used to stop reading from the event bus while the listeners catch up.
+     *
+     * @return count
+     */
+    protected int getPendingEventCount()
+    {
+        int pendingEventCount = pushedEvents.size();
+
+        if (dispatcher != null)
+        {
+            pendingEventCount = pendingEventCount + dispatcher.getQueuedEventCount();
+        }
+
+        return pendingEventCount;
+    }
+
+
     /**
      * Look to see if there is one of more new events to process.
      *
@@ -243,6 +333,20 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     }
 
 
+    /**
+     * Sends the supplied event to the topic.  The event is the UTF-8 encoded JSON payload.  This implementation
+     * converts the payload to a string and passes it to sendEvent(String).  Connectors that can transmit
+     * the bytes directly should override it.
+     *
+     * @param event  UTF-8 encoded event payload
+     * @throws ConnectorCheckedException the connector is not able to communicate with the event bus
+     */
+    public void sendEvent(byte[] event) throws ConnectorCheckedException
+    {
+        this.sendEvent(new String(event, StandardCharsets.UTF_8));
+    }
+
+
     /**
      * Indicates that the connector is completely configured and can begin processing.
      *
@@ -274,9 +378,21 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                 {
                     this.sleepTime = (Integer)sleepTime;
                 }
+
+                Object   distributionThreads = configurationProperties.get("eventDistributionThreads");
+
+                if (distributionThreads instanceof Integer)
+                {
+                    this.distributionThreads = (Integer)distributionThreads;
+                }
             }
         }
 
+        if (distributionThreads > 1)
+        {
+            dispatcher = new IncomingEventDispatcher(listenerThreadName, distributionThreads, this::distributeEvent);
+        }
+
         Thread listenerThread = new Thread(this, listenerThreadName);
         listenerThread.start();
     }
@@ -292,5 +408,10 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
         super.disconnect();
 
         keepRunning = false;
+
+        if (dispatcher != null)
+        {
+            dispatcher.shutdown();
+        }
     }
 }
@@ -0,0 +1,79 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
+
+/**
+ * OpenMetadataArchiveContentProcessor receives the content of an open metadata archive one element at a time.
+ * It is passed to OpenMetadataArchiveStoreConnector.processArchiveContents() so that an archive can be
+ * processed without holding all of its content in memory.
+ * <p>
+ *     The archive properties are always passed first.  The elements from the type store are passed next, in the
+ *     order patches, attribute type definitions and then type definitions.  The elements from the instance store
+ *     are passed last, in the order they appear in the archive.
+ * </p>
+ */
+public interface OpenMetadataArchiveContentProcessor
+{
+    /**
+     * Receive the properties that describe the archive.
+     *
+     * @param archiveProperties properties of the archive
+     */
+    void processArchiveProperties(OpenMetadataArchiveProperties archiveProperties);
+
+
+    /**
+     * Receive a patch to an existing TypeDef.
+     *
+     * @param typeDefPatch patch from the archive's type store
+     */
+    void processTypeDefPatch(TypeDefPatch typeDefPatch);
+
+
+    /**
+     * Receive a new AttributeTypeDef.
+     *
+     * @param attributeTypeDef AttributeTypeDef from the archive's type store
+     */
+    void processAttributeTypeDef(AttributeTypeDef attributeTypeDef);
+
+
+    /**
+     * Receive a new TypeDef.
+     *
+     * @param typeDef TypeDef from the archive's type store
+     */
+    void processTypeDef(TypeDef typeDef);
+
+
+    /**
+     * Receive an entity.
+     *
+     * @param entity entity from the archive's instance store
+     */
+    void processEntity(EntityDetail entity);
+
+
+    /**
+     * Receive a relationship.
+     *
+     * @param relationship relationship from the archive's instance store
+     */
+    void processRelationship(Relationship relationship);
+
+
+    /**
+     * Receive a classification for an entity.
+     *
+     * @param classification classification from the archive's instance store
+     */
+    void processClassification(ClassificationEntityExtension classification);
+}
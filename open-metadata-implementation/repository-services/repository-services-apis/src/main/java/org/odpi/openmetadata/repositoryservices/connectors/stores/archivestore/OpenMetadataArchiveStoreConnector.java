@@ -5,6 +5,15 @@ package org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
 import org.odpi.openmetadata.repositoryservices.connectors.auditable.AuditableConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveInstanceStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.ClassificationEntityExtension;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefPatch;
 
 /**
  * OpenMetadataArchiveStoreConnector is the base class for connectors that support the OpenMetadataArchiveStore
@@ -25,4 +34,121 @@ public abstract class OpenMetadataArchiveStoreConnector extends ConnectorBase im
     {
         this.auditLog = auditLog;
     }
+
+
+    /**
+     * Pass the contents of the archive to the processor one element at a time.  This implementation retrieves
+     * the whole archive with getArchiveContents().  Connectors that can read their archive incrementally
+     * override this method so that the memory needed does not depend on the size of the archive.
+     *
+     * @param contentProcessor processor for the archive content
+     * @return false if the archive has no content
+     */
+    public boolean processArchiveContents(OpenMetadataArchiveContentProcessor   contentProcessor)
+    {
+        return processArchiveContents(this.getArchiveContents(), contentProcessor);
+    }
+
+
+    /**
+     * Pass the contents of an archive that is already in memory to the processor one element at a time.
+     *
+     * @param archiveContents archive
+     * @param contentProcessor processor for the archive content
+     * @return false if the archive has no content
+     */
+    public static boolean processArchiveContents(OpenMetadataArchive                   archiveContents,
+                                                 OpenMetadataArchiveContentProcessor   contentProcessor)
+    {
+        if ((archiveContents == null) || (contentProcessor == null))
+        {
+            return false;
+        }
+
+        contentProcessor.processArchiveProperties(archiveContents.getArchiveProperties());
+
+        if (archiveContents.getArchiveTypeStore() != null)
+        {
+            processArchiveTypeStore(archiveContents.getArchiveTypeStore(), contentProcessor);
+        }
+
+        if (archiveContents.getArchiveInstanceStore() != null)
+        {
+            processArchiveInstanceStore(archiveContents.getArchiveInstanceStore(), contentProcessor);
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Pass the elements of a type store to the processor in the order patches, attribute type definitions
+     * and then type definitions.
+     *
+     * @param typeStore type store from the archive
+     * @param contentProcessor processor for the archive content
+     */
+    protected static void processArchiveTypeStore(OpenMetadataArchiveTypeStore          typeStore,
+                                                  OpenMetadataArchiveContentProcessor   contentProcessor)
+    {
+        if (typeStore.getTypeDefPatches() != null)
+        {
+            for (TypeDefPatch typeDefPatch : typeStore.getTypeDefPatches())
+            {
+                contentProcessor.processTypeDefPatch(typeDefPatch);
+            }
+        }
+
+        if (typeStore.getAttributeTypeDefs() != null)
+        {
+            for (AttributeTypeDef attributeTypeDef : typeStore.getAttributeTypeDefs())
+            {
+                contentProcessor.processAttributeTypeDef(attributeTypeDef);
+            }
+        }
+
+        if (typeStore.getNewTypeDefs() != null)
+        {
+            for (TypeDef typeDef : typeStore.getNewTypeDefs())
+            {
+                contentProcessor.processTypeDef(typeDef);
+            }
+        }
+    }
+
+
+    /**
+     * Pass the elements of an instance store to the processor in the order entities, relationships and then
+     * classifications.
+     *
+     * @param instanceStore instance store from the archive
+     * @param contentProcessor processor for the archive content
+     */
+    protected static void processArchiveInstanceStore(OpenMetadataArchiveInstanceStore      instanceStore,
+                                                      OpenMetadataArchiveContentProcessor   contentProcessor)
+    {
+        if (instanceStore.getEntities() != null)
+        {
+            for (EntityDetail entity : instanceStore.getEntities())
+            {
+                contentProcessor.processEntity(entity);
+            }
+        }
+
+        if (instanceStore.getRelationships() != null)
+        {
+            for (Relationship relationship : instanceStore.getRelationships())
+            {
+                contentProcessor.processRelationship(relationship);
+            }
+        }
+
+        if (instanceStore.getClassifications() != null)
+        {
+            for (ClassificationEntityExtension classification : instanceStore.getClassifications())
+            {
+                contentProcessor.processClassification(classification);
+            }
+        }
+    }
 }
@@ -3,7 +3,10 @@
 package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore;
 
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 import org.odpi.openmetadata.repositoryservices.connectors.omrstopic.OMRSEventProcessingContext;
@@ -927,6 +930,84 @@ public abstract class OMRSMetadataCollection
                                                                                                              UserNotAuthorizedException;
 
 
+    /**
+     * Return the number of relationships of each type that are attached to a specific entity.  This default
+     * implementation counts the results of a single call to getRelationshipsForEntity.  Repositories that are
+     * able to count relationships without retrieving them should override this method.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityGUID String unique identifier for the entity.
+     * @param relationshipTypeGUIDs list of GUIDs of the types of relationship to count (null for all).
+     * @param limitResultsByStatus By default, relationships in all statuses are counted.  However, it is possible
+     *                             to specify a list of statuses (eg ACTIVE) to restrict the count to.  Null means all
+     *                             status values.
+     * @param asOfTime Requests a historical count of the relationships for the entity.  Null means count the
+     *                 present values.
+     * @return map of relationship type GUID to count.  Each requested type is present in the map, with a count of
+     * zero if the entity has no relationships of that type.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException a type guid passed on the request is not known by the metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                  the metadata collection is stored.
+     * @throws EntityNotKnownException the requested entity instance is not known in the metadata collection.
+     * @throws PropertyErrorException the relationships can not be retrieved.
+     * @throws PagingErrorException the relationships can not be retrieved.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public Map<String, Integer> getRelationshipCountsForEntity(String                     userId,
+                                                               String                     entityGUID,
+                                                               List<String>               relationshipTypeGUIDs,
+                                                               List<InstanceStatus>       limitResultsByStatus,
+                                                               Date                       asOfTime) throws InvalidParameterException,
+                                                                                                           TypeErrorException,
+                                                                                                           RepositoryErrorException,
+                                                                                                           EntityNotKnownException,
+                                                                                                           PropertyErrorException,
+                                                                                                           PagingErrorException,
+                                                                                                           FunctionNotSupportedException,
+                                                                                                           UserNotAuthorizedException
+    {
+        Map<String, Integer> relationshipCounts = new HashMap<>();
+
+        if (relationshipTypeGUIDs != null)
+        {
+            for (String relationshipTypeGUID : relationshipTypeGUIDs)
+            {
+                relationshipCounts.put(relationshipTypeGUID, 0);
+            }
+        }
+
+        List<Relationship> relationships = this.getRelationshipsForEntity(userId,
+                                                                          entityGUID,
+                                                                          null,
+                                                                          0,
+                                                                          limitResultsByStatus,
+                                                                          asOfTime,
+                                                                          null,
+                                                                          null,
+                                                                          0);
+
+        if (relationships != null)
+        {
+            for (Relationship relationship : relationships)
+            {
+                if ((relationship != null) && (relationship.getType() != null))
+                {
+                    String relationshipTypeGUID = relationship.getType().getTypeDefGUID();
+
+                    if ((relationshipTypeGUIDs == null) || (relationshipCounts.containsKey(relationshipTypeGUID)))
+                    {
+                        relationshipCounts.merge(relationshipTypeGUID, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+
+        return relationshipCounts;
+    }
+
+
 
     /**
      * Return a list of entities that match the supplied properties according to the match criteria.  The results
@@ -1393,6 +1474,234 @@ public abstract class OMRSMetadataCollection
                                                                                                      UserNotAuthorizedException;
 
 
+    /*
+     * The asynchronous variants of the searches return a future rather than waiting for the results.  They are
+     * used by callers that issue many independent searches at once, such as the enterprise repository connector
+     * when it queries the members of the cohort.  The default implementations run the search on the caller's
+     * thread and return a completed future.  Metadata collections that can issue searches without blocking the
+     * caller (for example, those calling a remote repository) override them and supportsAsynchronousQueries().
+     */
+
+
+    /**
+     * Indicate whether the asynchronous searches return without waiting for the search to complete.
+     *
+     * @return true if searches are issued asynchronously; false if the asynchronous variants run on the caller's thread
+     */
+    public boolean supportsAsynchronousQueries()
+    {
+        return false;
+    }
+
+
+    /**
+     * Issue findEntitiesByProperty asynchronously.  The future completes with the list of matching entities
+     * (null means no matching entities) or exceptionally with one of the exceptions described on
+     * findEntitiesByProperty.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param matchProperties Optional list of entity properties to match.
+     * @param matchCriteria Enum defining how the properties should be matched to the entities in the repository.
+     * @param fromEntityElement the starting element number of the entities to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.
+     * @return future for the list of matching entities
+     */
+    public CompletableFuture<List<EntityDetail>> findEntitiesByPropertyAsync(String                    userId,
+                                                                             String                    entityTypeGUID,
+                                                                             InstanceProperties        matchProperties,
+                                                                             MatchCriteria             matchCriteria,
+                                                                             int                       fromEntityElement,
+                                                                             List<InstanceStatus>      limitResultsByStatus,
+                                                                             List<String>              limitResultsByClassification,
+                                                                             Date                      asOfTime,
+                                                                             String                    sequencingProperty,
+                                                                             SequencingOrder           sequencingOrder,
+                                                                             int                       pageSize)
+    {
+        CompletableFuture<List<EntityDetail>> results = new CompletableFuture<>();
+
+        try
+        {
+            results.complete(this.findEntitiesByProperty(userId,
+                                                         entityTypeGUID,
+                                                         matchProperties,
+                                                         matchCriteria,
+                                                         fromEntityElement,
+                                                         limitResultsByStatus,
+                                                         limitResultsByClassification,
+                                                         asOfTime,
+                                                         sequencingProperty,
+                                                         sequencingOrder,
+                                                         pageSize));
+        }
+        catch (Throwable error)
+        {
+            results.completeExceptionally(error);
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Issue findEntitiesByPropertyValue asynchronously.  The future completes with the list of matching entities
+     * (null means no matching entities) or exceptionally with one of the exceptions described on
+     * findEntitiesByPropertyValue.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID GUID of the type of entity to search for. Null means all types will be searched.
+     * @param searchCriteria String Java regular expression used to match against any of the String property values.
+     * @param fromEntityElement the starting element number of the entities to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.
+     * @return future for the list of matching entities
+     */
+    public CompletableFuture<List<EntityDetail>> findEntitiesByPropertyValueAsync(String                userId,
+                                                                                  String                entityTypeGUID,
+                                                                                  String                searchCriteria,
+                                                                                  int                   fromEntityElement,
+                                                                                  List<InstanceStatus>  limitResultsByStatus,
+                                                                                  List<String>          limitResultsByClassification,
+                                                                                  Date                  asOfTime,
+                                                                                  String                sequencingProperty,
+                                                                                  SequencingOrder       sequencingOrder,
+                                                                                  int                   pageSize)
+    {
+        CompletableFuture<List<EntityDetail>> results = new CompletableFuture<>();
+
+        try
+        {
+            results.complete(this.findEntitiesByPropertyValue(userId,
+                                                              entityTypeGUID,
+                                                              searchCriteria,
+                                                              fromEntityElement,
+                                                              limitResultsByStatus,
+                                                              limitResultsByClassification,
+                                                              asOfTime,
+                                                              sequencingProperty,
+                                                              sequencingOrder,
+                                                              pageSize));
+        }
+        catch (Throwable error)
+        {
+            results.completeExceptionally(error);
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Issue findRelationshipsByProperty asynchronously.  The future completes with the list of matching
+     * relationships (null means no matching relationships) or exceptionally with one of the exceptions described on
+     * findRelationshipsByProperty.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types.
+     * @param matchProperties Optional list of relationship properties to match.
+     * @param matchCriteria Enum defining how the properties should be matched to the relationships in the repository.
+     * @param fromRelationshipElement the starting element number of the relationships to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param asOfTime Requests a historical query of the relationships.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.
+     * @return future for the list of matching relationships
+     */
+    public CompletableFuture<List<Relationship>> findRelationshipsByPropertyAsync(String                    userId,
+                                                                                  String                    relationshipTypeGUID,
+                                                                                  InstanceProperties        matchProperties,
+                                                                                  MatchCriteria             matchCriteria,
+                                                                                  int                       fromRelationshipElement,
+                                                                                  List<InstanceStatus>      limitResultsByStatus,
+                                                                                  Date                      asOfTime,
+                                                                                  String                    sequencingProperty,
+                                                                                  SequencingOrder           sequencingOrder,
+                                                                                  int                       pageSize)
+    {
+        CompletableFuture<List<Relationship>> results = new CompletableFuture<>();
+
+        try
+        {
+            results.complete(this.findRelationshipsByProperty(userId,
+                                                              relationshipTypeGUID,
+                                                              matchProperties,
+                                                              matchCriteria,
+                                                              fromRelationshipElement,
+                                                              limitResultsByStatus,
+                                                              asOfTime,
+                                                              sequencingProperty,
+                                                              sequencingOrder,
+                                                              pageSize));
+        }
+        catch (Throwable error)
+        {
+            results.completeExceptionally(error);
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Issue findRelationshipsByPropertyValue asynchronously.  The future completes with the list of matching
+     * relationships (null means no matching relationships) or exceptionally with one of the exceptions described on
+     * findRelationshipsByPropertyValue.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID GUID of the type of relationship to search for. Null means all types.
+     * @param searchCriteria String Java regular expression used to match against any of the String property values.
+     * @param fromRelationshipElement the starting element number of the relationships to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param asOfTime Requests a historical query of the relationships.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.
+     * @return future for the list of matching relationships
+     */
+    public CompletableFuture<List<Relationship>> findRelationshipsByPropertyValueAsync(String                    userId,
+                                                                                       String                    relationshipTypeGUID,
+                                                                                       String                    searchCriteria,
+                                                                                       int                       fromRelationshipElement,
+                                                                                       List<InstanceStatus>      limitResultsByStatus,
+                                                                                       Date                      asOfTime,
+                                                                                       String                    sequencingProperty,
+                                                                                       SequencingOrder           sequencingOrder,
+                                                                                       int                       pageSize)
+    {
+        CompletableFuture<List<Relationship>> results = new CompletableFuture<>();
+
+        try
+        {
+            results.complete(this.findRelationshipsByPropertyValue(userId,
+                                                                   relationshipTypeGUID,
+                                                                   searchCriteria,
+                                                                   fromRelationshipElement,
+                                                                   limitResultsByStatus,
+                                                                   asOfTime,
+                                                                   sequencingProperty,
+                                                                   sequencingOrder,
+                                                                   pageSize));
+        }
+        catch (Throwable error)
+        {
+            results.completeExceptionally(error);
+        }
+
+        return results;
+    }
+
+
     /* ======================================================
      * Group 4: Maintaining entity and relationship instances
      */
@@ -547,7 +547,7 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
                 {
                     if (typeDef != null)
                     {
-                        if (typeDef.getName().matches(typeDefName))
+                        if (OMRSSearchPatternMatcher.matches(typeDef.getName(), typeDefName))
                         {
                             matchedTypeDefs.add(typeDef);
                         }
@@ -563,7 +563,7 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
                 {
                     if (attributeTypeDef != null)
                     {
-                        if (attributeTypeDef.getName().matches(typeDefName))
+                        if (OMRSSearchPatternMatcher.matches(attributeTypeDef.getName(), typeDefName))
                         {
                             matchedAttributeTypeDefs.add(attributeTypeDef);
                         }
@@ -1012,7 +1012,7 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
             {
                 if (typeDef != null)
                 {
-                    if (typeDef.getName().matches(searchCriteria))
+                    if (OMRSSearchPatternMatcher.matches(typeDef.getName(), searchCriteria))
                     {
                         matchedTypeDefs.add(typeDef);
                     }
@@ -5529,6 +5529,74 @@ public abstract class OMRSMetadataCollectionBase extends OMRSMetadataCollection
     }
 
 
+    /**
+     * Validate the instances passed to saveInstanceReferenceCopies and return the ones to save.  Instances that
+     * have the local metadata collection as their home are skipped, as they are in
+     * OMRSMetadataCollection.saveInstanceReferenceCopies.  Every other instance is validated before any is saved
+     * so that a repository can save the batch in one step.
+     *
+     * @param userId unique identifier for requesting server.
+     * @param instances instances to save.
+     * @param methodName calling method
+     * @return graph of the entities and relationships to save
+     * @throws InvalidParameterException one of the instances is invalid.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    protected InstanceGraph saveReferenceInstancesParameterValidation(String         userId,
+                                                                      InstanceGraph  instances,
+                                                                      String         methodName) throws InvalidParameterException,
+                                                                                                        RepositoryErrorException,
+                                                                                                        UserNotAuthorizedException
+    {
+        final String  entityParameterName       = "entity";
+        final String  relationshipParameterName = "relationship";
+
+        List<EntityDetail> entities      = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+
+        this.basicRequestValidation(userId, methodName);
+
+        if (instances != null)
+        {
+            if (instances.getEntities() != null)
+            {
+                for (EntityDetail entity : instances.getEntities())
+                {
+                    if ((entity != null) && (! metadataCollectionId.equals(entity.getMetadataCollectionId())))
+                    {
+                        repositoryValidator.validateReferenceInstanceHeader(repositoryName,
+                                                                            metadataCollectionId,
+                                                                            entityParameterName,
+                                                                            entity,
+                                                                            methodName);
+                        entities.add(entity);
+                    }
+                }
+            }
+
+            if (instances.getRelationships() != null)
+            {
+                for (Relationship relationship : instances.getRelationships())
+                {
+                    if ((relationship != null) && (! metadataCollectionId.equals(relationship.getMetadataCollectionId())))
+                    {
+                        repositoryValidator.validateReferenceInstanceHeader(repositoryName,
+                                                                            metadataCollectionId,
+                                                                            relationshipParameterName,
+                                                                            relationship,
+                                                                            methodName);
+                        relationships.add(relationship);
+                    }
+                }
+            }
+        }
+
+        return new InstanceGraph(entities, relationships);
+    }
+
+
     /**
      * Save the entity as a reference copy.  The id of the home metadata collection is already set up in the
      * entity.
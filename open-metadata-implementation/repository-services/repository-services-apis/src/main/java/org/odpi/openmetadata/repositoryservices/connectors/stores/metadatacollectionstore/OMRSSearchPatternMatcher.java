@@ -0,0 +1,310 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * OMRSSearchPatternMatcher tests string property values and type names against the regular expressions
+ * passed as search criteria.  It gives the same result as String.matches() without compiling the regular
+ * expression on every call.
+ * <p>
+ * Search strings built by the exact match, starts with, contains and ends with helper methods of the
+ * OMRSRepositoryHelper, along with search strings that contain no regular expression syntax at all,
+ * are tested with simple string comparisons.  Any other regular expression is compiled once and kept
+ * in a bounded cache shared by all of the repositories in the server.  The least recently used pattern
+ * is discarded when the cache is full.
+ * </p>
+ */
+public class OMRSSearchPatternMatcher
+{
+    private static final int    MAX_CACHED_PATTERNS = 1000;
+
+    /**
+     * The characters that have a special meaning in a regular expression.
+     */
+    public static final String  REGEX_SYNTAX  = "\\^$.|?*+()[]{}";
+
+    private static final String QUOTE_START   = "\\Q";
+    private static final String QUOTE_END     = "\\E";
+    private static final String ANY_CHARACTER = ".*";
+
+    private static final Map<String, SearchPattern> patternCache = new LinkedHashMap<String, SearchPattern>(16, 0.75f, true)
+    {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SearchPattern> eldest)
+        {
+            return size() > MAX_CACHED_PATTERNS;
+        }
+    };
+
+
+    /**
+     * Private constructor since all methods are static.
+     */
+    private OMRSSearchPatternMatcher()
+    {
+    }
+
+
+    /**
+     * Return whether the whole of the value matches the regular expression.
+     *
+     * @param value string to test
+     * @param regex regular expression
+     * @return boolean result
+     * @throws PatternSyntaxException the regular expression is not valid
+     */
+    public static boolean matches(String   value,
+                                  String   regex) throws PatternSyntaxException
+    {
+        return getSearchPattern(regex).matches(value);
+    }
+
+
+    /**
+     * Return the number of compiled patterns in the cache.
+     *
+     * @return count
+     */
+    public static int getCachedPatternCount()
+    {
+        synchronized (patternCache)
+        {
+            return patternCache.size();
+        }
+    }
+
+
+    /**
+     * Retrieve the matcher for the regular expression from the cache, creating it if it is not there.
+     * The regular expression is compiled outside of the lock so a long compile does not hold up other
+     * searches.
+     *
+     * @param regex regular expression
+     * @return search pattern
+     * @throws PatternSyntaxException the regular expression is not valid
+     */
+    private static SearchPattern getSearchPattern(String   regex) throws PatternSyntaxException
+    {
+        SearchPattern searchPattern;
+
+        synchronized (patternCache)
+        {
+            searchPattern = patternCache.get(regex);
+        }
+
+        if (searchPattern == null)
+        {
+            searchPattern = new SearchPattern(regex);
+
+            synchronized (patternCache)
+            {
+                patternCache.put(regex, searchPattern);
+            }
+        }
+
+        return searchPattern;
+    }
+
+
+    /**
+     * Return the literal string from a search string built with Pattern.quote(), or null if the search
+     * string is anything else.
+     *
+     * @param quotedString string to test
+     * @return literal or null
+     */
+    private static String getQuotedLiteral(String   quotedString)
+    {
+        if ((quotedString.startsWith(QUOTE_START)) &&
+            (quotedString.endsWith(QUOTE_END)) &&
+            (quotedString.indexOf(QUOTE_END) == quotedString.length() - QUOTE_END.length()))
+        {
+            return quotedString.substring(QUOTE_START.length(), quotedString.length() - QUOTE_END.length());
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return whether the string contains any characters that have a special meaning in a regular expression.
+     *
+     * @param regex string to test
+     * @return boolean result
+     */
+    private static boolean hasRegexSyntax(String   regex)
+    {
+        for (int i = 0; i < regex.length(); i++)
+        {
+            if (REGEX_SYNTAX.indexOf(regex.charAt(i)) >= 0)
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Return whether the string contains any character that is not matched by "." in a regular expression.
+     *
+     * @param value string to test
+     * @return boolean result
+     */
+    private static boolean hasLineTerminator(String   value)
+    {
+        for (int i = 0; i < value.length(); i++)
+        {
+            char character = value.charAt(i);
+
+            if ((character == '\n') ||
+                (character == '\r') ||
+                (character == '\u0085') ||
+                (character == '\u2028') ||
+                (character == '\u2029'))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * The type of test used for a search string.
+     */
+    private enum MatchType
+    {
+        EXACT,
+        STARTS_WITH,
+        CONTAINS,
+        ENDS_WITH,
+        REGEX
+    }
+
+
+    /**
+     * SearchPattern is the parsed form of one search string.
+     */
+    private static class SearchPattern
+    {
+        private MatchType matchType;
+        private String    literal = null;
+        private Pattern   pattern = null;
+
+
+        /**
+         * Work out the simplest test that gives the same result as the regular expression.
+         *
+         * @param regex regular expression
+         * @throws PatternSyntaxException the regular expression is not valid
+         */
+        SearchPattern(String   regex) throws PatternSyntaxException
+        {
+            if (regex == null)
+            {
+                throw new NullPointerException("Null regular expression");
+            }
+
+            if (! hasRegexSyntax(regex))
+            {
+                matchType = MatchType.EXACT;
+                literal = regex;
+                return;
+            }
+
+            boolean leadingWildCard  = regex.startsWith(ANY_CHARACTER);
+            boolean trailingWildCard = regex.endsWith(ANY_CHARACTER) && (regex.length() >= ANY_CHARACTER.length() * 2);
+
+            String quotedString = regex.substring(leadingWildCard ? ANY_CHARACTER.length() : 0,
+                                                  trailingWildCard ? regex.length() - ANY_CHARACTER.length() : regex.length());
+
+            literal = getQuotedLiteral(quotedString);
+
+            if (literal == null)
+            {
+                matchType = MatchType.REGEX;
+            }
+            else if (leadingWildCard && trailingWildCard)
+            {
+                matchType = MatchType.CONTAINS;
+            }
+            else if (leadingWildCard)
+            {
+                matchType = MatchType.ENDS_WITH;
+            }
+            else if (trailingWildCard)
+            {
+                matchType = MatchType.STARTS_WITH;
+            }
+            else
+            {
+                matchType = MatchType.EXACT;
+            }
+
+            /*
+             * The wild card searches keep the compiled pattern for values that contain a line terminator
+             * since "." does not match them.
+             */
+            if (matchType != MatchType.EXACT)
+            {
+                pattern = Pattern.compile(regex);
+            }
+        }
+
+
+        /**
+         * Return whether the whole of the value matches the search string.
+         *
+         * @param value string to test
+         * @return boolean result
+         */
+        boolean matches(String   value)
+        {
+            switch (matchType)
+            {
+                case EXACT:
+                    return literal.equals(value);
+
+                case STARTS_WITH:
+                    if (! value.startsWith(literal))
+                    {
+                        return false;
+                    }
+                    break;
+
+                case ENDS_WITH:
+                    if (! value.endsWith(literal))
+                    {
+                        return false;
+                    }
+                    break;
+
+                case CONTAINS:
+                    if (! value.contains(literal))
+                    {
+                        return false;
+                    }
+                    break;
+
+                default:
+                    return pattern.matcher(value).matches();
+            }
+
+            /*
+             * The literal is present.  The wild card matches the rest of the value unless it contains a line
+             * terminator, which is rare enough to leave to the regular expression.
+             */
+            return (! hasLineTerminator(value)) || pattern.matcher(value).matches();
+        }
+    }
+}
@@ -461,6 +461,18 @@ public enum OMRSErrorCode
             "A null log record originator has been passed by the audit log to the audit log store.",
             "The audit log store throws an exception and the log record is not written to the audit log store.",
             "This is probably an internal error in the audit log.  Raise a Github issue to get this fixed."),
+    NULL_AUDIT_LOG_SEARCH_VALUE(400, "OMRS-AUDIT-LOG-400-003 ",
+            "A null {0} has been passed on a {1} request to audit log store {2}.",
+            "The system is unable to process the request.",
+            "The {0} parameter is supplied by the caller to the API. This call needs to be corrected before the audit log store can return any log records."),
+    INVALID_AUDIT_LOG_TIME_PERIOD(400, "OMRS-AUDIT-LOG-400-004 ",
+            "The start date of {0} is after the end date of {1} on a {2} request to audit log store {3}.",
+            "The system is unable to process the request.",
+            "The startDate and endDate parameters are supplied by the caller to the API. This call needs to be corrected before the audit log store can return any log records."),
+    NEGATIVE_AUDIT_LOG_PAGING_VALUE(400, "OMRS-AUDIT-LOG-400-005 ",
+            "A negative {0} of {1} has been passed on a {2} request to audit log store {3}.",
+            "The system is unable to process the request.",
+            "The {0} parameter is supplied by the caller to the API. This call needs to be corrected before the audit log store can return any log records."),
     REPOSITORY_NOT_AVAILABLE(404, "OMRS-REPOSITORY-404-001 ",
             "The open metadata repository connector for server {0} is not active and is unable to service the {1} request",
             "The system is unable to retrieve any metadata properties from this repository.",
@@ -694,6 +706,10 @@ public enum OMRSErrorCode
             "The enterprise repository services has detected a repository connector from cohort {0} for metadata collection identifier {1} that has a null metadata collection API object.",
             "There is an internal error in the OMRS Repository Connector implementation.",
             "Raise a Github issue to get this fixed."),
+    COHORT_MEMBER_TIMEOUT(503, "OMRS-ENTERPRISE-REPOSITORY-503-004 ",
+            "The open metadata repository with metadata collection identifier {0} did not respond to the {1} request within {2} milliseconds.",
+            "The system stopped waiting for the repository.  Any results that it returns later are ignored.",
+            "Check that the repository is running and can be reached.  If it is just slow, increase the federated request timeout."),
     NULL_CONTENT_MANAGER(503, "OMRS-LOCAL-REPOSITORY-503-001 ",
             "A null repository content manager has been passed to one of the local repository's components on method {0}.",
             "There is an internal error in the OMRS Local Repository Connector implementation, or the way it has been initialized.",
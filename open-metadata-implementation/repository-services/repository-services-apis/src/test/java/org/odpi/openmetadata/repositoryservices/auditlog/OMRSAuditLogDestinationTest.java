@@ -0,0 +1,397 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.auditlog;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogRecord;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogReportingComponent;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.auditlogstore.OMRSAuditLogStore;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that OMRSAuditLogDestination passes log records to its audit log stores on their own threads and
+ * applies the action for a full buffer.
+ */
+public class OMRSAuditLogDestinationTest
+{
+    private static final OMRSAuditLogReportingComponent component = new OMRSAuditLogReportingComponent(0,
+                                                                                                      "Test",
+                                                                                                      "Test component",
+                                                                                                      null);
+
+
+    /**
+     * Validate that a slow store does not hold up the caller or the other stores and that close waits
+     * for the buffered log records to be stored.
+     *
+     * @throws Exception problem with the destination
+     */
+    @Test public void testFanOut() throws Exception
+    {
+        final int recordCount = 100;
+
+        TestAuditLogStore       fastStore   = new TestAuditLogStore(null);
+        CountDownLatch          releaseSlow = new CountDownLatch(1);
+        TestAuditLogStore       slowStore   = new TestAuditLogStore(releaseSlow);
+        OMRSAuditLogDestination destination = getDestination(Arrays.asList(fastStore, slowStore),
+                                                             recordCount,
+                                                             OMRSAuditLogBufferFullAction.BLOCK);
+
+        for (int i = 0; i < recordCount; i++)
+        {
+            logRecord(destination, "TEST-" + i);
+        }
+
+        waitFor(() -> fastStore.getMessageIds().size() == recordCount);
+        assertTrue(destination.getLogRecordLag() > 0);
+
+        releaseSlow.countDown();
+        destination.close();
+
+        assertEquals(slowStore.getMessageIds(), fastStore.getMessageIds());
+        assertEquals(destination.getLogRecordLag(), 0);
+        assertEquals(destination.getDroppedLogRecordCount(), 0);
+
+        logRecord(destination, "TEST-after-close");
+        assertEquals(fastStore.getMessageIds().size(), recordCount + 1);
+    }
+
+
+    /**
+     * Validate that the oldest log records are dropped for a store that is behind.
+     *
+     * @throws Exception problem with the destination
+     */
+    @Test public void testDropOldest() throws Exception
+    {
+        CountDownLatch          releaseStore = new CountDownLatch(1);
+        TestAuditLogStore       store        = new TestAuditLogStore(releaseStore);
+        OMRSAuditLogDestination destination  = getDestination(Collections.singletonList(store),
+                                                              4,
+                                                              OMRSAuditLogBufferFullAction.DROP_OLDEST);
+
+        startSlowStore(destination);
+
+        for (int i = 2; i < 12; i++)
+        {
+            logRecord(destination, "TEST-" + i);
+        }
+
+        assertEquals(destination.getBufferedLogRecordCount(), 4);
+        assertEquals(destination.getDroppedLogRecordCount(), 6);
+
+        releaseStore.countDown();
+        destination.close();
+
+        assertEquals(store.getMessageIds(), Arrays.asList("TEST-0", "TEST-1", "TEST-8", "TEST-9", "TEST-10", "TEST-11"));
+    }
+
+
+    /**
+     * Validate that repeated log records are dropped when the buffer is full, but other log records wait.
+     *
+     * @throws Exception problem with the destination
+     */
+    @Test public void testSampleRepeated() throws Exception
+    {
+        CountDownLatch          releaseStore = new CountDownLatch(1);
+        TestAuditLogStore       store        = new TestAuditLogStore(releaseStore);
+        OMRSAuditLogDestination destination  = getDestination(Collections.singletonList(store),
+                                                              2,
+                                                              OMRSAuditLogBufferFullAction.SAMPLE_REPEATED);
+
+        startSlowStore(destination);
+
+        for (int i = 0; i < 10; i++)
+        {
+            logRecord(destination, "TEST-REPEATED");
+        }
+
+        assertEquals(destination.getSampledLogRecordCount(), 8);
+
+        Thread caller = new Thread(() -> logRecord(destination, "TEST-NEW"));
+        caller.start();
+
+        Thread.sleep(100);
+        assertTrue(caller.isAlive());
+
+        releaseStore.countDown();
+        caller.join(10000);
+        assertFalse(caller.isAlive());
+        destination.close();
+
+        assertEquals(store.getMessageIds(), Arrays.asList("TEST-0", "TEST-1", "TEST-REPEATED", "TEST-REPEATED", "TEST-NEW"));
+        assertEquals(destination.getDroppedLogRecordCount(), 0);
+    }
+
+
+    /**
+     * Validate that a list of audit log stores that are all null does not block the caller once the
+     * buffer would be full.
+     *
+     * @throws Exception problem with the destination
+     */
+    @Test public void testOnlyNullStores() throws Exception
+    {
+        OMRSAuditLogDestination destination = getDestination(Arrays.asList(null, null),
+                                                             2,
+                                                             OMRSAuditLogBufferFullAction.BLOCK);
+
+        Thread caller = new Thread(() ->
+                                   {
+                                       for (int i = 0; i < 10; i++)
+                                       {
+                                           logRecord(destination, "TEST-" + i);
+                                       }
+                                   });
+        caller.start();
+        caller.join(10000);
+        assertFalse(caller.isAlive());
+
+        assertEquals(destination.getBufferedLogRecordCount(), 0);
+        destination.close();
+
+        OMRSAuditLogRingBuffer ringBuffer = new OMRSAuditLogRingBuffer("TestRing-",
+                                                                       Arrays.asList(null, null),
+                                                                       2,
+                                                                       OMRSAuditLogBufferFullAction.BLOCK);
+
+        assertFalse(ringBuffer.publish(new OMRSAuditLogRecord()));
+    }
+
+
+    /**
+     * Create a destination for the test stores.
+     *
+     * @param auditLogStores stores
+     * @param bufferSize size of the buffer
+     * @param bufferFullAction action when the buffer is full
+     * @return destination
+     */
+    private OMRSAuditLogDestination getDestination(List<? extends OMRSAuditLogStore> auditLogStores,
+                                                   int                               bufferSize,
+                                                   OMRSAuditLogBufferFullAction      bufferFullAction)
+    {
+        return new OMRSAuditLogDestination("TestServer",
+                                           "TestType",
+                                           "TestOrganization",
+                                           new ArrayList<>(auditLogStores),
+                                           bufferSize,
+                                           bufferFullAction);
+    }
+
+
+    /**
+     * Log two records and wait until the first is stored and the second has been taken from the buffer by
+     * a store that is waiting for its release.
+     *
+     * @param destination destination under test
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void startSlowStore(OMRSAuditLogDestination destination) throws InterruptedException
+    {
+        logRecord(destination, "TEST-0");
+        waitFor(() -> destination.getBufferedLogRecordCount() == 0);
+        logRecord(destination, "TEST-1");
+        waitFor(() -> destination.getBufferedLogRecordCount() == 0);
+    }
+
+
+    /**
+     * Log a record through the destination.
+     *
+     * @param destination destination under test
+     * @param messageId message id of the log record
+     */
+    private void logRecord(OMRSAuditLogDestination destination,
+                           String                  messageId)
+    {
+        destination.logRecord(component,
+                              "test",
+                              messageId,
+                              OMRSAuditLogRecordSeverity.INFO,
+                              "Test message",
+                              null,
+                              null,
+                              null);
+    }
+
+
+    /**
+     * Wait for the destination to reach the expected state.
+     *
+     * @param condition test for the expected state
+     * @throws InterruptedException interrupted while waiting
+     */
+    private void waitFor(BooleanSupplier   condition) throws InterruptedException
+    {
+        long endTime = System.currentTimeMillis() + 10000;
+
+        while (! condition.getAsBoolean())
+        {
+            if (System.currentTimeMillis() > endTime)
+            {
+                fail("Timed out waiting for the audit log stores");
+            }
+
+            Thread.sleep(10);
+        }
+    }
+
+
+    /**
+     * TestAuditLogStore records the message ids of the log records it is given.  It can be made to wait
+     * before storing each log record after the first.
+     */
+    private static class TestAuditLogStore implements OMRSAuditLogStore
+    {
+        private final CountDownLatch release;
+        private final List<String>   messageIds = new ArrayList<>();
+
+
+        /**
+         * Constructor
+         *
+         * @param release latch that the store waits on - null means no waiting
+         */
+        TestAuditLogStore(CountDownLatch   release)
+        {
+            this.release = release;
+        }
+
+
+        /**
+         * Return the message ids of the stored log records.
+         *
+         * @return list of message ids
+         */
+        synchronized List<String> getMessageIds()
+        {
+            return new ArrayList<>(messageIds);
+        }
+
+
+        /**
+         * Store the message id of the log record.
+         *
+         * @param logRecord  log record to store
+         * @return unique identifier of the log record
+         */
+        @Override
+        public String storeLogRecord(OMRSAuditLogRecord logRecord)
+        {
+            boolean isFirst;
+
+            synchronized (this)
+            {
+                isFirst = messageIds.isEmpty();
+            }
+
+            if ((release != null) && (! isFirst))
+            {
+                try
+                {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            synchronized (this)
+            {
+                messageIds.add(logRecord.getMessageId());
+            }
+
+            return logRecord.getGUID();
+        }
+
+
+        /**
+         * Not used.
+         *
+         * @param logRecordId  unique identifier for the log record
+         * @return null
+         */
+        @Override
+        public OMRSAuditLogRecord getAuditLogRecord(String logRecordId)
+        {
+            return null;
+        }
+
+
+        /**
+         * Not used.
+         *
+         * @param startDate  start of time period
+         * @param endDate  end of time period
+         * @param offset  offset of full collection to begin the return results
+         * @param maximumRecords  maximum number of log records to return
+         * @return null
+         */
+        @Override
+        public List<OMRSAuditLogRecord> getAuditLogRecordsByTimeStamp(Date startDate,
+                                                                      Date endDate,
+                                                                      int  offset,
+                                                                      int  maximumRecords)
+        {
+            return null;
+        }
+
+
+        /**
+         * Not used.
+         *
+         * @param severity  the severity value of messages to return
+         * @param startDate  start of time period
+         * @param endDate  end of time period
+         * @param offset  offset of full collection to begin the return results
+         * @param maximumRecords  maximum number of log records to return
+         * @return null
+         */
+        @Override
+        public List<OMRSAuditLogRecord> getAuditLogRecordsBySeverity(String severity,
+                                                                     Date   startDate,
+                                                                     Date   endDate,
+                                                                     int    offset,
+                                                                     int    maximumRecords)
+        {
+            return null;
+        }
+
+
+        /**
+         * Not used.
+         *
+         * @param component  name of the component to retrieve events from
+         * @param startDate  start of time period
+         * @param endDate  end of time period
+         * @param offset  offset of full collection to begin the return results
+         * @param maximumRecords  maximum number of log records to return
+         * @return null
+         */
+        @Override
+        public List<OMRSAuditLogRecord> getAuditLogRecordsByComponent(String component,
+                                                                      Date   startDate,
+                                                                      Date   endDate,
+                                                                      int    offset,
+                                                                      int    maximumRecords)
+        {
+            return null;
+        }
+    }
+}
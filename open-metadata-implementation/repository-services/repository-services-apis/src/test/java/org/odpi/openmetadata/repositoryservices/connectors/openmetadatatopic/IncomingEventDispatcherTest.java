@@ -0,0 +1,130 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the IncomingEventDispatcher keeps the events for each instance in order.
+ */
+public class IncomingEventDispatcherTest
+{
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+
+    /**
+     * Validate that events for the same instance are distributed in the order they were dispatched.
+     *
+     * @throws Exception problem serializing the events
+     */
+    @Test public void testPerInstanceOrder() throws Exception
+    {
+        final int instanceCount = 20;
+        final int versionCount  = 50;
+
+        Map<String, List<Long>> receivedVersions = new HashMap<>();
+        CountDownLatch          allReceived      = new CountDownLatch(instanceCount * versionCount);
+
+        IncomingEventDispatcher dispatcher = new IncomingEventDispatcher("test", 4, (event) ->
+        {
+            try
+            {
+                EntityDetail entity = objectMapper.readTree(event.getJson())
+                                                  .get("instanceEventSection")
+                                                  .get("entity")
+                                                  .traverse(objectMapper)
+                                                  .readValueAs(EntityDetail.class);
+
+                synchronized (receivedVersions)
+                {
+                    receivedVersions.computeIfAbsent(entity.getGUID(), (guid) -> new ArrayList<>()).add(entity.getVersion());
+                }
+            }
+            catch (Exception error)
+            {
+                throw new RuntimeException(error);
+            }
+
+            allReceived.countDown();
+        });
+
+        for (long version = 1; version <= versionCount; version++)
+        {
+            for (int instance = 0; instance < instanceCount; instance++)
+            {
+                dispatcher.dispatch(new IncomingEvent(getEntityEvent("guid-" + instance, version)));
+            }
+        }
+
+        assertTrue(allReceived.await(30, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+        assertTrue(dispatcher.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(receivedVersions.size(), instanceCount);
+        for (List<Long> versions : receivedVersions.values())
+        {
+            List<Long> sortedVersions = new ArrayList<>(versions);
+            Collections.sort(sortedVersions);
+            assertEquals(versions, sortedVersions);
+            assertEquals(versions.size(), versionCount);
+        }
+        assertEquals(dispatcher.getQueuedEventCount(), 0);
+    }
+
+
+    /**
+     * Build the JSON for an entity event.
+     *
+     * @param guid unique identifier of the entity
+     * @param version version of the entity
+     * @return JSON string
+     * @throws Exception problem serializing the event
+     */
+    private String getEntityEvent(String  guid,
+                                  long    version) throws Exception
+    {
+        EntityDetail entity = new EntityDetail();
+        entity.setGUID(guid);
+        entity.setVersion(version);
+        entity.setType(getInstanceType());
+
+        return objectMapper.writeValueAsString(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT,
+                                                                     entity).getOMRSEventV1());
+    }
+
+
+    /**
+     * Build an instance type with a super type so the event contains other GUIDs before the instance's own.
+     *
+     * @return instance type
+     */
+    private InstanceType getInstanceType()
+    {
+        TypeDefLink superType = new TypeDefLink("super-type-guid", "SuperType");
+
+        InstanceType instanceType = new InstanceType();
+        instanceType.setTypeDefGUID("type-guid");
+        instanceType.setTypeDefName("TestType");
+        instanceType.setTypeDefSuperTypes(Collections.singletonList(superType));
+
+        return instanceType;
+    }
+}
@@ -0,0 +1,108 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefLink;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEventType;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Verify that OMRSEventOrderingKey extracts the GUID of the instance or type that an OMRS event refers to.
+ */
+public class OMRSEventOrderingKeyTest
+{
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+
+    /**
+     * Validate that the ordering key of an entity event is the entity's GUID rather than one of its type GUIDs.
+     *
+     * @throws Exception problem serializing the event
+     */
+    @Test public void testEntityEvent() throws Exception
+    {
+        EntityDetail entity = new EntityDetail();
+        entity.setGUID("entity-guid");
+        entity.setType(getInstanceType());
+
+        String entityEvent = objectMapper.writeValueAsString(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT,
+                                                                                   entity).getOMRSEventV1());
+        assertEquals(OMRSEventOrderingKey.getOrderingKey(entityEvent), "entity-guid");
+    }
+
+
+    /**
+     * Validate that the ordering key of a relationship event is the relationship's GUID.
+     *
+     * @throws Exception problem serializing the event
+     */
+    @Test public void testRelationshipEvent() throws Exception
+    {
+        Relationship relationship = new Relationship();
+        relationship.setGUID("relationship-guid");
+        relationship.setType(getInstanceType());
+
+        String relationshipEvent = objectMapper.writeValueAsString(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT,
+                                                                                         relationship).getOMRSEventV1());
+        assertEquals(OMRSEventOrderingKey.getOrderingKey(relationshipEvent), "relationship-guid");
+    }
+
+
+    /**
+     * Validate that the ordering key of a type definition event is the type's GUID.
+     *
+     * @throws Exception problem serializing the event
+     */
+    @Test public void testTypeDefEvent() throws Exception
+    {
+        EntityDef typeDef = new EntityDef(TypeDefCategory.ENTITY_DEF, "type-guid", "TestType", 1L, "1.0");
+
+        String typeDefEvent = objectMapper.writeValueAsString(new OMRSTypeDefEvent(OMRSTypeDefEventType.NEW_TYPEDEF_EVENT,
+                                                                                   typeDef).getOMRSEventV1());
+        assertEquals(OMRSEventOrderingKey.getOrderingKey(typeDefEvent), "type-guid");
+    }
+
+
+    /**
+     * Validate that events that do not refer to an instance or type have no ordering key.
+     */
+    @Test public void testNoOrderingKey()
+    {
+        assertNull(OMRSEventOrderingKey.getOrderingKey("{\"registryEventSection\":{\"guid\":\"x\"}}"));
+        assertNull(OMRSEventOrderingKey.getOrderingKey("not json"));
+        assertNull(OMRSEventOrderingKey.getOrderingKey(null));
+    }
+
+
+    /**
+     * Build an instance type with a super type so the event contains other GUIDs before the instance's own.
+     *
+     * @return instance type
+     */
+    private InstanceType getInstanceType()
+    {
+        TypeDefLink superType = new TypeDefLink("super-type-guid", "SuperType");
+
+        InstanceType instanceType = new InstanceType();
+        instanceType.setTypeDefGUID("type-guid");
+        instanceType.setTypeDefName("TestType");
+        instanceType.setTypeDefSuperTypes(Collections.singletonList(superType));
+
+        return instanceType;
+    }
+}
@@ -0,0 +1,101 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore;
+
+import org.testng.annotations.Test;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that OMRSSearchPatternMatcher gives the same results as String.matches() for the search strings
+ * built by the repository helper and for general regular expressions.
+ */
+public class OMRSSearchPatternMatcherTest
+{
+    private static final String[] literals = {"abc", "a.b", "x", "", "a\\", "\\E", "c-d-e", "line\nbreak"};
+
+    private static final String[] values = {"abc", "xabcx", "abcx", "xabc", "a.b", "axb", "", "x", "a\\", "a\\Eb",
+                                            "c-d-e", "a-b-c-d-e-f", "line\nbreak", "abc\n", "\nabc", "ab c",
+                                            "zz\\Ezz"};
+
+
+    /**
+     * Validate the search strings built in the style of the repository helper methods.
+     */
+    @Test public void testLiteralSearchStrings()
+    {
+        for (String literal : literals)
+        {
+            String quoted = Pattern.quote(literal);
+
+            checkRegex(literal);
+            checkRegex(quoted);
+            checkRegex(".*" + quoted);
+            checkRegex(quoted + ".*");
+            checkRegex(".*" + quoted + ".*");
+        }
+    }
+
+
+    /**
+     * Validate general regular expressions.
+     */
+    @Test public void testRegularExpressions()
+    {
+        String[] regexes = {".*", ".*.*", "a.*", ".*c", "[a-z]+", "a|x", "\\Qa\\E.*\\Qc\\E", ".*\\Qab\\E\\Qc\\E.*",
+                            "(?s).*\\Qabc\\E.*", "\\Qa\\", ".*\\Q"};
+
+        for (String regex : regexes)
+        {
+            checkRegex(regex);
+        }
+
+        expectThrows(PatternSyntaxException.class, () -> OMRSSearchPatternMatcher.matches("abc", "[a-"));
+    }
+
+
+    /**
+     * Validate that the cache does not grow without limit.
+     */
+    @Test public void testCacheIsBounded()
+    {
+        for (int i = 0; i < 5000; i++)
+        {
+            assertTrue(OMRSSearchPatternMatcher.matches("value" + i, "value" + i + "|other"));
+        }
+
+        assertTrue(OMRSSearchPatternMatcher.getCachedPatternCount() <= 1000);
+    }
+
+
+    /**
+     * Check the matcher gives the same result as String.matches for every test value.
+     *
+     * @param regex regular expression to test
+     */
+    private void checkRegex(String  regex)
+    {
+        try
+        {
+            Pattern.compile(regex);
+        }
+        catch (PatternSyntaxException error)
+        {
+            expectThrows(PatternSyntaxException.class, () -> OMRSSearchPatternMatcher.matches("abc", regex));
+            return;
+        }
+
+        for (String value : values)
+        {
+            assertEquals(OMRSSearchPatternMatcher.matches(value, regex),
+                         value.matches(regex),
+                         "Value '" + value + "' regex '" + regex + "'");
+        }
+    }
+}
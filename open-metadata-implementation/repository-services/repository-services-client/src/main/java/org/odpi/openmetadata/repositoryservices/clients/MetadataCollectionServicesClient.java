@@ -16,6 +16,8 @@ import org.odpi.openmetadata.repositoryservices.rest.properties.*;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The MetadataCollectionServicesClient represents a remote metadata repository that supports the OMRS Repository REST API.
@@ -2252,6 +2254,265 @@ abstract class MetadataCollectionServicesClient
     }
 
 
+    /* ======================================================
+     * Asynchronous searches: these return as soon as the request is queued for the remote server.
+     * The future completes with the results, or exceptionally with the same exceptions as the
+     * equivalent synchronous search.
+     */
+
+
+    /**
+     * Issue findEntitiesByProperty without waiting for the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID String unique identifier for the entity type of interest (null means any entity type).
+     * @param matchProperties Optional list of entity properties to match.
+     * @param matchCriteria Enum defining how the match properties should be matched to the entities in the repository.
+     * @param fromEntityElement the starting element number of the entities to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the entity property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.
+     * @return future for the list of entities matching the supplied criteria
+     */
+    public CompletableFuture<List<EntityDetail>> findEntitiesByPropertyAsync(String                    userId,
+                                                                             String                    entityTypeGUID,
+                                                                             InstanceProperties        matchProperties,
+                                                                             MatchCriteria             matchCriteria,
+                                                                             int                       fromEntityElement,
+                                                                             List<InstanceStatus>      limitResultsByStatus,
+                                                                             List<String>              limitResultsByClassification,
+                                                                             Date                      asOfTime,
+                                                                             String                    sequencingProperty,
+                                                                             SequencingOrder           sequencingOrder,
+                                                                             int                       pageSize)
+    {
+        final String methodName  = "findEntitiesByProperty";
+        final String operationSpecificURL;
+
+        EntityPropertyFindRequest findRequestParameters;
+
+        if (asOfTime == null)
+        {
+            operationSpecificURL = "instances/entities/by-property";
+            findRequestParameters = new EntityPropertyFindRequest();
+        }
+        else
+        {
+            EntityPropertyHistoricalFindRequest historicalFindRequestParameters = new EntityPropertyHistoricalFindRequest();
+
+            historicalFindRequestParameters.setAsOfTime(asOfTime);
+
+            operationSpecificURL = "instances/entities/by-property/history";
+            findRequestParameters = historicalFindRequestParameters;
+        }
+
+        findRequestParameters.setTypeGUID(entityTypeGUID);
+        findRequestParameters.setMatchProperties(matchProperties);
+        findRequestParameters.setMatchCriteria(matchCriteria);
+        findRequestParameters.setOffset(fromEntityElement);
+        findRequestParameters.setLimitResultsByStatus(limitResultsByStatus);
+        findRequestParameters.setLimitResultsByClassification(limitResultsByClassification);
+        findRequestParameters.setSequencingOrder(sequencingOrder);
+        findRequestParameters.setSequencingProperty(sequencingProperty);
+        findRequestParameters.setPageSize(pageSize);
+
+        return this.callPostRESTCallAsync(methodName,
+                                          EntityListResponse.class,
+                                          restURLRoot + rootServiceNameInURL + userIdInURL + serviceURLMarker + operationSpecificURL,
+                                          findRequestParameters,
+                                          userId).thenApply(restResult -> this.getEntitiesFromFindResponse(methodName, restResult));
+    }
+
+
+    /**
+     * Issue findEntitiesByPropertyValue without waiting for the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param entityTypeGUID GUID of the type of entity to search for. Null means all types will be searched.
+     * @param searchCriteria String Java regular expression used to match against any of the String property values.
+     * @param fromEntityElement the starting element number of the entities to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param limitResultsByClassification List of classifications that must be present on all returned entities.
+     * @param asOfTime Requests a historical query of the entity.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result entities that can be returned on this request.
+     * @return future for the list of entities matching the supplied criteria
+     */
+    public CompletableFuture<List<EntityDetail>> findEntitiesByPropertyValueAsync(String                userId,
+                                                                                  String                entityTypeGUID,
+                                                                                  String                searchCriteria,
+                                                                                  int                   fromEntityElement,
+                                                                                  List<InstanceStatus>  limitResultsByStatus,
+                                                                                  List<String>          limitResultsByClassification,
+                                                                                  Date                  asOfTime,
+                                                                                  String                sequencingProperty,
+                                                                                  SequencingOrder       sequencingOrder,
+                                                                                  int                   pageSize)
+    {
+        final String methodName  = "findEntitiesByPropertyValue";
+        final String operationSpecificURL;
+
+        EntityPropertyFindRequest findRequestParameters;
+
+        if (asOfTime == null)
+        {
+            operationSpecificURL = "instances/entities/by-property-value?searchCriteria={1}";
+            findRequestParameters = new EntityPropertyFindRequest();
+        }
+        else
+        {
+            EntityPropertyHistoricalFindRequest historicalFindRequestParameters = new EntityPropertyHistoricalFindRequest();
+
+            historicalFindRequestParameters.setAsOfTime(asOfTime);
+
+            operationSpecificURL = "instances/entities/by-property-value/history?searchCriteria={1}";
+            findRequestParameters = historicalFindRequestParameters;
+        }
+
+        findRequestParameters.setTypeGUID(entityTypeGUID);
+        findRequestParameters.setOffset(fromEntityElement);
+        findRequestParameters.setLimitResultsByStatus(limitResultsByStatus);
+        findRequestParameters.setLimitResultsByClassification(limitResultsByClassification);
+        findRequestParameters.setSequencingOrder(sequencingOrder);
+        findRequestParameters.setSequencingProperty(sequencingProperty);
+        findRequestParameters.setPageSize(pageSize);
+
+        return this.callPostRESTCallAsync(methodName,
+                                          EntityListResponse.class,
+                                          restURLRoot + rootServiceNameInURL + userIdInURL + serviceURLMarker + operationSpecificURL,
+                                          findRequestParameters,
+                                          userId,
+                                          searchCriteria).thenApply(restResult -> this.getEntitiesFromFindResponse(methodName, restResult));
+    }
+
+
+    /**
+     * Issue findRelationshipsByProperty without waiting for the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID unique identifier (guid) for the relationship's type.  Null means all types.
+     * @param matchProperties Optional list of relationship properties to match.
+     * @param matchCriteria Enum defining how the properties should be matched to the relationships in the repository.
+     * @param fromRelationshipElement the starting element number of the relationships to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param asOfTime Requests a historical query of the relationships.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.
+     * @return future for the list of relationships matching the supplied criteria
+     */
+    public CompletableFuture<List<Relationship>> findRelationshipsByPropertyAsync(String                    userId,
+                                                                                  String                    relationshipTypeGUID,
+                                                                                  InstanceProperties        matchProperties,
+                                                                                  MatchCriteria             matchCriteria,
+                                                                                  int                       fromRelationshipElement,
+                                                                                  List<InstanceStatus>      limitResultsByStatus,
+                                                                                  Date                      asOfTime,
+                                                                                  String                    sequencingProperty,
+                                                                                  SequencingOrder           sequencingOrder,
+                                                                                  int                       pageSize)
+    {
+        final String methodName  = "findRelationshipsByProperty";
+        final String operationSpecificURL;
+
+        PropertyMatchFindRequest findRequestParameters;
+
+        if (asOfTime == null)
+        {
+            operationSpecificURL = "instances/relationships/by-property";
+            findRequestParameters = new PropertyMatchFindRequest();
+        }
+        else
+        {
+            PropertyMatchHistoricalFindRequest historicalFindRequestParameters = new PropertyMatchHistoricalFindRequest();
+
+            historicalFindRequestParameters.setAsOfTime(asOfTime);
+
+            operationSpecificURL = "instances/relationships/by-property/history";
+            findRequestParameters = historicalFindRequestParameters;
+        }
+
+        findRequestParameters.setTypeGUID(relationshipTypeGUID);
+        findRequestParameters.setMatchProperties(matchProperties);
+        findRequestParameters.setMatchCriteria(matchCriteria);
+        findRequestParameters.setOffset(fromRelationshipElement);
+        findRequestParameters.setLimitResultsByStatus(limitResultsByStatus);
+        findRequestParameters.setSequencingOrder(sequencingOrder);
+        findRequestParameters.setSequencingProperty(sequencingProperty);
+        findRequestParameters.setPageSize(pageSize);
+
+        return this.callPostRESTCallAsync(methodName,
+                                          RelationshipListResponse.class,
+                                          restURLRoot + rootServiceNameInURL + userIdInURL + serviceURLMarker + operationSpecificURL,
+                                          findRequestParameters,
+                                          userId).thenApply(restResult -> this.getRelationshipsFromFindResponse(methodName, restResult));
+    }
+
+
+    /**
+     * Issue findRelationshipsByPropertyValue without waiting for the results.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipTypeGUID GUID of the type of relationship to search for. Null means all types.
+     * @param searchCriteria String Java regular expression used to match against any of the String property values.
+     * @param fromRelationshipElement the starting element number of the relationships to return.
+     * @param limitResultsByStatus statuses to restrict the results to.  Null means all status values.
+     * @param asOfTime Requests a historical query of the relationships.  Null means return the present values.
+     * @param sequencingProperty String name of the property that is to be used to sequence the results.
+     * @param sequencingOrder Enum defining how the results should be ordered.
+     * @param pageSize the maximum number of result relationships that can be returned on this request.
+     * @return future for the list of relationships matching the supplied criteria
+     */
+    public CompletableFuture<List<Relationship>> findRelationshipsByPropertyValueAsync(String                    userId,
+                                                                                       String                    relationshipTypeGUID,
+                                                                                       String                    searchCriteria,
+                                                                                       int                       fromRelationshipElement,
+                                                                                       List<InstanceStatus>      limitResultsByStatus,
+                                                                                       Date                      asOfTime,
+                                                                                       String                    sequencingProperty,
+                                                                                       SequencingOrder           sequencingOrder,
+                                                                                       int                       pageSize)
+    {
+        final String methodName  = "findRelationshipsByPropertyValue";
+        final String operationSpecificURL;
+
+        TypeLimitedFindRequest findRequestParameters;
+
+        if (asOfTime == null)
+        {
+            operationSpecificURL = "instances/relationships/by-property-value?searchCriteria={1}";
+            findRequestParameters = new TypeLimitedFindRequest();
+        }
+        else
+        {
+            TypeLimitedHistoricalFindRequest historicalFindRequestParameters = new TypeLimitedHistoricalFindRequest();
+
+            historicalFindRequestParameters.setAsOfTime(asOfTime);
+
+            operationSpecificURL = "instances/relationships/by-property-value/history?searchCriteria={1}";
+            findRequestParameters = historicalFindRequestParameters;
+        }
+
+        findRequestParameters.setTypeGUID(relationshipTypeGUID);
+        findRequestParameters.setOffset(fromRelationshipElement);
+        findRequestParameters.setLimitResultsByStatus(limitResultsByStatus);
+        findRequestParameters.setSequencingOrder(sequencingOrder);
+        findRequestParameters.setSequencingProperty(sequencingProperty);
+        findRequestParameters.setPageSize(pageSize);
+
+        return this.callPostRESTCallAsync(methodName,
+                                          RelationshipListResponse.class,
+                                          restURLRoot + rootServiceNameInURL + userIdInURL + serviceURLMarker + operationSpecificURL,
+                                          findRequestParameters,
+                                          userId,
+                                          searchCriteria).thenApply(restResult -> this.getRelationshipsFromFindResponse(methodName, restResult));
+    }
+
+
     /* ======================================================
      * Group 4: Maintaining entity and relationship instances
      */
@@ -4596,6 +4857,47 @@ abstract class MetadataCollectionServicesClient
     }
 
 
+    /**
+     * Issue a POST REST call without waiting for the response.  The future completes exceptionally with a
+     * RepositoryErrorException if something went wrong with the REST call stack.
+     *
+     * @param <T> class name
+     * @param methodName name of the method being called
+     * @param returnClass class name of response object
+     * @param operationSpecificURL template of the URL for the REST API call with place-holders for the parameters
+     * @param request request body object
+     * @param params a list of parameters that are slotted into the url template
+     * @return future for the response object
+     */
+    private <T> CompletableFuture<T> callPostRESTCallAsync(String    methodName,
+                                                           Class<T>  returnClass,
+                                                           String    operationSpecificURL,
+                                                           Object    request,
+                                                           Object... params)
+    {
+        return restClient.callPostRESTCallAsync(methodName,
+                                                returnClass,
+                                                operationSpecificURL,
+                                                request,
+                                                params).exceptionally(failure ->
+        {
+            Throwable     error     = (failure instanceof CompletionException) && (failure.getCause() != null) ? failure.getCause() : failure;
+            OMRSErrorCode errorCode = OMRSErrorCode.CLIENT_SIDE_REST_API_ERROR;
+            String errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(methodName,
+                                                                                                     repositoryName,
+                                                                                                     error.getMessage());
+
+            throw new CompletionException(new RepositoryErrorException(errorCode.getHTTPErrorCode(),
+                                                                       this.getClass().getName(),
+                                                                       methodName,
+                                                                       errorMessage,
+                                                                       errorCode.getSystemAction(),
+                                                                       errorCode.getUserAction(),
+                                                                       error));
+        });
+    }
+
+
     /*
      * ============================================
      * Extracting complex types from REST results
@@ -4603,6 +4905,66 @@ abstract class MetadataCollectionServicesClient
      */
 
 
+    /**
+     * Return the entities from the response to an entity search, or throw the exception encoded in the
+     * response.  This is used by the asynchronous searches so the exception is wrapped in a CompletionException.
+     *
+     * @param methodName name of the method called
+     * @param restResult response from the rest call
+     * @return list of entities
+     */
+    private List<EntityDetail> getEntitiesFromFindResponse(String              methodName,
+                                                           EntityListResponse  restResult)
+    {
+        try
+        {
+            this.detectAndThrowFunctionNotSupportedException(methodName, restResult);
+            this.detectAndThrowInvalidParameterException(methodName, restResult);
+            this.detectAndThrowPropertyErrorException(methodName, restResult);
+            this.detectAndThrowTypeErrorException(methodName, restResult);
+            this.detectAndThrowPagingErrorException(methodName, restResult);
+            this.detectAndThrowUserNotAuthorizedException(methodName, restResult);
+            this.detectAndThrowRepositoryErrorException(methodName, restResult);
+        }
+        catch (OMRSCheckedExceptionBase error)
+        {
+            throw new CompletionException(error);
+        }
+
+        return restResult.getEntities();
+    }
+
+
+    /**
+     * Return the relationships from the response to a relationship search, or throw the exception encoded in the
+     * response.  This is used by the asynchronous searches so the exception is wrapped in a CompletionException.
+     *
+     * @param methodName name of the method called
+     * @param restResult response from the rest call
+     * @return list of relationships
+     */
+    private List<Relationship> getRelationshipsFromFindResponse(String                    methodName,
+                                                                RelationshipListResponse  restResult)
+    {
+        try
+        {
+            this.detectAndThrowFunctionNotSupportedException(methodName, restResult);
+            this.detectAndThrowInvalidParameterException(methodName, restResult);
+            this.detectAndThrowPropertyErrorException(methodName, restResult);
+            this.detectAndThrowTypeErrorException(methodName, restResult);
+            this.detectAndThrowPagingErrorException(methodName, restResult);
+            this.detectAndThrowUserNotAuthorizedException(methodName, restResult);
+            this.detectAndThrowRepositoryErrorException(methodName, restResult);
+        }
+        catch (OMRSCheckedExceptionBase error)
+        {
+            throw new CompletionException(error);
+        }
+
+        return restResult.getRelationships();
+    }
+
+
     /**
      * Assemble an InstanceGraph from an InstanceGraphResponse.
      *
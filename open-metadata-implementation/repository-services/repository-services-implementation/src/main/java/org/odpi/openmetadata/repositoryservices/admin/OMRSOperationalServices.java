@@ -3,6 +3,7 @@
 package org.odpi.openmetadata.repositoryservices.admin;
 
 import org.odpi.openmetadata.metadatasecurity.server.OpenMetadataServerSecurityVerifier;
+import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLogBufferFullAction;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLogDestination;
 import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventPublisher;
 import org.slf4j.Logger;
@@ -90,6 +91,8 @@ public class OMRSOperationalServices
     private LocalOMRSRepositoryConnector   localRepositoryConnector         = null;
     private OMRSArchiveManager             archiveManager                   = null;
     private OMRSAuditLogDestination        auditLogDestination              = null;
+    private int                            auditLogBufferSize               = OMRSAuditLogDestination.defaultBufferSize;
+    private OMRSAuditLogBufferFullAction   auditLogBufferFullAction         = OMRSAuditLogDestination.defaultBufferFullAction;
     private OMRSAuditLog                   auditLog                         = null;
 
 
@@ -216,6 +219,61 @@ public class OMRSOperationalServices
     }
 
 
+    /**
+     * Return the number of audit log records waiting to be passed to at least one of the audit log stores.
+     *
+     * @return count
+     */
+    public int getBufferedAuditLogRecordCount()
+    {
+        return (auditLogDestination == null) ? 0 : auditLogDestination.getBufferedLogRecordCount();
+    }
+
+
+    /**
+     * Return the number of audit log records dropped because the buffer was full.
+     *
+     * @return count
+     */
+    public long getDroppedAuditLogRecordCount()
+    {
+        return (auditLogDestination == null) ? 0 : auditLogDestination.getDroppedLogRecordCount();
+    }
+
+
+    /**
+     * Return the number of repeated audit log records dropped because the buffer was full.
+     *
+     * @return count
+     */
+    public long getSampledAuditLogRecordCount()
+    {
+        return (auditLogDestination == null) ? 0 : auditLogDestination.getSampledLogRecordCount();
+    }
+
+
+    /**
+     * Return the number of audit log records that the audit log stores failed to store.
+     *
+     * @return count
+     */
+    public long getFailedAuditLogRecordCount()
+    {
+        return (auditLogDestination == null) ? 0 : auditLogDestination.getFailedLogRecordCount();
+    }
+
+
+    /**
+     * Return the number of audit log records that the slowest audit log store is behind.
+     *
+     * @return count
+     */
+    public long getAuditLogRecordLag()
+    {
+        return (auditLogDestination == null) ? 0 : auditLogDestination.getLogRecordLag();
+    }
+
+
     /**
      * Create an audit log for an external component.
      *
@@ -267,10 +325,24 @@ public class OMRSOperationalServices
         /*
          * Initialize the audit log
          */
+        auditLogBufferSize = repositoryServicesConfig.getAuditLogBufferSize();
+        if (auditLogBufferSize <= 0)
+        {
+            auditLogBufferSize = OMRSAuditLogDestination.defaultBufferSize;
+        }
+
+        auditLogBufferFullAction = repositoryServicesConfig.getAuditLogBufferFullAction();
+        if (auditLogBufferFullAction == null)
+        {
+            auditLogBufferFullAction = OMRSAuditLogDestination.defaultBufferFullAction;
+        }
+
         auditLogDestination = new OMRSAuditLogDestination(localServerName,
                                                           localServerType,
                                                           localOrganizationName,
-                                                          getAuditLogStores(repositoryServicesConfig.getAuditLogConnections()));
+                                                          getAuditLogStores(repositoryServicesConfig.getAuditLogConnections()),
+                                                          auditLogBufferSize,
+                                                          auditLogBufferFullAction);
 
         auditLog = new OMRSAuditLog(auditLogDestination, OMRSAuditingComponent.OPERATIONAL_SERVICES);
 
@@ -830,6 +902,8 @@ public class OMRSOperationalServices
             archiveManager.close();
         }
 
+        this.logAuditLogBufferStatistics(actionDescription);
+
         auditCode = OMRSAuditCode.OMRS_DISCONNECTED;
         auditLog.logRecord(actionDescription,
                            auditCode.getLogMessageId(),
@@ -839,10 +913,44 @@ public class OMRSOperationalServices
                            auditCode.getSystemAction(),
                            auditCode.getUserAction());
 
+        /*
+         * Wait for the buffered log records to reach the audit log stores.
+         */
+        if (auditLogDestination != null)
+        {
+            auditLogDestination.close();
+        }
+
         return true;
     }
 
 
+    /**
+     * Log the activity of the buffer between the callers of the audit log and the audit log stores.
+     *
+     * @param actionDescription calling activity
+     */
+    private void logAuditLogBufferStatistics(String   actionDescription)
+    {
+        if (auditLogDestination != null)
+        {
+            OMRSAuditCode auditCode = OMRSAuditCode.AUDIT_LOG_BUFFER_STATISTICS;
+            auditLog.logRecord(actionDescription,
+                               auditCode.getLogMessageId(),
+                               auditCode.getSeverity(),
+                               auditCode.getFormattedLogMessage(Integer.toString(auditLogBufferSize),
+                                                                auditLogBufferFullAction.getName(),
+                                                                Long.toString(auditLogDestination.getDroppedLogRecordCount()),
+                                                                Long.toString(auditLogDestination.getSampledLogRecordCount()),
+                                                                Long.toString(auditLogDestination.getFailedLogRecordCount()),
+                                                                Long.toString(auditLogDestination.getLogRecordLag())),
+                               null,
+                               auditCode.getSystemAction(),
+                               auditCode.getUserAction());
+        }
+    }
+
+
     /**
      * Return the connectors to the AuditLog store using the connection information supplied.  If there is a
      * problem with the connection information that means a connector can not be created, an exception is thrown.
@@ -2,7 +2,7 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.archivemanager;
 
-import org.odpi.openmetadata.opentypes.OpenMetadataTypesArchive;
+import org.odpi.openmetadata.opentypes.OpenMetadataTypesArchiveSnapshot;
 
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
@@ -11,6 +11,7 @@ import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventProcessorInterface;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveContentProcessor;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.OpenMetadataArchiveStoreConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
@@ -21,6 +22,13 @@ import org.odpi.openmetadata.repositoryservices.localrepository.repositoryconten
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * OMRSArchiveManager manages the loading and unloading of open metadata archives from the local OMRS repository.
@@ -28,6 +36,14 @@ import java.util.List;
  */
 public class OMRSArchiveManager
 {
+    /*
+     * Instances are passed to the local repository in batches.  Batches of entities are loaded in parallel,
+     * then batches of relationships once all of the entities are loaded.  Progress is logged each time
+     * another progressReportInterval instances are loaded.
+     */
+    private static final int instanceBatchSize      = 1000;
+    private static final int progressReportInterval = 100000;
+
     private List<OpenMetadataArchiveStoreConnector> openMetadataArchiveStores   = new ArrayList<>();
     private OMRSRepositoryContentManager            repositoryContentManager    = null;
     private OMRSInstanceEventProcessorInterface     localInstanceEventProcessor = null;
@@ -126,21 +142,26 @@ public class OMRSArchiveManager
 
     /**
      * Unpack and process the contents an open metadata archive store, passing its contents to the local
-     * repository (if it exists).
+     * repository (if it exists).  The open metadata types are loaded from the snapshot generated when the
+     * open metadata types module is built, unless the snapshot is missing or does not match its checksum.
      */
     private void processOpenMetadataTypes()
     {
-        OpenMetadataTypesArchive openMetadataTypesArchive = new OpenMetadataTypesArchive();
-        OpenMetadataArchive      openMetadataTypes        = openMetadataTypesArchive.getOpenMetadataArchive();
+        OpenMetadataTypesArchiveSnapshot openMetadataTypesArchive = new OpenMetadataTypesArchiveSnapshot();
+        OpenMetadataArchive              openMetadataTypes        = openMetadataTypesArchive.getOpenMetadataArchive();
+        ArchiveLoader                    archiveLoader            = new ArchiveLoader(repositoryContentManager,
+                                                                                      localInstanceEventProcessor);
 
         repositoryContentManager.setOpenMetadataTypesOriginGUID(openMetadataTypesArchive.getArchiveGUID());
-        processOpenMetadataArchive(openMetadataTypes, repositoryContentManager, localInstanceEventProcessor);
+        OpenMetadataArchiveStoreConnector.processArchiveContents(openMetadataTypes, archiveLoader);
+        archiveLoader.complete();
     }
 
 
     /**
      * Unpack and process the contents an open metadata archive , passing its contents to the local
-     * repository (if it exists).
+     * repository (if it exists).  The archive store passes its contents one element at a time so that
+     * the archive does not need to fit in memory.
      *
      * @param archiveStore open metadata archive  to process
      * @param typeDefProcessor receiver of new TypeDefs
@@ -156,9 +177,13 @@ public class OMRSArchiveManager
              * Each archive store has a header, a section of new type definitions (TypeDefs) and a section of
              * metadata instances.
              */
-            OpenMetadataArchive archiveContent = archiveStore.getArchiveContents();
+            ArchiveLoader archiveLoader = new ArchiveLoader(typeDefProcessor, instanceProcessor);
 
-            if (archiveContent == null)
+            if (archiveStore.processArchiveContents(archiveLoader))
+            {
+                archiveLoader.complete();
+            }
+            else
             {
                 final String     actionDescription = "Process Open Metadata Archive";
 
@@ -171,113 +196,165 @@ public class OMRSArchiveManager
                                    auditCode.getSystemAction(),
                                    auditCode.getUserAction());
             }
-            else
-            {
-                processOpenMetadataArchive(archiveContent, typeDefProcessor, instanceProcessor);
-            }
         }
     }
 
 
     /**
-     * Step through the content of an open metadata archive, passing its contents to the local repository (if it
-     * exists).
+     * Set up the header of an archive instance.
      *
-     * @param archiveContent open metadata archive to process
-     * @param typeDefProcessor processor of type definitions found in the archive
-     * @param instanceProcessor processor of instances found in the archive
+     * @param metadataCollectionId home metadata collection id
+     * @param metadataConnectionName name of the metadata collection
+     * @param originatorName originator name
+     * @param creationTime creation time of archive
+     * @param provenanceType type of archive
+     * @param originatorLicense any license info
+     * @param instance instance to fill in
      */
-    private void processOpenMetadataArchive(OpenMetadataArchive                   archiveContent,
-                                            OMRSTypeDefEventProcessorInterface    typeDefProcessor,
-                                            OMRSInstanceEventProcessorInterface   instanceProcessor)
+    private void setInstanceAuditHeader(String                 metadataCollectionId,
+                                        String                 metadataConnectionName,
+                                        String                 originatorName,
+                                        Date                   creationTime,
+                                        InstanceProvenanceType provenanceType,
+                                        String                 originatorLicense,
+                                        InstanceAuditHeader    instance)
     {
-        OMRSAuditCode    auditCode;
-        final String     actionDescription = "Process Open Metadata Archive";
-
-        OpenMetadataArchiveProperties archiveProperties = archiveContent.getArchiveProperties();
-
-        if (archiveProperties != null)
+        if (provenanceType == InstanceProvenanceType.EXPORT_ARCHIVE)
         {
-            auditCode = OMRSAuditCode.PROCESSING_ARCHIVE;
-            auditLog.logRecord(actionDescription,
-                               auditCode.getLogMessageId(),
-                               auditCode.getSeverity(),
-                               auditCode.getFormattedLogMessage(archiveProperties.getArchiveName()),
-                               null,
-                               auditCode.getSystemAction(),
-                               auditCode.getUserAction());
-
-
-            OpenMetadataArchiveTypeStore     archiveTypeStore     = archiveContent.getArchiveTypeStore();
-            OpenMetadataArchiveInstanceStore archiveInstanceStore = archiveContent.getArchiveInstanceStore();
+            if (instance.getMetadataCollectionId() == null)
+            {
+                instance.setMetadataCollectionId(metadataCollectionId);
+            }
 
-            int                              typeCount            = 0;
-            int                              instanceCount        = 0;
+            if (instance.getMetadataCollectionName() == null)
+            {
+                instance.setMetadataCollectionName(metadataConnectionName);
+            }
 
+            if (instance.getCreatedBy() == null)
+            {
+                instance.setCreatedBy(originatorName);
+            }
 
-            if (archiveTypeStore != null)
+            if (instance.getCreateTime() == null)
             {
-                typeCount = this.processTypeDefStore(archiveProperties, archiveTypeStore, typeDefProcessor);
+                instance.setCreateTime(creationTime);
             }
 
-            if (archiveInstanceStore != null)
+            if (instance.getInstanceProvenanceType() == null)
             {
-                instanceCount = this.processInstanceStore(archiveProperties, archiveInstanceStore, instanceProcessor);
+                instance.setInstanceProvenanceType(provenanceType);
             }
 
-            auditCode = OMRSAuditCode.COMPLETED_ARCHIVE;
-            auditLog.logRecord(actionDescription,
-                               auditCode.getLogMessageId(),
-                               auditCode.getSeverity(),
-                               auditCode.getFormattedLogMessage(Integer.toString(typeCount),
-                                                                Integer.toString(instanceCount),
-                                                                archiveProperties.getArchiveName()),
-                               null,
-                               auditCode.getSystemAction(),
-                               auditCode.getUserAction());
+            if (instance.getInstanceLicense() == null)
+            {
+                instance.setInstanceLicense(originatorLicense);
+            }
         }
-        else
+        else /* assume this is a content pack and set up instances consistently */
         {
-            auditCode = OMRSAuditCode.NULL_PROPERTIES_IN_ARCHIVE;
-            auditLog.logRecord(actionDescription,
-                               auditCode.getLogMessageId(),
-                               auditCode.getSeverity(),
-                               auditCode.getFormattedLogMessage(),
-                               null,
-                               auditCode.getSystemAction(),
-                               auditCode.getUserAction());
+            instance.setMetadataCollectionId(metadataCollectionId);
+            instance.setMetadataCollectionName(metadataConnectionName);
+            instance.setCreatedBy(originatorName);
+            instance.setCreateTime(creationTime);
+            instance.setInstanceProvenanceType(InstanceProvenanceType.CONTENT_PACK);
+            instance.setInstanceLicense(originatorLicense);
         }
     }
 
 
     /**
-     * The TypeStore is in two parts.  First there is an optional list of patches to existing TypeDefs.
-     * Then an optional list of new TypeDefs.  It is possible that this archive has been processed before
-     * and so any duplicates detected are ignored.  However, conflicting TypeDefs are detected.
-     * Any problems found in applying the archive contents are recorded on the audit log.
-     *
-     * @param archiveProperties properties of the archive used for logging
-     * @param archiveTypeStore TypeStore from the archive
-     * @param typeDefProcessor processor of type definitions found in the archive
-     * @return type count
+     * ArchiveLoader receives the content of an open metadata archive one element at a time and passes it to
+     * the local repository (if it exists).  The TypeStore is in three parts: an optional list of patches to
+     * existing TypeDefs, an optional list of new AttributeTypeDefs and an optional list of new TypeDefs.
+     * The InstanceStore is in three parts: an optional list of entities followed by an optional list
+     * of relationships followed by an optional list of classifications.
+     * <p>
+     *     It is possible that this archive has been processed before and so any duplicates detected are ignored.
+     *     However, conflicting TypeDefs and instances are detected.  Any problems found in applying the archive
+     *     contents are recorded on the audit log.
+     * </p>
+     * <p>
+     *     Entities and relationships are collected into batches that are passed to the instance processor
+     *     as instance batch events on a pool of loader threads.  Batches of the same kind run in parallel.
+     *     A batch of relationships waits for the batches of entities before it to finish since the relationships
+     *     may link those entities.  The number of batches waiting to load is limited so the memory used does
+     *     not depend on the size of the archive.
+     * </p>
      */
-    private int  processTypeDefStore(OpenMetadataArchiveProperties          archiveProperties,
-                                     OpenMetadataArchiveTypeStore           archiveTypeStore,
-                                     OMRSTypeDefEventProcessorInterface     typeDefProcessor)
+    private class ArchiveLoader implements OpenMetadataArchiveContentProcessor
     {
-        List<TypeDefPatch>     typeDefPatches       = archiveTypeStore.getTypeDefPatches();
-        List<AttributeTypeDef> newAttributeTypeDefs = archiveTypeStore.getAttributeTypeDefs();
-        List<TypeDef>          newTypeDefs          = archiveTypeStore.getNewTypeDefs();
-        int                    typeCount            = 0;
+        private final String                              actionDescription = "Process Open Metadata Archive";
+        private final String                              sourceName        = OMRSAuditingComponent.ARCHIVE_MANAGER.getComponentName();
+        private final OMRSTypeDefEventProcessorInterface  typeDefProcessor;
+        private final OMRSInstanceEventProcessorInterface instanceProcessor;
+
+        private OpenMetadataArchiveProperties archiveProperties              = null;
+        private String                        originatorMetadataCollectionId = null;
+        private String                        originatorServerName           = null;
+        private String                        originatorServerType           = null;
+        private String                        originatorName                 = null;
+        private String                        originatorOrganizationName     = null;
+        private String                        instanceServerType             = OpenMetadataArchiveType.CONTENT_PACK.getName();
+        private InstanceProvenanceType        provenanceType                 = InstanceProvenanceType.CONTENT_PACK;
+        private int                           typeCount                      = 0;
+        private int                           instanceCount                  = 0;
+
+        private final int                     loaderThreadCount              = Math.max(2, Runtime.getRuntime().availableProcessors());
+        private final Semaphore               batchPermits                   = new Semaphore(loaderThreadCount * 2);
+        private final List<Future<?>>         pendingBatches                 = new ArrayList<>();
+        private final AtomicLong              loadedCount                    = new AtomicLong(0);
+        private final AtomicLong              nextProgressReport             = new AtomicLong(progressReportInterval);
+        private ExecutorService               loaderPool                     = null;
+        private List<EntityDetail>            entityBatch                    = new ArrayList<>();
+        private List<Relationship>            relationshipBatch              = new ArrayList<>();
+        private boolean                       pendingBatchesAreEntities      = true;
+        private long                          loadStartTime                  = 0;
+
+
+        /**
+         * Constructor
+         *
+         * @param typeDefProcessor processor of type definitions found in the archive
+         * @param instanceProcessor the processor to add the instances to the local repository.  It may be null
+         *                          if there is no local repository configured for this server.
+         */
+        ArchiveLoader(OMRSTypeDefEventProcessorInterface    typeDefProcessor,
+                      OMRSInstanceEventProcessorInterface   instanceProcessor)
+        {
+            this.typeDefProcessor = typeDefProcessor;
+            this.instanceProcessor = instanceProcessor;
+        }
 
-        if (typeDefProcessor != null)
+
+        /**
+         * Save the properties of the archive and log that the archive is being processed.
+         *
+         * @param archiveProperties properties of the archive
+         */
+        @Override
+        public void processArchiveProperties(OpenMetadataArchiveProperties archiveProperties)
         {
-            String       sourceName = OMRSAuditingComponent.ARCHIVE_MANAGER.getComponentName();
-            String       originatorMetadataCollectionId = archiveProperties.getArchiveGUID();
-            String       originatorServerName = archiveProperties.getArchiveName();
-            String       originatorServerType = null;
-            String       originatorName = archiveProperties.getOriginatorName();
-            String       originatorOrganizationName = archiveProperties.getOriginatorOrganization();
+            if (archiveProperties == null)
+            {
+                return;
+            }
+
+            this.archiveProperties = archiveProperties;
+
+            OMRSAuditCode auditCode = OMRSAuditCode.PROCESSING_ARCHIVE;
+            auditLog.logRecord(actionDescription,
+                               auditCode.getLogMessageId(),
+                               auditCode.getSeverity(),
+                               auditCode.getFormattedLogMessage(archiveProperties.getArchiveName()),
+                               null,
+                               auditCode.getSystemAction(),
+                               auditCode.getUserAction());
+
+            originatorMetadataCollectionId = archiveProperties.getArchiveGUID();
+            originatorServerName = archiveProperties.getArchiveName();
+            originatorName = archiveProperties.getOriginatorName();
+            originatorOrganizationName = archiveProperties.getOriginatorOrganization();
 
             /*
              * Originator name can not be null since it is used as the userId for calls to the repository
@@ -292,257 +369,392 @@ public class OMRSArchiveManager
                 originatorServerType = archiveProperties.getArchiveType().getName();
             }
 
-            if (typeDefPatches != null)
+            if (archiveProperties.getArchiveType() == OpenMetadataArchiveType.METADATA_EXPORT)
             {
-                for (TypeDefPatch typeDefPatch : typeDefPatches)
+                provenanceType     = InstanceProvenanceType.EXPORT_ARCHIVE;
+                instanceServerType = OpenMetadataArchiveType.METADATA_EXPORT.getName();
+            }
+        }
+
+
+        /**
+         * Pass a patch to an existing TypeDef to the local repository.
+         *
+         * @param typeDefPatch patch from the archive's type store
+         */
+        @Override
+        public void processTypeDefPatch(TypeDefPatch typeDefPatch)
+        {
+            if ((archiveProperties != null) && (typeDefProcessor != null) && (typeDefPatch != null))
+            {
+                typeDefProcessor.processUpdatedTypeDefEvent(originatorName,
+                                                            originatorMetadataCollectionId,
+                                                            originatorServerName,
+                                                            originatorServerType,
+                                                            originatorOrganizationName,
+                                                            typeDefPatch);
+                typeCount ++;
+            }
+        }
+
+
+        /**
+         * Pass a new AttributeTypeDef to the local repository.
+         *
+         * @param attributeTypeDef AttributeTypeDef from the archive's type store
+         */
+        @Override
+        public void processAttributeTypeDef(AttributeTypeDef attributeTypeDef)
+        {
+            if ((archiveProperties != null) && (typeDefProcessor != null) && (attributeTypeDef != null))
+            {
+                typeDefProcessor.processNewAttributeTypeDefEvent(originatorName,
+                                                                 originatorMetadataCollectionId,
+                                                                 originatorServerName,
+                                                                 originatorServerType,
+                                                                 originatorOrganizationName,
+                                                                 attributeTypeDef);
+                typeCount ++;
+            }
+        }
+
+
+        /**
+         * Pass a new TypeDef to the local repository.
+         *
+         * @param typeDef TypeDef from the archive's type store
+         */
+        @Override
+        public void processTypeDef(TypeDef typeDef)
+        {
+            if ((archiveProperties != null) && (typeDefProcessor != null) && (typeDef != null))
+            {
+                typeDefProcessor.processNewTypeDefEvent(originatorName,
+                                                        originatorMetadataCollectionId,
+                                                        originatorServerName,
+                                                        originatorServerType,
+                                                        originatorOrganizationName,
+                                                        typeDef);
+                typeCount ++;
+            }
+        }
+
+
+        /**
+         * Pass an entity to the local repository.
+         *
+         * @param entity entity from the archive's instance store
+         */
+        @Override
+        public void processEntity(EntityDetail entity)
+        {
+            if ((archiveProperties != null) && (instanceProcessor != null) && (entity != null))
+            {
+                this.setInstanceAuditHeader(entity);
+
+                entityBatch.add(entity);
+                instanceCount ++;
+
+                if (entityBatch.size() >= instanceBatchSize)
                 {
-                    if (typeDefPatch != null)
-                    {
-                        typeDefProcessor.processUpdatedTypeDefEvent(originatorName,
-                                                                    originatorMetadataCollectionId,
-                                                                    originatorServerName,
-                                                                    originatorServerType,
-                                                                    originatorOrganizationName,
-                                                                    typeDefPatch);
-                        typeCount ++;
-                    }
+                    this.submitEntityBatch();
                 }
             }
+        }
 
-            if (newAttributeTypeDefs != null)
+
+        /**
+         * Pass a relationship to the local repository.
+         *
+         * @param relationship relationship from the archive's instance store
+         */
+        @Override
+        public void processRelationship(Relationship relationship)
+        {
+            if ((archiveProperties != null) && (instanceProcessor != null) && (relationship != null))
             {
-                for (AttributeTypeDef newAttributeTypeDef : newAttributeTypeDefs)
-                {
-                    if (newAttributeTypeDef != null)
-                    {
-                        typeDefProcessor.processNewAttributeTypeDefEvent(originatorName,
-                                                                originatorMetadataCollectionId,
-                                                                originatorServerName,
-                                                                originatorServerType,
-                                                                originatorOrganizationName,
-                                                                newAttributeTypeDef);
+                this.setInstanceAuditHeader(relationship);
+
+                /*
+                 * The entities read before this relationship are loaded first.
+                 */
+                this.submitEntityBatch();
 
-                        typeCount ++;
-                    }
+                relationshipBatch.add(relationship);
+                instanceCount ++;
+
+                if (relationshipBatch.size() >= instanceBatchSize)
+                {
+                    this.submitRelationshipBatch();
                 }
             }
+        }
+
 
-            if (newTypeDefs != null)
+        /**
+         * Set up the header of a classification.  Classifications are not yet passed to the local repository.
+         *
+         * @param classificationEntityExtension classification from the archive's instance store
+         */
+        @Override
+        public void processClassification(ClassificationEntityExtension classificationEntityExtension)
+        {
+            if ((archiveProperties != null) && (instanceProcessor != null) && (classificationEntityExtension != null))
             {
-                for (TypeDef newTypeDef : newTypeDefs)
-                {
-                    if (newTypeDef != null)
-                    {
-                        typeDefProcessor.processNewTypeDefEvent(originatorName,
+                Classification classification = classificationEntityExtension.getClassification();
+
+                this.setInstanceAuditHeader(classification);
+
+                classificationEntityExtension.setClassification(classification);
+
+                // Todo
+                /* new method required
+                instanceProcessor.processNewClassificationEvent(sourceName,
                                                                 originatorMetadataCollectionId,
                                                                 originatorServerName,
-                                                                originatorServerType,
+                                                                instanceServerType,
                                                                 originatorOrganizationName,
-                                                                newTypeDef);
-                        typeCount ++;
-                    }
-                }
+                                                                classificationEntityExtension);
+
+                instanceCount ++;
+                */
             }
         }
 
-        return typeCount;
-    }
-
 
-    /**
-     * The InstanceStore is in three parts: an optional list of entities followed by an optional list
-     * of relationships followed by an optional list of classifications.
-     *
-     * It is possible that this archive has been processed before
-     * and so any duplicates detected are ignored.  However, conflicting instances are detected.
-     * Any problems found in applying the archive contents are recorded on the audit log.
-     *
-     * @param archiveProperties properties describing the archive used in logging
-     * @param archiveInstanceStore the instance store to process
-     * @param instanceProcessor the processor to add the instances to the local repository.  It may be null
-     *                          if there is no local repository configured for this server.
-     * @return instance count
-     */
-    private int  processInstanceStore(OpenMetadataArchiveProperties             archiveProperties,
-                                      OpenMetadataArchiveInstanceStore          archiveInstanceStore,
-                                      OMRSInstanceEventProcessorInterface       instanceProcessor)
-    {
-        List<EntityDetail>                  entities        = archiveInstanceStore.getEntities();
-        List<Relationship>                  relationships   = archiveInstanceStore.getRelationships();
-        List<ClassificationEntityExtension> classifications = archiveInstanceStore.getClassifications();
-        int                                 instanceCount   = 0;
-
-        if (instanceProcessor != null)
+        /**
+         * Log the result of processing the archive.
+         */
+        void complete()
         {
-            String                 sourceName                 = OMRSAuditingComponent.ARCHIVE_MANAGER.getComponentName();
-            String                 homeMetadataCollectionId   = archiveProperties.getArchiveGUID();
-            String                 archiveName                = archiveProperties.getArchiveName();
-            String                 originatorServerType       = OpenMetadataArchiveType.CONTENT_PACK.getName();
-            InstanceProvenanceType provenanceType             = InstanceProvenanceType.CONTENT_PACK;
-            Date                   archiveCreationTime        = archiveProperties.getCreationDate();
-            String                 originatorName             = archiveProperties.getOriginatorName();
-            String                 originatorOrganizationName = archiveProperties.getOriginatorOrganization();
-            String                 originatorLicense          = archiveProperties.getOriginatorLicense();
+            OMRSAuditCode auditCode;
 
+            this.submitEntityBatch();
+            this.submitRelationshipBatch();
+            this.waitForPendingBatches();
 
-            if (archiveProperties.getArchiveType() == OpenMetadataArchiveType.METADATA_EXPORT)
+            if (loaderPool != null)
             {
-                provenanceType       = InstanceProvenanceType.EXPORT_ARCHIVE;
-                originatorServerType = OpenMetadataArchiveType.METADATA_EXPORT.getName();
-            }
+                loaderPool.shutdown();
 
+                long elapsedTime = Math.max(1, System.currentTimeMillis() - loadStartTime);
 
-            if (entities != null)
-            {
-                for (EntityDetail entity : entities)
-                {
-                    if (entity != null)
-                    {
-                        this.setInstanceAuditHeader(homeMetadataCollectionId,
-                                                    archiveName,
-                                                    originatorName,
-                                                    archiveCreationTime,
-                                                    provenanceType,
-                                                    originatorLicense,
-                                                    entity);
-
-                        instanceProcessor.processNewEntityEvent(sourceName,
-                                                                homeMetadataCollectionId,
-                                                                archiveName,
-                                                                originatorServerType,
-                                                                originatorOrganizationName,
-                                                                entity);
+                auditCode = OMRSAuditCode.ARCHIVE_LOAD_THROUGHPUT;
+                auditLog.logRecord(actionDescription,
+                                   auditCode.getLogMessageId(),
+                                   auditCode.getSeverity(),
+                                   auditCode.getFormattedLogMessage(Long.toString(loadedCount.get()),
+                                                                    originatorServerName,
+                                                                    Long.toString(elapsedTime),
+                                                                    Long.toString(loadedCount.get() * 1000 / elapsedTime)),
+                                   null,
+                                   auditCode.getSystemAction(),
+                                   auditCode.getUserAction());
+            }
 
-                        instanceCount++;
-                    }
-                }
+            if (archiveProperties != null)
+            {
+                auditCode = OMRSAuditCode.COMPLETED_ARCHIVE;
+                auditLog.logRecord(actionDescription,
+                                   auditCode.getLogMessageId(),
+                                   auditCode.getSeverity(),
+                                   auditCode.getFormattedLogMessage(Integer.toString(typeCount),
+                                                                    Integer.toString(instanceCount),
+                                                                    archiveProperties.getArchiveName()),
+                                   null,
+                                   auditCode.getSystemAction(),
+                                   auditCode.getUserAction());
+            }
+            else
+            {
+                auditCode = OMRSAuditCode.NULL_PROPERTIES_IN_ARCHIVE;
+                auditLog.logRecord(actionDescription,
+                                   auditCode.getLogMessageId(),
+                                   auditCode.getSeverity(),
+                                   auditCode.getFormattedLogMessage(),
+                                   null,
+                                   auditCode.getSystemAction(),
+                                   auditCode.getUserAction());
             }
+        }
 
 
-            if (relationships != null)
+        /**
+         * Pass the current batch of entities to the loader threads.
+         */
+        private void submitEntityBatch()
+        {
+            if (! entityBatch.isEmpty())
             {
-                for (Relationship relationship : relationships)
-                {
-                    if (relationship != null)
-                    {
-                        this.setInstanceAuditHeader(homeMetadataCollectionId,
-                                                    archiveName,
-                                                    originatorName,
-                                                    archiveCreationTime,
-                                                    provenanceType,
-                                                    originatorLicense,
-                                                    relationship);
-
-                        instanceProcessor.processNewRelationshipEvent(sourceName,
-                                                                      homeMetadataCollectionId,
-                                                                      archiveName,
-                                                                      originatorServerType,
-                                                                      originatorOrganizationName,
-                                                                      relationship);
-
-                        instanceCount ++;
-                    }
-                }
+                InstanceGraph batch     = new InstanceGraph(entityBatch, null);
+                int           batchSize = entityBatch.size();
+
+                entityBatch = new ArrayList<>();
+                this.submitBatch(batch, true, batchSize);
             }
+        }
 
 
-            if (classifications != null)
+        /**
+         * Pass the current batch of relationships to the loader threads.
+         */
+        private void submitRelationshipBatch()
+        {
+            if (! relationshipBatch.isEmpty())
             {
-                for (ClassificationEntityExtension classificationEntityExtension : classifications)
-                {
-                    if (classificationEntityExtension != null)
-                    {
-                        Classification classification = classificationEntityExtension.getClassification();
-
-                        this.setInstanceAuditHeader(homeMetadataCollectionId,
-                                                    archiveName,
-                                                    originatorName,
-                                                    archiveCreationTime,
-                                                    provenanceType,
-                                                    originatorLicense,
-                                                    classification);
-
-                        classificationEntityExtension.setClassification(classification);
-
-                        // Todo
-                        /* new method required
-                        instanceProcessor.processNewClassificationEvent(sourceName,
-                                                                        homeMetadataCollectionId,
-                                                                        originatorServerName,
-                                                                        originatorServerType,
-                                                                        originatorOrganizationName,
-                                                                        classificationEntityExtension);
+                InstanceGraph batch     = new InstanceGraph(null, relationshipBatch);
+                int           batchSize = relationshipBatch.size();
 
-                        instanceCount ++;
-                        */
-                    }
-                }
+                relationshipBatch = new ArrayList<>();
+                this.submitBatch(batch, false, batchSize);
             }
         }
 
-        return instanceCount;
-    }
-
 
-    /**
-     * Set up the header of an archive instance.
-     *
-     * @param metadataCollectionId home metadata collection id
-     * @param metadataConnectionName name of the metadata collection
-     * @param originatorName originator name
-     * @param creationTime creation time of archive
-     * @param provenanceType type of archive
-     * @param originatorLicense any license info
-     * @param instance instance to fill in
-     */
-    private void setInstanceAuditHeader(String                 metadataCollectionId,
-                                        String                 metadataConnectionName,
-                                        String                 originatorName,
-                                        Date                   creationTime,
-                                        InstanceProvenanceType provenanceType,
-                                        String                 originatorLicense,
-                                        InstanceAuditHeader    instance)
-    {
-        if (provenanceType == InstanceProvenanceType.EXPORT_ARCHIVE)
+        /**
+         * Pass a batch of instances to the loader threads.  If the batches already loading are of the other kind,
+         * they are allowed to finish first.  This call waits if too many batches are waiting to load.
+         *
+         * @param batch entities or relationships to load
+         * @param isEntityBatch true for a batch of entities, false for a batch of relationships
+         * @param batchSize number of instances in the batch
+         */
+        private void submitBatch(InstanceGraph   batch,
+                                 boolean         isEntityBatch,
+                                 int             batchSize)
         {
-            if (instance.getMetadataCollectionId() == null)
+            if (pendingBatchesAreEntities != isEntityBatch)
             {
-                instance.setMetadataCollectionId(metadataCollectionId);
+                this.waitForPendingBatches();
+                pendingBatchesAreEntities = isEntityBatch;
             }
 
-            if (instance.getMetadataCollectionName() == null)
+            if (loaderPool == null)
             {
-                instance.setMetadataCollectionName(metadataConnectionName);
+                loadStartTime = System.currentTimeMillis();
+                loaderPool = Executors.newFixedThreadPool(loaderThreadCount, (runnable) ->
+                {
+                    Thread thread = new Thread(runnable, originatorServerName + " ArchiveLoader");
+
+                    thread.setDaemon(true);
+                    return thread;
+                });
             }
 
-            if (instance.getCreatedBy() == null)
+            batchPermits.acquireUninterruptibly();
+            pendingBatches.removeIf(Future::isDone);
+
+            try
             {
-                instance.setCreatedBy(originatorName);
+                pendingBatches.add(loaderPool.submit(() -> this.loadBatch(batch, batchSize)));
             }
-
-            if (instance.getCreateTime() == null)
+            catch (RejectedExecutionException error)
             {
-                instance.setCreateTime(creationTime);
+                batchPermits.release();
+                throw error;
             }
+        }
 
-            if (instance.getInstanceProvenanceType() == null)
+
+        /**
+         * Pass a batch of instances to the instance processor.  This runs on a loader thread.
+         *
+         * @param batch entities or relationships to load
+         * @param batchSize number of instances in the batch
+         */
+        private void loadBatch(InstanceGraph   batch,
+                               int             batchSize)
+        {
+            try
             {
-                instance.setInstanceProvenanceType(provenanceType);
+                instanceProcessor.processInstanceBatchEvent(sourceName,
+                                                            originatorMetadataCollectionId,
+                                                            originatorServerName,
+                                                            instanceServerType,
+                                                            originatorOrganizationName,
+                                                            batch);
+
+                long loaded     = loadedCount.addAndGet(batchSize);
+                long reportedAt = nextProgressReport.get();
+
+                if ((loaded >= reportedAt) &&
+                    (nextProgressReport.compareAndSet(reportedAt, loaded - (loaded % progressReportInterval) + progressReportInterval)))
+                {
+                    long elapsedTime = Math.max(1, System.currentTimeMillis() - loadStartTime);
+
+                    OMRSAuditCode auditCode = OMRSAuditCode.ARCHIVE_LOAD_PROGRESS;
+                    auditLog.logRecord(actionDescription,
+                                       auditCode.getLogMessageId(),
+                                       auditCode.getSeverity(),
+                                       auditCode.getFormattedLogMessage(Long.toString(loaded),
+                                                                        originatorServerName,
+                                                                        Long.toString(loaded * 1000 / elapsedTime)),
+                                       null,
+                                       auditCode.getSystemAction(),
+                                       auditCode.getUserAction());
+                }
+            }
+            finally
+            {
+                batchPermits.release();
             }
+        }
 
-            if (instance.getInstanceLicense() == null)
+
+        /**
+         * Wait for the batches passed to the loader threads to finish loading.
+         */
+        private void waitForPendingBatches()
+        {
+            for (Future<?> pendingBatch : pendingBatches)
             {
-                instance.setInstanceLicense(originatorLicense);
+                try
+                {
+                    pendingBatch.get();
+                }
+                catch (InterruptedException error)
+                {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                catch (ExecutionException error)
+                {
+                    Throwable cause = (error.getCause() == null) ? error : error.getCause();
+
+                    OMRSAuditCode auditCode = OMRSAuditCode.ARCHIVE_BATCH_LOAD_ERROR;
+                    auditLog.logRecord(actionDescription,
+                                       auditCode.getLogMessageId(),
+                                       auditCode.getSeverity(),
+                                       auditCode.getFormattedLogMessage(originatorServerName,
+                                                                        cause.getClass().getName(),
+                                                                        cause.getMessage()),
+                                       cause.toString(),
+                                       auditCode.getSystemAction(),
+                                       auditCode.getUserAction());
+                }
             }
+
+            pendingBatches.clear();
         }
-        else /* assume this is a content pack and set up instances consistently */
+
+
+        /**
+         * Set up the header of an archive instance from the archive properties.
+         *
+         * @param instance instance to fill in
+         */
+        private void setInstanceAuditHeader(InstanceAuditHeader    instance)
         {
-            instance.setMetadataCollectionId(metadataCollectionId);
-            instance.setMetadataCollectionName(metadataConnectionName);
-            instance.setCreatedBy(originatorName);
-            instance.setCreateTime(creationTime);
-            instance.setInstanceProvenanceType(InstanceProvenanceType.CONTENT_PACK);
-            instance.setInstanceLicense(originatorLicense);
+            if (instance != null)
+            {
+                OMRSArchiveManager.this.setInstanceAuditHeader(originatorMetadataCollectionId,
+                                                               originatorServerName,
+                                                               archiveProperties.getOriginatorName(),
+                                                               archiveProperties.getCreationDate(),
+                                                               provenanceType,
+                                                               archiveProperties.getOriginatorLicense(),
+                                                               instance);
+            }
         }
     }
 }
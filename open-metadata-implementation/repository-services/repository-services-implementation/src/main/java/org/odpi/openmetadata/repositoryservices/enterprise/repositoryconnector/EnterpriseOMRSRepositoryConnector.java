@@ -15,6 +15,8 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorConsumer;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationMemberMetrics;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationThreadPool;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
@@ -22,6 +24,7 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeExcept
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * EnterpriseOMRSRepositoryConnector supports federating calls to multiple metadata repositories.  As a result,
@@ -49,6 +52,16 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
 
     private String callingServiceName = null;
 
+    /*
+     * Worker threads for the requests that are issued to the cohort members in parallel.  The size of the pool
+     * and the time allowed for each member to respond can be set in the configuration properties of the
+     * connection.
+     */
+    private static final String  maxFederationThreadsProperty      = "maxFederationThreads";
+    private static final String  federatedRequestTimeoutProperty   = "federatedRequestTimeout";
+
+    private volatile FederationThreadPool federationThreadPool = null;
+
     private static final Logger       log      = LoggerFactory.getLogger(EnterpriseOMRSRepositoryConnector.class);
 
     /**
@@ -137,6 +150,34 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     {
         super.start();
 
+        int   maxFederationThreads    = FederationThreadPool.DEFAULT_MAX_THREADS;
+        long  federatedRequestTimeout = FederationThreadPool.DEFAULT_REPOSITORY_TIMEOUT;
+
+        if (super.connectionProperties != null)
+        {
+            Map<String, Object> configurationProperties = super.connectionProperties.getConfigurationProperties();
+
+            if (configurationProperties != null)
+            {
+                Object  maxThreads = configurationProperties.get(maxFederationThreadsProperty);
+                Object  timeout    = configurationProperties.get(federatedRequestTimeoutProperty);
+
+                if (maxThreads instanceof Integer)
+                {
+                    maxFederationThreads = (Integer)maxThreads;
+                }
+
+                if (timeout instanceof Number)
+                {
+                    federatedRequestTimeout = ((Number)timeout).longValue();
+                }
+            }
+        }
+
+        this.federationThreadPool = new FederationThreadPool("EnterpriseFederation: " + callingServiceName,
+                                                             maxFederationThreads,
+                                                             federatedRequestTimeout);
+
         if (auditLog != null)
         {
             final String actionDescription = "start";
@@ -181,11 +222,58 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
             connectorManager.unregisterConnectorConsumer(connectorConsumerId);
         }
 
+        this.shutdownFederationThreadPool();
+
         localConnector = null;
         remoteCohortConnectors = new ArrayList<>();
     }
 
 
+    /**
+     * Return the worker threads used to issue requests to the cohort members in parallel.
+     *
+     * @return thread pool or null if the connector is not started
+     */
+    FederationThreadPool getFederationThreadPool()
+    {
+        return federationThreadPool;
+    }
+
+
+    /**
+     * Return the response metrics for each of the cohort members that this connector has issued parallel
+     * requests to.
+     *
+     * @return list of metrics (empty if the connector is not started)
+     */
+    public List<FederationMemberMetrics> getFederationMetrics()
+    {
+        FederationThreadPool  threadPool = federationThreadPool;
+
+        if (threadPool == null)
+        {
+            return new ArrayList<>();
+        }
+
+        return threadPool.getAllMemberMetrics();
+    }
+
+
+    /**
+     * Stop the worker threads used for parallel requests.
+     */
+    private void shutdownFederationThreadPool()
+    {
+        FederationThreadPool  threadPool = federationThreadPool;
+
+        if (threadPool != null)
+        {
+            threadPool.shutdown();
+            federationThreadPool = null;
+        }
+    }
+
+
     /**
      * Returns the metadata collection to the repository where the supplied instance can be updated, ie its home repository.
      *
@@ -446,6 +534,8 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
              */
         }
 
+        this.shutdownFederationThreadPool();
+
         /*
          * Need to disconnect the remote connectors
          */
@@ -22,6 +22,7 @@ import java.util.Map;
 public class EntityAccumulator extends QueryInstanceAccumulatorBase
 {
     private volatile Map<String, EntityDetail> accumulatedEntities = new HashMap<>();
+    private Map<String, List<EntityDetail>> memberResults = new HashMap<>();
 
 
     /**
@@ -86,6 +87,11 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addEntities(List<EntityDetail>   entities,
                                          String               metadataCollectionId)
     {
+        if (isClosed())
+        {
+            return;
+        }
+
         if (entities != null)
         {
             for (EntityDetail entity : entities)
@@ -93,6 +99,11 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
                 this.addEntity(entity, metadataCollectionId);
             }
 
+            if (metadataCollectionId != null)
+            {
+                memberResults.put(metadataCollectionId, new ArrayList<>(entities));
+            }
+
             /*
              * Record that this repository has returned results from the request.
              */
@@ -100,6 +111,11 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
         }
         else
         {
+            if (metadataCollectionId != null)
+            {
+                memberResults.put(metadataCollectionId, new ArrayList<>());
+            }
+
             /*
              * Even though results were not found it was still a successful request.
              */
@@ -110,23 +126,33 @@ public class EntityAccumulator extends QueryInstanceAccumulatorBase
 
     /**
      * Extract the results - this will the a unique list of entities selected from the instances
-     * supplied to this accumulator.  It should be called once all of the executors have completed processing
-     * their request(s).
+     * supplied to this accumulator, sequenced and paged as requested.  It should be called once all of the
+     * executors have completed processing their request(s).
      *
      * @param repositoryConnector enterprise connector
      * @return list of entities
      */
     public synchronized List<EntityDetail>  getResults(EnterpriseOMRSRepositoryConnector repositoryConnector)
     {
-        if (accumulatedEntities.isEmpty())
-        {
-            return null;
-        }
-        else
+        return this.getResultsPage(repositoryConnector).getResults();
+    }
+
+
+    /**
+     * Extract the page of results along with the cursor to use to retrieve the next page.  It should be called
+     * once all of the executors have completed processing their request(s).
+     *
+     * @param repositoryConnector enterprise connector
+     * @return page of entities
+     */
+    public synchronized FederatedResultsPage<EntityDetail>  getResultsPage(EnterpriseOMRSRepositoryConnector repositoryConnector)
+    {
+        if (! accumulatedEntities.isEmpty())
         {
             this.makeRefreshRecommendations(repositoryConnector);
-            return new ArrayList<>(accumulatedEntities.values());
         }
+
+        return super.mergeMemberResults(memberResults);
     }
 
 
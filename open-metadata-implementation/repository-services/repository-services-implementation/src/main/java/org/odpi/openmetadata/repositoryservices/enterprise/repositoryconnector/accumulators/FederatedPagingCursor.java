@@ -0,0 +1,243 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * FederatedPagingCursor records how far through each member repository's results a federated query has
+ * progressed.  It is passed to the caller as an opaque string with each page of results and returned
+ * on the request for the next page so that each member repository is only asked for the results that
+ * follow the ones it has already contributed.
+ * <p>
+ * A member repository that is not mentioned in the cursor (for example because it has joined the cohort
+ * since the previous page was retrieved) is queried from its first result.
+ * </p>
+ */
+public class FederatedPagingCursor
+{
+    private static final String CURSOR_VERSION  = "1";
+    private static final String LINE_SEPARATOR  = "\n";
+    private static final String FIELD_SEPARATOR = "\t";
+
+    private String               sequencingProperty;
+    private SequencingOrder      sequencingOrder;
+    private Map<String, Integer> memberOffsets   = new HashMap<>();
+    private Set<String>          exhaustedMembers = new HashSet<>();
+
+
+    /**
+     * Constructor used when building the cursor for the next page.
+     *
+     * @param sequencingProperty sequencing property of the query
+     * @param sequencingOrder sequencing order of the query
+     */
+    FederatedPagingCursor(String          sequencingProperty,
+                          SequencingOrder sequencingOrder)
+    {
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder = sequencingOrder;
+    }
+
+
+    /**
+     * Recreate a cursor from the string returned to the caller.  The cursor must have come from a query
+     * with the same sequencing.
+     *
+     * @param encodedCursor string form of the cursor
+     * @param sequencingProperty sequencing property of the query
+     * @param sequencingOrder sequencing order of the query
+     * @return cursor
+     * @throws IllegalArgumentException the string is not a valid cursor for this query
+     */
+    public static FederatedPagingCursor decode(String          encodedCursor,
+                                               String          sequencingProperty,
+                                               SequencingOrder sequencingOrder) throws IllegalArgumentException
+    {
+        if (encodedCursor == null)
+        {
+            throw new IllegalArgumentException("Null paging cursor");
+        }
+
+        String   cursorText = new String(Base64.getUrlDecoder().decode(encodedCursor), StandardCharsets.UTF_8);
+        String[] lines      = cursorText.split(LINE_SEPARATOR, -1);
+
+        if ((lines.length < 3) ||
+            (! CURSOR_VERSION.equals(lines[0])) ||
+            (! getOrderName(sequencingOrder).equals(lines[1])) ||
+            (! Objects.toString(sequencingProperty, "").equals(lines[2])))
+        {
+            throw new IllegalArgumentException("Paging cursor is not from this query");
+        }
+
+        FederatedPagingCursor cursor = new FederatedPagingCursor(sequencingProperty, sequencingOrder);
+
+        for (int i = 3; i < lines.length; i++)
+        {
+            String[] fields = lines[i].split(FIELD_SEPARATOR, 3);
+
+            if (fields.length != 3)
+            {
+                throw new IllegalArgumentException("Badly formed paging cursor");
+            }
+
+            int offset = Integer.parseInt(fields[0]);
+
+            if (offset < 0)
+            {
+                throw new IllegalArgumentException("Negative offset in paging cursor");
+            }
+
+            cursor.setMemberPosition(fields[2], offset, Boolean.parseBoolean(fields[1]));
+        }
+
+        return cursor;
+    }
+
+
+    /**
+     * Return the string form of the cursor that is passed to the caller.
+     *
+     * @return encoded cursor
+     */
+    public String encode()
+    {
+        StringBuilder cursorText = new StringBuilder();
+
+        cursorText.append(CURSOR_VERSION).append(LINE_SEPARATOR);
+        cursorText.append(getOrderName(sequencingOrder)).append(LINE_SEPARATOR);
+        cursorText.append(Objects.toString(sequencingProperty, ""));
+
+        for (Map.Entry<String, Integer> memberOffset : memberOffsets.entrySet())
+        {
+            cursorText.append(LINE_SEPARATOR)
+                      .append(memberOffset.getValue())
+                      .append(FIELD_SEPARATOR)
+                      .append(exhaustedMembers.contains(memberOffset.getKey()))
+                      .append(FIELD_SEPARATOR)
+                      .append(memberOffset.getKey());
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursorText.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Record the position reached in a member repository's results.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @param offset number of the member's results that have been consumed
+     * @param exhausted the member has no more results
+     */
+    void setMemberPosition(String   metadataCollectionId,
+                           int      offset,
+                           boolean  exhausted)
+    {
+        memberOffsets.put(metadataCollectionId, offset);
+
+        if (exhausted)
+        {
+            exhaustedMembers.add(metadataCollectionId);
+        }
+        else
+        {
+            exhaustedMembers.remove(metadataCollectionId);
+        }
+    }
+
+
+    /**
+     * Return the number of the member repository's results that have already been consumed.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @return offset of the next result to request
+     */
+    public int getMemberOffset(String   metadataCollectionId)
+    {
+        Integer offset = memberOffsets.get(metadataCollectionId);
+
+        if (offset == null)
+        {
+            return 0;
+        }
+
+        return offset;
+    }
+
+
+    /**
+     * Return whether the member repository has returned all of its results.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @return boolean
+     */
+    public boolean isMemberExhausted(String   metadataCollectionId)
+    {
+        return exhaustedMembers.contains(metadataCollectionId);
+    }
+
+
+    /**
+     * Return whether all of the members in the cursor have returned all of their results.
+     *
+     * @return boolean
+     */
+    boolean isComplete()
+    {
+        return exhaustedMembers.containsAll(memberOffsets.keySet());
+    }
+
+
+    /**
+     * Return the metadata collection ids of the members recorded in the cursor.
+     *
+     * @return set of ids
+     */
+    Set<String> getMemberIds()
+    {
+        return Collections.unmodifiableSet(memberOffsets.keySet());
+    }
+
+
+    /**
+     * Return the name used for the sequencing order in the cursor.
+     *
+     * @param sequencingOrder sequencing order of the query
+     * @return name
+     */
+    private static String getOrderName(SequencingOrder sequencingOrder)
+    {
+        if (sequencingOrder == null)
+        {
+            return SequencingOrder.ANY.name();
+        }
+
+        return sequencingOrder.name();
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "FederatedPagingCursor{" +
+                "sequencingProperty='" + sequencingProperty + '\'' +
+                ", sequencingOrder=" + sequencingOrder +
+                ", memberOffsets=" + memberOffsets +
+                ", exhaustedMembers=" + exhaustedMembers +
+                '}';
+    }
+}
@@ -0,0 +1,379 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.InstanceSequencingComparator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * FederatedResultsMerger combines the sorted results returned by each member repository into a single page
+ * of results using a k-way merge.  Only the head of each member's results is compared at each step so
+ * the merge stops as soon as the page is full.  When the same instance is returned by more than one
+ * member it appears once, at the position of its first copy, using the latest version returned.
+ * <p>
+ * Each member is asked for a bounded number of results.  The merge can not move past the last result
+ * fetched from a member that has more results to give, since the member's next result could sort before
+ * the results still waiting from the other members.  If that happens the page is returned short
+ * and the paging cursor picks up from that point.
+ * </p>
+ * <p>
+ * Once a page is full, copies of the page's instances that are next in line from any member are skipped
+ * so they do not reappear at the start of the next page.  Copies that are further back in a member's
+ * results - for example because the members hold different versions that sort differently - are not
+ * seen until a later page and so may be returned again.
+ * </p>
+ *
+ * @param <T> type of instance
+ */
+class FederatedResultsMerger<T extends InstanceHeader>
+{
+    private String                          sequencingProperty;
+    private SequencingOrder                 sequencingOrder;
+    private InstanceSequencingComparator<T> comparator;
+    private int                             memberPageSize;
+    private FederatedPagingCursor           startCursor;
+
+
+    /**
+     * Constructor
+     *
+     * @param sequencingProperty property used for ordering (optional)
+     * @param sequencingOrder ordering of results
+     * @param memberPageSize maximum number of results requested from each member - zero means unlimited
+     * @param startCursor cursor supplied on the request - null means each member was queried from its
+     *                    first result
+     */
+    FederatedResultsMerger(String                sequencingProperty,
+                           SequencingOrder       sequencingOrder,
+                           int                   memberPageSize,
+                           FederatedPagingCursor startCursor)
+    {
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder = sequencingOrder;
+        this.comparator = new InstanceSequencingComparator<>(sequencingProperty, sequencingOrder);
+        this.memberPageSize = memberPageSize;
+        this.startCursor = startCursor;
+    }
+
+
+    /**
+     * Merge the results from each member into a page.
+     *
+     * @param memberResults results from each member that responded, keyed by metadata collection id
+     * @param startingElement number of unique instances to skip before the page starts
+     * @param pageSize maximum number of instances on the page - zero means unlimited
+     * @return page of results and the cursor for the next page
+     */
+    FederatedResultsPage<T> merge(Map<String, List<T>>  memberResults,
+                                  int                   startingElement,
+                                  int                   pageSize)
+    {
+        List<MemberQueue<T>>          memberQueues   = new ArrayList<>();
+        Map<String, T>                latestVersions = new HashMap<>();
+        PriorityQueue<MemberQueue<T>> heads          = new PriorityQueue<>(Math.max(1, memberResults.size()),
+                                                                           this::compareHeads);
+        boolean                       blocked        = false;
+
+        /*
+         * Each member's results are sorted in case the member has not applied the sequencing itself.
+         * The sort is stable so a member's own order is kept when no sequencing is requested.
+         */
+        for (Map.Entry<String, List<T>> memberResult : memberResults.entrySet())
+        {
+            List<MemberResult<T>> instances   = new ArrayList<>();
+            int                   resultCount = 0;
+
+            if (memberResult.getValue() != null)
+            {
+                resultCount = memberResult.getValue().size();
+
+                for (int i = 0; i < resultCount; i++)
+                {
+                    T instance = memberResult.getValue().get(i);
+
+                    if ((instance != null) && (instance.getGUID() != null))
+                    {
+                        instances.add(new MemberResult<>(instance, i));
+
+                        T latestVersion = latestVersions.get(instance.getGUID());
+
+                        if ((latestVersion == null) || (latestVersion.getVersion() < instance.getVersion()))
+                        {
+                            latestVersions.put(instance.getGUID(), instance);
+                        }
+                    }
+                }
+            }
+
+            if (comparator.isOrdered())
+            {
+                instances.sort((result1, result2) -> comparator.compare(result1.instance, result2.instance));
+            }
+
+            boolean exhausted = (memberPageSize == 0) || (resultCount < memberPageSize);
+
+            MemberQueue<T> memberQueue = new MemberQueue<>(memberResult.getKey(),
+                                                           memberQueues.size(),
+                                                           instances,
+                                                           resultCount,
+                                                           exhausted);
+
+            memberQueues.add(memberQueue);
+
+            if (memberQueue.hasNext())
+            {
+                heads.add(memberQueue);
+            }
+            else if (! exhausted)
+            {
+                /*
+                 * The member only returned null results but has more to give, so nothing can be placed
+                 * until its next results have been fetched.
+                 */
+                blocked = true;
+            }
+        }
+
+        List<T>     results          = new ArrayList<>();
+        Set<String> returnedGUIDs    = new HashSet<>();
+        int         skippedInstances = 0;
+
+        while ((! blocked) && (! heads.isEmpty()) && ((pageSize == 0) || (results.size() < pageSize)))
+        {
+            MemberQueue<T> memberQueue = heads.poll();
+            T              instance    = memberQueue.next();
+
+            if (returnedGUIDs.add(instance.getGUID()))
+            {
+                if (skippedInstances < startingElement)
+                {
+                    skippedInstances++;
+                }
+                else
+                {
+                    results.add(latestVersions.get(instance.getGUID()));
+                }
+            }
+
+            if (memberQueue.hasNext())
+            {
+                heads.add(memberQueue);
+            }
+            else if (! memberQueue.exhausted)
+            {
+                break;
+            }
+        }
+
+        /*
+         * Copies of instances already returned that are next in line would otherwise start the next page.
+         */
+        for (MemberQueue<T> memberQueue : memberQueues)
+        {
+            while ((memberQueue.hasNext()) && (returnedGUIDs.contains(memberQueue.peek().getGUID())))
+            {
+                memberQueue.next();
+            }
+        }
+
+        return new FederatedResultsPage<>(results.isEmpty() ? null : results, getNextCursor(memberQueues));
+    }
+
+
+    /**
+     * Build the cursor for the next page.  Members that failed to respond keep their position from the
+     * start cursor so they are asked again.
+     *
+     * @param memberQueues state of each member that responded
+     * @return encoded cursor or null if all members have returned all of their results
+     */
+    private String getNextCursor(List<MemberQueue<T>>  memberQueues)
+    {
+        FederatedPagingCursor nextCursor = new FederatedPagingCursor(sequencingProperty, sequencingOrder);
+        boolean               moreResults = false;
+
+        if (startCursor != null)
+        {
+            for (String metadataCollectionId : startCursor.getMemberIds())
+            {
+                nextCursor.setMemberPosition(metadataCollectionId,
+                                             startCursor.getMemberOffset(metadataCollectionId),
+                                             startCursor.isMemberExhausted(metadataCollectionId));
+            }
+        }
+
+        for (MemberQueue<T> memberQueue : memberQueues)
+        {
+            int startOffset = 0;
+
+            if (startCursor != null)
+            {
+                startOffset = startCursor.getMemberOffset(memberQueue.metadataCollectionId);
+            }
+
+            boolean exhausted = memberQueue.exhausted && (! memberQueue.hasNext());
+
+            nextCursor.setMemberPosition(memberQueue.metadataCollectionId,
+                                         startOffset + memberQueue.getOffset(),
+                                         exhausted);
+
+            moreResults = moreResults || (! exhausted);
+        }
+
+        if (moreResults || (! nextCursor.isComplete()))
+        {
+            return nextCursor.encode();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Order the member queues by their next instance.  Ties go to the member that was added first so
+     * the merge is deterministic.
+     *
+     * @param queue1 first queue
+     * @param queue2 second queue
+     * @return comparison result
+     */
+    private int compareHeads(MemberQueue<T>  queue1,
+                             MemberQueue<T>  queue2)
+    {
+        int result = comparator.compare(queue1.peek(), queue2.peek());
+
+        if (result == 0)
+        {
+            result = Integer.compare(queue1.memberIndex, queue2.memberIndex);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * MemberQueue tracks how far the merge has read through one member's results.
+     *
+     * @param <T> type of instance
+     */
+    private static class MemberQueue<T>
+    {
+        private String                metadataCollectionId;
+        private int                   memberIndex;
+        private List<MemberResult<T>> instances;
+        private int                   resultCount;
+        private boolean               exhausted;
+        private int                   position = 0;
+
+
+        /**
+         * Constructor
+         *
+         * @param metadataCollectionId unique identifier of the member's metadata collection
+         * @param memberIndex order the member was added to the merge
+         * @param instances sorted results from the member, without the null results
+         * @param resultCount number of results returned by the member, including null results
+         * @param exhausted the member has no more results beyond these
+         */
+        MemberQueue(String                 metadataCollectionId,
+                    int                    memberIndex,
+                    List<MemberResult<T>>  instances,
+                    int                    resultCount,
+                    boolean                exhausted)
+        {
+            this.metadataCollectionId = metadataCollectionId;
+            this.memberIndex = memberIndex;
+            this.instances = instances;
+            this.resultCount = resultCount;
+            this.exhausted = exhausted;
+        }
+
+
+        /**
+         * Return whether there are more instances to read.
+         *
+         * @return boolean
+         */
+        boolean hasNext()
+        {
+            return position < instances.size();
+        }
+
+
+        /**
+         * Return the next instance without consuming it.
+         *
+         * @return instance
+         */
+        T peek()
+        {
+            return instances.get(position).instance;
+        }
+
+
+        /**
+         * Consume the next instance.
+         *
+         * @return instance
+         */
+        T next()
+        {
+            return instances.get(position++).instance;
+        }
+
+
+        /**
+         * Return how many of the member's results have been used, counted in the member's own results so
+         * null results are included.  This is the position of the earliest result that has not been read
+         * so the next page does not skip any results.
+         *
+         * @return offset into the member's results
+         */
+        int getOffset()
+        {
+            int offset = resultCount;
+
+            for (int i = position; i < instances.size(); i++)
+            {
+                offset = Math.min(offset, instances.get(i).resultIndex);
+            }
+
+            return offset;
+        }
+    }
+
+
+    /**
+     * MemberResult is an instance returned by a member along with its position in the member's results.
+     *
+     * @param <T> type of instance
+     */
+    private static class MemberResult<T>
+    {
+        private T   instance;
+        private int resultIndex;
+
+
+        /**
+         * Constructor
+         *
+         * @param instance returned instance
+         * @param resultIndex position of the instance in the member's results
+         */
+        MemberResult(T    instance,
+                     int  resultIndex)
+        {
+            this.instance = instance;
+            this.resultIndex = resultIndex;
+        }
+    }
+}
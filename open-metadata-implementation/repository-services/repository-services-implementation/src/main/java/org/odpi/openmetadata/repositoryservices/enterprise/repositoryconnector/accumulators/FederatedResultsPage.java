@@ -0,0 +1,71 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+
+import java.util.List;
+
+/**
+ * FederatedResultsPage is one page of the results of a federated query, along with the cursor that is
+ * used to request the next page.
+ *
+ * @param <T> type of instance returned
+ */
+public class FederatedResultsPage<T extends InstanceHeader>
+{
+    private List<T> results;
+    private String  pagingCursor;
+
+
+    /**
+     * Constructor
+     *
+     * @param results instances on this page - null means no results
+     * @param pagingCursor cursor to pass on the request for the next page - null means there are no more results
+     */
+    public FederatedResultsPage(List<T>  results,
+                                String   pagingCursor)
+    {
+        this.results = results;
+        this.pagingCursor = pagingCursor;
+    }
+
+
+    /**
+     * Return the instances on this page.  The page may be shorter than the requested page size when duplicate
+     * copies of instances have been removed.
+     *
+     * @return list of instances or null
+     */
+    public List<T> getResults()
+    {
+        return results;
+    }
+
+
+    /**
+     * Return the cursor to pass on the request for the next page.
+     *
+     * @return opaque string or null if there are no more results
+     */
+    public String getPagingCursor()
+    {
+        return pagingCursor;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "FederatedResultsPage{" +
+                "results=" + results +
+                ", pagingCursor='" + pagingCursor + '\'' +
+                '}';
+    }
+}
@@ -12,7 +12,8 @@ import java.util.Map;
 
 /**
  * QueryAccumulatorBase acts as a base class to the accumulators that need to visit each repository and
- * combine results.
+ * combine results.  An accumulator is shared by the clones of an executor that run in parallel so all
+ * access to its state is synchronized.
  */
 public class QueryAccumulatorBase extends ExceptionAccumulatorBase
 {
@@ -23,6 +24,7 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     private int                  responsesRequired  = 0;
     private Map<String, Integer> resultsContributed = new HashMap<>();
     private boolean              resultsReturned = false;
+    private boolean              closed = false;
 
 
     /**
@@ -63,7 +65,7 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
      *
      * @return true if a request succeeded.
      */
-    public boolean resultsReturned()
+    public synchronized boolean resultsReturned()
     {
         return (resultsReturned);
     }
@@ -79,6 +81,46 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     }
 
 
+    /**
+     * Stop accepting responses from the repositories.  This is called when the federated request stops waiting
+     * for the repositories so that responses arriving after the timeout do not change the results that are
+     * being returned to the caller.
+     */
+    public synchronized void close()
+    {
+        closed = true;
+    }
+
+
+    /**
+     * Return whether the accumulator has stopped accepting responses.
+     *
+     * @return true if responses are ignored
+     */
+    synchronized boolean isClosed()
+    {
+        return closed;
+    }
+
+
+    /**
+     * Record that a repository did not respond before the federated request stopped waiting for it.  Nothing
+     * is recorded if the repository's response arrived in the meantime.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection that timed out
+     * @param exception exception describing the timeout
+     */
+    public synchronized void captureTimeout(String                   metadataCollectionId,
+                                            RepositoryErrorException exception)
+    {
+        if (! resultsContributed.containsKey(metadataCollectionId))
+        {
+            setRequestReturned(metadataCollectionId, 0);
+            repositoryErrorException = exception;
+        }
+    }
+
+
     /**
      * This records the completion of the request to a single repository.
      *
@@ -118,6 +160,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                          metadataCollectionId,
                                               ClassificationErrorException    exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         classificationErrorException = exception;
     }
@@ -132,6 +179,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               EntityNotKnownException    exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         entityNotKnownException = exception;
     }
@@ -147,6 +199,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                           metadataCollectionId,
                                               FunctionNotSupportedException    exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         functionNotSupportedException = exception;
     }
@@ -161,6 +218,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               InvalidParameterException  exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         invalidParameterException = exception;
     }
@@ -175,6 +237,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               PagingErrorException     exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         pagingErrorException = exception;
     }
@@ -189,6 +256,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               PropertyErrorException     exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         propertyErrorException = exception;
     }
@@ -203,6 +275,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                        metadataCollectionId,
                                               RelationshipNotKnownException exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         relationshipNotKnownException = exception;
     }
@@ -217,6 +294,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               RepositoryErrorException   exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         repositoryErrorException = exception;
     }
@@ -231,6 +313,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String               metadataCollectionId,
                                               TypeErrorException   exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         typeErrorException = exception;
     }
@@ -245,6 +332,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureException(String                     metadataCollectionId,
                                               UserNotAuthorizedException exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         userNotAuthorizedException = exception;
     }
@@ -259,6 +351,11 @@ public class QueryAccumulatorBase extends ExceptionAccumulatorBase
     public synchronized void captureGenericException(String     metadataCollectionId,
                                                      Throwable  exception)
     {
+        if (closed)
+        {
+            return;
+        }
+
         setRequestReturned(metadataCollectionId, 0);
         anotherException = exception;
     }
@@ -4,20 +4,33 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * QueryAccumulatorBase acts as a base class to the accumulators that need to visit each repository and
- * combine results.
+ * combine results.  It also holds the paging parameters for the query.  These are used to work out which
+ * results to request from each repository and to merge the results that come back into a single page.
+ * When a paging cursor is supplied, each repository is asked for the page of results that follows the ones it
+ * contributed to the previous pages.  Otherwise each repository is asked for enough results to fill
+ * the requested page from its start, since it is not possible to know which repositories supplied the
+ * results on the earlier pages.
  */
 public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
 {
     protected List<String>            locallyStoredInstancesGUIDs = new ArrayList<>();
 
+    private int                       startingElement    = 0;
+    private int                       pageSize           = 0;
+    private String                    sequencingProperty = null;
+    private SequencingOrder           sequencingOrder    = null;
+    private FederatedPagingCursor     pagingCursor       = null;
+
     /**
      * Construct a query accumulator.  This base class manages the common variables needed to
      * control the execution of requests across all members of the cohort(s).
@@ -58,7 +71,7 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
      *
      * @param locallyStoredInstancesGUID guid of an instance that is best of breed and stored locally
      */
-    void captureLocalInstance(String   locallyStoredInstancesGUID)
+    synchronized void captureLocalInstance(String   locallyStoredInstancesGUID)
     {
         this.locallyStoredInstancesGUIDs.add(locallyStoredInstancesGUID);
     }
@@ -70,8 +83,107 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
      * @param instanceGUID unique identifier (guid) of instance
      * @return boolean true if entity is NOT stored in local repository
      */
-    boolean notLocal(String   instanceGUID)
+    synchronized boolean notLocal(String   instanceGUID)
     {
         return ! (locallyStoredInstancesGUIDs.contains(instanceGUID));
     }
+
+
+    /**
+     * Set up the paging parameters supplied by the caller.
+     *
+     * @param startingElement number of unique instances to skip before the page starts
+     * @param sequencingProperty property used for ordering (optional)
+     * @param sequencingOrder ordering of results
+     * @param pageSize maximum number of instances to return - zero means unlimited
+     */
+    public synchronized void setPagingParameters(int              startingElement,
+                                                 String           sequencingProperty,
+                                                 SequencingOrder  sequencingOrder,
+                                                 int              pageSize)
+    {
+        this.startingElement = startingElement;
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder = sequencingOrder;
+        this.pageSize = pageSize;
+    }
+
+
+    /**
+     * Set up the cursor returned with the previous page of results.  This replaces the starting element.
+     *
+     * @param pagingCursor decoded cursor
+     */
+    public synchronized void setPagingCursor(FederatedPagingCursor   pagingCursor)
+    {
+        this.pagingCursor = pagingCursor;
+    }
+
+
+    /**
+     * Return the starting element to request from a repository.
+     *
+     * @param metadataCollectionId unique identifier of the repository's metadata collection
+     * @return starting element
+     */
+    public synchronized int getMemberStartingElement(String   metadataCollectionId)
+    {
+        if (pagingCursor != null)
+        {
+            return pagingCursor.getMemberOffset(metadataCollectionId);
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Return the page size to request from each repository.
+     *
+     * @return page size - zero means unlimited
+     */
+    public synchronized int getMemberPageSize()
+    {
+        if ((pagingCursor != null) || (pageSize == 0))
+        {
+            return pageSize;
+        }
+
+        return startingElement + pageSize;
+    }
+
+
+    /**
+     * Return whether a repository has already returned all of its results on earlier pages.
+     *
+     * @param metadataCollectionId unique identifier of the repository's metadata collection
+     * @return boolean
+     */
+    public synchronized boolean isMemberExhausted(String   metadataCollectionId)
+    {
+        return (pagingCursor != null) && (pagingCursor.isMemberExhausted(metadataCollectionId));
+    }
+
+
+    /**
+     * Merge the results from each of the repositories into the requested page.
+     *
+     * @param memberResults results returned from each repository keyed by metadata collection id
+     * @param <T> type of instance
+     * @return page of results and the cursor for the next page
+     */
+    synchronized <T extends InstanceHeader> FederatedResultsPage<T> mergeMemberResults(Map<String, List<T>>  memberResults)
+    {
+        FederatedResultsMerger<T> merger = new FederatedResultsMerger<>(sequencingProperty,
+                                                                        sequencingOrder,
+                                                                        this.getMemberPageSize(),
+                                                                        pagingCursor);
+
+        if (pagingCursor != null)
+        {
+            return merger.merge(memberResults, 0, pageSize);
+        }
+
+        return merger.merge(memberResults, startingElement, pageSize);
+    }
 }
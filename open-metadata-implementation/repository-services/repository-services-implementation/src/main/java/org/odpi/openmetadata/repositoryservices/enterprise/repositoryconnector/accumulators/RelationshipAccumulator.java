@@ -21,6 +21,7 @@ import java.util.Map;
 public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
 {
     private volatile Map<String, Relationship> accumulatedRelationships   = new HashMap<>();
+    private Map<String, List<Relationship>> memberResults = new HashMap<>();
 
 
     /**
@@ -85,6 +86,11 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
     public synchronized void addRelationships(List<Relationship>   relationships,
                                               String               metadataCollectionId)
     {
+        if (isClosed())
+        {
+            return;
+        }
+
         if (relationships != null)
         {
             for (Relationship relationship : relationships)
@@ -92,6 +98,11 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
                 this.addRelationship(relationship, metadataCollectionId);
             }
 
+            if (metadataCollectionId != null)
+            {
+                memberResults.put(metadataCollectionId, new ArrayList<>(relationships));
+            }
+
             /*
              * Record that this repository has returned results from the request.
              */
@@ -99,6 +110,11 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
         }
         else
         {
+            if (metadataCollectionId != null)
+            {
+                memberResults.put(metadataCollectionId, new ArrayList<>());
+            }
+
             /*
              * Even though results were not found it was still a successful request.
              */
@@ -109,23 +125,33 @@ public class RelationshipAccumulator extends QueryInstanceAccumulatorBase
 
     /**
      * Extract the results - this will the a unique list of relationships selected from the instances
-     * supplied to this accumulator.  It should be called once all of the executors have completed processing
-     * their request(s).
+     * supplied to this accumulator, sequenced and paged as requested.  It should be called once all of the
+     * executors have completed processing their request(s).
      *
      * @param repositoryConnector enterprise connector
      * @return list of relationships
      */
     public synchronized List<Relationship>  getResults(EnterpriseOMRSRepositoryConnector repositoryConnector)
     {
-        if (accumulatedRelationships.isEmpty())
-        {
-            return null;
-        }
-        else
+        return this.getResultsPage(repositoryConnector).getResults();
+    }
+
+
+    /**
+     * Extract the page of results along with the cursor to use to retrieve the next page.  It should be called
+     * once all of the executors have completed processing their request(s).
+     *
+     * @param repositoryConnector enterprise connector
+     * @return page of relationships
+     */
+    public synchronized FederatedResultsPage<Relationship>  getResultsPage(EnterpriseOMRSRepositoryConnector repositoryConnector)
+    {
+        if (! accumulatedRelationships.isEmpty())
         {
             this.makeRefreshRecommendations(repositoryConnector);
-            return new ArrayList<>(accumulatedRelationships.values());
         }
+
+        return super.mergeMemberResults(memberResults);
     }
 
 
@@ -0,0 +1,155 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * FederationMemberMetrics records how one member repository of the cohort(s) has responded to the
+ * requests issued to it by the parallel federation control.  The counters are updated by the worker threads
+ * so each value is individually consistent, but a set of values read together may span an update.
+ */
+public class FederationMemberMetrics
+{
+    private String     metadataCollectionId;
+
+    private AtomicLong requestCount          = new AtomicLong(0);
+    private AtomicLong timeoutCount          = new AtomicLong(0);
+    private AtomicLong failureCount          = new AtomicLong(0);
+    private AtomicLong totalResponseTime     = new AtomicLong(0);
+    private AtomicLong maximumResponseTime   = new AtomicLong(0);
+
+
+    /**
+     * Constructor
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     */
+    FederationMemberMetrics(String   metadataCollectionId)
+    {
+        this.metadataCollectionId = metadataCollectionId;
+    }
+
+
+    /**
+     * Record a request that completed (successfully or by returning an exception to the executor).
+     *
+     * @param responseTime elapsed time of the request in milliseconds
+     */
+    void recordResponse(long   responseTime)
+    {
+        requestCount.incrementAndGet();
+        totalResponseTime.addAndGet(responseTime);
+        maximumResponseTime.accumulateAndGet(responseTime, Math::max);
+    }
+
+
+    /**
+     * Record a request that did not complete within the repository timeout and was cancelled.
+     */
+    void recordTimeout()
+    {
+        timeoutCount.incrementAndGet();
+    }
+
+
+    /**
+     * Record a request that failed with an exception that the executor did not handle.
+     */
+    void recordFailure()
+    {
+        failureCount.incrementAndGet();
+    }
+
+
+    /**
+     * Return the unique identifier of the member's metadata collection.
+     *
+     * @return metadata collection id
+     */
+    public String getMetadataCollectionId()
+    {
+        return metadataCollectionId;
+    }
+
+
+    /**
+     * Return the number of requests that have completed.
+     *
+     * @return count
+     */
+    public long getRequestCount()
+    {
+        return requestCount.get();
+    }
+
+
+    /**
+     * Return the number of requests that were cancelled because they exceeded the repository timeout.
+     *
+     * @return count
+     */
+    public long getTimeoutCount()
+    {
+        return timeoutCount.get();
+    }
+
+
+    /**
+     * Return the number of requests that failed with an unhandled exception.
+     *
+     * @return count
+     */
+    public long getFailureCount()
+    {
+        return failureCount.get();
+    }
+
+
+    /**
+     * Return the average response time of the completed requests.
+     *
+     * @return time in milliseconds
+     */
+    public long getAverageResponseTime()
+    {
+        long  requests = requestCount.get();
+
+        if (requests == 0)
+        {
+            return 0;
+        }
+
+        return totalResponseTime.get() / requests;
+    }
+
+
+    /**
+     * Return the longest response time of the completed requests.
+     *
+     * @return time in milliseconds
+     */
+    public long getMaximumResponseTime()
+    {
+        return maximumResponseTime.get();
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "FederationMemberMetrics{" +
+                "metadataCollectionId='" + metadataCollectionId + '\'' +
+                ", requestCount=" + getRequestCount() +
+                ", timeoutCount=" + getTimeoutCount() +
+                ", failureCount=" + getFailureCount() +
+                ", averageResponseTime=" + getAverageResponseTime() +
+                ", maximumResponseTime=" + getMaximumResponseTime() +
+                '}';
+    }
+}
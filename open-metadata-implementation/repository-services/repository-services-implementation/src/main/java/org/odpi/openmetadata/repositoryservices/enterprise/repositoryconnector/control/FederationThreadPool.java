@@ -0,0 +1,216 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FederationThreadPool provides the worker threads that the ParallelFederationControl uses to call the
+ * members of the cohort(s) in parallel.  There is one pool for each enterprise connector.  The number of
+ * threads and the queue of waiting requests are both bounded.  When the queue is full, the calling thread
+ * issues the request itself so the caller is slowed down rather than the request rejected.  Once the pool
+ * is shut down, new requests are rejected with a RejectedExecutionException.
+ * <p>
+ * The pool also holds the timeout that is applied to each member repository and the metrics recorded
+ * for each member.
+ * </p>
+ */
+public class FederationThreadPool
+{
+    public static final int   DEFAULT_MAX_THREADS        = 20;
+    public static final long  DEFAULT_REPOSITORY_TIMEOUT = 60000;
+
+    private static final int  QUEUE_SIZE_PER_THREAD      = 10;
+
+    private ThreadPoolExecutor                   executorService;
+    private long                                 repositoryTimeout;
+    private Map<String, FederationMemberMetrics> memberMetrics = new ConcurrentHashMap<>();
+
+
+    /**
+     * Constructor
+     *
+     * @param poolName name used as the prefix for the worker thread names
+     * @param maxThreads maximum number of requests that are issued in parallel
+     * @param repositoryTimeout maximum time in milliseconds to wait for each member repository to respond
+     */
+    public FederationThreadPool(String   poolName,
+                                int      maxThreads,
+                                long     repositoryTimeout)
+    {
+        int  threadCount = maxThreads;
+
+        if (threadCount < 1)
+        {
+            threadCount = DEFAULT_MAX_THREADS;
+        }
+
+        if (repositoryTimeout > 0)
+        {
+            this.repositoryTimeout = repositoryTimeout;
+        }
+        else
+        {
+            this.repositoryTimeout = DEFAULT_REPOSITORY_TIMEOUT;
+        }
+
+        this.executorService = new ThreadPoolExecutor(threadCount,
+                                                      threadCount,
+                                                      60,
+                                                      TimeUnit.SECONDS,
+                                                      new ArrayBlockingQueue<>(threadCount * QUEUE_SIZE_PER_THREAD),
+                                                      new WorkerThreadFactory(poolName),
+                                                      new CallerRunsWhileActivePolicy());
+        this.executorService.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Queue a request for a member repository.
+     *
+     * @param request request to run
+     * @param <T> type of result
+     * @return future for the request
+     */
+    <T> Future<T> submit(Callable<T>   request)
+    {
+        return executorService.submit(request);
+    }
+
+
+    /**
+     * Return the maximum time to wait for each member repository to respond.
+     *
+     * @return time in milliseconds
+     */
+    public long getRepositoryTimeout()
+    {
+        return repositoryTimeout;
+    }
+
+
+    /**
+     * Return the metrics for a member repository, creating them if this is the first request to the member.
+     *
+     * @param metadataCollectionId unique identifier of the member's metadata collection
+     * @return metrics object
+     */
+    FederationMemberMetrics getMemberMetrics(String   metadataCollectionId)
+    {
+        String  key = metadataCollectionId;
+
+        if (key == null)
+        {
+            key = "<unknown>";
+        }
+
+        return memberMetrics.computeIfAbsent(key, FederationMemberMetrics::new);
+    }
+
+
+    /**
+     * Return the metrics recorded for each of the member repositories that have been called.
+     *
+     * @return list of metrics
+     */
+    public List<FederationMemberMetrics> getAllMemberMetrics()
+    {
+        return new ArrayList<>(memberMetrics.values());
+    }
+
+
+    /**
+     * Stop accepting requests and interrupt any requests in progress.
+     */
+    public void shutdown()
+    {
+        executorService.shutdownNow();
+    }
+
+
+    /**
+     * Return whether the pool has been shutdown.
+     *
+     * @return boolean
+     */
+    public boolean isShutdown()
+    {
+        return executorService.isShutdown();
+    }
+
+
+    /**
+     * CallerRunsWhileActivePolicy runs a request that does not fit in the queue on the caller's thread.
+     * Unlike ThreadPoolExecutor.CallerRunsPolicy, it rejects the request once the pool is shut down
+     * rather than silently discarding it, so the caller is never left waiting on a future that will
+     * not complete.
+     */
+    private static class CallerRunsWhileActivePolicy implements RejectedExecutionHandler
+    {
+        /**
+         * Handle a request that the pool could not accept.
+         *
+         * @param request request to run
+         * @param executor pool that rejected the request
+         */
+        public void rejectedExecution(Runnable           request,
+                                      ThreadPoolExecutor executor)
+        {
+            if (executor.isShutdown())
+            {
+                throw new RejectedExecutionException("Federation thread pool is shut down");
+            }
+
+            request.run();
+        }
+    }
+
+
+    /**
+     * WorkerThreadFactory creates named daemon threads so the pool does not prevent the JVM from exiting.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory
+    {
+        private String        poolName;
+        private AtomicInteger threadNumber = new AtomicInteger(1);
+
+
+        /**
+         * Constructor
+         *
+         * @param poolName prefix for thread names
+         */
+        WorkerThreadFactory(String   poolName)
+        {
+            this.poolName = poolName;
+        }
+
+
+        /**
+         * Create a new worker thread.
+         *
+         * @param runnable work for the thread
+         * @return new thread
+         */
+        public Thread newThread(Runnable   runnable)
+        {
+            Thread thread = new Thread(runnable, poolName + "-" + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
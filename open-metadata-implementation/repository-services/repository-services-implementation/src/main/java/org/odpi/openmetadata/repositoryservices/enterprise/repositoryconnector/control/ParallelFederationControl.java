@@ -4,22 +4,49 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.QueryAccumulatorBase;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.AsyncRepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * ParallelFederationControl uses multiple worker threads to perform the calls to different systems in parallel.
+ * Each member repository is called through its own clone of the executor.  The clones share the executor's
+ * accumulator which gathers the results and exceptions.  Requests that have not completed within the
+ * repository timeout are cancelled so the response time of the federated request is bounded by the
+ * slowest member that responds in time rather than the sum of all of the members' response times.
+ * A member that times out contributes a RepositoryErrorException, and any results it returns later are ignored.
+ * <p>
+ * Members whose metadata collection supports asynchronous queries are sent the request directly when the
+ * executor supports it.  No worker thread is used for these members while they process the request.
+ * </p>
+ * <p>
+ * If no thread pool is supplied, or the executor can not be cloned, the members are called one at a time
+ * on the caller's thread.
+ * </p>
  */
 public class ParallelFederationControl extends FederationControlBase
 {
-    // todo at this point the parallel federation control uses a sequential since the
-    // todo worker threads are not implemented.
+    private FederationThreadPool threadPool;
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelFederationControl.class);
 
 
     /**
-     * Constructor for a federated query
+     * Constructor for a federated query that runs on the caller's thread.
      *
      * @param userId calling user
      * @param cohortConnectors list of connectors to call
@@ -28,9 +55,27 @@ public class ParallelFederationControl extends FederationControlBase
     public ParallelFederationControl(String                        userId,
                                      List<OMRSRepositoryConnector> cohortConnectors,
                                      String                        methodName)
+    {
+        this(userId, cohortConnectors, methodName, null);
+    }
+
+
+    /**
+     * Constructor for a federated query
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param methodName calling method
+     * @param threadPool worker threads for issuing the requests in parallel
+     */
+    public ParallelFederationControl(String                        userId,
+                                     List<OMRSRepositoryConnector> cohortConnectors,
+                                     String                        methodName,
+                                     FederationThreadPool          threadPool)
     {
         super(userId, cohortConnectors, methodName);
 
+        this.threadPool = threadPool;
     }
 
 
@@ -45,17 +90,241 @@ public class ParallelFederationControl extends FederationControlBase
     {
         if (super.cohortConnectors != null)
         {
-            for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+            if ((threadPool == null) || (threadPool.isShutdown()) || (! (executor instanceof CloneableRepositoryExecutor)))
             {
-                if (cohortConnector != null)
-                {
-                    OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+                this.executeCommandSequentially(executor);
+            }
+            else
+            {
+                this.executeCommandInParallel((CloneableRepositoryExecutor)executor);
+            }
+        }
+    }
+
+
+    /**
+     * Call each of the member repositories in turn on the caller's thread.
+     *
+     * @param executor command to execute
+     * @throws RepositoryErrorException problem with the state of one of the repositories.
+     */
+    private void executeCommandSequentially(RepositoryExecutor executor) throws RepositoryErrorException
+    {
+        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+        {
+            if (cohortConnector != null)
+            {
+                OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+                String metadataCollectionId = this.validateMetadataCollection(metadataCollection, methodName);
+
+                executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+            }
+        }
+    }
+
+
+    /**
+     * Issue the request to every member repository at once and wait for them to complete, or for the
+     * repository timeout to expire.
+     *
+     * @param executor command to execute
+     * @throws RepositoryErrorException problem with the state of one of the repositories.
+     */
+    private void executeCommandInParallel(CloneableRepositoryExecutor executor) throws RepositoryErrorException
+    {
+        List<MemberRequest> memberRequests = new ArrayList<>();
 
-                    String metadataCollectionId = this.validateMetadataCollection(metadataCollection, methodName);
+        /*
+         * All of the metadata collections are validated before any requests are issued so a badly
+         * configured member does not leave requests running.
+         */
+        List<OMRSMetadataCollection> metadataCollections   = new ArrayList<>();
+        List<String>                 metadataCollectionIds = new ArrayList<>();
 
-                    executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+        {
+            if (cohortConnector != null)
+            {
+                OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+                metadataCollectionIds.add(this.validateMetadataCollection(metadataCollection, methodName));
+                metadataCollections.add(metadataCollection);
+            }
+        }
+
+        for (int i = 0; i < metadataCollections.size(); i++)
+        {
+            memberRequests.add(this.submitRequest(executor, metadataCollectionIds.get(i), metadataCollections.get(i)));
+        }
+
+        long                deadline         = System.currentTimeMillis() + threadPool.getRepositoryTimeout();
+        List<MemberRequest> timedOutRequests = new ArrayList<>();
+
+        for (MemberRequest memberRequest : memberRequests)
+        {
+            try
+            {
+                memberRequest.future.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            }
+            catch (TimeoutException error)
+            {
+                timedOutRequests.add(memberRequest);
+            }
+            catch (ExecutionException error)
+            {
+                memberRequest.metrics.recordFailure();
+
+                log.debug("Request " + methodName + " to metadata collection " + memberRequest.metadataCollectionId +
+                                  " failed: " + error.getMessage());
+            }
+            catch (InterruptedException error)
+            {
+                /*
+                 * The caller has been interrupted so abandon the remaining requests.
+                 */
+                executor.getAccumulator().close();
+
+                for (MemberRequest outstandingRequest : memberRequests)
+                {
+                    outstandingRequest.future.cancel(true);
                 }
+
+                Thread.currentThread().interrupt();
+                return;
             }
         }
+
+        /*
+         * Stragglers may still pass results to the shared accumulator after they are cancelled - for example, a
+         * member that answers asynchronously is not stopped by cancelling its future.  The accumulator is closed
+         * so that these late results do not change the results returned to the caller.
+         */
+        QueryAccumulatorBase accumulator = executor.getAccumulator();
+
+        accumulator.close();
+
+        for (MemberRequest memberRequest : timedOutRequests)
+        {
+            /*
+             * The straggler is interrupted so that it releases its worker thread.  The timeout is recorded as
+             * the member's response so the caller receives an exception if none of the members responded in time.
+             */
+            memberRequest.future.cancel(true);
+            memberRequest.metrics.recordTimeout();
+            accumulator.captureTimeout(memberRequest.metadataCollectionId,
+                                       this.getTimeoutException(memberRequest.metadataCollectionId));
+
+            log.debug("Request " + methodName + " to metadata collection " + memberRequest.metadataCollectionId +
+                              " cancelled after " + threadPool.getRepositoryTimeout() + "ms");
+        }
+    }
+
+
+    /**
+     * Return the exception that describes a member repository that did not respond in time.
+     *
+     * @param metadataCollectionId unique identifier for the member's metadata collection
+     * @return exception
+     */
+    private RepositoryErrorException getTimeoutException(String   metadataCollectionId)
+    {
+        OMRSErrorCode errorCode    = OMRSErrorCode.COHORT_MEMBER_TIMEOUT;
+        String        errorMessage = errorCode.getErrorMessageId() + errorCode.getFormattedErrorMessage(metadataCollectionId,
+                                                                                                          methodName,
+                                                                                                          Long.toString(threadPool.getRepositoryTimeout()));
+
+        return new RepositoryErrorException(errorCode.getHTTPErrorCode(),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            errorMessage,
+                                            errorCode.getSystemAction(),
+                                            errorCode.getUserAction());
+    }
+
+
+    /**
+     * Queue the request to a single member repository.
+     *
+     * @param executor command to clone
+     * @param metadataCollectionId unique identifier for the member's metadata collection
+     * @param metadataCollection member's metadata collection
+     * @return details of the queued request
+     */
+    private MemberRequest submitRequest(CloneableRepositoryExecutor executor,
+                                        String                      metadataCollectionId,
+                                        OMRSMetadataCollection      metadataCollection)
+    {
+        FederationMemberMetrics metrics       = threadPool.getMemberMetrics(metadataCollectionId);
+        RepositoryExecutor      clonedRequest = (RepositoryExecutor) executor.getClone();
+
+        Future<Boolean> future;
+
+        if ((clonedRequest instanceof AsyncRepositoryExecutor) && (metadataCollection.supportsAsynchronousQueries()))
+        {
+            long startTime = System.currentTimeMillis();
+
+            future = ((AsyncRepositoryExecutor) clonedRequest).issueRequestToRepositoryAsync(metadataCollectionId,
+                                                                                              metadataCollection)
+                                                              .whenComplete((result, error) ->
+                                                                   metrics.recordResponse(System.currentTimeMillis() - startTime));
+
+            return new MemberRequest(metadataCollectionId, metrics, future);
+        }
+
+        try
+        {
+            future = threadPool.submit(() ->
+            {
+                long startTime = System.currentTimeMillis();
+
+                try
+                {
+                    return clonedRequest.issueRequestToRepository(metadataCollectionId, metadataCollection);
+                }
+                finally
+                {
+                    metrics.recordResponse(System.currentTimeMillis() - startTime);
+                }
+            });
+        }
+        catch (RejectedExecutionException error)
+        {
+            /*
+             * The pool has been shut down while the request was being set up.
+             */
+            future = CompletableFuture.completedFuture(clonedRequest.issueRequestToRepository(metadataCollectionId,
+                                                                                              metadataCollection));
+        }
+
+        return new MemberRequest(metadataCollectionId, metrics, future);
+    }
+
+
+    /**
+     * MemberRequest holds the details of a request that has been issued to a member repository.
+     */
+    private static class MemberRequest
+    {
+        private String                  metadataCollectionId;
+        private FederationMemberMetrics metrics;
+        private Future<Boolean>         future;
+
+
+        /**
+         * Constructor
+         *
+         * @param metadataCollectionId unique identifier for the member's metadata collection
+         * @param metrics metrics for the member
+         * @param future outstanding request
+         */
+        MemberRequest(String                  metadataCollectionId,
+                      FederationMemberMetrics metrics,
+                      Future<Boolean>         future)
+        {
+            this.metadataCollectionId = metadataCollectionId;
+            this.metrics = metrics;
+            this.future = future;
+        }
     }
 }
@@ -0,0 +1,28 @@
+/* SPDX-License-Identifier: Apache 2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
+
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AsyncRepositoryExecutor is implemented by executors whose request can be issued to a repository without
+ * waiting for the response.  It is used for members whose metadata collection supports asynchronous queries
+ * so that no worker thread is held while the member is working on the request.
+ */
+public interface AsyncRepositoryExecutor
+{
+    /**
+     * Issue the required action to the supplied repository without waiting for the results.  The results, or
+     * exception, are passed to the accumulator before the returned future completes.  The future never
+     * completes exceptionally.
+     *
+     * @param metadataCollectionId identifier for the metadata collection
+     * @param metadataCollection metadata collection object for the repository
+     * @return future for the boolean that is true when the required results have been achieved
+     */
+    CompletableFuture<Boolean> issueRequestToRepositoryAsync(String                 metadataCollectionId,
+                                                             OMRSMetadataCollection metadataCollection);
+}
@@ -12,12 +12,26 @@ import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.a
  */
 abstract class CloneableRepositoryExecutorBase extends RepositoryExecutorBase implements CloneableRepositoryExecutor
 {
+    private QueryAccumulatorBase queryAccumulator;
+
     CloneableRepositoryExecutorBase(String               userId,
                                     String               methodName,
                                     QueryAccumulatorBase accumulator)
     {
         super(userId, methodName);
 
-        accumulator.registerExecutor();
+        this.queryAccumulator = accumulator;
+        this.queryAccumulator.registerExecutor();
+    }
+
+
+    /**
+     * Return the accumulator that is shared by this executor and its clones.
+     *
+     * @return accumulator
+     */
+    public QueryAccumulatorBase getAccumulator()
+    {
+        return queryAccumulator;
     }
 }
@@ -183,6 +183,18 @@ public class FindEntitiesByClassificationExecutor extends PageableRepositoryExec
     {
         try
         {
+            /*
+             * A repository that returned all of its results on earlier pages is not called again.
+             */
+            if (accumulator.isMemberExhausted(metadataCollectionId))
+            {
+                accumulator.addEntities(null, metadataCollectionId);
+                return true;
+            }
+
+            int memberStartingElement = accumulator.getMemberStartingElement(metadataCollectionId);
+            int memberPageSize        = accumulator.getMemberPageSize();
+
             /*
              * Issue the request
              */
@@ -191,12 +203,12 @@ public class FindEntitiesByClassificationExecutor extends PageableRepositoryExec
                                                                                          classificationName,
                                                                                          matchClassificationProperties,
                                                                                          matchCriteria,
-                                                                                         startingElement,
+                                                                                         memberStartingElement,
                                                                                          limitResultsByStatus,
                                                                                          asOfTime,
                                                                                          sequencingProperty,
                                                                                          sequencingOrder,
-                                                                                         pageSize);
+                                                                                         memberPageSize);
 
             accumulator.addEntities(results, metadataCollectionId);
 
@@ -10,16 +10,18 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.EntityAccumulator;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.FederatedResultsPage;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * FindEntitiesByPropertyValueExecutor is the executor for the findEntitiesByPropertyValue request.
  * This request can be issued in parallel - the call to each request potentially running in a different thread.
  */
-public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecutorBase
+public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecutorBase implements AsyncRepositoryExecutor
 {
     private String             searchCriteria;
     private List<String>       limitResultsByClassification;
@@ -175,19 +177,31 @@ public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecu
     {
         try
         {
+            /*
+             * A repository that returned all of its results on earlier pages is not called again.
+             */
+            if (accumulator.isMemberExhausted(metadataCollectionId))
+            {
+                accumulator.addEntities(null, metadataCollectionId);
+                return true;
+            }
+
+            int memberStartingElement = accumulator.getMemberStartingElement(metadataCollectionId);
+            int memberPageSize        = accumulator.getMemberPageSize();
+
             /*
              * Issue the request
              */
             List<EntityDetail> results = metadataCollection.findEntitiesByPropertyValue(userId,
                                                                                         instanceTypeGUID,
                                                                                         searchCriteria,
-                                                                                        startingElement,
+                                                                                        memberStartingElement,
                                                                                         limitResultsByStatus,
                                                                                         limitResultsByClassification,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
                                                                                         sequencingOrder,
-                                                                                        pageSize);
+                                                                                        memberPageSize);
 
             accumulator.addEntities(results, metadataCollectionId);
         }
@@ -228,6 +242,31 @@ public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecu
     }
 
 
+    /**
+     * Issue the request to the supplied repository without waiting for the results.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param metadataCollection metadata collection object for the repository
+     * @return future for the boolean that is true when the required results have been achieved
+     */
+    public CompletableFuture<Boolean> issueRequestToRepositoryAsync(String                 metadataCollectionId,
+                                                                    OMRSMetadataCollection metadataCollection)
+    {
+        return issueSearchAsync(metadataCollectionId,
+                                (memberStartingElement, memberPageSize) -> metadataCollection.findEntitiesByPropertyValueAsync(userId,
+                                                                                                                               instanceTypeGUID,
+                                                                                                                               searchCriteria,
+                                                                                                                               memberStartingElement,
+                                                                                                                               limitResultsByStatus,
+                                                                                                                               limitResultsByClassification,
+                                                                                                                               asOfTime,
+                                                                                                                               sequencingProperty,
+                                                                                                                               sequencingOrder,
+                                                                                                                               memberPageSize),
+                                accumulator::addEntities);
+    }
+
+
     /**
      * Return the results or exception.
      *
@@ -262,4 +301,40 @@ public class FindEntitiesByPropertyValueExecutor extends PageableRepositoryExecu
 
         return null;
     }
+
+
+    /**
+     * Return the page of results, and the cursor for the next page, or exception.
+     *
+     * @param repositoryConnector enterprise connector
+     * @return a page of results matching the supplied criteria along with the cursor to retrieve the next page;
+     * null means no matching instances in the metadata collection.
+     * @throws InvalidParameterException a parameter is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  entity.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public FederatedResultsPage<EntityDetail> getResultsPage(EnterpriseOMRSRepositoryConnector repositoryConnector) throws InvalidParameterException,
+                                                                                                                           RepositoryErrorException,
+                                                                                                                           TypeErrorException,
+                                                                                                                           PropertyErrorException,
+                                                                                                                           PagingErrorException,
+                                                                                                                           FunctionNotSupportedException,
+                                                                                                                           UserNotAuthorizedException
+    {
+        if (accumulator.resultsReturned())
+        {
+            return accumulator.getResultsPage(repositoryConnector);
+        }
+
+        handleCommonPagingRequestExceptions();
+
+        return null;
+    }
 }
@@ -10,17 +10,19 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.RelationshipAccumulator;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.FederatedResultsPage;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
  * FindRelationshipsByPropertyValueExecutor is the executor for the findRelationshipsByPropertyValue request.
  * This request can be issued in parallel - the call to each request potentially running in a different thread.
  */
-public class FindRelationshipsByPropertyValueExecutor extends PageableRepositoryExecutorBase
+public class FindRelationshipsByPropertyValueExecutor extends PageableRepositoryExecutorBase implements AsyncRepositoryExecutor
 {
     private String searchCriteria;
 
@@ -170,18 +172,30 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
     {
         try
         {
+            /*
+             * A repository that returned all of its results on earlier pages is not called again.
+             */
+            if (accumulator.isMemberExhausted(metadataCollectionId))
+            {
+                accumulator.addRelationships(null, metadataCollectionId);
+                return true;
+            }
+
+            int memberStartingElement = accumulator.getMemberStartingElement(metadataCollectionId);
+            int memberPageSize        = accumulator.getMemberPageSize();
+
             /*
              * Issue the request
              */
             List<Relationship> results = metadataCollection.findRelationshipsByPropertyValue(userId,
                                                                                              instanceTypeGUID,
                                                                                              searchCriteria,
-                                                                                             startingElement,
+                                                                                             memberStartingElement,
                                                                                              limitResultsByStatus,
                                                                                              asOfTime,
                                                                                              sequencingProperty,
                                                                                              sequencingOrder,
-                                                                                             pageSize);
+                                                                                             memberPageSize);
 
             accumulator.addRelationships(results, metadataCollectionId);
         }
@@ -222,6 +236,30 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
     }
 
 
+    /**
+     * Issue the request to the supplied repository without waiting for the results.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param metadataCollection metadata collection object for the repository
+     * @return future for the boolean that is true when the required results have been achieved
+     */
+    public CompletableFuture<Boolean> issueRequestToRepositoryAsync(String                 metadataCollectionId,
+                                                                    OMRSMetadataCollection metadataCollection)
+    {
+        return issueSearchAsync(metadataCollectionId,
+                                (memberStartingElement, memberPageSize) -> metadataCollection.findRelationshipsByPropertyValueAsync(userId,
+                                                                                                                                    instanceTypeGUID,
+                                                                                                                                    searchCriteria,
+                                                                                                                                    memberStartingElement,
+                                                                                                                                    limitResultsByStatus,
+                                                                                                                                    asOfTime,
+                                                                                                                                    sequencingProperty,
+                                                                                                                                    sequencingOrder,
+                                                                                                                                    memberPageSize),
+                                accumulator::addRelationships);
+    }
+
+
     /**
      * Return the results of the combined requests.
      *
@@ -255,4 +293,40 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
 
         return null;
     }
+
+
+    /**
+     * Return the page of results of the combined requests, and the cursor for the next page.
+     *
+     * @param repositoryConnector enterprise connector
+     * @return a page of relationships along with the cursor to retrieve the next page.  Null means no
+     * matching relationships.
+     * @throws InvalidParameterException one of the parameters is invalid or null.
+     * @throws TypeErrorException the type guid passed on the request is not known by the
+     *                              metadata collection.
+     * @throws RepositoryErrorException there is a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws PropertyErrorException the properties specified are not valid for any of the requested types of
+     *                                  relationships.
+     * @throws PagingErrorException the paging/sequencing parameters are set up incorrectly.
+     * @throws FunctionNotSupportedException the repository does not support the asOfTime parameter.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    public FederatedResultsPage<Relationship> getResultsPage(EnterpriseOMRSRepositoryConnector repositoryConnector) throws InvalidParameterException,
+                                                                                                                           TypeErrorException,
+                                                                                                                           RepositoryErrorException,
+                                                                                                                           PropertyErrorException,
+                                                                                                                           PagingErrorException,
+                                                                                                                           FunctionNotSupportedException,
+                                                                                                                           UserNotAuthorizedException
+    {
+        if (accumulator.resultsReturned())
+        {
+            return accumulator.getResultsPage(repositoryConnector);
+        }
+
+        handleCommonPagingRequestExceptions();
+
+        return null;
+    }
 }
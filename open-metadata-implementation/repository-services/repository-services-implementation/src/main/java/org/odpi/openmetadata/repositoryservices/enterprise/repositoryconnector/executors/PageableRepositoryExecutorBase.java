@@ -5,11 +5,16 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.FederatedPagingCursor;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.QueryInstanceAccumulatorBase;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 
 /**
  * CloneableRepositoryExecutorBase provides a base class for executors that can be cloned and run in
@@ -65,6 +70,123 @@ abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecuto
         this.asOfTime = asOfTime;
 
         this.queryInstanceAccumulator = accumulator;
+        this.queryInstanceAccumulator.setPagingParameters(startingElement, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Request the page of results that follows the page that returned this cursor.  Each repository is
+     * asked for the results that follow the ones it has already contributed and the starting element
+     * is ignored.
+     *
+     * @param pagingCursor cursor returned with the previous page
+     */
+    public void setPagingCursor(FederatedPagingCursor   pagingCursor)
+    {
+        queryInstanceAccumulator.setPagingCursor(pagingCursor);
+    }
+
+
+    /**
+     * Issue a search to a member repository without waiting for the results.  A member that has no more
+     * results is not called.  The results, or the exception, are passed to the accumulator when the
+     * search completes.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection for the repository
+     * @param search issues the search for the member's starting element and page size
+     * @param resultsHandler passes the results to the accumulator
+     * @param <T> type of instance returned by the search
+     * @return future for the boolean that is true when the required results have been achieved
+     */
+    <T> CompletableFuture<Boolean> issueSearchAsync(String                                                   metadataCollectionId,
+                                                    BiFunction<Integer, Integer, CompletableFuture<List<T>>> search,
+                                                    BiConsumer<List<T>, String>                              resultsHandler)
+    {
+        if (queryInstanceAccumulator.isMemberExhausted(metadataCollectionId))
+        {
+            resultsHandler.accept(null, metadataCollectionId);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        int memberStartingElement = queryInstanceAccumulator.getMemberStartingElement(metadataCollectionId);
+        int memberPageSize        = queryInstanceAccumulator.getMemberPageSize();
+
+        CompletableFuture<List<T>> results;
+
+        try
+        {
+            results = search.apply(memberStartingElement, memberPageSize);
+        }
+        catch (Throwable error)
+        {
+            captureSearchException(metadataCollectionId, error);
+            return CompletableFuture.completedFuture(true);
+        }
+
+        return results.handle((instances, error) ->
+        {
+            if (error == null)
+            {
+                resultsHandler.accept(instances, metadataCollectionId);
+            }
+            else
+            {
+                captureSearchException(metadataCollectionId, error);
+            }
+
+            return true;
+        });
+    }
+
+
+    /**
+     * Pass the exception from an asynchronous search to the accumulator.  The exceptions that can be returned
+     * by the searches are captured so they can be rethrown to the caller; anything else is captured as a
+     * generic exception.
+     *
+     * @param metadataCollectionId unique identifier for the metadata collection that returned the exception
+     * @param error exception from the search (may be wrapped in a CompletionException)
+     */
+    void captureSearchException(String    metadataCollectionId,
+                                Throwable error)
+    {
+        if ((error instanceof CompletionException) && (error.getCause() != null))
+        {
+            error = error.getCause();
+        }
+
+        if (error instanceof InvalidParameterException)
+        {
+            queryInstanceAccumulator.captureException(metadataCollectionId, (InvalidParameterException)error);
+        }
+        else if (error instanceof FunctionNotSupportedException)
+        {
+            queryInstanceAccumulator.captureException(metadataCollectionId, (FunctionNotSupportedException)error);
+        }
+        else if (error instanceof TypeErrorException)
+        {
+            queryInstanceAccumulator.captureException(metadataCollectionId, (TypeErrorException)error);
+        }
+        else if (error instanceof PropertyErrorException)
+        {
+            queryInstanceAccumulator.captureException(metadataCollectionId, (PropertyErrorException)error);
+        }
+        else if (error instanceof PagingErrorException)
+        {
+            queryInstanceAccumulator.captureException(metadataCollectionId, (PagingErrorException)error);
+        }
+        else if (error instanceof RepositoryErrorException)
+        {
+            queryInstanceAccumulator.captureException(metadataCollectionId, (RepositoryErrorException)error);
+        }
+        else if (error instanceof UserNotAuthorizedException)
+        {
+            queryInstanceAccumulator.captureException(metadataCollectionId, (UserNotAuthorizedException)error);
+        }
+        else
+        {
+            queryInstanceAccumulator.captureGenericException(metadataCollectionId, error);
+        }
     }
 
 
@@ -19,6 +19,8 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.eventmanagement.*;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 
@@ -1552,8 +1554,68 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
         {
             verifyEventProcessor(methodName);
 
-            localMetadataCollection.saveInstanceReferenceCopies(localRepositoryConnector.getServerUserId(),
-                                                                instances);
+            if (instances != null)
+            {
+                /*
+                 * Each instance is checked as it would be in a single event.  The instances that pass are
+                 * saved with one call so the repository can save them as a batch.
+                 */
+                List<EntityDetail> entities      = new ArrayList<>();
+                List<Relationship> relationships = new ArrayList<>();
+
+                if (instances.getEntities() != null)
+                {
+                    for (EntityDetail entity : instances.getEntities())
+                    {
+                        if (isReferenceEntityToSave(sourceName,
+                                                    methodName,
+                                                    originatorMetadataCollectionId,
+                                                    originatorServerName,
+                                                    entity))
+                        {
+                            entities.add(entity);
+                        }
+                    }
+                }
+
+                if (instances.getRelationships() != null)
+                {
+                    for (Relationship relationship : instances.getRelationships())
+                    {
+                        if (isReferenceRelationshipToSave(sourceName,
+                                                          methodName,
+                                                          originatorMetadataCollectionId,
+                                                          originatorServerName,
+                                                          relationship))
+                        {
+                            relationships.add(relationship);
+                        }
+                    }
+                }
+
+                if ((! entities.isEmpty()) || (! relationships.isEmpty()))
+                {
+                    try
+                    {
+                        localMetadataCollection.saveInstanceReferenceCopies(localRepositoryConnector.getServerUserId(),
+                                                                            new InstanceGraph(entities, relationships));
+                    }
+                    catch (Throwable error)
+                    {
+                        /*
+                         * The repository may have saved none, some or all of the batch.  Saving each instance
+                         * again on its own means one bad instance does not lose the rest of the batch.
+                         */
+                        log.debug("Batch save failed in " + methodName + ", saving each instance individually: " + error.getMessage());
+
+                        saveReferenceCopiesIndividually(methodName,
+                                                        originatorMetadataCollectionId,
+                                                        originatorServerName,
+                                                        entities,
+                                                        relationships);
+                    }
+                }
+            }
         }
         catch (Throwable error)
         {
@@ -1565,6 +1627,56 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
     }
 
 
+    /**
+     * Save each of the reference copies from a batch on its own, handling the errors from each instance
+     * separately.
+     *
+     * @param methodName name of the event method
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName name of the server that the event came from.
+     * @param entities entities that passed their checks
+     * @param relationships relationships that passed their checks
+     */
+    private void saveReferenceCopiesIndividually(String             methodName,
+                                                 String             originatorMetadataCollectionId,
+                                                 String             originatorServerName,
+                                                 List<EntityDetail> entities,
+                                                 List<Relationship> relationships)
+    {
+        for (EntityDetail entity : entities)
+        {
+            try
+            {
+                localMetadataCollection.saveEntityReferenceCopy(localRepositoryConnector.getServerUserId(), entity);
+            }
+            catch (Throwable error)
+            {
+                handleUnexpectedErrorFromEvent(error,
+                                               methodName,
+                                               originatorServerName,
+                                               originatorMetadataCollectionId);
+            }
+        }
+
+        for (Relationship relationship : relationships)
+        {
+            try
+            {
+                localMetadataCollection.saveRelationshipReferenceCopy(localRepositoryConnector.getServerUserId(),
+                                                                      relationship);
+            }
+            catch (Throwable error)
+            {
+                handleUnexpectedErrorFromEvent(error,
+                                               methodName,
+                                               originatorServerName,
+                                               originatorMetadataCollectionId);
+            }
+        }
+    }
+
+
     /**
      * An open metadata repository has detected two metadata instances with the same identifier (guid).
      * This is a serious error because it could lead to corruption of the metadata collections within the cohort.
@@ -1993,12 +2105,53 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                        String       originatorMetadataCollectionId,
                                        String       originatorServerName,
                                        EntityDetail entity)
+    {
+        try
+        {
+            verifyEventProcessor(methodName);
+
+            if (isReferenceEntityToSave(sourceName,
+                                        methodName,
+                                        originatorMetadataCollectionId,
+                                        originatorServerName,
+                                        entity))
+            {
+                localMetadataCollection.saveEntityReferenceCopy(localRepositoryConnector.getServerUserId(), entity);
+            }
+        }
+        catch (Throwable error)
+        {
+            handleUnexpectedErrorFromEvent(error,
+                                           methodName,
+                                           originatorServerName,
+                                           originatorMetadataCollectionId);
+        }
+    }
+
+
+    /**
+     * Check whether a reference entity from an event should be saved in the local repository.  Any error
+     * found is handled here and the entity is not saved.
+     *
+     * @param sourceName                     name of the source of the event.  It may be the cohort name for incoming events or the
+     *                                       local repository, or event mapper name.
+     * @param methodName                     name of the event method
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param entity                         details of the new entity
+     * @return boolean indicating that it is ok to save the entity
+     */
+    private boolean isReferenceEntityToSave(String       sourceName,
+                                            String       methodName,
+                                            String       originatorMetadataCollectionId,
+                                            String       originatorServerName,
+                                            EntityDetail entity)
     {
         try
         {
             final String entityParameterName = "entity";
 
-            verifyEventProcessor(methodName);
             repositoryValidator.validateReferenceInstanceHeader(sourceName,
                                                                 localMetadataCollectionId,
                                                                 entityParameterName,
@@ -2009,21 +2162,14 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                                                               entity.getGUID());
 
             /*
-             * Verify that the incoming instance is compatible with the stored instance.
+             * Verify that the incoming instance is compatible with the stored instance and that the rules
+             * allow the entity to be saved.
              */
-            if (compareAndValidateReferenceInstance(originatorServerName,
-                                                    entity,
-                                                    storedEntity,
-                                                    methodName))
-            {
-                /*
-                 * Verify that the rules allow the entity to be saved
-                 */
-                if (verifyEventToSave(sourceName, entity))
-                {
-                    localMetadataCollection.saveEntityReferenceCopy(localRepositoryConnector.getServerUserId(), entity);
-                }
-            }
+            return ((compareAndValidateReferenceInstance(originatorServerName,
+                                                         entity,
+                                                         storedEntity,
+                                                         methodName)) &&
+                    (verifyEventToSave(sourceName, entity)));
         }
         catch (Throwable error)
         {
@@ -2032,6 +2178,8 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                            originatorServerName,
                                            originatorMetadataCollectionId);
         }
+
+        return false;
     }
 
 
@@ -2253,23 +2401,61 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                              String       originatorMetadataCollectionId,
                                              String       originatorServerName,
                                              Relationship relationship)
+    {
+        try
+        {
+            verifyEventProcessor(methodName);
+
+            if (isReferenceRelationshipToSave(sourceName,
+                                              methodName,
+                                              originatorMetadataCollectionId,
+                                              originatorServerName,
+                                              relationship))
+            {
+                localMetadataCollection.saveRelationshipReferenceCopy(localRepositoryConnector.getServerUserId(),
+                                                                      relationship);
+            }
+        }
+        catch (Throwable error)
+        {
+            handleUnexpectedErrorFromEvent(error,
+                                           methodName,
+                                           originatorServerName,
+                                           originatorMetadataCollectionId);
+        }
+    }
+
+
+    /**
+     * Check whether a reference relationship from an event should be saved in the local repository.  Any error
+     * found is handled here and the relationship is not saved.
+     *
+     * @param sourceName                     name of the source of the event.  It may be the cohort name for incoming events or the
+     *                                       local repository, or event mapper name.
+     * @param methodName                     name of the event method
+     * @param originatorMetadataCollectionId unique identifier for the metadata collection hosted by the server that
+     *                                       sent the event.
+     * @param originatorServerName           name of the server that the event came from.
+     * @param relationship                   details of the relationship
+     * @return boolean indicating that it is ok to save the relationship
+     */
+    private boolean isReferenceRelationshipToSave(String       sourceName,
+                                                  String       methodName,
+                                                  String       originatorMetadataCollectionId,
+                                                  String       originatorServerName,
+                                                  Relationship relationship)
     {
         try
         {
             final String     relationshipParameterName = "relationship";
 
-            verifyEventProcessor(methodName);
             repositoryValidator.validateReferenceInstanceHeader(sourceName,
                                                                 localMetadataCollectionId,
                                                                 relationshipParameterName,
                                                                 relationship,
                                                                 methodName);
 
-            if (verifyEventToSave(sourceName, relationship))
-            {
-                localMetadataCollection.saveRelationshipReferenceCopy(localRepositoryConnector.getServerUserId(),
-                                                                      relationship);
-            }
+            return verifyEventToSave(sourceName, relationship);
         }
         catch (Throwable error)
         {
@@ -2278,6 +2464,8 @@ public class LocalOMRSInstanceEventProcessor extends OMRSInstanceEventProcessor
                                            originatorServerName,
                                            originatorMetadataCollectionId);
         }
+
+        return false;
     }
 
 
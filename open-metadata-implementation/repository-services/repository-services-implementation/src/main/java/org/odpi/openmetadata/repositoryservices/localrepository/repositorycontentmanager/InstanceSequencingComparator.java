@@ -0,0 +1,242 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EnumPropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+
+import java.util.Comparator;
+import java.util.Date;
+
+/**
+ * InstanceSequencingComparator orders entities and relationships according to the sequencing order and
+ * sequencing property supplied on a search request.  Instances that are missing the value being sorted on
+ * are placed at the end of the list whatever the direction of the sort.  Instances with the same value are
+ * ordered by GUID so the order is the same on every call.  SequencingOrder.ANY treats all instances as
+ * equal so a stable sort leaves them in the order they were supplied.
+ *
+ * @param <T> type of instance
+ */
+public class InstanceSequencingComparator<T extends InstanceHeader> implements Comparator<T>
+{
+    private String          sequencingProperty;
+    private SequencingOrder sequencingOrder;
+
+
+    /**
+     * Constructor
+     *
+     * @param sequencingProperty name of the property to sort on when the sequencing order is by property
+     * @param sequencingOrder required order - null means any order
+     */
+    public InstanceSequencingComparator(String           sequencingProperty,
+                                        SequencingOrder  sequencingOrder)
+    {
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder = sequencingOrder;
+    }
+
+
+    /**
+     * Return whether this comparator imposes an order on the instances.
+     *
+     * @return boolean
+     */
+    public boolean isOrdered()
+    {
+        if ((sequencingOrder == null) || (sequencingOrder == SequencingOrder.ANY))
+        {
+            return false;
+        }
+
+        if ((sequencingOrder == SequencingOrder.PROPERTY_ASCENDING) || (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING))
+        {
+            return sequencingProperty != null;
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Compare two instances.
+     *
+     * @param instance1 first instance
+     * @param instance2 second instance
+     * @return negative if instance1 comes first, positive if instance2 comes first, or zero
+     */
+    @Override
+    public int compare(T   instance1,
+                       T   instance2)
+    {
+        if ((sequencingOrder == null) || (instance1 == null) || (instance2 == null))
+        {
+            return 0;
+        }
+
+        int result = this.compareSequencingValues(instance1, instance2);
+
+        if ((result == 0) && (this.isOrdered()))
+        {
+            result = compareValues(instance1.getGUID(), instance2.getGUID(), false);
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Compare two instances using just the requested sequencing.
+     *
+     * @param instance1 first instance
+     * @param instance2 second instance
+     * @return negative if instance1 comes first, positive if instance2 comes first, or zero
+     */
+    private int compareSequencingValues(T   instance1,
+                                        T   instance2)
+    {
+        switch (sequencingOrder)
+        {
+            case GUID:
+                return compareValues(instance1.getGUID(), instance2.getGUID(), false);
+
+            case CREATION_DATE_RECENT:
+                return compareValues(instance1.getCreateTime(), instance2.getCreateTime(), true);
+
+            case CREATION_DATE_OLDEST:
+                return compareValues(instance1.getCreateTime(), instance2.getCreateTime(), false);
+
+            case LAST_UPDATE_RECENT:
+                return compareValues(getLastUpdateTime(instance1), getLastUpdateTime(instance2), true);
+
+            case LAST_UPDATE_OLDEST:
+                return compareValues(getLastUpdateTime(instance1), getLastUpdateTime(instance2), false);
+
+            case PROPERTY_ASCENDING:
+                return compareValues(getPropertyValue(instance1), getPropertyValue(instance2), false);
+
+            case PROPERTY_DESCENDING:
+                return compareValues(getPropertyValue(instance1), getPropertyValue(instance2), true);
+
+            default:
+                return 0;
+        }
+    }
+
+
+    /**
+     * Return the time of the last change to the instance.  An instance that has never been updated
+     * was last changed when it was created.
+     *
+     * @param instance instance to test
+     * @return date or null
+     */
+    private Date getLastUpdateTime(T   instance)
+    {
+        if (instance.getUpdateTime() != null)
+        {
+            return instance.getUpdateTime();
+        }
+
+        return instance.getCreateTime();
+    }
+
+
+    /**
+     * Extract a comparable value for the sequencing property from the instance.  Primitive values are
+     * compared using their natural order and enums by their ordinal.  Other types of property are
+     * compared using their string form.
+     *
+     * @param instance instance to test
+     * @return value or null if the property is not set
+     */
+    private Comparable<?> getPropertyValue(T   instance)
+    {
+        InstanceProperties properties = null;
+
+        if (instance instanceof EntityDetail)
+        {
+            properties = ((EntityDetail) instance).getProperties();
+        }
+        else if (instance instanceof Relationship)
+        {
+            properties = ((Relationship) instance).getProperties();
+        }
+
+        if ((properties == null) || (sequencingProperty == null))
+        {
+            return null;
+        }
+
+        InstancePropertyValue propertyValue = properties.getPropertyValue(sequencingProperty);
+
+        if (propertyValue instanceof PrimitivePropertyValue)
+        {
+            Object primitiveValue = ((PrimitivePropertyValue) propertyValue).getPrimitiveValue();
+
+            if (primitiveValue instanceof Comparable)
+            {
+                return (Comparable<?>) primitiveValue;
+            }
+            else if (primitiveValue != null)
+            {
+                return primitiveValue.toString();
+            }
+        }
+        else if (propertyValue instanceof EnumPropertyValue)
+        {
+            return ((EnumPropertyValue) propertyValue).getOrdinal();
+        }
+        else if (propertyValue != null)
+        {
+            return propertyValue.toString();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Compare two values.  Null values always sort last.  Values of different classes (which occur when
+     * the same property name has different types in different instance types) are ordered by the name
+     * of their class so that all of the values of one class are kept together.
+     *
+     * @param value1 first value
+     * @param value2 second value
+     * @param descending reverse the natural order of the values
+     * @return negative if value1 comes first, positive if value2 comes first, or zero
+     */
+    @SuppressWarnings("unchecked")
+    private int compareValues(Comparable   value1,
+                              Comparable   value2,
+                              boolean      descending)
+    {
+        if (value1 == null)
+        {
+            return (value2 == null) ? 0 : 1;
+        }
+        else if (value2 == null)
+        {
+            return -1;
+        }
+
+        int result;
+
+        if (value1.getClass().equals(value2.getClass()))
+        {
+            result = value1.compareTo(value2);
+        }
+        else
+        {
+            result = value1.getClass().getName().compareTo(value2.getClass().getName());
+        }
+
+        return descending ? -result : result;
+    }
+}
@@ -28,6 +28,11 @@ public class OMRSRepositoryContentHelper implements OMRSRepositoryHelper
 {
     private static final Logger log = LoggerFactory.getLogger(OMRSRepositoryContentHelper.class);
 
+    /*
+     * A page that ends before this fraction of the results is selected with a bounded heap rather than a full sort.
+     */
+    private static final int TOP_K_SELECTION_RATIO = 4;
+
     private OMRSRepositoryContentManager repositoryContentManager;
 
 
@@ -3245,28 +3250,7 @@ public class OMRSRepositoryContentHelper implements OMRSRepositoryHelper
                                                    int                  pageSize) throws PagingErrorException,
                                                                                          PropertyErrorException
     {
-        if (fullResults == null)
-        {
-            return null;
-        }
-
-        if (fullResults.isEmpty())
-        {
-            return null;
-        }
-
-        int fullResultsSize =fullResults.size();
-
-        List<EntityDetail>  sortedResults = fullResults;
-        // todo sort list according to properties
-
-        if ((pageSize == 0) || (pageSize > sortedResults.size()))
-        {
-            return sortedResults;
-        }
-
-        int toIndex = getToIndex(fromElement, pageSize, fullResultsSize);
-        return new ArrayList<>(fullResults.subList(fromElement, toIndex));
+        return this.formatInstanceResults(fullResults, fromElement, sequencingProperty, sequencingOrder, pageSize);
     }
 
 
@@ -3294,35 +3278,114 @@ public class OMRSRepositoryContentHelper implements OMRSRepositoryHelper
                                                          int                  pageSize) throws PagingErrorException,
                                                                                                PropertyErrorException
     {
-        if (fullResults == null)
+        return this.formatInstanceResults(fullResults, fromElement, sequencingProperty, sequencingOrder, pageSize);
+    }
+
+
+    /**
+     * Sequence the results and extract the requested page.  When no sequencing is requested, the results are
+     * put in GUID order if they need to be paged so that successive calls return consistent pages.
+     * When the page is near the start of a large result set, the instances that belong on the
+     * page are selected with a bounded heap so the rest of the results are not sorted.
+     *
+     * @param fullResults the full list of results in an arbitrary order
+     * @param fromElement the starting element number of the instances to return
+     * @param sequencingProperty String name of the property that is to be used to sequence the results
+     * @param sequencingOrder Enum defining how the results should be ordered
+     * @param pageSize the maximum number of results that can be returned - zero means unrestricted
+     * @param <T> type of instance
+     * @return results array as requested
+     */
+    private <T extends InstanceHeader> List<T> formatInstanceResults(List<T>           fullResults,
+                                                                     int               fromElement,
+                                                                     String            sequencingProperty,
+                                                                     SequencingOrder   sequencingOrder,
+                                                                     int               pageSize)
+    {
+        if ((fullResults == null) || (fullResults.isEmpty()))
         {
             return null;
         }
 
-        if (fullResults.isEmpty())
+        int fullResultsSize = fullResults.size();
+
+        if (fromElement >= fullResultsSize)
         {
             return null;
         }
 
-        int fullResultsSize = fullResults.size();
+        InstanceSequencingComparator<T> comparator = new InstanceSequencingComparator<>(sequencingProperty, sequencingOrder);
 
-        if (fromElement > fullResultsSize)
+        boolean pagingRequired = (fromElement > 0) || ((pageSize > 0) && (pageSize < fullResultsSize));
+
+        if (! comparator.isOrdered())
         {
-            return null;
+            if (! pagingRequired)
+            {
+                return fullResults;
+            }
+
+            comparator = new InstanceSequencingComparator<>(null, SequencingOrder.GUID);
         }
 
+        int toIndex = (pageSize == 0) ? fullResultsSize : getToIndex(fromElement, pageSize, fullResultsSize);
+
+        List<T> sortedResults;
 
-        List<Relationship>  sortedResults = fullResults;
-        // todo sort list according to properties
+        if (toIndex * TOP_K_SELECTION_RATIO < fullResultsSize)
+        {
+            sortedResults = this.selectFirstInstances(fullResults, toIndex, comparator);
+        }
+        else
+        {
+            sortedResults = new ArrayList<>(fullResults);
+            sortedResults.sort(comparator);
+        }
 
-        if ((pageSize == 0) || (pageSize > sortedResults.size()))
+        if ((fromElement == 0) && (toIndex == sortedResults.size()))
         {
             return sortedResults;
         }
 
-        int toIndex = getToIndex(fromElement, pageSize, fullResultsSize);
+        return new ArrayList<>(sortedResults.subList(fromElement, toIndex));
+    }
+
+
+    /**
+     * Return the first instances in the requested order without sorting the whole list.  A heap holding the
+     * best instances seen so far is maintained with the worst of these at its root, so each instance is either
+     * discarded after one comparison or replaces the root.
+     *
+     * @param fullResults the full list of results in an arbitrary order
+     * @param count number of instances to return
+     * @param comparator requested order
+     * @param <T> type of instance
+     * @return sorted list of the first instances
+     */
+    private <T extends InstanceHeader> List<T> selectFirstInstances(List<T>                         fullResults,
+                                                                    int                             count,
+                                                                    InstanceSequencingComparator<T> comparator)
+    {
+        PriorityQueue<T> selectedInstances = new PriorityQueue<>(count + 1, comparator.reversed());
+
+        for (T instance : fullResults)
+        {
+            if (selectedInstances.size() < count)
+            {
+                selectedInstances.add(instance);
+            }
+            else if (comparator.compare(instance, selectedInstances.peek()) < 0)
+            {
+                selectedInstances.poll();
+                selectedInstances.add(instance);
+            }
+        }
+
+        List<T> sortedResults = new ArrayList<>(selectedInstances);
+
+        sortedResults.sort(comparator);
 
-        return new ArrayList<>(fullResults.subList(fromElement, toIndex));
+        return sortedResults;
     }
 
 
@@ -0,0 +1,299 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify the merging of the results from the members of the cohort into pages.
+ */
+public class FederatedPagingTest
+{
+    /*
+     * Overlapping results held by three member repositories.
+     */
+    private static final Map<String, List<String>> memberGUIDs = new LinkedHashMap<>();
+
+    static
+    {
+        memberGUIDs.put("member-1", Arrays.asList("a", "c", "e", "g", "i", "k", "m"));
+        memberGUIDs.put("member-2", Arrays.asList("b", "c", "d", "h", "m", "n"));
+        memberGUIDs.put("member-3", Arrays.asList("a", "f", "j", "l", "o", "p", "q", "r"));
+    }
+
+    /*
+     * Results from members that include null entries.
+     */
+    private static final Map<String, List<String>> memberGUIDsWithNulls = new LinkedHashMap<>();
+
+    static
+    {
+        memberGUIDsWithNulls.put("member-1", Arrays.asList("a", null, "c", "e", null, "g", "i"));
+        memberGUIDsWithNulls.put("member-2", Arrays.asList("b", "c", null, "d", "h", null, null, "j"));
+    }
+
+
+    @Test
+    public void testStartingElementPages()
+    {
+        List<String> allGUIDs = getAllGUIDs(memberGUIDs);
+
+        for (int startingElement = 0; startingElement < allGUIDs.size() + 2; startingElement++)
+        {
+            EntityAccumulator accumulator = new EntityAccumulator(null, null, null);
+
+            accumulator.setPagingParameters(startingElement, null, SequencingOrder.GUID, 3);
+
+            for (String metadataCollectionId : memberGUIDs.keySet())
+            {
+                /*
+                 * Without a cursor every member is asked for enough results to fill the page from the start.
+                 */
+                assertEquals(accumulator.getMemberStartingElement(metadataCollectionId), 0);
+                assertEquals(accumulator.getMemberPageSize(), startingElement + 3);
+
+                accumulator.addEntities(getMemberPage(memberGUIDs, metadataCollectionId, 0, accumulator.getMemberPageSize(), 1),
+                                        metadataCollectionId);
+            }
+
+            List<String> expectedGUIDs = allGUIDs.subList(Math.min(startingElement, allGUIDs.size()),
+                                                          Math.min(startingElement + 3, allGUIDs.size()));
+
+            assertEquals(getGUIDs(accumulator.getResults(null)), expectedGUIDs);
+        }
+    }
+
+
+    @Test
+    public void testCursorPages()
+    {
+        /*
+         * Different page sizes move the page boundaries so that copies of the same instance fall either
+         * side of them.
+         */
+        for (int pageSize = 1; pageSize < 8; pageSize++)
+        {
+            assertEquals(getAllPages(memberGUIDs, pageSize), getAllGUIDs(memberGUIDs), "Page size " + pageSize);
+        }
+    }
+
+
+    @Test
+    public void testCursorPagesWithNullResults()
+    {
+        for (int pageSize = 1; pageSize < 8; pageSize++)
+        {
+            assertEquals(getAllPages(memberGUIDsWithNulls, pageSize), getAllGUIDs(memberGUIDsWithNulls), "Page size " + pageSize);
+        }
+    }
+
+
+    @Test
+    public void testLatestVersionIsReturned()
+    {
+        EntityAccumulator accumulator = new EntityAccumulator(null, null, null);
+
+        accumulator.setPagingParameters(0, null, SequencingOrder.GUID, 0);
+        accumulator.addEntities(getMemberPage(memberGUIDs, "member-1", 0, 0, 1), "member-1");
+        accumulator.addEntities(getMemberPage(memberGUIDs, "member-2", 0, 0, 2), "member-2");
+
+        for (EntityDetail entity : accumulator.getResults(null))
+        {
+            if (memberGUIDs.get("member-2").contains(entity.getGUID()))
+            {
+                assertEquals(entity.getVersion(), 2L);
+            }
+            else
+            {
+                assertEquals(entity.getVersion(), 1L);
+            }
+        }
+    }
+
+
+    @Test
+    public void testCursorMustMatchQuery()
+    {
+        FederatedPagingCursor cursor = new FederatedPagingCursor("name", SequencingOrder.PROPERTY_ASCENDING);
+
+        cursor.setMemberPosition("member-1", 5, false);
+        cursor.setMemberPosition("member-2", 3, true);
+
+        String encodedCursor = cursor.encode();
+
+        FederatedPagingCursor decodedCursor = FederatedPagingCursor.decode(encodedCursor, "name", SequencingOrder.PROPERTY_ASCENDING);
+
+        assertEquals(decodedCursor.getMemberOffset("member-1"), 5);
+        assertEquals(decodedCursor.getMemberOffset("member-2"), 3);
+        assertEquals(decodedCursor.getMemberOffset("member-3"), 0);
+        assertTrue(decodedCursor.isMemberExhausted("member-2"));
+
+        expectThrows(IllegalArgumentException.class,
+                     () -> FederatedPagingCursor.decode(encodedCursor, "name", SequencingOrder.PROPERTY_DESCENDING));
+        expectThrows(IllegalArgumentException.class,
+                     () -> FederatedPagingCursor.decode("not a cursor", "name", SequencingOrder.PROPERTY_ASCENDING));
+    }
+
+
+    /**
+     * Retrieve all of the results from the members, one page at a time, using the paging cursor.
+     *
+     * @param members results held by each member
+     * @param pageSize maximum number of results on each page
+     * @return GUIDs in the order they were returned
+     */
+    private List<String> getAllPages(Map<String, List<String>> members,
+                                     int                       pageSize)
+    {
+        List<String> returnedGUIDs = new ArrayList<>();
+        String       pagingCursor  = null;
+        int          pageCount     = 0;
+
+        do
+        {
+            EntityAccumulator accumulator = new EntityAccumulator(null, null, null);
+
+            accumulator.setPagingParameters(0, null, SequencingOrder.GUID, pageSize);
+
+            if (pagingCursor != null)
+            {
+                accumulator.setPagingCursor(FederatedPagingCursor.decode(pagingCursor, null, SequencingOrder.GUID));
+            }
+
+            for (String metadataCollectionId : members.keySet())
+            {
+                if (accumulator.isMemberExhausted(metadataCollectionId))
+                {
+                    accumulator.addEntities(null, metadataCollectionId);
+                }
+                else
+                {
+                    /*
+                     * Each member is only asked for one page following the results it has already contributed.
+                     */
+                    assertEquals(accumulator.getMemberPageSize(), pageSize);
+
+                    accumulator.addEntities(getMemberPage(members,
+                                                          metadataCollectionId,
+                                                          accumulator.getMemberStartingElement(metadataCollectionId),
+                                                          accumulator.getMemberPageSize(),
+                                                          1),
+                                            metadataCollectionId);
+                }
+            }
+
+            FederatedResultsPage<EntityDetail> page = accumulator.getResultsPage(null);
+
+            returnedGUIDs.addAll(getGUIDs(page.getResults()));
+            pagingCursor = page.getPagingCursor();
+            pageCount++;
+        }
+        while ((pagingCursor != null) && (pageCount < 50));
+
+        assertNull(pagingCursor);
+
+        return returnedGUIDs;
+    }
+
+
+    /**
+     * Return the sorted list of unique GUIDs across all of the members.
+     *
+     * @param members results held by each member
+     * @return list of GUIDs
+     */
+    private List<String> getAllGUIDs(Map<String, List<String>> members)
+    {
+        TreeSet<String> allGUIDs = new TreeSet<>();
+
+        for (List<String> guids : members.values())
+        {
+            for (String guid : guids)
+            {
+                if (guid != null)
+                {
+                    allGUIDs.add(guid);
+                }
+            }
+        }
+
+        return new ArrayList<>(allGUIDs);
+    }
+
+
+    /**
+     * Simulate a member repository returning a page of its results.  A null GUID is returned as a null entity.
+     *
+     * @param members results held by each member
+     * @param metadataCollectionId member
+     * @param startingElement first result to return
+     * @param pageSize maximum results to return - zero means unlimited
+     * @param version version number for the returned entities
+     * @return list of entities
+     */
+    private List<EntityDetail> getMemberPage(Map<String, List<String>> members,
+                                             String                    metadataCollectionId,
+                                             int                       startingElement,
+                                             int                       pageSize,
+                                             long                      version)
+    {
+        List<String>       guids    = members.get(metadataCollectionId);
+        List<EntityDetail> entities = new ArrayList<>();
+
+        int endElement = (pageSize == 0) ? guids.size() : Math.min(guids.size(), startingElement + pageSize);
+
+        for (int i = startingElement; i < endElement; i++)
+        {
+            if (guids.get(i) == null)
+            {
+                entities.add(null);
+            }
+            else
+            {
+                EntityDetail entity = new EntityDetail();
+
+                entity.setGUID(guids.get(i));
+                entity.setVersion(version);
+                entities.add(entity);
+            }
+        }
+
+        return entities;
+    }
+
+
+    /**
+     * Extract the GUIDs from a list of entities.
+     *
+     * @param entities list of entities (may be null)
+     * @return list of GUIDs
+     */
+    private List<String> getGUIDs(List<EntityDetail>  entities)
+    {
+        List<String> guids = new ArrayList<>();
+
+        if (entities != null)
+        {
+            for (EntityDetail entity : entities)
+            {
+                guids.add(entity.getGUID());
+            }
+        }
+
+        return guids;
+    }
+}
@@ -0,0 +1,475 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.mockito.stubbing.Answer;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.FindEntitiesByPropertyExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentManager;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentValidator;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that the ParallelFederationControl calls the members of a cohort in parallel.  The members are
+ * stub metadata collections that record how many of them are processing a request at the same time.
+ * Members may also simulate remote repositories that answer queries asynchronously.
+ */
+public class ParallelFederationControlTest
+{
+    private static final String userId         = "testUser";
+    private static final String entityTypeGUID = "test-entity-type-guid";
+
+    private FederationThreadPool threadPool;
+    private AtomicInteger        inFlightRequests = new AtomicInteger(0);
+    private AtomicInteger        peakRequests     = new AtomicInteger(0);
+
+
+    @AfterMethod
+    public void tearDown()
+    {
+        if (threadPool != null)
+        {
+            threadPool.shutdown();
+        }
+
+        inFlightRequests.set(0);
+        peakRequests.set(0);
+    }
+
+
+    @Test
+    public void testMembersAreCalledInParallel() throws Exception
+    {
+        threadPool = new FederationThreadPool("test", 4, 60000);
+
+        /*
+         * Each member waits for all of the others to be called before it responds, so the request only
+         * completes promptly if the members are called at the same time.
+         */
+        CountDownLatch                allMembersCalled = new CountDownLatch(4);
+        List<OMRSRepositoryConnector> cohortConnectors = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++)
+        {
+            cohortConnectors.add(getMember("member-" + i, 2, (metadataCollectionId, entities) ->
+            {
+                allMembersCalled.countDown();
+                allMembersCalled.await(30, TimeUnit.SECONDS);
+
+                return entities;
+            }));
+        }
+
+        FindEntitiesByPropertyExecutor executor = getExecutor();
+
+        new ParallelFederationControl(userId, cohortConnectors, "test", threadPool).executeCommand(executor);
+
+        assertEquals(peakRequests.get(), 4);
+        assertEquals(executor.getResults(null).size(), 8);
+
+        Map<String, FederationMemberMetrics> metrics = getMetrics();
+        assertEquals(metrics.size(), 4);
+
+        for (FederationMemberMetrics memberMetrics : metrics.values())
+        {
+            assertEquals(memberMetrics.getRequestCount(), 1);
+            assertEquals(memberMetrics.getTimeoutCount(), 0);
+        }
+    }
+
+
+    @Test
+    public void testStragglersAreCancelled() throws Exception
+    {
+        threadPool = new FederationThreadPool("test", 4, 1000);
+
+        CountDownLatch                stragglerInterrupted = new CountDownLatch(1);
+        List<OMRSRepositoryConnector> cohortConnectors     = new ArrayList<>();
+
+        cohortConnectors.add(getMember("fast-member", 3, (metadataCollectionId, entities) -> entities));
+        cohortConnectors.add(getMember("slow-member", 5, (metadataCollectionId, entities) ->
+        {
+            /*
+             * The straggler never responds unless it is interrupted.
+             */
+            try
+            {
+                new CountDownLatch(1).await();
+            }
+            catch (InterruptedException error)
+            {
+                stragglerInterrupted.countDown();
+            }
+
+            return null;
+        }));
+
+        FindEntitiesByPropertyExecutor executor = getExecutor();
+
+        new ParallelFederationControl(userId, cohortConnectors, "test", threadPool).executeCommand(executor);
+
+        /*
+         * Only the results from the member that responded in time are returned.
+         */
+        assertTrue(stragglerInterrupted.await(1, TimeUnit.MINUTES));
+        assertEquals(executor.getResults(null).size(), 3);
+
+        Map<String, FederationMemberMetrics> metrics = getMetrics();
+        assertEquals(metrics.get("slow-member").getTimeoutCount(), 1);
+        assertEquals(metrics.get("fast-member").getTimeoutCount(), 0);
+    }
+
+
+    @Test
+    public void testTimeoutIsReportedWhenNoMemberResponds() throws Exception
+    {
+        threadPool = new FederationThreadPool("test", 4, 500);
+
+        List<OMRSRepositoryConnector> cohortConnectors = new ArrayList<>();
+
+        for (int i = 0; i < 2; i++)
+        {
+            cohortConnectors.add(getMember("slow-member-" + i, 2, (metadataCollectionId, entities) ->
+            {
+                /*
+                 * The member only responds once it has been cancelled.
+                 */
+                try
+                {
+                    new CountDownLatch(1).await();
+                }
+                catch (InterruptedException error)
+                {
+                    return entities;
+                }
+
+                return null;
+            }));
+        }
+
+        FindEntitiesByPropertyExecutor executor = getExecutor();
+
+        new ParallelFederationControl(userId, cohortConnectors, "test", threadPool).executeCommand(executor);
+
+        /*
+         * The caller receives an exception rather than an empty result, and the results the members
+         * returned after they were cancelled are ignored.
+         */
+        expectThrows(RepositoryErrorException.class, () -> executor.getResults(null));
+
+        Map<String, FederationMemberMetrics> metrics = getMetrics();
+        assertEquals(metrics.get("slow-member-0").getTimeoutCount(), 1);
+        assertEquals(metrics.get("slow-member-1").getTimeoutCount(), 1);
+    }
+
+
+    @Test
+    public void testLateAsynchronousResultsAreIgnored() throws Exception
+    {
+        threadPool = new FederationThreadPool("test", 4, 500);
+
+        /*
+         * The remote member's response is held back until after the request has timed out.  Cancelling
+         * the request does not stop the remote call so its results still reach the executor.
+         */
+        CompletableFuture<List<EntityDetail>> lateResponse     = new CompletableFuture<>();
+        OMRSMetadataCollection                remoteCollection = getMetadataCollection("remote-member");
+        List<OMRSRepositoryConnector>         cohortConnectors = new ArrayList<>();
+
+        when(remoteCollection.supportsAsynchronousQueries()).thenReturn(true);
+        when(remoteCollection.findEntitiesByPropertyAsync(any(), any(), any(), any(), anyInt(), any(), any(), any(), any(), any(), anyInt()))
+                .thenReturn(lateResponse);
+
+        cohortConnectors.add(getMember("fast-member", 3, (metadataCollectionId, entities) -> entities));
+        cohortConnectors.add(getConnector(remoteCollection));
+
+        FindEntitiesByPropertyExecutor executor = getExecutor();
+
+        new ParallelFederationControl(userId, cohortConnectors, "test", threadPool).executeCommand(executor);
+
+        lateResponse.complete(getEntities("remote-member", 5));
+
+        assertEquals(executor.getResults(null).size(), 3);
+        assertEquals(getMetrics().get("remote-member").getTimeoutCount(), 1);
+    }
+
+
+    @Test
+    public void testAsynchronousMembersDoNotHoldWorkerThreads() throws Exception
+    {
+        threadPool = new FederationThreadPool("test", 1, 60000);
+
+        /*
+         * The asynchronous members only respond once all of them have been sent the request.  With a single
+         * worker thread this can only happen if their queries are issued without using the thread pool.
+         */
+        List<Runnable>                pendingResponses = new ArrayList<>();
+        List<OMRSRepositoryConnector> cohortConnectors = new ArrayList<>();
+
+        for (int i = 0; i < 4; i++)
+        {
+            cohortConnectors.add(getAsyncMember("remote-member-" + i, 2, pendingResponses));
+        }
+
+        FindEntitiesByPropertyExecutor executor = getExecutor();
+
+        new ParallelFederationControl(userId, cohortConnectors, "test", threadPool).executeCommand(executor);
+
+        assertEquals(peakRequests.get(), 4);
+        assertEquals(executor.getResults(null).size(), 8);
+
+        Map<String, FederationMemberMetrics> metrics = getMetrics();
+        assertEquals(metrics.size(), 4);
+
+        for (FederationMemberMetrics memberMetrics : metrics.values())
+        {
+            assertEquals(memberMetrics.getRequestCount(), 1);
+            assertEquals(memberMetrics.getTimeoutCount(), 0);
+        }
+    }
+
+
+    @Test
+    public void testRequestsAreRejectedAfterShutdown()
+    {
+        threadPool = new FederationThreadPool("test", 1, 60000);
+        threadPool.shutdown();
+
+        /*
+         * The request must fail rather than be discarded, leaving its future incomplete.
+         */
+        expectThrows(RejectedExecutionException.class, () -> threadPool.submit(() -> true));
+    }
+
+
+    /**
+     * Return the metrics recorded by the thread pool, keyed by metadata collection id.
+     *
+     * @return map of metrics
+     */
+    private Map<String, FederationMemberMetrics> getMetrics()
+    {
+        Map<String, FederationMemberMetrics> metrics = new HashMap<>();
+
+        for (FederationMemberMetrics memberMetrics : threadPool.getAllMemberMetrics())
+        {
+            metrics.put(memberMetrics.getMetadataCollectionId(), memberMetrics);
+        }
+
+        return metrics;
+    }
+
+
+    /**
+     * Return an executor that retrieves all of the test entities from each member.
+     *
+     * @return executor
+     */
+    private FindEntitiesByPropertyExecutor getExecutor()
+    {
+        return new FindEntitiesByPropertyExecutor(userId,
+                                                  entityTypeGUID,
+                                                  new InstanceProperties(),
+                                                  MatchCriteria.ALL,
+                                                  0,
+                                                  null,
+                                                  null,
+                                                  null,
+                                                  null,
+                                                  SequencingOrder.ANY,
+                                                  0,
+                                                  null,
+                                                  null,
+                                                  new OMRSRepositoryContentValidator(new OMRSRepositoryContentManager(null)),
+                                                  "test");
+    }
+
+
+    /**
+     * Create a member repository whose metadata collection answers entity queries synchronously through the
+     * supplied behaviour.
+     *
+     * @param metadataCollectionId unique identifier for the repository
+     * @param entityCount number of entities held by the repository
+     * @param behaviour processing of each query
+     * @return connector
+     * @throws Exception problem setting up the stub
+     */
+    private OMRSRepositoryConnector getMember(String          metadataCollectionId,
+                                              int             entityCount,
+                                              MemberBehaviour behaviour) throws Exception
+    {
+        List<EntityDetail>     entities           = getEntities(metadataCollectionId, entityCount);
+        OMRSMetadataCollection metadataCollection = getMetadataCollection(metadataCollectionId);
+
+        Answer<List<EntityDetail>> query = invocation ->
+        {
+            peakRequests.accumulateAndGet(inFlightRequests.incrementAndGet(), Math::max);
+
+            try
+            {
+                return behaviour.respond(metadataCollectionId, entities);
+            }
+            finally
+            {
+                inFlightRequests.decrementAndGet();
+            }
+        };
+
+        when(metadataCollection.findEntitiesByProperty(any(), any(), any(), any(), anyInt(), any(), any(), any(), any(), any(), anyInt()))
+                .thenAnswer(query);
+
+        return getConnector(metadataCollection);
+    }
+
+
+    /**
+     * Create a member repository whose metadata collection answers entity queries asynchronously.  The
+     * responses are held back until the expected number of members have been sent the request.
+     *
+     * @param metadataCollectionId unique identifier for the repository
+     * @param entityCount number of entities held by the repository
+     * @param pendingResponses responses waiting to be released, shared by the members
+     * @return connector
+     * @throws Exception problem setting up the stub
+     */
+    private OMRSRepositoryConnector getAsyncMember(String          metadataCollectionId,
+                                                   int             entityCount,
+                                                   List<Runnable>  pendingResponses) throws Exception
+    {
+        List<EntityDetail>     entities           = getEntities(metadataCollectionId, entityCount);
+        OMRSMetadataCollection metadataCollection = getMetadataCollection(metadataCollectionId);
+
+        Answer<CompletableFuture<List<EntityDetail>>> query = invocation ->
+        {
+            CompletableFuture<List<EntityDetail>> response = new CompletableFuture<>();
+
+            peakRequests.accumulateAndGet(inFlightRequests.incrementAndGet(), Math::max);
+            response.thenRun(inFlightRequests::decrementAndGet);
+
+            synchronized (pendingResponses)
+            {
+                pendingResponses.add(() -> response.complete(entities));
+
+                if (pendingResponses.size() == 4)
+                {
+                    for (Runnable pendingResponse : pendingResponses)
+                    {
+                        pendingResponse.run();
+                    }
+                }
+            }
+
+            return response;
+        };
+
+        when(metadataCollection.supportsAsynchronousQueries()).thenReturn(true);
+        when(metadataCollection.findEntitiesByPropertyAsync(any(), any(), any(), any(), anyInt(), any(), any(), any(), any(), any(), anyInt()))
+                .thenAnswer(query);
+
+        return getConnector(metadataCollection);
+    }
+
+
+    /**
+     * Return a stub metadata collection that identifies itself with the requested id.
+     *
+     * @param metadataCollectionId unique identifier for the repository
+     * @return stub metadata collection
+     * @throws Exception problem setting up the stub
+     */
+    private OMRSMetadataCollection getMetadataCollection(String   metadataCollectionId) throws Exception
+    {
+        OMRSMetadataCollection metadataCollection = mock(OMRSMetadataCollection.class);
+
+        when(metadataCollection.getMetadataCollectionId(any())).thenReturn(metadataCollectionId);
+
+        return metadataCollection;
+    }
+
+
+    /**
+     * Return a stub connector for the metadata collection.
+     *
+     * @param metadataCollection stub metadata collection
+     * @return stub connector
+     * @throws Exception problem setting up the stub
+     */
+    private OMRSRepositoryConnector getConnector(OMRSMetadataCollection   metadataCollection) throws Exception
+    {
+        OMRSRepositoryConnector connector = mock(OMRSRepositoryConnector.class);
+
+        when(connector.getMetadataCollection()).thenReturn(metadataCollection);
+
+        return connector;
+    }
+
+
+    /**
+     * Return the entities held by a member repository.
+     *
+     * @param metadataCollectionId unique identifier for the repository
+     * @param entityCount number of entities
+     * @return list of entities
+     */
+    private List<EntityDetail> getEntities(String   metadataCollectionId,
+                                           int      entityCount)
+    {
+        List<EntityDetail> entities = new ArrayList<>();
+
+        for (int i = 0; i < entityCount; i++)
+        {
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID(metadataCollectionId + "-entity-" + i);
+            entity.setMetadataCollectionId(metadataCollectionId);
+            entity.setVersion(1L);
+            entities.add(entity);
+        }
+
+        return entities;
+    }
+
+
+    /**
+     * MemberBehaviour describes how a stub member repository processes a synchronous query.
+     */
+    private interface MemberBehaviour
+    {
+        /**
+         * Process a query.
+         *
+         * @param metadataCollectionId unique identifier of the member repository
+         * @param entities entities held by the member
+         * @return entities to return
+         * @throws Exception problem processing the query
+         */
+        List<EntityDetail> respond(String             metadataCollectionId,
+                                   List<EntityDetail> entities) throws Exception;
+    }
+}
@@ -3,13 +3,21 @@
 package org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager;
 
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PagingErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.PropertyErrorException;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
 import java.util.List;
 import java.util.regex.Pattern;
 
@@ -113,6 +121,120 @@ public class OMRSRepositoryHelperTest
 
     }
 
+    @Test
+    void testformatEntityResultsSequencing() throws PropertyErrorException, PagingErrorException {
+        List<EntityDetail> fullResults = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fullResults.add(createEntity(i));
+        }
+        Collections.shuffle(fullResults);
+
+        // test every order, both for a page near the start (selected with a heap) and one near the end (full sort)
+        checkSequencing(fullResults, null, SequencingOrder.GUID,
+                        Comparator.comparing(EntityDetail::getGUID));
+        checkSequencing(fullResults, null, SequencingOrder.CREATION_DATE_OLDEST,
+                        Comparator.comparing(EntityDetail::getCreateTime));
+        checkSequencing(fullResults, null, SequencingOrder.CREATION_DATE_RECENT,
+                        Comparator.comparing(EntityDetail::getCreateTime).reversed());
+        checkSequencing(fullResults, null, SequencingOrder.LAST_UPDATE_OLDEST,
+                        Comparator.comparing(EntityDetail::getUpdateTime));
+        checkSequencing(fullResults, null, SequencingOrder.LAST_UPDATE_RECENT,
+                        Comparator.comparing(EntityDetail::getUpdateTime).reversed());
+        checkSequencing(fullResults, "rank", SequencingOrder.PROPERTY_ASCENDING,
+                        Comparator.comparing(this::getRank));
+        checkSequencing(fullResults, "rank", SequencingOrder.PROPERTY_DESCENDING,
+                        Comparator.comparing(this::getRank).reversed());
+
+        // test that paging with no sequencing still returns each entity once
+        List<String> pagedGUIDs = new ArrayList<>();
+        for (int fromElement = 0; fromElement < fullResults.size(); fromElement += 7) {
+            for (EntityDetail entity : createHelper().formatEntityResults(fullResults,
+                                                                          fromElement,
+                                                                          null,
+                                                                          SequencingOrder.ANY,
+                                                                          7)) {
+                pagedGUIDs.add(entity.getGUID());
+            }
+        }
+        assertEquals(pagedGUIDs.size(), fullResults.size());
+        assertEquals(pagedGUIDs.stream().distinct().count(), (long) fullResults.size());
+
+        // test the page beyond the end of the results
+        assertNull(createHelper().formatEntityResults(fullResults, 100, null, SequencingOrder.GUID, 10));
+    }
+
+    @Test
+    void testSequencingMixedPropertyTypes() {
+        InstanceSequencingComparator<EntityDetail> comparator = new InstanceSequencingComparator<>("rank", SequencingOrder.PROPERTY_ASCENDING);
+
+        EntityDetail int2 = createEntity(1, PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT, 2);
+        EntityDetail int10 = createEntity(2, PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT, 10);
+        EntityDetail string10 = createEntity(3, PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING, "10");
+
+        // values of different types are kept apart so the order is transitive
+        assertTrue(comparator.compare(int2, int10) < 0);
+        assertTrue(comparator.compare(int2, string10) < 0);
+        assertTrue(comparator.compare(int10, string10) < 0);
+        assertTrue(comparator.compare(string10, int2) > 0);
+
+        List<EntityDetail> results = new ArrayList<>();
+        results.add(string10);
+        results.add(int10);
+        results.add(int2);
+        results.sort(comparator);
+        assertEquals(results, Arrays.asList(int2, int10, string10));
+    }
+
+    private void checkSequencing(List<EntityDetail>       fullResults,
+                                 String                   sequencingProperty,
+                                 SequencingOrder          sequencingOrder,
+                                 Comparator<EntityDetail> expectedOrder) throws PropertyErrorException, PagingErrorException {
+        List<EntityDetail> expectedResults = new ArrayList<>(fullResults);
+        expectedResults.sort(expectedOrder);
+
+        int[][] pages = {{0, 5}, {10, 10}, {90, 20}, {0, 0}};
+        for (int[] page : pages) {
+            List<EntityDetail> results = createHelper().formatEntityResults(fullResults,
+                                                                            page[0],
+                                                                            sequencingProperty,
+                                                                            sequencingOrder,
+                                                                            page[1]);
+            int toElement = (page[1] == 0) ? expectedResults.size() : Math.min(expectedResults.size(), page[0] + page[1]);
+            assertEquals(results, expectedResults.subList(page[0], toElement), sequencingOrder + " " + page[0]);
+        }
+    }
+
+    private EntityDetail createEntity(int i) {
+        EntityDetail entity = new EntityDetail();
+        entity.setGUID(String.format("guid-%03d", i));
+        entity.setCreateTime(new Date(1000000L + i * 1000L));
+        entity.setUpdateTime(new Date(5000000L - i * 1000L));
+
+        PrimitivePropertyValue rank = new PrimitivePropertyValue();
+        rank.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_INT);
+        rank.setPrimitiveValue((i * 37) % 101);
+        InstanceProperties properties = new InstanceProperties();
+        properties.setProperty("rank", rank);
+        entity.setProperties(properties);
+        return entity;
+    }
+
+    private EntityDetail createEntity(int i, PrimitiveDefCategory rankCategory, Object rankValue) {
+        EntityDetail entity = createEntity(i);
+
+        PrimitivePropertyValue rank = new PrimitivePropertyValue();
+        rank.setPrimitiveDefCategory(rankCategory);
+        rank.setPrimitiveValue(rankValue);
+        InstanceProperties properties = entity.getProperties();
+        properties.setProperty("rank", rank);
+        entity.setProperties(properties);
+        return entity;
+    }
+
+    private Integer getRank(EntityDetail entity) {
+        return (Integer) ((PrimitivePropertyValue) entity.getProperties().getPropertyValue("rank")).getPrimitiveValue();
+    }
+
     @Test
     void testRegexHelpers() {
 
@@ -85,6 +85,17 @@ public class OpenMetadataTypesArchive
     }
 
 
+    /**
+     * Return the version name used for the types in this archive.
+     *
+     * @return String version name
+     */
+    public String getArchiveVersionName()
+    {
+        return versionName;
+    }
+
+
     /**
      * Returns the open metadata type archive containing all of the standard open metadata types.
      *
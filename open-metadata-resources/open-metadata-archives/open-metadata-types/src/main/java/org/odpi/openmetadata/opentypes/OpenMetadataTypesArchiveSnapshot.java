@@ -0,0 +1,259 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.opentypes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * OpenMetadataTypesArchiveSnapshot returns the open metadata types archive from a snapshot that is generated when
+ * this module is built.  This avoids running the archive builder, and its checks on every type, each time a
+ * server starts.
+ * <p>
+ *     The snapshot is the archive encoded in JSON and compressed.  It is stored with a properties file that
+ *     holds the version of the snapshot format, the version of the open metadata types archive and a checksum
+ *     of the snapshot.  The snapshot is only used if all three match - otherwise the archive is built as before.
+ *     The checksum means a snapshot that has been altered since it was generated is never trusted.
+ * </p>
+ * <p>
+ *     The snapshot is written by the main method of this class, which is called from the module's build.
+ * </p>
+ */
+public class OpenMetadataTypesArchiveSnapshot
+{
+    /*
+     * The snapshot format version is increased whenever the encoding of the snapshot changes.
+     */
+    static final String snapshotVersion      = "1";
+    static final String snapshotFileName     = "OpenMetadataTypes.snapshot";
+    static final String propertiesFileName   = "OpenMetadataTypes.snapshot.properties";
+
+    private static final String snapshotVersionProperty = "snapshotVersion";
+    private static final String archiveVersionProperty  = "archiveVersion";
+    private static final String checksumProperty        = "checksum";
+    private static final String checksumAlgorithm       = "SHA-256";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final OpenMetadataTypesArchive openMetadataTypesArchive = new OpenMetadataTypesArchive();
+    private       boolean                  snapshotLoaded           = false;
+
+
+    /**
+     * Default constructor
+     */
+    public OpenMetadataTypesArchiveSnapshot()
+    {
+    }
+
+
+    /**
+     * Return the unique identifier for this archive.
+     *
+     * @return String guid
+     */
+    public String getArchiveGUID()
+    {
+        return openMetadataTypesArchive.getArchiveGUID();
+    }
+
+
+    /**
+     * Return the open metadata types archive.  It is loaded from the snapshot if there is a valid snapshot
+     * for this version of the archive, otherwise it is built.
+     *
+     * @return populated open metadata archive object
+     */
+    public OpenMetadataArchive getOpenMetadataArchive()
+    {
+        OpenMetadataArchive openMetadataArchive = this.loadSnapshot();
+
+        if (openMetadataArchive != null)
+        {
+            snapshotLoaded = true;
+            return openMetadataArchive;
+        }
+
+        return openMetadataTypesArchive.getOpenMetadataArchive();
+    }
+
+
+    /**
+     * Return whether the last call to getOpenMetadataArchive() returned the archive from the snapshot.
+     *
+     * @return boolean
+     */
+    public boolean isSnapshotLoaded()
+    {
+        return snapshotLoaded;
+    }
+
+
+    /**
+     * Read the snapshot from the classpath and check it against its properties.
+     *
+     * @return archive from the snapshot or null if there is no valid snapshot
+     */
+    private OpenMetadataArchive loadSnapshot()
+    {
+        try
+        {
+            Properties snapshotProperties = new Properties();
+
+            try (InputStream propertiesStream = OpenMetadataTypesArchiveSnapshot.class.getResourceAsStream(propertiesFileName))
+            {
+                if (propertiesStream == null)
+                {
+                    return null;
+                }
+
+                snapshotProperties.load(propertiesStream);
+            }
+
+            if ((! snapshotVersion.equals(snapshotProperties.getProperty(snapshotVersionProperty))) ||
+                (! openMetadataTypesArchive.getArchiveVersionName().equals(snapshotProperties.getProperty(archiveVersionProperty))))
+            {
+                return null;
+            }
+
+            byte[] snapshot;
+
+            try (InputStream snapshotStream = OpenMetadataTypesArchiveSnapshot.class.getResourceAsStream(snapshotFileName))
+            {
+                if (snapshotStream == null)
+                {
+                    return null;
+                }
+
+                snapshot = readFully(snapshotStream);
+            }
+
+            if (! getChecksum(snapshot).equals(snapshotProperties.getProperty(checksumProperty)))
+            {
+                return null;
+            }
+
+            try (InputStream archiveStream = new GZIPInputStream(new ByteArrayInputStream(snapshot)))
+            {
+                return objectMapper.readValue(archiveStream, OpenMetadataArchive.class);
+            }
+        }
+        catch (IOException | NoSuchAlgorithmException error)
+        {
+            return null;
+        }
+    }
+
+
+    /**
+     * Build the archive and write its snapshot and properties to the requested directory.
+     *
+     * @param outputDirectory directory to write the files to
+     * @throws IOException unable to write the files
+     * @throws NoSuchAlgorithmException checksum algorithm is not available
+     */
+    void writeSnapshot(File   outputDirectory) throws IOException, NoSuchAlgorithmException
+    {
+        ByteArrayOutputStream snapshotBytes = new ByteArrayOutputStream();
+
+        try (OutputStream archiveStream = new GZIPOutputStream(snapshotBytes))
+        {
+            objectMapper.writeValue(archiveStream, openMetadataTypesArchive.getOpenMetadataArchive());
+        }
+
+        byte[]     snapshot           = snapshotBytes.toByteArray();
+        Properties snapshotProperties = new Properties();
+
+        snapshotProperties.setProperty(snapshotVersionProperty, snapshotVersion);
+        snapshotProperties.setProperty(archiveVersionProperty, openMetadataTypesArchive.getArchiveVersionName());
+        snapshotProperties.setProperty(checksumProperty, getChecksum(snapshot));
+
+        if ((! outputDirectory.isDirectory()) && (! outputDirectory.mkdirs()))
+        {
+            throw new IOException("Unable to create directory " + outputDirectory);
+        }
+
+        try (OutputStream snapshotStream = new FileOutputStream(new File(outputDirectory, snapshotFileName)))
+        {
+            snapshotStream.write(snapshot);
+        }
+
+        try (OutputStream propertiesStream = new FileOutputStream(new File(outputDirectory, propertiesFileName)))
+        {
+            snapshotProperties.store(propertiesStream, openMetadataTypesArchive.getArchiveGUID());
+        }
+    }
+
+
+    /**
+     * Return the checksum of the snapshot as a hex string.
+     *
+     * @param snapshot content of the snapshot
+     * @return checksum
+     * @throws NoSuchAlgorithmException checksum algorithm is not available
+     */
+    private static String getChecksum(byte[]   snapshot) throws NoSuchAlgorithmException
+    {
+        StringBuilder checksum = new StringBuilder();
+
+        for (byte digestByte : MessageDigest.getInstance(checksumAlgorithm).digest(snapshot))
+        {
+            checksum.append(String.format("%02x", digestByte));
+        }
+
+        return checksum.toString();
+    }
+
+
+    /**
+     * Read the remaining content of a stream.
+     *
+     * @param inputStream stream to read
+     * @return content
+     * @throws IOException unable to read the stream
+     */
+    private static byte[] readFully(InputStream   inputStream) throws IOException
+    {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[]                buffer  = new byte[65536];
+        int                   length;
+
+        while ((length = inputStream.read(buffer)) != -1)
+        {
+            content.write(buffer, 0, length);
+        }
+
+        return content.toByteArray();
+    }
+
+
+    /**
+     * Main program to write the snapshot.  It is called from the build.
+     *
+     * @param args directory to write the snapshot to - this is the directory of this class in the build output
+     * @throws Exception unable to write the snapshot
+     */
+    public static void main(String[] args) throws Exception
+    {
+        if (args.length != 1)
+        {
+            throw new IllegalArgumentException("Usage: OpenMetadataTypesArchiveSnapshot <outputDirectory>");
+        }
+
+        new OpenMetadataTypesArchiveSnapshot().writeSnapshot(new File(args[0]));
+    }
+}
@@ -0,0 +1,52 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.opentypes;
+
+
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+/**
+ * Compare the time taken to load the open metadata types from the snapshot with the time taken to build
+ * them from the code.  This is not part of the unit tests - run it with mvn test -Pbenchmark.
+ */
+public class OpenMetadataTypesArchiveSnapshotBenchmark
+{
+    private static final int warmUpLoadCount = 5;
+    private static final int timedLoadCount  = 20;
+
+
+    @Test
+    public void benchmarkSnapshotLoadTime()
+    {
+        /*
+         * Warm up both paths so the comparison is not dominated by class loading and compilation.
+         */
+        for (int i = 0; i < warmUpLoadCount; i++)
+        {
+            new OpenMetadataTypesArchive().getOpenMetadataArchive();
+            new OpenMetadataTypesArchiveSnapshot().getOpenMetadataArchive();
+        }
+
+        long buildStart = System.nanoTime();
+
+        for (int i = 0; i < timedLoadCount; i++)
+        {
+            new OpenMetadataTypesArchive().getOpenMetadataArchive();
+        }
+
+        long buildTime     = System.nanoTime() - buildStart;
+        long snapshotStart = System.nanoTime();
+
+        for (int i = 0; i < timedLoadCount; i++)
+        {
+            new OpenMetadataTypesArchiveSnapshot().getOpenMetadataArchive();
+        }
+
+        long snapshotTime = System.nanoTime() - snapshotStart;
+
+        Reporter.log("Open metadata types: build " + (buildTime / timedLoadCount / 1000) + "us, snapshot " +
+                             (snapshotTime / timedLoadCount / 1000) + "us per load", true);
+    }
+}
@@ -0,0 +1,84 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.opentypes;
+
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchive;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.archivestore.properties.OpenMetadataArchiveTypeStore;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.AttributeTypeDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDef;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Test that the snapshot of the open metadata types archive matches the archive that is built from the code.
+ * The time taken to load the types each way is measured by OpenMetadataTypesArchiveSnapshotBenchmark.
+ */
+public class OpenMetadataTypesArchiveSnapshotTest
+{
+    @Test
+    public void testSnapshotMatchesArchive()
+    {
+        OpenMetadataTypesArchiveSnapshot snapshot        = new OpenMetadataTypesArchiveSnapshot();
+        OpenMetadataArchive              snapshotArchive = snapshot.getOpenMetadataArchive();
+        OpenMetadataArchive              builtArchive    = new OpenMetadataTypesArchive().getOpenMetadataArchive();
+
+        /*
+         * The snapshot is written to the build output before the tests run.
+         */
+        assertTrue(snapshot.isSnapshotLoaded());
+        assertEquals(snapshot.getArchiveGUID(), builtArchive.getArchiveProperties().getArchiveGUID());
+
+        OpenMetadataArchiveTypeStore snapshotTypes = snapshotArchive.getArchiveTypeStore();
+        OpenMetadataArchiveTypeStore builtTypes    = builtArchive.getArchiveTypeStore();
+
+        assertEquals(getAttributeTypeDefGUIDs(snapshotTypes), getAttributeTypeDefGUIDs(builtTypes));
+        assertEquals(snapshotTypes.getAttributeTypeDefs(), builtTypes.getAttributeTypeDefs());
+        assertEquals(getTypeDefGUIDs(snapshotTypes), getTypeDefGUIDs(builtTypes));
+        assertEquals(snapshotTypes.getNewTypeDefs(), builtTypes.getNewTypeDefs());
+    }
+
+
+    /**
+     * Return the GUIDs of the AttributeTypeDefs in the order they appear in the archive.
+     *
+     * @param typeStore archive type store
+     * @return list of GUIDs
+     */
+    private List<String> getAttributeTypeDefGUIDs(OpenMetadataArchiveTypeStore   typeStore)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (AttributeTypeDef attributeTypeDef : typeStore.getAttributeTypeDefs())
+        {
+            guids.add(attributeTypeDef.getGUID());
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Return the GUIDs of the TypeDefs in the order they appear in the archive.
+     *
+     * @param typeStore archive type store
+     * @return list of GUIDs
+     */
+    private List<String> getTypeDefGUIDs(OpenMetadataArchiveTypeStore   typeStore)
+    {
+        List<String> guids = new ArrayList<>();
+
+        for (TypeDef typeDef : typeStore.getNewTypeDefs())
+        {
+            guids.add(typeDef.getGUID());
+        }
+
+        return guids;
+    }
+}